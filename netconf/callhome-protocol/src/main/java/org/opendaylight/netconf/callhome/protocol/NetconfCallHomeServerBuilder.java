@@ -28,6 +28,7 @@ public class NetconfCallHomeServerBuilder implements Builder<NetconfCallHomeServ
     private EventLoopGroup nettyGroup;
     private NetconfClientSessionNegotiatorFactory negotiationFactory;
     private InetSocketAddress bindAddress;
+    private boolean deferDomParsing;
 
     private final CallHomeAuthorizationProvider authProvider;
     private final CallHomeNetconfSubsystemListener subsystemListener;
@@ -79,6 +80,20 @@ public class NetconfCallHomeServerBuilder implements Builder<NetconfCallHomeServ
         this.bindAddress = bindAddress;
     }
 
+    public boolean isDeferDomParsing() {
+        return deferDomParsing;
+    }
+
+    /**
+     * Set whether messages received by sessions created by the default negotiator factory build their DOM
+     * representation only on demand, see {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}.
+     *
+     * @param deferDomParsing true if DOM parsing of received messages should be deferred
+     */
+    public void setDeferDomParsing(final boolean deferDomParsing) {
+        this.deferDomParsing = deferDomParsing;
+    }
+
     public CallHomeAuthorizationProvider getAuthProvider() {
         return authProvider;
     }
@@ -111,9 +126,10 @@ public class NetconfCallHomeServerBuilder implements Builder<NetconfCallHomeServ
         return SshClient.setUpDefaultClient();
     }
 
-    private static NetconfClientSessionNegotiatorFactory defaultNegotiationFactory() {
-        return new NetconfClientSessionNegotiatorFactory(new HashedWheelTimer(),
-                                                         Optional.absent(), DEFAULT_SESSION_TIMEOUT_MILLIS);
+    private NetconfClientSessionNegotiatorFactory defaultNegotiationFactory() {
+        return new NetconfClientSessionNegotiatorFactory(new HashedWheelTimer(), Optional.absent(),
+            DEFAULT_SESSION_TIMEOUT_MILLIS, NetconfClientSessionNegotiatorFactory.EXI_CLIENT_CAPABILITIES,
+            deferDomParsing);
     }
 
     private static EventLoopGroup defaultNettyGroup() {
@@ -20,6 +20,7 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPrefe
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalFacade;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.api.SchemaRepositoryProvider;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
 
 public class CallHomeTopology extends BaseCallHomeTopology {
 
@@ -35,7 +36,9 @@ public class CallHomeTopology extends BaseCallHomeTopology {
     }
 
     @Override
-    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id) {
-        return new NetconfDeviceSalFacade(id, mountPointService, dataBroker);
+    protected RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(final RemoteDeviceId id,
+                                                                             final NetconfNode node) {
+        return new NetconfDeviceSalFacade(id, mountPointService, dataBroker, getEditConfigBatching(node),
+                getConfigReadCaching(node));
     }
 }
@@ -60,6 +60,7 @@ public class IetfZeroTouchCallHomeServerProvider implements AutoCloseable, DataT
 
     private static final String CALL_HOME_PORT_KEY = "DefaultCallHomePort";
     private int port = 0; // 0 = use default in NetconfCallHomeBuilder
+    private boolean deferDomParsing;
     private final CallhomeStatusReporter statusReporter;
 
     public IetfZeroTouchCallHomeServerProvider(final DataBroker dataBroker,
@@ -94,6 +95,11 @@ public class IetfZeroTouchCallHomeServerProvider implements AutoCloseable, DataT
         }
     }
 
+    public void setDeferDomParsing(final boolean deferDomParsing) {
+        this.deferDomParsing = deferDomParsing;
+        LOG.info("Setting deferred DOM parsing for call home sessions to {}", deferDomParsing);
+    }
+
     private CallHomeAuthorizationProvider getCallHomeAuthorization() {
         return new CallHomeAuthProviderImpl(dataBroker);
     }
@@ -106,6 +112,7 @@ public class IetfZeroTouchCallHomeServerProvider implements AutoCloseable, DataT
         if (port > 0) {
             builder.setBindAddress(new InetSocketAddress(port));
         }
+        builder.setDeferDomParsing(deferDomParsing);
         server = builder.build();
         server.bind();
         mountDispacher.createTopology();
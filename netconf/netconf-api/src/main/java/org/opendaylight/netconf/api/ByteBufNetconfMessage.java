@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api;
+
+import static java.util.Objects.requireNonNull;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * NetconfMessage backed by the serialized form of the message as received from the wire. The DOM representation is
+ * built lazily on first access to {@link #getDocument()}. Consumers able to work with a stream of XML events, such
+ * as XmlParserStream, can use {@link #openStreamReader()} to process the message in a single pass without ever
+ * materializing the DOM.
+ *
+ * <p>
+ * Name of the root element, its message-id attribute and name of the first child element are extracted eagerly, as
+ * they are needed for dispatching and request-reply matching of every message.
+ */
+public final class ByteBufNetconfMessage extends NetconfMessage {
+    private final ByteBuf content;
+    private final String rootName;
+    private final String rootNamespace;
+    private final String messageId;
+    private final String firstChildName;
+
+    private volatile Document document;
+
+    private ByteBufNetconfMessage(final ByteBuf content, final String rootName, final String rootNamespace,
+            final String messageId, final String firstChildName) {
+        this.content = requireNonNull(content);
+        this.rootName = requireNonNull(rootName);
+        this.rootNamespace = rootNamespace;
+        this.messageId = messageId;
+        this.firstChildName = firstChildName;
+    }
+
+    /**
+     * Create a new message from the readable bytes of a buffer. The bytes are copied into a heap buffer, hence the
+     * caller retains ownership of the supplied buffer and the message does not need to be released.
+     *
+     * @param buf buffer holding the serialized message
+     * @return a new message
+     * @throws XMLStreamException if the beginning of the message is not well-formed XML
+     */
+    public static ByteBufNetconfMessage create(final ByteBuf buf) throws XMLStreamException {
+        return wrap(Unpooled.copiedBuffer(buf));
+    }
+
+    /**
+     * Create a new message from the readable bytes of a buffer without copying them. The message takes ownership of
+     * the buffer, which must not be modified afterwards. Since messages are never released, the buffer should not be
+     * pooled.
+     *
+     * @param buf buffer holding the serialized message
+     * @return a new message
+     * @throws XMLStreamException if the beginning of the message is not well-formed XML
+     */
+    public static ByteBufNetconfMessage wrap(final ByteBuf buf) throws XMLStreamException {
+        final ByteBuf content = buf.asReadOnly();
+
+        final XMLStreamReader reader = XmlUtil.createXMLStreamReader(new ByteBufInputStream(content.duplicate()));
+        try {
+            reader.nextTag();
+            final String rootName = reader.getLocalName();
+            final String rootNamespace = reader.getNamespaceURI();
+            final String messageId = reader.getAttributeValue(null, XmlNetconfConstants.MESSAGE_ID);
+
+            String firstChildName = null;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    firstChildName = reader.getLocalName();
+                    break;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+            }
+
+            return new ByteBufNetconfMessage(content, rootName, rootNamespace, messageId, firstChildName);
+        } finally {
+            reader.close();
+        }
+    }
+
+    public String getRootElementName() {
+        return rootName;
+    }
+
+    public String getRootElementNamespace() {
+        return rootNamespace;
+    }
+
+    /**
+     * Return the value of message-id attribute of the root element.
+     *
+     * @return message-id, or null if the attribute is not present
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Return local name of the first child element of the root element.
+     *
+     * @return local name, or null if the root element has no child elements
+     */
+    public String getFirstChildElementName() {
+        return firstChildName;
+    }
+
+    /**
+     * Return a read-only view of the serialized message. Returned buffer has independent indices.
+     *
+     * @return serialized message
+     */
+    public ByteBuf getContent() {
+        return content.duplicate();
+    }
+
+    /**
+     * Check whether the DOM representation of this message has already been built.
+     *
+     * @return true if the DOM has been built
+     */
+    public boolean isDocumentParsed() {
+        return document != null;
+    }
+
+    /**
+     * Open a new reader over the serialized message. The reader is positioned at the start of the document.
+     *
+     * @return a new reader
+     * @throws XMLStreamException if the reader cannot be created
+     */
+    public XMLStreamReader openStreamReader() throws XMLStreamException {
+        return XmlUtil.createXMLStreamReader(new ByteBufInputStream(content.duplicate()));
+    }
+
+    /**
+     * Return the DOM representation of this message, building it on first access.
+     *
+     * @return DOM representation
+     * @throws IllegalStateException if the message is not well-formed XML, which is detected only once its DOM is
+     *                               built
+     */
+    @Override
+    public Document getDocument() {
+        Document local = document;
+        if (local == null) {
+            synchronized (this) {
+                local = document;
+                if (local == null) {
+                    try {
+                        local = XmlUtil.readXmlToDocument(new ByteBufInputStream(content.duplicate()));
+                    } catch (SAXException | IOException e) {
+                        throw new IllegalStateException("Failed to parse message", e);
+                    }
+                    document = local;
+                }
+            }
+        }
+        return local;
+    }
+
+    @Override
+    public String toString() {
+        return content.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.api;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.w3c.dom.Document;
+
+/**
+ * NetconfMessage which knows how to write itself to an {@link XMLStreamWriter}. Encoders recognize such messages
+ * and write them directly to the wire, so no DOM representation is needed to send them. The DOM representation is
+ * built lazily on first access to {@link #getDocument()}.
+ */
+public abstract class WritableNetconfMessage extends NetconfMessage {
+    private static final XMLOutputFactory FACTORY;
+
+    static {
+        FACTORY = XMLOutputFactory.newFactory();
+        FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
+
+    private volatile Document document;
+
+    /**
+     * Return the value of message-id attribute of the root element.
+     *
+     * @return message-id, or null if the message does not have one
+     */
+    public abstract String getMessageId();
+
+    /**
+     * Write the root element of this message, including everything it contains. Implementations must not write
+     * start or end of the document and must not close the writer.
+     *
+     * @param writer writer to use, not repairing namespaces
+     * @throws XMLStreamException if the message cannot be written
+     */
+    public abstract void writeTo(XMLStreamWriter writer) throws XMLStreamException;
+
+    /**
+     * Check whether the DOM representation of this message has already been built.
+     *
+     * @return true if the DOM has been built
+     */
+    public final boolean isDocumentBuilt() {
+        return document != null;
+    }
+
+    @Override
+    public final Document getDocument() {
+        Document local = document;
+        if (local == null) {
+            synchronized (this) {
+                local = document;
+                if (local == null) {
+                    local = XmlUtil.newDocument();
+                    try {
+                        final XMLStreamWriter writer = FACTORY.createXMLStreamWriter(new DOMResult(local));
+                        try {
+                            writeTo(writer);
+                            writer.flush();
+                        } finally {
+                            writer.close();
+                        }
+                    } catch (XMLStreamException e) {
+                        throw new IllegalStateException("Failed to build document of " + getClass().getName(), e);
+                    }
+                    document = local;
+                }
+            }
+        }
+        return local;
+    }
+}
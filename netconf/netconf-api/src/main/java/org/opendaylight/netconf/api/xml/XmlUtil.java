@@ -21,6 +21,9 @@ import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -46,6 +49,17 @@ public final class XmlUtil {
     private static final DocumentBuilderFactory BUILDER_FACTORY;
     private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
     private static final SchemaFactory SCHEMA_FACTORY = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        // Mirror the DOM builder configuration below: no DTDs, no external entities, coalesced text
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        INPUT_FACTORY = factory;
+    }
 
     static {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -116,6 +130,10 @@ public final class XmlUtil {
         return doc;
     }
 
+    public static XMLStreamReader createXMLStreamReader(final InputStream xmlContent) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(xmlContent);
+    }
+
     public static Document newDocument() {
         return DEFAULT_DOM_BUILDER.get().newDocument();
     }
@@ -8,6 +8,9 @@
 
 package org.opendaylight.netconf.client;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.Timer;
 import io.netty.util.concurrent.Future;
@@ -27,17 +30,36 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
     private static final Logger LOG = LoggerFactory.getLogger(NetconfClientDispatcherImpl.class);
 
     private final Timer timer;
+    private final ByteBufAllocator allocator;
 
     public NetconfClientDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup,
                                        final Timer timer) {
+        this(bossGroup, workerGroup, timer, null);
+    }
+
+    /**
+     * Create a dispatcher whose channels allocate buffers from the given allocator.
+     *
+     * @param allocator allocator set on client channels, null to keep the Netty default
+     */
+    public NetconfClientDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup,
+                                       final Timer timer, final ByteBufAllocator allocator) {
         super(bossGroup, workerGroup);
         this.timer = timer;
+        this.allocator = allocator;
     }
 
     protected Timer getTimer() {
         return timer;
     }
 
+    @Override
+    protected void customizeBootstrap(final Bootstrap bootstrap) {
+        if (allocator != null) {
+            bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+        }
+    }
+
     @Override
     public Future<NetconfClientSession> createClient(final NetconfClientConfiguration clientConfiguration) {
         switch (clientConfiguration.getProtocol()) {
@@ -90,15 +112,16 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
         LOG.debug("Creating SSH client with configuration: {}", currentConfiguration);
         return super.createClient(currentConfiguration.getAddress(), currentConfiguration.getReconnectStrategy(),
             (ch, sessionPromise) -> new SshClientChannelInitializer(currentConfiguration.getAuthHandler(),
-                        getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener())
-                        .initialize(ch, sessionPromise));
+                        getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener(),
+                        currentConfiguration.getWriteBufferWaterMark()).initialize(ch, sessionPromise));
     }
 
     private Future<Void> createReconnectingSshClient(
             final NetconfReconnectingClientConfiguration currentConfiguration) {
         LOG.debug("Creating reconnecting SSH client with configuration: {}", currentConfiguration);
         final SshClientChannelInitializer init = new SshClientChannelInitializer(currentConfiguration.getAuthHandler(),
-                getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener());
+                getNegotiatorFactory(currentConfiguration), currentConfiguration.getSessionListener(),
+                currentConfiguration.getWriteBufferWaterMark());
 
         return super.createReconnectingClient(currentConfiguration.getAddress(), currentConfiguration
                 .getConnectStrategyFactory(), currentConfiguration.getReconnectStrategy(),
@@ -129,7 +152,8 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
         final List<Uri> odlHelloCapabilities = cfg.getOdlHelloCapabilities();
         if (odlHelloCapabilities == null || odlHelloCapabilities.isEmpty()) {
             return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
-                    cfg.getConnectionTimeoutMillis());
+                    cfg.getConnectionTimeoutMillis(), NetconfClientSessionNegotiatorFactory.EXI_CLIENT_CAPABILITIES,
+                    cfg.isDeferDomParsing(), cfg.isCompactXml(), cfg.getExiSchema());
         } else {
             // LinkedHashSet since perhaps the device cares about order of hello message capabilities.
             // This allows user control of the order while complying with the existing interface.
@@ -138,7 +162,8 @@ public class NetconfClientDispatcherImpl extends AbstractDispatcher<NetconfClien
                 stringCapabilities.add(uri.getValue());
             }
             return new NetconfClientSessionNegotiatorFactory(timer, cfg.getAdditionalHeader(),
-                    cfg.getConnectionTimeoutMillis(), stringCapabilities);
+                    cfg.getConnectionTimeoutMillis(), stringCapabilities, cfg.isDeferDomParsing(),
+                    cfg.isCompactXml(), cfg.getExiSchema());
         }
     }
 }
@@ -8,10 +8,12 @@
 
 package org.opendaylight.netconf.client;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
+import com.siemens.ct.exi.core.grammars.Grammars;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -31,6 +33,12 @@ import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 import org.opendaylight.netconf.nettyutil.AbstractNetconfSessionNegotiator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfChunkAggregator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfXMLToMessageDecoder;
+import org.opendaylight.netconf.nettyutil.handler.exi.DynamicEXIGrammars;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.exi.NetconfStartExiMessage;
 import org.opendaylight.netconf.util.messages.NetconfMessageUtil;
 import org.opendaylight.netconf.util.xml.XMLNetconfUtil;
@@ -55,13 +63,57 @@ public class NetconfClientSessionNegotiator extends
 
     private static final Interner<Set<String>> INTERNER = Interners.newWeakInterner();
 
+    private final boolean deferDomParsing;
+    private final boolean compactXml;
+
     protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
                                              final Promise<NetconfClientSession> promise,
                                              final Channel channel,
                                              final Timer timer,
                                              final NetconfClientSessionListener sessionListener,
                                              final long connectionTimeoutMillis) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis, false);
+    }
+
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean deferDomParsing) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis, deferDomParsing,
+            false);
+    }
+
+    protected NetconfClientSessionNegotiator(final NetconfClientSessionPreferences sessionPreferences,
+                                             final Promise<NetconfClientSession> promise,
+                                             final Channel channel,
+                                             final Timer timer,
+                                             final NetconfClientSessionListener sessionListener,
+                                             final long connectionTimeoutMillis,
+                                             final boolean deferDomParsing,
+                                             final boolean compactXml) {
         super(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis);
+        this.deferDomParsing = deferDomParsing;
+        this.compactXml = compactXml;
+    }
+
+    @Override
+    protected NetconfChunkAggregator createChunkAggregator() {
+        // Messages parsed lazily are held as a copy anyway, there is no point in holding inbound buffers until the
+        // whole message arrives
+        return new NetconfChunkAggregator(deferDomParsing);
+    }
+
+    @Override
+    protected NetconfXMLToMessageDecoder createMessageDecoder() {
+        return new NetconfXMLToMessageDecoder(deferDomParsing);
+    }
+
+    @Override
+    protected NetconfMessageToXMLEncoder createMessageEncoder() {
+        return new NetconfMessageToXMLEncoder(compactXml);
     }
 
     @SuppressWarnings("checkstyle:IllegalCatch")
@@ -86,7 +138,7 @@ public class NetconfClientSessionNegotiator extends
         final NetconfMessage startExiMessage = sessionPreferences.getStartExiMessage();
         if (shouldUseExi(netconfMessage) && startExiMessage instanceof NetconfStartExiMessage) {
             LOG.debug("Netconf session {} should use exi.", session);
-            tryToInitiateExi(session, (NetconfStartExiMessage) startExiMessage);
+            tryToInitiateExi(session, resolveSchema((NetconfStartExiMessage) startExiMessage, session));
         } else {
             // Exi is not supported, release session immediately
             LOG.debug("Netconf session {} isn't capable of using exi.", session);
@@ -118,6 +170,45 @@ public class NetconfClientSessionNegotiator extends
         });
     }
 
+    /**
+     * Restrict schema requested by start-exi to those the server advertises in its EXI capability and supply grammars
+     * for dynamic schema. These are derived from the data models of the server, so they are available only if this
+     * server, or one advertising the same capabilities, has been connected to before. If the requested schema cannot
+     * be used, fall back to built-in schema, or to no schema at all.
+     */
+    private static NetconfStartExiMessage resolveSchema(final NetconfStartExiMessage startExiMessage,
+            final NetconfClientSession session) {
+        final EXIParameters parameters = startExiMessage.getParameters();
+        if (parameters.getSchema() == EXISchema.NONE) {
+            return startExiMessage;
+        }
+
+        final Set<EXISchema> advertised = EXISchema.advertisedBy(session.getServerCapabilities());
+        if (parameters.getSchema() == EXISchema.DYNAMIC && advertised.contains(EXISchema.DYNAMIC)) {
+            if (!parameters.isDynamicUnresolved()) {
+                return startExiMessage;
+            }
+
+            final Optional<Grammars> grammars = DynamicEXIGrammars.lookup(session.getServerCapabilities());
+            if (grammars.isPresent()) {
+                LOG.debug("Using dynamic EXI grammars {}", grammars.get());
+                return startExiMessage.withParameters(parameters.withDynamicGrammars(grammars.get()));
+            }
+            LOG.debug("Dynamic EXI grammars not available");
+        }
+
+        if (advertised.contains(EXISchema.BUILTIN)) {
+            if (parameters.getSchema() == EXISchema.BUILTIN) {
+                return startExiMessage;
+            }
+            LOG.debug("Using built-in EXI schema instead of {}", parameters.getSchema());
+            return startExiMessage.withParameters(parameters.withSchema(EXISchema.BUILTIN));
+        }
+
+        LOG.debug("Server does not advertise {} EXI schema, not using any", parameters.getSchema());
+        return startExiMessage.withParameters(parameters.withSchema(EXISchema.NONE));
+    }
+
     @SuppressFBWarnings("BC_UNCONFIRMED_CAST")
     private boolean shouldUseExi(final NetconfHelloMessage helloMsg) {
         return containsExi10Capability(helloMsg.getDocument())
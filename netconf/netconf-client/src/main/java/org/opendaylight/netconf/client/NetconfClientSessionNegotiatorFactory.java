@@ -24,6 +24,7 @@ import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.exi.NetconfStartExiMessage;
 import org.opendaylight.protocol.framework.SessionListenerFactory;
 import org.opendaylight.protocol.framework.SessionNegotiator;
@@ -72,6 +73,8 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
     private final long connectionTimeoutMillis;
     private final Timer timer;
     private final EXIParameters options;
+    private final boolean deferDomParsing;
+    private final boolean compactXml;
 
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
@@ -86,6 +89,45 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
 
     }
 
+    /**
+     * Create a new factory using default EXI options. If deferDomParsing is set, sessions emit messages which build
+     * their DOM representation only on demand, see {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}.
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean deferDomParsing) {
+        this(timer, additionalHeader, connectionTimeoutMillis, capabilities, deferDomParsing, false);
+    }
+
+    /**
+     * Create a new factory using default EXI options. If deferDomParsing is set, sessions emit messages which build
+     * their DOM representation only on demand, see {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}. If
+     * compactXml is set, sessions serialize outgoing messages without indentation.
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean deferDomParsing, final boolean compactXml) {
+        this(timer, additionalHeader, connectionTimeoutMillis, capabilities, deferDomParsing, compactXml,
+            EXISchema.NONE);
+    }
+
+    /**
+     * Create a new factory using default EXI options with the specified schema, which is requested only from servers
+     * advertising support for it. If deferDomParsing is set, sessions emit messages which build their DOM
+     * representation only on demand, see {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}. If compactXml is
+     * set, sessions serialize outgoing messages without indentation.
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final Set<String> capabilities,
+                                                 final boolean deferDomParsing, final boolean compactXml,
+                                                 final EXISchema exiSchema) {
+        this(timer, additionalHeader, connectionTimeoutMillis, DEFAULT_OPTIONS.withSchema(exiSchema), capabilities,
+            deferDomParsing, compactXml);
+    }
+
     public NetconfClientSessionNegotiatorFactory(final Timer timer,
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final EXIParameters exiOptions) {
@@ -96,11 +138,37 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
                                                  final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
                                                  final long connectionTimeoutMillis, final EXIParameters exiOptions,
                                                  final Set<String> capabilities) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, false);
+    }
+
+    /**
+     * Create a new factory. If deferDomParsing is set, sessions emit messages which build their DOM representation
+     * only on demand, see {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}.
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiOptions,
+                                                 final Set<String> capabilities, final boolean deferDomParsing) {
+        this(timer, additionalHeader, connectionTimeoutMillis, exiOptions, capabilities, deferDomParsing, false);
+    }
+
+    /**
+     * Create a new factory. If deferDomParsing is set, sessions emit messages which build their DOM representation
+     * only on demand, see {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}. If compactXml is set, sessions
+     * serialize outgoing messages without indentation.
+     */
+    public NetconfClientSessionNegotiatorFactory(final Timer timer,
+                                                 final Optional<NetconfHelloMessageAdditionalHeader> additionalHeader,
+                                                 final long connectionTimeoutMillis, final EXIParameters exiOptions,
+                                                 final Set<String> capabilities, final boolean deferDomParsing,
+                                                 final boolean compactXml) {
         this.timer = requireNonNull(timer);
         this.additionalHeader = additionalHeader;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.options = exiOptions;
         this.clientCapabilities = capabilities;
+        this.deferDomParsing = deferDomParsing;
+        this.compactXml = compactXml;
     }
 
     @Override
@@ -113,6 +181,7 @@ public class NetconfClientSessionNegotiatorFactory implements SessionNegotiatorF
 
         NetconfClientSessionPreferences proposal = new NetconfClientSessionPreferences(helloMessage, startExiMessage);
         return new NetconfClientSessionNegotiator(proposal, promise, channel, timer,
-                sessionListenerFactory.getSessionListener(), connectionTimeoutMillis);
+                sessionListenerFactory.getSessionListener(), connectionTimeoutMillis, deferDomParsing,
+                compactXml);
     }
 }
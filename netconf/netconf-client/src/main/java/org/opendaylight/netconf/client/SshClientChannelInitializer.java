@@ -8,29 +8,41 @@
 package org.opendaylight.netconf.client;
 
 import io.netty.channel.Channel;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.util.concurrent.Promise;
 import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandlerWriter;
 
 final class SshClientChannelInitializer extends AbstractChannelInitializer<NetconfClientSession> {
 
     private final AuthenticationHandler authenticationHandler;
     private final NetconfClientSessionNegotiatorFactory negotiatorFactory;
     private final NetconfClientSessionListener sessionListener;
+    private final WriteBufferWaterMark writeWaterMark;
 
     SshClientChannelInitializer(final AuthenticationHandler authHandler,
                                 final NetconfClientSessionNegotiatorFactory negotiatorFactory,
                                 final NetconfClientSessionListener sessionListener) {
+        this(authHandler, negotiatorFactory, sessionListener, AsyncSshHandlerWriter.DEFAULT_WATER_MARK);
+    }
+
+    SshClientChannelInitializer(final AuthenticationHandler authHandler,
+                                final NetconfClientSessionNegotiatorFactory negotiatorFactory,
+                                final NetconfClientSessionListener sessionListener,
+                                final WriteBufferWaterMark writeWaterMark) {
         this.authenticationHandler = authHandler;
         this.negotiatorFactory = negotiatorFactory;
         this.sessionListener = sessionListener;
+        this.writeWaterMark = writeWaterMark;
     }
 
     @Override
     public void initialize(final Channel ch, final Promise<NetconfClientSession> promise) {
         // ssh handler has to be the first handler in pipeline
-        ch.pipeline().addFirst(AsyncSshHandler.createForNetconfSubsystem(authenticationHandler, promise));
+        ch.pipeline().addFirst(AsyncSshHandler.createForNetconfSubsystem(authenticationHandler, promise,
+            writeWaterMark));
         super.initialize(ch, promise);
     }
 
@@ -11,11 +11,13 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import io.netty.channel.WriteBufferWaterMark;
 import java.net.InetSocketAddress;
 import java.util.List;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.client.SslHandlerFactory;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.protocol.framework.ReconnectStrategy;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
@@ -40,13 +42,20 @@ public class NetconfClientConfiguration {
 
     private final List<Uri> odlHelloCapabilities;
 
+    private final boolean deferDomParsing;
+    private final boolean compactXml;
+    private final EXISchema exiSchema;
+    private final WriteBufferWaterMark writeBufferWaterMark;
+
     NetconfClientConfiguration(final NetconfClientProtocol protocol, final InetSocketAddress address,
                                final Long connectionTimeoutMillis,
                                final NetconfHelloMessageAdditionalHeader additionalHeader,
                                final NetconfClientSessionListener sessionListener,
                                final ReconnectStrategy reconnectStrategy, final AuthenticationHandler authHandler,
                                final SslHandlerFactory sslHandlerFactory,
-                               final List<Uri> odlHelloCapabilities) {
+                               final List<Uri> odlHelloCapabilities, final boolean deferDomParsing,
+                               final boolean compactXml, final EXISchema exiSchema,
+                               final WriteBufferWaterMark writeBufferWaterMark) {
         this.address = address;
         this.connectionTimeoutMillis = connectionTimeoutMillis;
         this.additionalHeader = additionalHeader;
@@ -56,6 +65,10 @@ public class NetconfClientConfiguration {
         this.authHandler = authHandler;
         this.sslHandlerFactory = sslHandlerFactory;
         this.odlHelloCapabilities = odlHelloCapabilities;
+        this.deferDomParsing = deferDomParsing;
+        this.compactXml = compactXml;
+        this.exiSchema = exiSchema;
+        this.writeBufferWaterMark = writeBufferWaterMark;
         validateConfiguration();
     }
 
@@ -95,8 +108,49 @@ public class NetconfClientConfiguration {
         return odlHelloCapabilities;
     }
 
+    /**
+     * Check whether messages received by the session build their DOM representation only on demand, see
+     * {@link org.opendaylight.netconf.api.ByteBufNetconfMessage}.
+     *
+     * @return true if DOM parsing of received messages is deferred
+     */
+    public boolean isDeferDomParsing() {
+        return deferDomParsing;
+    }
+
+    /**
+     * Check whether the session serializes outgoing XML messages without indentation.
+     *
+     * @return true if outgoing XML messages are not indented
+     */
+    public boolean isCompactXml() {
+        return compactXml;
+    }
+
+    /**
+     * Return the schema requested when the session switches to EXI encoding. The server may not support it, in which
+     * case a simpler schema is used.
+     *
+     * @return requested EXI schema
+     */
+    public EXISchema getExiSchema() {
+        return exiSchema;
+    }
+
+    /**
+     * Return the bounds of outbound data held back by the SSH transport, at which the session is marked not writable
+     * and writable again. Other transports do not hold data back.
+     *
+     * @return write buffer water marks
+     */
+    public WriteBufferWaterMark getWriteBufferWaterMark() {
+        return writeBufferWaterMark;
+    }
+
     private void validateConfiguration() {
         Preconditions.checkNotNull(clientProtocol, " ");
+        Preconditions.checkNotNull(exiSchema, "exiSchema");
+        Preconditions.checkNotNull(writeBufferWaterMark, "writeBufferWaterMark");
         switch (clientProtocol) {
             case TLS:
                 validateTlsConfiguration();
@@ -144,7 +198,11 @@ public class NetconfClientConfiguration {
                 .add("reconnectStrategy", reconnectStrategy)
                 .add("clientProtocol", clientProtocol)
                 .add("authHandler", authHandler)
-                .add("sslHandlerFactory", sslHandlerFactory);
+                .add("sslHandlerFactory", sslHandlerFactory)
+                .add("deferDomParsing", deferDomParsing)
+                .add("compactXml", compactXml)
+                .add("exiSchema", exiSchema)
+                .add("writeBufferWaterMark", writeBufferWaterMark);
     }
 
     public enum NetconfClientProtocol {
@@ -7,12 +7,15 @@
  */
 package org.opendaylight.netconf.client.conf;
 
+import io.netty.channel.WriteBufferWaterMark;
 import java.net.InetSocketAddress;
 import java.util.List;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.client.SslHandlerFactory;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandlerWriter;
 import org.opendaylight.protocol.framework.ReconnectStrategy;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
 
@@ -31,7 +34,10 @@ public class NetconfClientConfigurationBuilder {
     private NetconfClientConfiguration.NetconfClientProtocol clientProtocol = DEFAULT_CLIENT_PROTOCOL;
     private SslHandlerFactory sslHandlerFactory;
     private List<Uri> odlHelloCapabilities;
-
+    private boolean deferDomParsing;
+    private boolean compactXml;
+    private EXISchema exiSchema = EXISchema.NONE;
+    private WriteBufferWaterMark writeBufferWaterMark = AsyncSshHandlerWriter.DEFAULT_WATER_MARK;
 
     protected NetconfClientConfigurationBuilder() {
     }
@@ -96,6 +102,30 @@ public class NetconfClientConfigurationBuilder {
         return this;
     }
 
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withDeferDomParsing(final boolean deferDomParsing) {
+        this.deferDomParsing = deferDomParsing;
+        return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withCompactXml(final boolean compactXml) {
+        this.compactXml = compactXml;
+        return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withExiSchema(final EXISchema exiSchema) {
+        this.exiSchema = exiSchema;
+        return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenField")
+    public NetconfClientConfigurationBuilder withWriteBufferWaterMark(final WriteBufferWaterMark writeBufferWaterMark) {
+        this.writeBufferWaterMark = writeBufferWaterMark;
+        return this;
+    }
+
     final InetSocketAddress getAddress() {
         return address;
     }
@@ -132,8 +162,25 @@ public class NetconfClientConfigurationBuilder {
         return odlHelloCapabilities;
     }
 
+    final boolean isDeferDomParsing() {
+        return deferDomParsing;
+    }
+
+    final boolean isCompactXml() {
+        return compactXml;
+    }
+
+    final EXISchema getExiSchema() {
+        return exiSchema;
+    }
+
+    final WriteBufferWaterMark getWriteBufferWaterMark() {
+        return writeBufferWaterMark;
+    }
+
     public NetconfClientConfiguration build() {
         return new NetconfClientConfiguration(clientProtocol, address, connectionTimeoutMillis, additionalHeader,
-                sessionListener, reconnectStrategy, authHandler, sslHandlerFactory, odlHelloCapabilities);
+                sessionListener, reconnectStrategy, authHandler, sslHandlerFactory, odlHelloCapabilities,
+                deferDomParsing, compactXml, exiSchema, writeBufferWaterMark);
     }
 }
@@ -9,11 +9,13 @@ package org.opendaylight.netconf.client.conf;
 
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.base.Preconditions;
+import io.netty.channel.WriteBufferWaterMark;
 import java.net.InetSocketAddress;
 import java.util.List;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.client.SslHandlerFactory;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.protocol.framework.ReconnectStrategy;
 import org.opendaylight.protocol.framework.ReconnectStrategyFactory;
@@ -31,9 +33,13 @@ public final class NetconfReconnectingClientConfiguration extends NetconfClientC
                                            final ReconnectStrategyFactory connectStrategyFactory,
                                            final AuthenticationHandler authHandler,
                                            final SslHandlerFactory sslHandlerFactory,
-                                           final List<Uri> odlHelloCapabilities) {
+                                           final List<Uri> odlHelloCapabilities,
+                                           final boolean deferDomParsing, final boolean compactXml,
+                                           final EXISchema exiSchema,
+                                           final WriteBufferWaterMark writeBufferWaterMark) {
         super(clientProtocol, address, connectionTimeoutMillis, additionalHeader, sessionListener, reconnectStrategy,
-                authHandler, sslHandlerFactory, odlHelloCapabilities);
+                authHandler, sslHandlerFactory, odlHelloCapabilities, deferDomParsing, compactXml, exiSchema,
+                writeBufferWaterMark);
         this.connectStrategyFactory = connectStrategyFactory;
         validateReconnectConfiguration();
     }
@@ -7,11 +7,13 @@
  */
 package org.opendaylight.netconf.client.conf;
 
+import io.netty.channel.WriteBufferWaterMark;
 import java.net.InetSocketAddress;
 import java.util.List;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.client.SslHandlerFactory;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.protocol.framework.ReconnectStrategy;
 import org.opendaylight.protocol.framework.ReconnectStrategyFactory;
@@ -39,7 +41,8 @@ public final class NetconfReconnectingClientConfigurationBuilder extends Netconf
     public NetconfReconnectingClientConfiguration build() {
         return new NetconfReconnectingClientConfiguration(getProtocol(), getAddress(), getConnectionTimeoutMillis(),
                 getAdditionalHeader(), getSessionListener(), getReconnectStrategy(), connectStrategyFactory,
-                getAuthHandler(), getSslHandlerFactory(), getOdlHelloCapabilities());
+                getAuthHandler(), getSslHandlerFactory(), getOdlHelloCapabilities(), isDeferDomParsing(),
+                isCompactXml(), getExiSchema(), getWriteBufferWaterMark());
     }
 
     // Override setter methods to return subtype
@@ -95,4 +98,25 @@ public final class NetconfReconnectingClientConfigurationBuilder extends Netconf
     public NetconfReconnectingClientConfigurationBuilder withOdlHelloCapabilities(List<Uri> odlHelloCapabilities) {
         return (NetconfReconnectingClientConfigurationBuilder) super.withOdlHelloCapabilities(odlHelloCapabilities);
     }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withDeferDomParsing(final boolean deferDomParsing) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withDeferDomParsing(deferDomParsing);
+    }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withCompactXml(final boolean compactXml) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withCompactXml(compactXml);
+    }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withExiSchema(final EXISchema exiSchema) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withExiSchema(exiSchema);
+    }
+
+    @Override
+    public NetconfReconnectingClientConfigurationBuilder withWriteBufferWaterMark(
+            final WriteBufferWaterMark writeBufferWaterMark) {
+        return (NetconfReconnectingClientConfigurationBuilder) super.withWriteBufferWaterMark(writeBufferWaterMark);
+    }
 }
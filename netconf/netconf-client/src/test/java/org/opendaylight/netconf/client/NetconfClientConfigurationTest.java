@@ -36,6 +36,7 @@ public class NetconfClientConfigurationTest {
                 .withReconnectStrategy(strategy)
                 .withAdditionalHeader(header)
                 .withSessionListener(listener)
+                .withCompactXml(true)
                 .withAuthHandler(handler).build();
 
         Assert.assertEquals(timeout, cfg.getConnectionTimeoutMillis());
@@ -45,6 +46,7 @@ public class NetconfClientConfigurationTest {
         Assert.assertEquals(strategy, cfg.getReconnectStrategy());
         Assert.assertEquals(NetconfClientConfiguration.NetconfClientProtocol.SSH, cfg.getProtocol());
         Assert.assertEquals(address, cfg.getAddress());
+        Assert.assertTrue(cfg.isCompactXml());
 
         SslHandlerFactory sslHandlerFactory = Mockito.mock(SslHandlerFactory.class);
         NetconfClientConfiguration cfg2 = NetconfClientConfigurationBuilder.create()
@@ -9,11 +9,17 @@
 package org.opendaylight.netconf.client;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoopGroup;
 import io.netty.util.HashedWheelTimer;
@@ -112,4 +118,17 @@ public class NetconfClientDispatcherImplTest {
         assertNotNull(tlsSession);
         assertNotNull(tlsReconn);
     }
+
+    @Test
+    public void testChannelAllocator() {
+        final EventLoopGroup group = Mockito.mock(EventLoopGroup.class);
+        final ByteBufAllocator allocator = new PooledByteBufAllocator();
+        final Bootstrap bootstrap = new Bootstrap();
+        new NetconfClientDispatcherImpl(group, group, new HashedWheelTimer(), allocator).customizeBootstrap(bootstrap);
+        assertSame(allocator, bootstrap.config().options().get(ChannelOption.ALLOCATOR));
+
+        final Bootstrap defaultBootstrap = new Bootstrap();
+        new NetconfClientDispatcherImpl(group, group, new HashedWheelTimer()).customizeBootstrap(defaultBootstrap);
+        assertNull(defaultBootstrap.config().options().get(ChannelOption.ALLOCATOR));
+    }
 }
@@ -8,8 +8,11 @@
 
 package org.opendaylight.netconf.impl;
 
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.local.LocalServerChannel;
@@ -24,11 +27,30 @@ public class NetconfServerDispatcherImpl extends AbstractDispatcher<NetconfServe
         NetconfServerSessionListener> implements NetconfServerDispatcher {
 
     private final ServerChannelInitializer initializer;
+    private final ByteBufAllocator allocator;
 
     public NetconfServerDispatcherImpl(ServerChannelInitializer serverChannelInitializer, EventLoopGroup bossGroup,
                                        EventLoopGroup workerGroup) {
+        this(serverChannelInitializer, bossGroup, workerGroup, null);
+    }
+
+    /**
+     * Create a dispatcher whose accepted channels allocate buffers from the given allocator.
+     *
+     * @param allocator allocator set on accepted channels, null to keep the Netty default
+     */
+    public NetconfServerDispatcherImpl(ServerChannelInitializer serverChannelInitializer, EventLoopGroup bossGroup,
+                                       EventLoopGroup workerGroup, ByteBufAllocator allocator) {
         super(bossGroup, workerGroup);
         this.initializer = serverChannelInitializer;
+        this.allocator = allocator;
+    }
+
+    @Override
+    protected void customizeBootstrap(ServerBootstrap bootstrap) {
+        if (allocator != null) {
+            bootstrap.childOption(ChannelOption.ALLOCATOR, allocator);
+        }
     }
 
     @Override
@@ -56,6 +56,7 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
 
     private final NetconfHelloMessageAdditionalHeader header;
     private final NetconfServerSessionListener sessionListener;
+    private final boolean compactXml;
 
     private ZonedDateTime loginTime;
     private long inRpcSuccess;
@@ -66,9 +67,16 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
 
     public NetconfServerSession(final NetconfServerSessionListener sessionListener, final Channel channel,
                                 final long sessionId, final NetconfHelloMessageAdditionalHeader header) {
+        this(sessionListener, channel, sessionId, header, false);
+    }
+
+    public NetconfServerSession(final NetconfServerSessionListener sessionListener, final Channel channel,
+                                final long sessionId, final NetconfHelloMessageAdditionalHeader header,
+                                final boolean compactXml) {
         super(sessionListener, channel, sessionId);
         this.header = header;
         this.sessionListener = sessionListener;
+        this.compactXml = compactXml;
         LOG.debug("Session {} created", toString());
     }
 
@@ -179,6 +187,6 @@ public final class NetconfServerSession extends AbstractNetconfSession<NetconfSe
     @Override
     public void stopExiCommunication() {
         replaceMessageDecoder(new NetconfXMLToMessageDecoder());
-        replaceMessageEncoderAfterNextMessage(new NetconfMessageToXMLEncoder());
+        replaceMessageEncoderAfterNextMessage(new NetconfMessageToXMLEncoder(compactXml));
     }
 }
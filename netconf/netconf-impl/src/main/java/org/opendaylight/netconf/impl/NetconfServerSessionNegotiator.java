@@ -23,6 +23,7 @@ import org.opendaylight.netconf.api.NetconfServerSessionPreferences;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessage;
 import org.opendaylight.netconf.api.messages.NetconfHelloMessageAdditionalHeader;
 import org.opendaylight.netconf.nettyutil.AbstractNetconfSessionNegotiator;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,13 +35,29 @@ public class NetconfServerSessionNegotiator
 
     private static final String UNKNOWN = "unknown";
 
+    private final boolean compactXml;
+
     protected NetconfServerSessionNegotiator(
             NetconfServerSessionPreferences sessionPreferences,
             Promise<NetconfServerSession> promise, Channel channel,
             Timer timer, NetconfServerSessionListener sessionListener,
             long connectionTimeoutMillis) {
+        this(sessionPreferences, promise, channel, timer, sessionListener, connectionTimeoutMillis, false);
+    }
+
+    protected NetconfServerSessionNegotiator(
+            NetconfServerSessionPreferences sessionPreferences,
+            Promise<NetconfServerSession> promise, Channel channel,
+            Timer timer, NetconfServerSessionListener sessionListener,
+            long connectionTimeoutMillis, boolean compactXml) {
         super(sessionPreferences, promise, channel, timer, sessionListener,
                 connectionTimeoutMillis);
+        this.compactXml = compactXml;
+    }
+
+    @Override
+    protected NetconfMessageToXMLEncoder createMessageEncoder() {
+        return new NetconfMessageToXMLEncoder(compactXml);
     }
 
     @Override
@@ -76,7 +93,7 @@ public class NetconfServerSessionNegotiator
                 parsedHeader, additionalHeader);
 
         return new NetconfServerSession(sessionListener, channel,
-                getSessionPreferences().getSessionId(), parsedHeader);
+                getSessionPreferences().getSessionId(), parsedHeader, compactXml);
     }
 
     /**
@@ -50,12 +50,25 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
     private final NetconfMonitoringService monitoringService;
     private static final Logger LOG = LoggerFactory.getLogger(NetconfServerSessionNegotiatorFactory.class);
     private final Set<String> baseCapabilities;
+    private final boolean compactXml;
 
     public NetconfServerSessionNegotiatorFactory(final Timer timer,
                                                  final NetconfOperationServiceFactory netconfOperationProvider,
                                                  final SessionIdProvider idProvider, final long connectionTimeoutMillis,
                                                  final NetconfMonitoringService monitoringService,
                                                  final Set<String> baseCapabilities) {
+        this(timer, netconfOperationProvider, idProvider, connectionTimeoutMillis, monitoringService,
+            baseCapabilities, false);
+    }
+
+    /**
+     * Create a new factory. If compactXml is set, sessions serialize outgoing messages without indentation.
+     */
+    public NetconfServerSessionNegotiatorFactory(final Timer timer,
+                                                 final NetconfOperationServiceFactory netconfOperationProvider,
+                                                 final SessionIdProvider idProvider, final long connectionTimeoutMillis,
+                                                 final NetconfMonitoringService monitoringService,
+                                                 final Set<String> baseCapabilities, final boolean compactXml) {
         this.timer = timer;
         this.aggregatedOpService = netconfOperationProvider;
         this.idProvider = idProvider;
@@ -63,6 +76,7 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
         this.monitoringService = monitoringService;
         this.baseCapabilities = validateBaseCapabilities(baseCapabilities == null ? DEFAULT_BASE_CAPABILITIES :
                 baseCapabilities);
+        this.compactXml = compactXml;
     }
 
 
@@ -101,7 +115,8 @@ public class NetconfServerSessionNegotiatorFactory implements SessionNegotiatorF
             new NetconfServerSessionPreferences(createHelloMessage(sessionId, monitoringService), sessionId);
 
         return new NetconfServerSessionNegotiator(proposal, promise, channel, timer,
-                getListener(Long.toString(sessionId), channel.parent().localAddress()), connectionTimeoutMillis);
+                getListener(Long.toString(sessionId), channel.parent().localAddress()), connectionTimeoutMillis,
+                compactXml);
     }
 
     private NetconfServerSessionListener getListener(final String netconfSessionIdForReporting,
@@ -36,6 +36,8 @@ import org.slf4j.LoggerFactory;
 public class NetconfImplActivator implements BundleActivator {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfImplActivator.class);
+    // Framework property making the local server serialize XML messages without indentation
+    private static final String COMPACT_XML_PROPERTY = "netconf.compact-xml";
 
     private NetconfOperationServiceFactoryTracker factoriesTracker;
     private NioEventLoopGroup eventLoopGroup;
@@ -65,6 +67,7 @@ public class NetconfImplActivator implements BundleActivator {
                             .setIdProvider(idProvider)
                             .setMonitoringService(monitoringService)
                             .setConnectionTimeoutMillis(connectionTimeoutMillis)
+                            .setCompactXml(Boolean.parseBoolean(context.getProperty(COMPACT_XML_PROPERTY)))
                             .build();
 
             eventLoopGroup = new NioEventLoopGroup();
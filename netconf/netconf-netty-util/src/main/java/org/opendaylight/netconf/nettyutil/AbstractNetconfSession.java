@@ -7,15 +7,21 @@
  */
 package org.opendaylight.netconf.nettyutil;
 
+import static java.util.Objects.requireNonNull;
+
 import com.siemens.ct.exi.core.exceptions.EXIException;
 import com.siemens.ct.exi.core.exceptions.UnsupportedOption;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.MessageToByteEncoder;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Consumer;
 import org.opendaylight.netconf.api.NetconfExiSession;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfSession;
@@ -26,6 +32,8 @@ import org.opendaylight.netconf.nettyutil.handler.NetconfEXICodec;
 import org.opendaylight.netconf.nettyutil.handler.NetconfEXIToMessageDecoder;
 import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToEXIEncoder;
 import org.opendaylight.netconf.nettyutil.handler.exi.EXIParameters;
+import org.opendaylight.netconf.nettyutil.handler.exi.NetconfStartExiMessage;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandler;
 import org.opendaylight.protocol.framework.AbstractProtocolSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +49,9 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
 
     private final Channel channel;
 
+    // Tasks waiting for the channel to become writable, accessed from the event loop only
+    private final Queue<WritableTask> writableTasks = new ArrayDeque<>();
+
     protected AbstractNetconfSession(final L sessionListener, final Channel channel, final long sessionId) {
         this.sessionListener = sessionListener;
         this.channel = channel;
@@ -53,6 +64,7 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
     @Override
     public void close() {
         channel.close();
+        channel.eventLoop().execute(() -> failWritableTasks(new IllegalStateException("Session closed")));
         up = false;
         sessionListener.onSessionTerminated(thisInstance(), new NetconfTerminationReason("Session closed"));
     }
@@ -90,6 +102,7 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
     protected void endOfInput() {
         LOG.debug("Session {} end of input detected while session was in state {}", toString(), isUp() ? "up"
                 : "initialized");
+        failWritableTasks(new IllegalStateException("Session is down"));
         if (isUp()) {
             this.sessionListener.onSessionDown(thisInstance(),
                     new IOException("End of input detected. Close the session."));
@@ -131,11 +144,16 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
     @Override
     public final void startExiCommunication(final NetconfMessage startExiMessage) {
         final EXIParameters exiParams;
-        try {
-            exiParams = EXIParameters.fromXmlElement(XmlElement.fromDomDocument(startExiMessage.getDocument()));
-        } catch (final UnsupportedOption e) {
-            LOG.warn("Unable to parse EXI parameters from {} on session {}", startExiMessage, this, e);
-            throw new IllegalArgumentException("Cannot parse options", e);
+        if (startExiMessage instanceof NetconfStartExiMessage) {
+            // Our own request, parameters may carry grammars which cannot be recovered from the message
+            exiParams = ((NetconfStartExiMessage) startExiMessage).getParameters();
+        } else {
+            try {
+                exiParams = EXIParameters.fromXmlElement(XmlElement.fromDomDocument(startExiMessage.getDocument()));
+            } catch (final UnsupportedOption e) {
+                LOG.warn("Unable to parse EXI parameters from {} on session {}", startExiMessage, this, e);
+                throw new IllegalArgumentException("Cannot parse options", e);
+            }
         }
 
         final NetconfEXICodec exiCodec = NetconfEXICodec.forParameters(exiParams);
@@ -164,7 +182,89 @@ public abstract class AbstractNetconfSession<S extends NetconfSession,L extends
         return up;
     }
 
+    /**
+     * Check whether the underlying channel accepts more outbound messages without queueing them excessively. Messages
+     * sent while the session is not writable are still delivered, but callers issuing requests at their own pace
+     * should hold off until it becomes writable again.
+     *
+     * @return true if the channel is writable
+     */
+    public boolean isWritable() {
+        return channel.isWritable();
+    }
+
+    /**
+     * Run a task on the event loop of the underlying channel once the channel is writable, see {@link #isWritable()}.
+     * Tasks run in the order they were submitted. If the session goes down before the channel becomes writable, the
+     * task does not run and the failure callback is invoked instead.
+     *
+     * @param task task to run
+     * @param onFailure callback invoked on the event loop if the task cannot run
+     */
+    public void whenWritable(final Runnable task, final Consumer<Throwable> onFailure) {
+        final WritableTask writableTask = new WritableTask(task, onFailure);
+        channel.eventLoop().execute(() -> {
+            if (!channel.isOpen()) {
+                writableTask.onFailure.accept(new IllegalStateException("Session is down"));
+                return;
+            }
+            writableTasks.add(writableTask);
+            runWritableTasks();
+        });
+    }
+
+    /**
+     * Return the number of outbound messages waiting for the underlying transport to accept them. Only SSH transport
+     * holds messages back, other transports report 0.
+     *
+     * @return number of pending writes
+     */
+    public int getPendingWriteCount() {
+        final AsyncSshHandler sshHandler = channel.pipeline().get(AsyncSshHandler.class);
+        return sshHandler == null ? 0 : sshHandler.getPendingWriteCount();
+    }
+
+    /**
+     * Return the number of bytes waiting for the underlying transport to accept them, see
+     * {@link #getPendingWriteCount()}.
+     *
+     * @return number of pending bytes
+     */
+    public long getPendingWriteBytes() {
+        final AsyncSshHandler sshHandler = channel.pipeline().get(AsyncSshHandler.class);
+        return sshHandler == null ? 0 : sshHandler.getPendingWriteBytes();
+    }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        runWritableTasks();
+        super.channelWritabilityChanged(ctx);
+    }
+
+    private void runWritableTasks() {
+        // A task may make the channel not writable again, in which case the rest keeps waiting
+        while (!writableTasks.isEmpty() && channel.isWritable()) {
+            writableTasks.remove().task.run();
+        }
+    }
+
+    private void failWritableTasks(final Throwable cause) {
+        while (!writableTasks.isEmpty()) {
+            writableTasks.remove().onFailure.accept(cause);
+        }
+    }
+
     public final long getSessionId() {
         return sessionId;
     }
+
+    private static final class WritableTask {
+        final Runnable task;
+        final Consumer<Throwable> onFailure;
+
+        WritableTask(final Runnable task, final Consumer<Throwable> onFailure) {
+            this.task = requireNonNull(task);
+            this.onFailure = requireNonNull(onFailure);
+        }
+    }
 }
@@ -182,7 +182,7 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_FRAME_ENCODER,
                 FramingMechanismHandlerFactory.createHandler(FramingMechanism.CHUNK));
         replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR,
-                new NetconfChunkAggregator());
+                createChunkAggregator());
     }
 
     private boolean shouldUseChunkFraming(final Document doc) {
@@ -199,7 +199,7 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
      */
     protected final void replaceHelloMessageInboundHandler(final S session) {
         ChannelHandler helloMessageHandler = replaceChannelHandler(channel,
-                AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, new NetconfXMLToMessageDecoder());
+                AbstractChannelInitializer.NETCONF_MESSAGE_DECODER, createMessageDecoder());
 
         Preconditions.checkState(helloMessageHandler instanceof NetconfXMLToHelloMessageDecoder,
                 "Pipeline handlers misplaced on session: %s, pipeline: %s", session, channel.pipeline());
@@ -215,12 +215,41 @@ public abstract class AbstractNetconfSessionNegotiator<P extends NetconfSessionP
         }
     }
 
+    /**
+     * Create the decoder of chunk framing used once base:1.1 has been negotiated. Subclasses may override this method
+     * to use {@link NetconfChunkAggregator} in streaming mode.
+     *
+     * @return chunk framing decoder
+     */
+    protected NetconfChunkAggregator createChunkAggregator() {
+        return new NetconfChunkAggregator();
+    }
+
+    /**
+     * Create the decoder used for regular netconf messages once the session is established. Subclasses may override
+     * this method to use {@link NetconfXMLToMessageDecoder} with deferred DOM parsing.
+     *
+     * @return message decoder
+     */
+    protected NetconfXMLToMessageDecoder createMessageDecoder() {
+        return new NetconfXMLToMessageDecoder();
+    }
+
+    /**
+     * Create the encoder used for regular netconf messages once the hello message has been sent. Subclasses may
+     * override this method to use {@link NetconfMessageToXMLEncoder} in compact mode.
+     *
+     * @return message encoder
+     */
+    protected NetconfMessageToXMLEncoder createMessageEncoder() {
+        return new NetconfMessageToXMLEncoder();
+    }
+
     /**
      * Remove special outbound handler for hello message. Insert regular netconf xml message (en|de)coders.
      */
     private void replaceHelloMessageOutboundHandler() {
-        replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_ENCODER,
-                new NetconfMessageToXMLEncoder());
+        replaceChannelHandler(channel, AbstractChannelInitializer.NETCONF_MESSAGE_ENCODER, createMessageEncoder());
     }
 
     private static ChannelHandler replaceChannelHandler(final Channel channel, final String handlerKey,
@@ -10,16 +10,28 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
-import java.nio.charset.StandardCharsets;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.List;
 
-public class ChunkedFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf> {
+/**
+ * Encoder for the chunked framing mechanism as defined in RFC6242. Payload bytes are never copied: each message is
+ * emitted as a {@link CompositeByteBuf} made of small chunk header buffers interleaved with slices of the payload.
+ */
+public class ChunkedFramingMechanismEncoder extends MessageToMessageEncoder<ByteBuf> {
     public static final int DEFAULT_CHUNK_SIZE = 8192;
     public static final int MIN_CHUNK_SIZE = 128;
     public static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
 
+    private static final byte[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+    private static final ByteBuf END_OF_CHUNK = Unpooled.unreleasableBuffer(
+        Unpooled.wrappedBuffer(MessageParts.END_OF_CHUNK).asReadOnly());
+
     private final int chunkSize;
+    // Header of a full-sized chunk, shared by all but the last chunk of each message
+    private final ByteBuf fullChunkHeader;
 
     public ChunkedFramingMechanismEncoder() {
         this(DEFAULT_CHUNK_SIZE);
@@ -29,6 +41,10 @@ public class ChunkedFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf
         Preconditions.checkArgument(chunkSize >= MIN_CHUNK_SIZE && chunkSize <= MAX_CHUNK_SIZE,
                 "Unsupported chunk size %s", chunkSize);
         this.chunkSize = chunkSize;
+
+        final ByteBuf header = Unpooled.buffer(headerLength(chunkSize));
+        writeHeader(header, chunkSize);
+        this.fullChunkHeader = Unpooled.unreleasableBuffer(header.asReadOnly());
     }
 
     public final int getChunkSize() {
@@ -36,17 +52,52 @@ public class ChunkedFramingMechanismEncoder extends MessageToByteEncoder<ByteBuf
     }
 
     @Override
-    protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final ByteBuf out)  {
+    protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out)  {
+        final int chunks = Math.max(1, (msg.readableBytes() + chunkSize - 1) / chunkSize);
+        final CompositeByteBuf frame = ctx.alloc().compositeBuffer(chunks * 2 + 1);
+
         do {
             final int xfer = Math.min(chunkSize, msg.readableBytes());
+            final ByteBuf header;
+            if (xfer == chunkSize) {
+                header = fullChunkHeader.duplicate();
+            } else {
+                header = ctx.alloc().buffer(headerLength(xfer));
+                writeHeader(header, xfer);
+            }
 
-            out.writeBytes(MessageParts.START_OF_CHUNK);
-            out.writeBytes(String.valueOf(xfer).getBytes(StandardCharsets.US_ASCII));
-            out.writeByte('\n');
-
-            out.writeBytes(msg, xfer);
+            frame.addComponent(true, header);
+            frame.addComponent(true, msg.readRetainedSlice(xfer));
         } while (msg.isReadable());
 
-        out.writeBytes(MessageParts.END_OF_CHUNK);
+        frame.addComponent(true, END_OF_CHUNK.duplicate());
+        out.add(frame);
+    }
+
+    private static int headerLength(final int size) {
+        return MessageParts.START_OF_CHUNK.length + digitCount(size) + 1;
+    }
+
+    private static int digitCount(final int value) {
+        int count = 1;
+        for (int i = value; i >= 10; i /= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeHeader(final ByteBuf out, final int size) {
+        out.writeBytes(MessageParts.START_OF_CHUNK);
+
+        // Write digits back to front into the space they will occupy
+        final int digits = digitCount(size);
+        final int start = out.writerIndex();
+        int value = size;
+        for (int i = start + digits - 1; i >= start; i--) {
+            out.setByte(i, DIGITS[value % 10]);
+            value /= 10;
+        }
+        out.writerIndex(start + digits);
+        out.writeByte('\n');
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import com.google.common.base.Strings;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.ProcessingInstruction;
+
+/**
+ * Utility class serializing a DOM document through an {@link XMLStreamWriter}, without any indentation. Unlike
+ * the JAXP identity transformer it does not need to set up a transformation for each document, hence it is
+ * considerably cheaper for the small to medium sized documents making up most netconf traffic.
+ *
+ * <p>
+ * Namespace declarations missing from the document, as is the case for documents assembled with
+ * {@link Document#createElementNS(String, String)}, are added where needed.
+ */
+final class DocumentStreamWriter {
+    private static final XMLOutputFactory FACTORY;
+
+    static {
+        FACTORY = XMLOutputFactory.newFactory();
+        FACTORY.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, false);
+    }
+
+    private DocumentStreamWriter() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Serialize a document, including the XML declaration, in UTF-8 encoding. The stream is not closed.
+     *
+     * @param document document to serialize
+     * @param out output stream
+     * @throws XMLStreamException if the document cannot be written
+     */
+    static void write(final Document document, final OutputStream out) throws XMLStreamException {
+        final XMLStreamWriter writer = createWriter(out);
+        try {
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            for (Node child = document.getFirstChild(); child != null; child = child.getNextSibling()) {
+                writeNode(writer, child, new HashMap<>());
+            }
+            writer.writeEndDocument();
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Create a writer producing UTF-8 output, not repairing namespaces.
+     *
+     * @param out output stream
+     * @return a new writer
+     * @throws XMLStreamException if the writer cannot be created
+     */
+    static XMLStreamWriter createWriter(final OutputStream out) throws XMLStreamException {
+        return FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Create a writer appending to a DOM document, not repairing namespaces.
+     *
+     * @param document target document
+     * @return a new writer
+     * @throws XMLStreamException if the writer cannot be created
+     */
+    static XMLStreamWriter createWriter(final Document document) throws XMLStreamException {
+        return FACTORY.createXMLStreamWriter(new DOMResult(document));
+    }
+
+    private static void writeNode(final XMLStreamWriter writer, final Node node, final Map<String, String> bindings)
+            throws XMLStreamException {
+        switch (node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                writeElement(writer, (Element) node, bindings);
+                break;
+            case Node.TEXT_NODE:
+                writer.writeCharacters(node.getNodeValue());
+                break;
+            case Node.CDATA_SECTION_NODE:
+                writer.writeCData(node.getNodeValue());
+                break;
+            case Node.COMMENT_NODE:
+                writer.writeComment(node.getNodeValue());
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                final ProcessingInstruction pi = (ProcessingInstruction) node;
+                writer.writeProcessingInstruction(pi.getTarget(), pi.getData());
+                break;
+            case Node.ENTITY_REFERENCE_NODE:
+                for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    writeNode(writer, child, bindings);
+                }
+                break;
+            default:
+                // Document type and similar nodes are not part of netconf messages
+                break;
+        }
+    }
+
+    private static void writeElement(final XMLStreamWriter writer, final Element element,
+            final Map<String, String> parentBindings) throws XMLStreamException {
+        final String prefix = Strings.nullToEmpty(element.getPrefix());
+        final String namespace = Strings.nullToEmpty(element.getNamespaceURI());
+        final String localName = element.getLocalName() != null ? element.getLocalName() : element.getTagName();
+
+        final boolean empty = !element.hasChildNodes();
+        if (prefix.isEmpty() && namespace.isEmpty()) {
+            if (empty) {
+                writer.writeEmptyElement(localName);
+            } else {
+                writer.writeStartElement(localName);
+            }
+        } else if (empty) {
+            writer.writeEmptyElement(prefix, localName, namespace);
+        } else {
+            writer.writeStartElement(prefix, localName, namespace);
+        }
+
+        // Bindings are copied only if this element declares a namespace
+        Map<String, String> bindings = parentBindings;
+        final NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+                final String declared = XMLConstants.XMLNS_ATTRIBUTE.equals(attr.getPrefix()) ? attr.getLocalName()
+                        : XMLConstants.DEFAULT_NS_PREFIX;
+                bindings = declareNamespace(writer, bindings, parentBindings, declared, attr.getValue());
+            }
+        }
+
+        if (!namespace.equals(Strings.nullToEmpty(bindings.get(prefix)))) {
+            bindings = declareNamespace(writer, bindings, parentBindings, prefix, namespace);
+        }
+
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Attr attr = (Attr) attributes.item(i);
+            final String attrNamespace = attr.getNamespaceURI();
+            if (Strings.isNullOrEmpty(attrNamespace)) {
+                writer.writeAttribute(attr.getLocalName() != null ? attr.getLocalName() : attr.getName(),
+                    attr.getValue());
+            } else if (XMLConstants.XML_NS_URI.equals(attrNamespace)) {
+                writer.writeAttribute(XMLConstants.XML_NS_PREFIX, attrNamespace, attr.getLocalName(),
+                    attr.getValue());
+            } else if (!XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attrNamespace)) {
+                String attrPrefix = attr.getPrefix();
+                if (Strings.isNullOrEmpty(attrPrefix)) {
+                    // Unprefixed attributes are not in any namespace, we need a prefix
+                    int counter = bindings.size();
+                    do {
+                        attrPrefix = "a" + counter++;
+                    } while (bindings.containsKey(attrPrefix) && !attrNamespace.equals(bindings.get(attrPrefix)));
+                }
+                if (!attrNamespace.equals(bindings.get(attrPrefix))) {
+                    bindings = declareNamespace(writer, bindings, parentBindings, attrPrefix, attrNamespace);
+                }
+                writer.writeAttribute(attrPrefix, attrNamespace, attr.getLocalName(), attr.getValue());
+            }
+        }
+
+        if (!empty) {
+            for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+                writeNode(writer, child, bindings);
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private static Map<String, String> declareNamespace(final XMLStreamWriter writer,
+            final Map<String, String> bindings, final Map<String, String> parentBindings, final String prefix,
+            final String namespace) throws XMLStreamException {
+        if (prefix.isEmpty()) {
+            writer.writeDefaultNamespace(namespace);
+        } else {
+            writer.writeNamespace(prefix, namespace);
+        }
+
+        final Map<String, String> ret = bindings == parentBindings ? new HashMap<>(parentBindings) : bindings;
+        ret.put(prefix, namespace);
+        return ret;
+    }
+}
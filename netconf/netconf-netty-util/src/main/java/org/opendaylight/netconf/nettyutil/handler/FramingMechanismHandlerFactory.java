@@ -8,8 +8,7 @@
 
 package org.opendaylight.netconf.nettyutil.handler;
 
-import io.netty.buffer.ByteBuf;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.ChannelOutboundHandler;
 import org.opendaylight.netconf.util.messages.FramingMechanism;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,7 +21,7 @@ public final class FramingMechanismHandlerFactory {
         // not called - private constructor for utility class
     }
 
-    public static MessageToByteEncoder<ByteBuf> createHandler(FramingMechanism framingMechanism) {
+    public static ChannelOutboundHandler createHandler(FramingMechanism framingMechanism) {
         LOG.debug("{} framing mechanism was selected.", framingMechanism);
         if (framingMechanism == FramingMechanism.EOM) {
             return new EOMFramingMechanismEncoder();
@@ -10,35 +10,70 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.ByteProcessor;
 import java.util.List;
+import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Decoder for the chunked framing mechanism as defined in RFC6242. By default, all chunks of a message are gathered
+ * and passed on as a single {@link ByteBuf}.
+ *
+ * <p>
+ * In streaming mode each piece of chunk payload is passed on as a {@link PartialMessage} as soon as it arrives, the
+ * last one flagged once the end of the message is seen. Inbound buffers are then held only until the message decoder
+ * consumes the part, rather than until the whole message arrives. Messages are streamed only while the message
+ * decoder is a {@link NetconfXMLToMessageDecoder}, which consumes them in parts, and are gathered otherwise.
+ *
+ * <p>
+ * Payload is never copied: it is passed on as slices of the inbound buffers.
+ */
 public class NetconfChunkAggregator extends ByteToMessageDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfChunkAggregator.class);
     private static final String GOT_PARAM_WHILE_WAITING_FOR_PARAM = "Got byte {} while waiting for {}";
     private static final String GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM = "Got byte {} while waiting for {}-{}";
     public static final int DEFAULT_MAXIMUM_CHUNK_SIZE = 16 * 1024 * 1024;
 
+    // Shortest header or footer: \n#1\n or \n##\n
+    private static final int MIN_HEADER_LENGTH = 4;
+    // Number of digits of DEFAULT_MAXIMUM_CHUNK_SIZE plus one for the terminating \n
+    private static final int MAX_HEADER_TAIL_LENGTH = String.valueOf(DEFAULT_MAXIMUM_CHUNK_SIZE).length() + 1;
+
     private enum State {
-        HEADER_ONE, // \n
-        HEADER_TWO, // #
-        HEADER_LENGTH_FIRST, // [1-9]
-        HEADER_LENGTH_OTHER, // [0-9]*\n
+        HEADER, // \n#[1-9][0-9]*\n
         DATA,
-        FOOTER_ONE, // \n
-        FOOTER_TWO, // #
-        FOOTER_THREE, // #
-        FOOTER_FOUR, // \n
+        FOOTER, // \n##\n or header of next chunk
     }
 
     private final int maxChunkSize = DEFAULT_MAXIMUM_CHUNK_SIZE;
-    private State state = State.HEADER_ONE;
+    private final ChunkSizeParser chunkSizeParser = new ChunkSizeParser();
+    private final boolean streaming;
+    private State state = State.HEADER;
     private long chunkSize;
     private CompositeByteBuf chunk;
+    // Whether the current message is passed on in parts
+    private boolean streamMessage;
+
+    public NetconfChunkAggregator() {
+        this(false);
+    }
+
+    /**
+     * Create a new aggregator.
+     *
+     * @param streaming true if chunk payload should be passed on in parts as it arrives, false if whole messages
+     *                  should be gathered
+     */
+    public NetconfChunkAggregator(final boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public final boolean isStreaming() {
+        return streaming;
+    }
 
     private static void checkNewLine(final byte byteToCheck, final String errorMessage) {
         if (byteToCheck != '\n') {
@@ -54,9 +89,9 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
         }
     }
 
-    private void checkChunkSize() {
-        if (chunkSize > maxChunkSize) {
-            LOG.debug("Parsed chunk size {}, maximum allowed is {}", chunkSize, maxChunkSize);
+    private void checkChunkSize(final long size) {
+        if (size > maxChunkSize) {
+            LOG.debug("Parsed chunk size {}, maximum allowed is {}", size, maxChunkSize);
             throw new IllegalStateException("Maximum chunk size exceeded");
         }
     }
@@ -66,136 +101,153 @@ public class NetconfChunkAggregator extends ByteToMessageDecoder {
                           final ByteBuf in, final List<Object> out) throws IllegalStateException {
         while (in.isReadable()) {
             switch (state) {
-                case HEADER_ONE:
-                {
-                    final byte b = in.readByte();
-                    checkNewLine(b, "Malformed chunk header encountered (byte 0)");
-                    state = State.HEADER_TWO;
-                    initChunk();
-                    break;
-                }
-                case HEADER_TWO:
-                {
-                    final byte b = in.readByte();
-                    checkHash(b, "Malformed chunk header encountered (byte 1)");
-                    state = State.HEADER_LENGTH_FIRST;
-                    break;
-                }
-                case HEADER_LENGTH_FIRST:
-                {
-                    final byte b = in.readByte();
-                    chunkSize = processHeaderLengthFirst(b);
-                    state = State.HEADER_LENGTH_OTHER;
+                case HEADER:
+                    if (!decodeHeader(ctx, in, false, out)) {
+                        return;
+                    }
                     break;
-                }
-                case HEADER_LENGTH_OTHER:
+                case DATA:
                 {
-                    final byte b = in.readByte();
-                    if (b == '\n') {
-                        state = State.DATA;
-                        break;
+                    // Gather or pass on whatever part of the chunk we have, without copying it
+                    final int xfer = (int) Math.min(chunkSize, in.readableBytes());
+                    if (streamMessage) {
+                        out.add(new PartialMessage(in.readRetainedSlice(xfer), false));
+                    } else {
+                        chunk.addComponent(true, in.readRetainedSlice(xfer));
                     }
-                    if (b < '0' || b > '9') {
-                        LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, b, (byte)'0', (byte)'9');
-                        throw new IllegalStateException("Invalid chunk size encountered");
+
+                    chunkSize -= xfer;
+                    if (chunkSize != 0) {
+                        LOG.trace("Consumed {} bytes, {} bytes remaining in chunk", xfer, chunkSize);
+                        return;
                     }
-                    chunkSize *= 10;
-                    chunkSize += b - '0';
-                    checkChunkSize();
+                    state = State.FOOTER;
                     break;
                 }
-                case DATA:
-                    /*
-                     * FIXME: this gathers all data into one big chunk before passing
-                     *        it on. Make sure the pipeline can work with partial data
-                     *        and then change this piece to pass the data on as it
-                     *        comes through.
-                     */
-                    if (in.readableBytes() < chunkSize) {
-                        LOG.debug("Buffer has {} bytes, need {} to complete chunk", in.readableBytes(), chunkSize);
-                        in.discardReadBytes();
+                case FOOTER:
+                    if (!decodeHeader(ctx, in, true, out)) {
+                        return;
+                    }
+                    if (state == State.HEADER && streamMessage) {
+                        // Let the message be processed before deciding how to pass on the next one, processing
+                        // may replace the message decoder
                         return;
                     }
-                    aggregateChunks(in.readBytes((int) chunkSize));
-                    state = State.FOOTER_ONE;
-                    break;
-                case FOOTER_ONE:
-                {
-                    final byte b = in.readByte();
-                    checkNewLine(b,"Malformed chunk footer encountered (byte 0)");
-                    state = State.FOOTER_TWO;
-                    chunkSize = 0;
-                    break;
-                }
-                case FOOTER_TWO:
-                {
-                    final byte b = in.readByte();
-                    checkHash(b,"Malformed chunk footer encountered (byte 1)");
-                    state = State.FOOTER_THREE;
-                    break;
-                }
-                case FOOTER_THREE:
-                {
-                    final byte b = in.readByte();
-                    // In this state, either header-of-new-chunk or message-end is expected
-                    // Depends on the next character
-                    extractNewChunkOrMessageEnd(b);
-                    break;
-                }
-                case FOOTER_FOUR:
-                {
-                    final byte b = in.readByte();
-                    checkNewLine(b,"Malformed chunk footer encountered (byte 3)");
-                    state = State.HEADER_ONE;
-                    out.add(chunk);
-                    chunk = null;
                     break;
-                }
-                default :
-                {
+                default:
                     LOG.info("Unknown state.");
-                }
             }
         }
-
-        in.discardReadBytes();
     }
 
-    private void extractNewChunkOrMessageEnd(final byte byteToCheck) {
-        if (isHeaderLengthFirst(byteToCheck)) {
-            // Extract header length#1 from new chunk
-            chunkSize = processHeaderLengthFirst(byteToCheck);
-            // Proceed with next chunk processing
-            state = State.HEADER_LENGTH_OTHER;
-        } else if (byteToCheck == '#') {
-            state = State.FOOTER_FOUR;
+    /**
+     * Decode a chunk header, or end-of-chunks marker if a chunk has just been read. Input is consumed only if the
+     * complete header is available.
+     *
+     * @return true if the header has been consumed, false if more data is needed
+     */
+    private boolean decodeHeader(final ChannelHandlerContext ctx, final ByteBuf in, final boolean afterChunk,
+            final List<Object> out) {
+        final int readable = in.readableBytes();
+        if (readable < MIN_HEADER_LENGTH) {
+            return false;
+        }
+
+        final int start = in.readerIndex();
+        if (afterChunk) {
+            checkNewLine(in.getByte(start), "Malformed chunk footer encountered (byte 0)");
+            checkHash(in.getByte(start + 1), "Malformed chunk footer encountered (byte 1)");
         } else {
-            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, byteToCheck, (byte) '#', (byte) '1', (byte) '9');
-            throw new IllegalStateException("Malformed chunk footer encountered (byte 2)");
+            checkNewLine(in.getByte(start), "Malformed chunk header encountered (byte 0)");
+            checkHash(in.getByte(start + 1), "Malformed chunk header encountered (byte 1)");
         }
-    }
 
-    private void initChunk() {
-        chunk = Unpooled.compositeBuffer();
-    }
+        final byte first = in.getByte(start + 2);
+        if (afterChunk && first == '#') {
+            checkNewLine(in.getByte(start + 3), "Malformed chunk footer encountered (byte 3)");
+            in.skipBytes(MIN_HEADER_LENGTH);
+            state = State.HEADER;
+            if (streamMessage) {
+                out.add(PartialMessage.endOfMessage());
+            } else {
+                out.add(chunk);
+                chunk = null;
+            }
+            return true;
+        }
 
-    private void aggregateChunks(final ByteBuf newChunk) {
-        chunk.addComponent(chunk.numComponents(), newChunk);
+        if (!isHeaderLengthFirst(first)) {
+            if (afterChunk) {
+                LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, first, (byte) '#', (byte) '1', (byte) '9');
+                throw new IllegalStateException("Malformed chunk footer encountered (byte 2)");
+            }
+            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, first, (byte)'1', (byte)'9');
+            throw new IllegalStateException("Invalid chunk size encountered (byte 0)");
+        }
 
-        // Update writer index, addComponent does not update it
-        chunk.writerIndex(chunk.writerIndex() + newChunk.readableBytes());
+        // Scan the remaining digits up to the terminating newline
+        final int scanLength = Math.min(readable - 3, MAX_HEADER_TAIL_LENGTH);
+        chunkSizeParser.reset(first - '0');
+        final int end = in.forEachByte(start + 3, scanLength, chunkSizeParser);
+        if (end == -1) {
+            if (scanLength == MAX_HEADER_TAIL_LENGTH) {
+                LOG.debug("No chunk header terminator found within {} bytes", MAX_HEADER_TAIL_LENGTH + 3);
+                throw new IllegalStateException("Invalid chunk size encountered");
+            }
+            return false;
+        }
+
+        chunkSize = chunkSizeParser.size;
+        in.readerIndex(end + 1);
+        if (!afterChunk) {
+            initChunk(ctx);
+        }
+        state = State.DATA;
+        return true;
     }
 
-    private static int processHeaderLengthFirst(final byte byteToCheck) {
-        if (!isHeaderLengthFirst(byteToCheck)) {
-            LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, byteToCheck, (byte)'1', (byte)'9');
-            throw new IllegalStateException("Invalid chunk size encountered (byte 0)");
+    @Override
+    protected void handlerRemoved0(final ChannelHandlerContext ctx) {
+        if (chunk != null) {
+            chunk.release();
+            chunk = null;
         }
+    }
 
-        return byteToCheck - '0';
+    private void initChunk(final ChannelHandlerContext ctx) {
+        streamMessage = streaming && ctx.pipeline().get(AbstractChannelInitializer.NETCONF_MESSAGE_DECODER)
+                instanceof NetconfXMLToMessageDecoder;
+        if (!streamMessage) {
+            chunk = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+        }
     }
 
     private static boolean isHeaderLengthFirst(final byte byteToCheck) {
         return byteToCheck >= '1' && byteToCheck <= '9';
     }
+
+    /**
+     * Accumulates chunk size digits, stopping at the terminating newline.
+     */
+    private final class ChunkSizeParser implements ByteProcessor {
+        long size;
+
+        void reset(final int firstDigit) {
+            size = firstDigit;
+        }
+
+        @Override
+        public boolean process(final byte value) {
+            if (value == '\n') {
+                return false;
+            }
+            if (value < '0' || value > '9') {
+                LOG.debug(GOT_PARAM_WHILE_WAITING_FOR_PARAM_PARAM, value, (byte)'0', (byte)'9');
+                throw new IllegalStateException("Invalid chunk size encountered");
+            }
+            size = size * 10 + value - '0';
+            checkChunkSize(size);
+            return true;
+        }
+    }
 }
@@ -19,12 +19,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
-import javax.xml.transform.dom.DOMResult;
-import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.yangtools.util.xml.UntrustedXML;
 import org.slf4j.Logger;
@@ -34,32 +30,27 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 
+/**
+ * Decoder of EXI-encoded messages. Each decoder owns its EXI reader and the content handler turning reader events
+ * into messages, both of which are reused for all messages received on the channel. The DOM of decoded messages is
+ * built directly from the EXI events.
+ */
 public final class NetconfEXIToMessageDecoder extends ByteToMessageDecoder {
-
     private static final Logger LOG = LoggerFactory.getLogger(NetconfEXIToMessageDecoder.class);
-    private static final SAXTransformerFactory FACTORY;
-
-    static {
-        final TransformerFactory f = SAXTransformerFactory.newInstance();
-        if (!f.getFeature(SAXTransformerFactory.FEATURE)) {
-            throw new TransformerFactoryConfigurationError(
-                    String.format("Factory %s is not a SAXTransformerFactory", f));
-        }
-
-        FACTORY = (SAXTransformerFactory)f;
-    }
 
     /**
      * This class is not marked as shared, so it can be attached to only a single channel,
      * which means that {@link #decode(ChannelHandlerContext, ByteBuf, List)}
-     * cannot be invoked concurrently. Hence we can reuse the reader.
+     * cannot be invoked concurrently. Hence we can reuse the reader and handler.
      */
     private final XMLReader reader;
     private final DocumentBuilder documentBuilder;
+    private final StreamWriterContentHandler handler = new StreamWriterContentHandler();
 
     private NetconfEXIToMessageDecoder(final XMLReader reader) {
         this.reader = requireNonNull(reader);
         this.documentBuilder = UntrustedXML.newDocumentBuilder();
+        reader.setContentHandler(handler);
     }
 
     public static NetconfEXIToMessageDecoder create(final NetconfEXICodec codec) throws EXIException {
@@ -68,7 +59,7 @@ public final class NetconfEXIToMessageDecoder extends ByteToMessageDecoder {
 
     @Override
     protected void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out)
-            throws IOException, SAXException, TransformerConfigurationException {
+            throws IOException, SAXException, XMLStreamException {
         /*
          * Note that we could loop here and process all the messages, but we can't do that.
          * The reason is <stop-exi> operation, which has the contract of immediately stopping
@@ -86,17 +77,17 @@ public final class NetconfEXIToMessageDecoder extends ByteToMessageDecoder {
             LOG.trace("Received to decode: {}", ByteBufUtil.hexDump(in));
         }
 
-        final TransformerHandler handler = FACTORY.newTransformerHandler();
-        reader.setContentHandler(handler);
-
-        final DOMResult domResult = new DOMResult(documentBuilder.newDocument());
-        handler.setResult(domResult);
-
-        try (InputStream is = new ByteBufInputStream(in)) {
-            // Performs internal reset before doing anything
-            reader.parse(new InputSource(is));
+        final Document document = documentBuilder.newDocument();
+        final XMLStreamWriter writer = DocumentStreamWriter.createWriter(document);
+        try {
+            handler.reset(writer);
+            try (InputStream is = new ByteBufInputStream(in)) {
+                // Performs internal reset before doing anything
+                reader.parse(new InputSource(is));
+            }
+        } finally {
+            writer.close();
         }
-
-        out.add(new NetconfMessage((Document) domResult.getNode()));
+        out.add(new NetconfMessage(document));
     }
 }
@@ -29,6 +29,15 @@ public final class NetconfMessageToEXIEncoder extends MessageToByteEncoder<Netco
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageToEXIEncoder.class);
     private final NetconfEXICodec codec;
 
+    /**
+     * This class is not marked as shared, so it can be attached to only a single channel, which means that
+     * {@link #encode(ChannelHandlerContext, NetconfMessage, ByteBuf)} cannot be invoked concurrently. Hence we can
+     * reuse the writer, pointing it to the output of each message in turn, and the transformer feeding it.
+     */
+    private SAXEncoder encoder;
+    private SAXResult result;
+    private Transformer transformer;
+
     private NetconfMessageToEXIEncoder(final NetconfEXICodec codec) {
         this.codec = requireNonNull(codec);
     }
@@ -42,11 +51,15 @@ public final class NetconfMessageToEXIEncoder extends MessageToByteEncoder<Netco
             throws IOException, TransformerException, EXIException {
         LOG.trace("Sent to encode : {}", msg);
 
+        if (encoder == null) {
+            encoder = codec.getWriter();
+            result = new SAXResult(encoder);
+            transformer = ThreadLocalTransformers.getDefaultTransformer();
+        }
+
         try (OutputStream os = new ByteBufOutputStream(out)) {
-            final SAXEncoder encoder = codec.getWriter();
             encoder.setOutputStream(os);
-            final Transformer transformer = ThreadLocalTransformers.getDefaultTransformer();
-            transformer.transform(new DOMSource(msg.getDocument()), new SAXResult(encoder));
+            transformer.transform(new DOMSource(msg.getDocument()), result);
         }
     }
 }
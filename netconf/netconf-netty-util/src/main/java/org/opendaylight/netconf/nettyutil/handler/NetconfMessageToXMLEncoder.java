@@ -17,25 +17,52 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.WritableNetconfMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Comment;
 
+/**
+ * Encoder serializing netconf messages to XML. By default messages are pretty-printed, which is useful for debugging.
+ * In compact mode messages are written without any indentation through a streaming writer, which produces smaller
+ * output at a fraction of the CPU cost. {@link WritableNetconfMessage}s are always written directly through
+ * a streaming writer, without building their DOM representation.
+ */
 public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMessage> {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageToXMLEncoder.class);
 
     private final Optional<String> clientId;
+    private final boolean compact;
+
+    // Encoders are not shared, all messages of a channel are encoded by the thread of its event loop
+    private Transformer prettyTransformer;
 
     public NetconfMessageToXMLEncoder() {
         this(Optional.absent());
     }
 
+    public NetconfMessageToXMLEncoder(final boolean compact) {
+        this(Optional.absent(), compact);
+    }
+
     public NetconfMessageToXMLEncoder(final Optional<String> clientId) {
+        this(clientId, false);
+    }
+
+    public NetconfMessageToXMLEncoder(final Optional<String> clientId, final boolean compact) {
         this.clientId = clientId;
+        this.compact = compact;
+    }
+
+    public final boolean isCompact() {
+        return compact;
     }
 
     @Override
@@ -44,12 +71,27 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
             throws IOException, TransformerException {
         LOG.trace("Sent to encode : {}", msg);
 
+        try (OutputStream os = new ByteBufOutputStream(out)) {
+            if (msg instanceof WritableNetconfMessage) {
+                writeMessage((WritableNetconfMessage) msg, os);
+            } else {
+                writeDocument(msg, os);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to serialize message", e);
+        }
+    }
+
+    private void writeDocument(final NetconfMessage msg, final OutputStream os)
+            throws TransformerException, XMLStreamException {
         if (clientId.isPresent()) {
-            Comment comment = msg.getDocument().createComment("clientId:" + clientId.get());
+            Comment comment = msg.getDocument().createComment(clientIdComment());
             msg.getDocument().appendChild(comment);
         }
 
-        try (OutputStream os = new ByteBufOutputStream(out)) {
+        if (compact) {
+            DocumentStreamWriter.write(msg.getDocument(), os);
+        } else {
             // Wrap OutputStreamWriter with BufferedWriter as suggested in javadoc for OutputStreamWriter
 
             // Using custom BufferedWriter that does not provide newLine method as performance improvement
@@ -57,7 +99,33 @@ public class NetconfMessageToXMLEncoder extends MessageToByteEncoder<NetconfMess
             StreamResult result =
                     new StreamResult(new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8)));
             DOMSource source = new DOMSource(msg.getDocument());
-            ThreadLocalTransformers.getPrettyTransformer().transform(source, result);
+            if (prettyTransformer == null) {
+                prettyTransformer = ThreadLocalTransformers.getPrettyTransformer();
+            }
+            prettyTransformer.transform(source, result);
         }
     }
+
+    /**
+     * Write a message which knows how to serialize itself. This path never builds a DOM, hence the output is always
+     * compact.
+     */
+    private void writeMessage(final WritableNetconfMessage msg, final OutputStream os) throws XMLStreamException {
+        final XMLStreamWriter writer = DocumentStreamWriter.createWriter(os);
+        try {
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            msg.writeTo(writer);
+            if (clientId.isPresent()) {
+                writer.writeComment(clientIdComment());
+            }
+            writer.writeEndDocument();
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String clientIdComment() {
+        return "clientId:" + clientId.get();
+    }
 }
@@ -10,11 +10,16 @@ package org.opendaylight.netconf.nettyutil.handler;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import javax.xml.stream.XMLStreamException;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.FailedNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
@@ -23,12 +28,86 @@ import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
+/**
+ * Decoder of XML netconf messages. Besides whole messages, it accepts messages passed on in parts by a streaming
+ * {@link NetconfChunkAggregator}: each {@link PartialMessage} is copied out and released as soon as it arrives, so
+ * that inbound buffers are not held while the rest of the message is being received.
+ */
 public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfXMLToMessageDecoder.class);
 
+    private final boolean deferDomParsing;
+
+    // Parts of the current message received so far, backed by unpooled heap buffers
+    private CompositeByteBuf partial;
+
+    public NetconfXMLToMessageDecoder() {
+        this(false);
+    }
+
+    /**
+     * Create a new decoder.
+     *
+     * @param deferDomParsing true if decoded messages should be {@link ByteBufNetconfMessage}s, which build their
+     *                        DOM only when asked to, false if the DOM should be built immediately
+     */
+    public NetconfXMLToMessageDecoder(final boolean deferDomParsing) {
+        this.deferDomParsing = deferDomParsing;
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        if (!(msg instanceof PartialMessage)) {
+            super.channelRead(ctx, msg);
+            return;
+        }
+
+        final PartialMessage part = (PartialMessage) msg;
+        try {
+            if (part.content().isReadable()) {
+                if (partial == null) {
+                    // Not leak-tracked, as a deferred message takes ownership of it and is never released
+                    partial = new CompositeByteBuf(UnpooledByteBufAllocator.DEFAULT, false, Integer.MAX_VALUE);
+                }
+                partial.addComponent(true, Unpooled.copiedBuffer(part.content()));
+            }
+        } finally {
+            part.release();
+        }
+
+        if (part.isLast()) {
+            final ByteBuf message = partial != null ? partial : Unpooled.EMPTY_BUFFER;
+            partial = null;
+
+            final List<Object> out = new ArrayList<>(1);
+            decode(ctx, message, out, true);
+            for (Object decoded : out) {
+                ctx.fireChannelRead(decoded);
+            }
+        }
+    }
+
+    @Override
+    protected void handlerRemoved0(final ChannelHandlerContext ctx) {
+        if (partial != null) {
+            partial.release();
+            partial = null;
+        }
+    }
+
     @Override
     public void decode(final ChannelHandlerContext ctx, final ByteBuf in,
                        final List<Object> out) throws IOException, SAXException {
+        decode(ctx, in, out, false);
+    }
+
+    /**
+     * Decode a message.
+     *
+     * @param owned true if the message can take ownership of the unpooled input buffer, false if it has to be copied
+     */
+    private void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out,
+            final boolean owned) throws IOException, SAXException {
         if (in.isReadable()) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Received to decode: {}", ByteBufUtil.hexDump(in));
@@ -72,11 +151,21 @@ public final class NetconfXMLToMessageDecoder extends ByteToMessageDecoder {
         if (in.isReadable()) {
             NetconfMessage msg;
 
-            try {
-                msg = new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in)));
-            } catch (SAXParseException exception) {
-                LOG.error("Failed to parse received message", exception);
-                msg = new FailedNetconfMessage(exception);
+            if (deferDomParsing) {
+                try {
+                    msg = owned ? ByteBufNetconfMessage.wrap(in) : ByteBufNetconfMessage.create(in);
+                } catch (XMLStreamException exception) {
+                    LOG.error("Failed to parse received message", exception);
+                    msg = new FailedNetconfMessage(exception);
+                }
+                in.skipBytes(in.readableBytes());
+            } else {
+                try {
+                    msg = new NetconfMessage(XmlUtil.readXmlToDocument(new ByteBufInputStream(in)));
+                } catch (SAXParseException exception) {
+                    LOG.error("Failed to parse received message", exception);
+                    msg = new FailedNetconfMessage(exception);
+                }
             }
 
             out.add(msg);
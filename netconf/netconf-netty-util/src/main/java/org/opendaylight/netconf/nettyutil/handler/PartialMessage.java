@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Part of a netconf message passed on by {@link NetconfChunkAggregator} in streaming mode, as soon as it arrives.
+ * The last part of a message is flagged, it may have no content.
+ */
+public final class PartialMessage extends DefaultByteBufHolder {
+    private final boolean last;
+
+    PartialMessage(final ByteBuf content, final boolean last) {
+        super(content);
+        this.last = last;
+    }
+
+    static PartialMessage endOfMessage() {
+        return new PartialMessage(Unpooled.EMPTY_BUFFER, true);
+    }
+
+    /**
+     * Check whether this is the last part of a message.
+     *
+     * @return true if the message is complete with this part
+     */
+    public boolean isLast() {
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        return "PartialMessage{bytes=" + content().readableBytes() + ", last=" + last + "}";
+    }
+}
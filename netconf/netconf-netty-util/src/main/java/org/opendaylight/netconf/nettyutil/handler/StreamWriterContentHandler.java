@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX content handler forwarding the events it receives to an {@link XMLStreamWriter}. It is meant to be reused
+ * for any number of documents: {@link #reset(XMLStreamWriter)} attaches it to the writer to be used for the next
+ * document. The writer is expected not to repair namespaces, as all namespace declarations are reported by the
+ * reader through {@link #startPrefixMapping(String, String)}.
+ *
+ * <p>
+ * Instances are not thread-safe.
+ */
+final class StreamWriterContentHandler extends DefaultHandler {
+    // Namespace declarations reported before the element they belong to, as prefix/namespace pairs
+    private final List<String> pendingMappings = new ArrayList<>();
+    private XMLStreamWriter writer;
+
+    /**
+     * Attach this handler to a writer, discarding any state left over from the previous document.
+     *
+     * @param newWriter writer to forward events to
+     */
+    void reset(final XMLStreamWriter newWriter) {
+        this.writer = requireNonNull(newWriter);
+        pendingMappings.clear();
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        try {
+            writer.writeStartDocument();
+        } catch (XMLStreamException e) {
+            throw new SAXException("Failed to start document", e);
+        }
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        try {
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (XMLStreamException e) {
+            throw new SAXException("Failed to end document", e);
+        }
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) {
+        pendingMappings.add(prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix);
+        pendingMappings.add(uri);
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName,
+            final Attributes attributes) throws SAXException {
+        try {
+            if (uri.isEmpty()) {
+                writer.writeStartElement(localName);
+            } else {
+                writer.writeStartElement(elementPrefix(uri, qName), localName, uri);
+            }
+
+            for (int i = 0; i < pendingMappings.size(); i += 2) {
+                final String prefix = pendingMappings.get(i);
+                if (prefix.isEmpty()) {
+                    writer.writeDefaultNamespace(pendingMappings.get(i + 1));
+                } else {
+                    writer.writeNamespace(prefix, pendingMappings.get(i + 1));
+                }
+            }
+            pendingMappings.clear();
+
+            for (int i = 0; i < attributes.getLength(); i++) {
+                final String attrUri = attributes.getURI(i);
+                if (attrUri.isEmpty()) {
+                    writer.writeAttribute(attributes.getLocalName(i), attributes.getValue(i));
+                } else if (!XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attrUri)) {
+                    writer.writeAttribute(prefixOf(attributes.getQName(i)), attrUri, attributes.getLocalName(i),
+                        attributes.getValue(i));
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new SAXException("Failed to start element " + qName, e);
+        }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        try {
+            writer.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new SAXException("Failed to end element " + qName, e);
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        try {
+            writer.writeCharacters(ch, start, length);
+        } catch (XMLStreamException e) {
+            throw new SAXException("Failed to write characters", e);
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+        characters(ch, start, length);
+    }
+
+    @Override
+    public void processingInstruction(final String target, final String data) throws SAXException {
+        try {
+            writer.writeProcessingInstruction(target, data);
+        } catch (XMLStreamException e) {
+            throw new SAXException("Failed to write processing instruction " + target, e);
+        }
+    }
+
+    private String elementPrefix(final String uri, final String qName) {
+        if (qName.indexOf(':') != -1) {
+            return prefixOf(qName);
+        }
+        if (!qName.isEmpty()) {
+            return XMLConstants.DEFAULT_NS_PREFIX;
+        }
+
+        // Readers are not required to report qualified names, find the prefix among the declarations
+        for (int i = 0; i < pendingMappings.size(); i += 2) {
+            if (uri.equals(pendingMappings.get(i + 1))) {
+                return pendingMappings.get(i);
+            }
+        }
+        final String prefix = writer.getNamespaceContext().getPrefix(uri);
+        return prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX;
+    }
+
+    private static String prefixOf(final String qName) {
+        final int colon = qName.indexOf(':');
+        return colon == -1 ? XMLConstants.DEFAULT_NS_PREFIX : qName.substring(0, colon);
+    }
+}
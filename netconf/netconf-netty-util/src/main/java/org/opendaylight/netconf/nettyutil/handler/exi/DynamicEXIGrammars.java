@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler.exi;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.siemens.ct.exi.core.grammars.Grammars;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache of grammars for {@link EXISchema#DYNAMIC}, keyed by the set of capabilities advertised by the server. Deriving
+ * grammars from data models is expensive, hence whoever has the data models of a server populates this cache once for
+ * each distinct set of capabilities, and sessions negotiating EXI with servers advertising the same capabilities look
+ * the grammars up.
+ *
+ * <p>
+ * Grammars are softly referenced, so that they can be reclaimed under memory pressure.
+ */
+public final class DynamicEXIGrammars {
+    private static final Cache<Set<String>, Grammars> GRAMMARS = CacheBuilder.newBuilder().softValues().build();
+
+    private DynamicEXIGrammars() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Look up grammars for a set of server capabilities.
+     *
+     * @param capabilities capabilities advertised by the server
+     * @return grammars, or absent if they are not available
+     */
+    public static Optional<Grammars> lookup(final Collection<String> capabilities) {
+        return Optional.fromNullable(GRAMMARS.getIfPresent(ImmutableSet.copyOf(capabilities)));
+    }
+
+    /**
+     * Return grammars for a set of server capabilities, creating them if they are not available.
+     *
+     * @param capabilities capabilities advertised by the server
+     * @param loader grammar factory, invoked only if the grammars are not cached
+     * @return grammars
+     * @throws ExecutionException if the loader fails
+     */
+    public static Grammars getOrCreate(final Collection<String> capabilities, final Callable<Grammars> loader)
+            throws ExecutionException {
+        return GRAMMARS.get(ImmutableSet.copyOf(capabilities), loader);
+    }
+}
@@ -10,12 +10,16 @@ package org.opendaylight.netconf.nettyutil.handler.exi;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import com.siemens.ct.exi.core.CodingMode;
 import com.siemens.ct.exi.core.EXIFactory;
 import com.siemens.ct.exi.core.EncodingOptions;
 import com.siemens.ct.exi.core.FidelityOptions;
+import com.siemens.ct.exi.core.exceptions.EXIException;
 import com.siemens.ct.exi.core.exceptions.UnsupportedOption;
+import com.siemens.ct.exi.core.grammars.Grammars;
 import com.siemens.ct.exi.core.helpers.DefaultEXIFactory;
+import com.siemens.ct.exi.grammars.GrammarFactory;
 import java.util.Objects;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.slf4j.Logger;
@@ -39,6 +43,8 @@ public final class EXIParameters {
     private static final String EXI_FIDELITY_PIS = "pis";
     private static final String EXI_FIDELITY_PREFIXES = "prefixes";
 
+    static final String EXI_PARAMETER_SCHEMAS = "schemas";
+
     private static final EncodingOptions ENCODING_OPTIONS;
 
     static {
@@ -62,10 +68,32 @@ public final class EXIParameters {
 
     private final FidelityOptions fidelityOptions;
     private final CodingMode codingMode;
+    private final EXISchema schema;
+    private final Grammars dynamicGrammars;
 
     public EXIParameters(final CodingMode codingMode, final FidelityOptions fidelityOptions) {
+        this(codingMode, fidelityOptions, EXISchema.NONE);
+    }
+
+    /**
+     * Create parameters using specified schema mode. Parameters using {@link EXISchema#DYNAMIC} created this way do
+     * not have any grammars, they express the wish to use dynamic schema and need to be resolved through
+     * {@link #withDynamicGrammars(Grammars)} before use.
+     *
+     * @param codingMode coding mode
+     * @param fidelityOptions fidelity options
+     * @param schema schema mode
+     */
+    public EXIParameters(final CodingMode codingMode, final FidelityOptions fidelityOptions, final EXISchema schema) {
+        this(codingMode, fidelityOptions, schema, null);
+    }
+
+    private EXIParameters(final CodingMode codingMode, final FidelityOptions fidelityOptions,
+            final EXISchema schema, final Grammars dynamicGrammars) {
         this.fidelityOptions = requireNonNull(fidelityOptions);
         this.codingMode = requireNonNull(codingMode);
+        this.schema = requireNonNull(schema);
+        this.dynamicGrammars = dynamicGrammars;
     }
 
     @VisibleForTesting
@@ -120,20 +148,84 @@ public final class EXIParameters {
                 fidelityElement.getElementsByTagName(EXI_FIDELITY_PREFIXES).getLength() > 0);
         }
 
-        return new EXIParameters(coding, fidelity);
+        final EXISchema schema;
+        final NodeList schemaElements = root.getElementsByTagName(EXI_PARAMETER_SCHEMAS);
+        if (schemaElements.getLength() > 0) {
+            final String schemaTextContent = schemaElements.item(0).getTextContent().trim();
+            schema = EXISchema.forOption(schemaTextContent);
+            if (schema == null || schema == EXISchema.DYNAMIC) {
+                // We do not derive grammars from our own data models
+                throw new UnsupportedOption("Unsupported schemas " + schemaTextContent);
+            }
+        } else {
+            schema = EXISchema.NONE;
+        }
+
+        return new EXIParameters(coding, fidelity, schema);
+    }
+
+    /**
+     * Return parameters equal to these, except they use {@link EXISchema#DYNAMIC} with specified grammars. Codecs
+     * are cached by parameters, hence callers should reuse grammars instances for identical data models.
+     *
+     * @param grammars grammars derived from data models of the peer
+     * @return parameters using the grammars
+     */
+    public EXIParameters withDynamicGrammars(final Grammars grammars) {
+        return new EXIParameters(codingMode, fidelityOptions, EXISchema.DYNAMIC, requireNonNull(grammars));
+    }
+
+    /**
+     * Return parameters equal to these, except they use specified schema mode.
+     *
+     * @param newSchema schema mode
+     * @return parameters using the schema mode
+     */
+    public EXIParameters withSchema(final EXISchema newSchema) {
+        return new EXIParameters(codingMode, fidelityOptions, newSchema);
+    }
+
+    public EXISchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Check whether these parameters use {@link EXISchema#DYNAMIC} without having the grammars.
+     *
+     * @return true if grammars need to be supplied before these parameters can be used
+     */
+    public boolean isDynamicUnresolved() {
+        return schema == EXISchema.DYNAMIC && dynamicGrammars == null;
     }
 
     public EXIFactory getFactory() {
+        Preconditions.checkState(!isDynamicUnresolved(), "Dynamic schema grammars have not been supplied");
         final EXIFactory factory = DefaultEXIFactory.newInstance();
         factory.setCodingMode(codingMode);
         factory.setEncodingOptions(ENCODING_OPTIONS);
         factory.setFidelityOptions(fidelityOptions);
+        switch (schema) {
+            case NONE:
+                break;
+            case BUILTIN:
+                try {
+                    factory.setGrammars(GrammarFactory.newInstance().createXSDTypesOnlyGrammars());
+                } catch (EXIException e) {
+                    throw new IllegalStateException("Failed to create grammars for " + schema, e);
+                }
+                break;
+            case DYNAMIC:
+                factory.setGrammars(dynamicGrammars);
+                break;
+            default:
+                throw new IllegalStateException("Unhandled schema " + schema);
+        }
         return factory;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fidelityOptions, codingMode);
+        return Objects.hash(fidelityOptions, codingMode, schema, dynamicGrammars);
     }
 
     @Override
@@ -145,7 +237,8 @@ public final class EXIParameters {
             return false;
         }
         final EXIParameters other = (EXIParameters) obj;
-        return codingMode == other.codingMode && fidelityOptions.equals(other.fidelityOptions);
+        return codingMode == other.codingMode && schema == other.schema
+                && fidelityOptions.equals(other.fidelityOptions) && dynamicGrammars == other.dynamicGrammars;
     }
 
     String getAlignment() {
@@ -186,4 +279,8 @@ public final class EXIParameters {
     String getPreservePrefixes() {
         return fidelityString(FidelityOptions.FEATURE_PREFIX, EXI_FIDELITY_PREFIXES);
     }
+
+    String getSchemas() {
+        return schema.getOption();
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler.exi;
+
+import com.google.common.base.Splitter;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
+
+/**
+ * Enumeration of schema modes defined by the {@code schemas} parameter of start-exi operation.
+ */
+public enum EXISchema {
+    /**
+     * No schema, schema-less grammars are used. This is what is used when start-exi does not specify any schemas.
+     */
+    NONE(null),
+    /**
+     * Grammars of XML Schema built-in types only.
+     */
+    BUILTIN("builtin"),
+    /**
+     * Grammars derived from the data models advertised by the server in its hello message. These are not
+     * self-contained, the grammars have to be supplied along with the option, see
+     * {@link EXIParameters#withDynamicGrammars(com.siemens.ct.exi.core.grammars.Grammars)}. Both peers need to
+     * derive the same grammars from the data models, hence this mode should be used only with peers known to map data
+     * models to grammars the same way.
+     */
+    DYNAMIC("dynamic");
+
+    private static final String SCHEMAS_PARAMETER = "schemas=";
+    private static final Splitter PARAMETER_SPLITTER = Splitter.on('&');
+    private static final Splitter SCHEMAS_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final String option;
+
+    EXISchema(final String option) {
+        this.option = option;
+    }
+
+    /**
+     * Return the value of schemas parameter corresponding to this mode.
+     *
+     * @return option value, or null if the parameter should not be present
+     */
+    String getOption() {
+        return option;
+    }
+
+    static EXISchema forOption(final String option) {
+        for (final EXISchema schema : values()) {
+            if (option.equals(schema.option)) {
+                return schema;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return schema modes a server supports according to the {@code schemas} parameter of the EXI capability it
+     * advertises. {@link #NONE} is supported by every server advertising EXI capability.
+     *
+     * @param capabilities capabilities advertised by the server
+     * @return supported schema modes, empty if the server does not advertise EXI capability
+     */
+    public static Set<EXISchema> advertisedBy(final Collection<String> capabilities) {
+        final Set<EXISchema> ret = EnumSet.noneOf(EXISchema.class);
+        for (final String capability : capabilities) {
+            if (!capability.startsWith(XmlNetconfConstants.URN_IETF_PARAMS_NETCONF_CAPABILITY_EXI_1_0)) {
+                continue;
+            }
+
+            ret.add(NONE);
+            final int query = capability.indexOf('?');
+            if (query == -1) {
+                continue;
+            }
+            for (final String parameter : PARAMETER_SPLITTER.split(capability.substring(query + 1))) {
+                if (parameter.startsWith(SCHEMAS_PARAMETER)) {
+                    for (final String option : SCHEMAS_SPLITTER.split(
+                            parameter.substring(SCHEMAS_PARAMETER.length()))) {
+                        final EXISchema schema = forOption(option);
+                        if (schema != null) {
+                            ret.add(schema);
+                        }
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+}
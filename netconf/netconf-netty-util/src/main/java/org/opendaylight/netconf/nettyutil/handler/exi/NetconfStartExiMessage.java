@@ -25,8 +25,13 @@ public final class NetconfStartExiMessage extends NetconfMessage {
     public static final String START_EXI = "start-exi";
 
 
-    private NetconfStartExiMessage(final Document doc) {
+    private final EXIParameters parameters;
+    private final String messageId;
+
+    private NetconfStartExiMessage(final Document doc, final EXIParameters parameters, final String messageId) {
         super(doc);
+        this.parameters = parameters;
+        this.messageId = messageId;
     }
 
     public static NetconfStartExiMessage create(final EXIParameters exiOptions, final String messageId) {
@@ -43,11 +48,42 @@ public final class NetconfStartExiMessage extends NetconfMessage {
 
         addAlignment(exiOptions, doc, startExiElement);
         addFidelity(exiOptions, doc, startExiElement);
+        addSchemas(exiOptions, doc, startExiElement);
 
         rpcElement.appendChild(startExiElement);
 
         doc.appendChild(rpcElement);
-        return new NetconfStartExiMessage(doc);
+        return new NetconfStartExiMessage(doc, exiOptions, messageId);
+    }
+
+    /**
+     * Return the parameters this message was created from. These may carry state which is not part of the message
+     * itself, such as dynamic grammars.
+     *
+     * @return EXI parameters
+     */
+    public EXIParameters getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Create a message with the same message-id as this one, but different parameters.
+     *
+     * @param exiOptions parameters of the new message
+     * @return a new message
+     */
+    public NetconfStartExiMessage withParameters(final EXIParameters exiOptions) {
+        return create(exiOptions, messageId);
+    }
+
+    private static void addSchemas(final EXIParameters exiOptions, final Document doc, final Element startExiElement) {
+        final String schemas = exiOptions.getSchemas();
+        if (schemas != null) {
+            final Element schemasElement = doc.createElementNS(
+                XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_EXI_1_0, EXIParameters.EXI_PARAMETER_SCHEMAS);
+            schemasElement.setTextContent(schemas);
+            startExiElement.appendChild(schemasElement);
+        }
     }
 
     private static void addFidelity(final EXIParameters exiOptions, final Document doc, final Element startExiElement) {
@@ -9,9 +9,12 @@
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
 import com.google.common.base.Preconditions;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.PreferHeapByteBufAllocator;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import java.io.IOException;
@@ -52,6 +55,7 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
 
     private final AuthenticationHandler authenticationHandler;
     private final SshClient sshClient;
+    private final WriteBufferWaterMark writeWaterMark;
     private Future<?> negotiationFuture;
 
     private AsyncSshHandlerReader sshReadAsyncListener;
@@ -64,8 +68,24 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
 
     public AsyncSshHandler(final AuthenticationHandler authenticationHandler, final SshClient sshClient,
             final Future<?> negotiationFuture) {
-        this(authenticationHandler, sshClient);
+        this(authenticationHandler, sshClient, negotiationFuture, AsyncSshHandlerWriter.DEFAULT_WATER_MARK);
+    }
+
+    /**
+     * Constructor of {@code AsyncSshHandler}.
+     *
+     * @param authenticationHandler authentication handler
+     * @param sshClient             started SshClient
+     * @param negotiationFuture     negotiation future
+     * @param writeWaterMark        bounds of writes waiting for the remote window to open, at which the channel is
+     *                              marked not writable and writable again
+     */
+    public AsyncSshHandler(final AuthenticationHandler authenticationHandler, final SshClient sshClient,
+            final Future<?> negotiationFuture, final WriteBufferWaterMark writeWaterMark) {
+        this.authenticationHandler = Preconditions.checkNotNull(authenticationHandler);
+        this.sshClient = Preconditions.checkNotNull(sshClient);
         this.negotiationFuture = negotiationFuture;
+        this.writeWaterMark = Preconditions.checkNotNull(writeWaterMark);
     }
 
     /**
@@ -76,8 +96,7 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
      */
     public AsyncSshHandler(final AuthenticationHandler authenticationHandler,
                            final SshClient sshClient) {
-        this.authenticationHandler = Preconditions.checkNotNull(authenticationHandler);
-        this.sshClient = Preconditions.checkNotNull(sshClient);
+        this(authenticationHandler, sshClient, null, AsyncSshHandlerWriter.DEFAULT_WATER_MARK);
     }
 
     public static AsyncSshHandler createForNetconfSubsystem(final AuthenticationHandler authenticationHandler) {
@@ -97,6 +116,20 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         return new AsyncSshHandler(authenticationHandler, DEFAULT_CLIENT, negotiationFuture);
     }
 
+    /**
+     * Create AsyncSshHandler for netconf subsystem. Negotiation future has to be set to success after successful
+     * netconf negotiation.
+     *
+     * @param authenticationHandler authentication handler
+     * @param negotiationFuture     negotiation future
+     * @param writeWaterMark        bounds of pending writes, see {@link AsyncSshHandlerWriter}
+     * @return                      {@code AsyncSshHandler}
+     */
+    public static AsyncSshHandler createForNetconfSubsystem(final AuthenticationHandler authenticationHandler,
+            final Future<?> negotiationFuture, final WriteBufferWaterMark writeWaterMark) {
+        return new AsyncSshHandler(authenticationHandler, DEFAULT_CLIENT, negotiationFuture, writeWaterMark);
+    }
+
     private void startSsh(final ChannelHandlerContext ctx, final SocketAddress address) throws IOException {
         LOG.debug("Starting SSH to {} on channel: {}", address, ctx.channel());
 
@@ -169,7 +202,7 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         // if readAsyncListener receives immediate close,
         // it will close this handler and closing this handler sets channel variable to null
         if (channel != null) {
-            sshWriteAsyncHandler = new AsyncSshHandlerWriter(channel.getAsyncIn());
+            sshWriteAsyncHandler = new AsyncSshHandlerWriter(channel.getAsyncIn(), writeWaterMark);
             ctx.fireChannelActive();
         }
     }
@@ -185,6 +218,24 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         disconnect(ctx, ctx.newPromise());
     }
 
+    /**
+     * Return number of writes waiting for the remote window to open.
+     *
+     * @return number of pending writes, 0 if the SSH channel is not open
+     */
+    public synchronized int getPendingWriteCount() {
+        return sshWriteAsyncHandler == null ? 0 : sshWriteAsyncHandler.getPendingWriteCount();
+    }
+
+    /**
+     * Return number of bytes waiting for the remote window to open.
+     *
+     * @return number of pending bytes, 0 if the SSH channel is not open
+     */
+    public synchronized long getPendingWriteBytes() {
+        return sshWriteAsyncHandler == null ? 0 : sshWriteAsyncHandler.getPendingWriteBytes();
+    }
+
     @Override
     public synchronized void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
         sshWriteAsyncHandler.write(ctx, msg, promise);
@@ -196,6 +247,13 @@ public class AsyncSshHandler extends ChannelOutboundHandlerAdapter {
         LOG.debug("SSH session connecting on channel {}. promise: {} ", ctx.channel(), connectPromise);
         this.connectPromise = promise;
 
+        // Mina accesses outbound data through a backing array, have messages encoded into heap buffers so that they
+        // are handed over without copying
+        final ChannelConfig config = ctx.channel().config();
+        if (!(config.getAllocator() instanceof PreferHeapByteBufAllocator)) {
+            config.setAllocator(new PreferHeapByteBufAllocator(config.getAllocator()));
+        }
+
         if (negotiationFuture != null) {
             negotiationFutureListener = future -> {
                 if (future.isSuccess()) {
@@ -10,13 +10,20 @@ package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.WriteBufferWaterMark;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Queue;
+import org.apache.sshd.common.future.SshFutureListener;
 import org.apache.sshd.common.io.IoOutputStream;
+import org.apache.sshd.common.io.IoWriteFuture;
 import org.apache.sshd.common.io.WritePendingException;
 import org.apache.sshd.common.util.buffer.Buffer;
 import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
@@ -26,27 +33,74 @@ import org.slf4j.LoggerFactory;
 /**
  * Async Ssh writer. Takes messages(byte arrays) and sends them encrypted to remote server.
  * Also handles pending writes by caching requests until pending state is over.
+ *
+ * <p>
+ * Pending writes are not failed when the remote window stalls, as we might be dealing with chunks of messages rather
+ * than whole messages. Instead the channel is marked as not writable once the size of pending writes exceeds the
+ * high water mark and as writable again once it drops below the low water mark, so that producers checking
+ * {@link Channel#isWritable()} can stop issuing new writes.
  */
 public final class AsyncSshHandlerWriter implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(AsyncSshHandlerWriter.class);
 
-    // public static final int MAX_PENDING_WRITES = 1000;
-    // TODO implement Limiting mechanism for pending writes
-    // But there is a possible issue with limiting:
-    // 1. What to do when queue is full ? Immediate Fail for every request ?
-    // 2. At this level we might be dealing with Chunks of messages(not whole messages)
-    // and unexpected behavior might occur when we send/queue 1 chunk and fail the other chunks
+    /**
+     * Water marks used unless configured otherwise: 2 MiB low, 8 MiB high.
+     */
+    public static final WriteBufferWaterMark DEFAULT_WATER_MARK = new WriteBufferWaterMark(2 * 1024 * 1024,
+        8 * 1024 * 1024);
+
+    // Index of user-defined writability bit we are using on the channel's outbound buffer
+    private static final int WRITABILITY_INDEX = 1;
 
     private final Object asyncInLock = new Object();
+    private final WriteBufferWaterMark waterMark;
     private volatile IoOutputStream asyncIn;
 
     // Order has to be preserved for queued writes
     private final Deque<PendingWriteRequest> pending = new LinkedList<>();
+    // Guarded by asyncInLock
+    private long pendingBytes;
+    private boolean aboveHighWaterMark;
+    // Whether a message is being written, guarded by asyncInLock
+    private boolean writing;
 
     public AsyncSshHandlerWriter(final IoOutputStream asyncIn) {
+        this(asyncIn, DEFAULT_WATER_MARK);
+    }
+
+    /**
+     * Create a new writer.
+     *
+     * @param asyncIn SSH channel input
+     * @param waterMark bounds of pending writes at which the channel is marked not writable and writable again
+     */
+    public AsyncSshHandlerWriter(final IoOutputStream asyncIn, final WriteBufferWaterMark waterMark) {
         this.asyncIn = asyncIn;
+        this.waterMark = Preconditions.checkNotNull(waterMark);
+    }
+
+    /**
+     * Return number of writes waiting for the remote window to open.
+     *
+     * @return number of pending writes
+     */
+    public int getPendingWriteCount() {
+        synchronized (asyncInLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Return number of bytes waiting for the remote window to open.
+     *
+     * @return number of pending bytes
+     */
+    public long getPendingWriteBytes() {
+        synchronized (asyncInLock) {
+            return pendingBytes;
+        }
     }
 
     public void write(final ChannelHandlerContext ctx,
@@ -66,7 +120,8 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
                 promise.setFailure(new IllegalStateException("Channel closed"));
             } else {
                 final ByteBuf byteBufMsg = (ByteBuf) msg;
-                if (!pending.isEmpty()) {
+                // A message written in parts must not be interleaved with another one
+                if (writing || !pending.isEmpty()) {
                     queueRequest(ctx, byteBufMsg, promise);
                     return;
                 }
@@ -80,59 +135,79 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
     //if resending message not succesfull, then attribute wasPending is true
     private void writeWithPendingDetection(final ChannelHandlerContext ctx, final ChannelPromise promise,
                                            final ByteBuf byteBufMsg, final boolean wasPending) {
-        try {
+        byteBufMsg.resetReaderIndex();
+        final Queue<Buffer> parts = toBuffers(byteBufMsg);
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Writing request on channel: {} in {} parts, message: {}", ctx.channel(), parts.size(),
+                byteBufToString(byteBufMsg));
+        }
 
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("Writing request on channel: {}, message: {}", ctx.channel(), byteBufToString(byteBufMsg));
-            }
-            asyncIn.write(toBuffer(byteBufMsg)).addListener(future -> {
-                // synchronized block due to deadlock that happens on ssh window resize
-                // writes and pending writes would lock the underlyinch channel session
-                // window resize write would try to write the message on an already locked channelSession,
-                // while the pending write was in progress from the write callback
-                synchronized (asyncInLock) {
-                    if (LOG.isTraceEnabled()) {
-                        LOG.trace(
-                            "Ssh write request finished on channel: {} with result: {}: and ex:{}, message: {}",
-                            ctx.channel(), future.isWritten(), future.getException(), byteBufToString(byteBufMsg));
-                    }
+        final Buffer first = parts.poll();
+        if (first == null) {
+            // Nothing to write
+            writeFinished(ctx, promise, byteBufMsg, wasPending, null);
+            return;
+        }
 
-                    // Notify success or failure
-                    if (future.isWritten()) {
-                        promise.setSuccess();
-                    } else {
-                        LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(),
-                                byteBufToString(byteBufMsg), future.getException());
-                        promise.setFailure(future.getException());
-                    }
+        final IoWriteFuture future;
+        try {
+            future = asyncIn.write(first);
+        } catch (final WritePendingException e) {
+            if (!wasPending) {
+                queueRequest(ctx, byteBufMsg, promise);
+            }
+            return;
+        }
 
-                    // Not needed anymore, release
-                    byteBufMsg.release();
+        writing = true;
+        final PartWriter writer = new PartWriter(ctx, promise, byteBufMsg, parts, wasPending);
+        if (future.isDone()) {
+            writer.operationComplete(future);
+        } else {
+            future.addListener(writer);
+        }
+    }
 
-                    //rescheduling message from queue after successfully sent
-                    if (wasPending) {
-                        byteBufMsg.resetReaderIndex();
-                        pending.remove();
-                    }
-                }
+    private void writeFinished(final ChannelHandlerContext ctx, final ChannelPromise promise, final ByteBuf byteBufMsg,
+            final boolean wasPending, final Throwable failure) {
+        // synchronized block due to deadlock that happens on ssh window resize
+        // writes and pending writes would lock the underlyinch channel session
+        // window resize write would try to write the message on an already locked channelSession,
+        // while the pending write was in progress from the write callback
+        synchronized (asyncInLock) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Ssh write request finished on channel: {} with ex:{}, message: {}", ctx.channel(), failure,
+                    byteBufToString(byteBufMsg));
+            }
 
-                // Check pending queue and schedule next
-                // At this time we are guaranteed that we are not in pending state anymore
-                // so the next request should succeed
-                writePendingIfAny();
-            });
+            // Notify success or failure
+            if (failure == null) {
+                promise.setSuccess();
+            } else {
+                LOG.warn("Ssh write request failed on channel: {} for message: {}", ctx.channel(),
+                        byteBufToString(byteBufMsg), failure);
+                promise.setFailure(failure);
+            }
 
-        } catch (final WritePendingException e) {
+            // Not needed anymore, release
+            byteBufMsg.release();
+            writing = false;
 
-            if (!wasPending) {
-                queueRequest(ctx, byteBufMsg, promise);
+            //rescheduling message from queue after successfully sent
+            if (wasPending) {
+                dequeueRequest(pending.remove());
             }
         }
+
+        // Check pending queue and schedule next
+        // At this time we are guaranteed that we are not in pending state anymore
+        // so the next request should succeed
+        writePendingIfAny();
     }
 
     private void writePendingIfAny() {
         synchronized (asyncInLock) {
-            if (pending.peek() == null) {
+            if (writing || pending.peek() == null) {
                 return;
             }
 
@@ -159,13 +234,42 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         if (LOG.isTraceEnabled()) {
             LOG.trace("Queueing request due to pending: {}", byteBufToString(msg));
         }
-        new PendingWriteRequest(ctx, msg, promise).pend(pending);
+        final PendingWriteRequest request = new PendingWriteRequest(ctx, msg, promise);
+        request.pend(pending);
 //        } catch (final Exception ex) {
 //            LOG.warn("Unable to queue write request on channel: {}. Setting fail for the request: {}",
 //                    ctx.channel(), ex, byteBufToString(msg));
 //            msg.release();
 //            promise.setFailure(ex);
 //        }
+
+        pendingBytes += request.size;
+        if (!aboveHighWaterMark && pendingBytes > waterMark.high()) {
+            LOG.debug("Pending writes on channel: {} reached {} bytes in {} requests, marking channel not writable",
+                ctx.channel(), pendingBytes, pending.size());
+            aboveHighWaterMark = true;
+            setWritable(ctx.channel(), false);
+        }
+    }
+
+    private void dequeueRequest(final PendingWriteRequest request) {
+        pendingBytes -= request.size;
+        if (aboveHighWaterMark && pendingBytes < waterMark.low()) {
+            LOG.debug("Pending writes on channel: {} dropped to {} bytes in {} requests, marking channel writable",
+                request.ctx.channel(), pendingBytes, pending.size());
+            aboveHighWaterMark = false;
+            setWritable(request.ctx.channel(), true);
+        }
+    }
+
+    private static void setWritable(final Channel channel, final boolean writable) {
+        final Channel.Unsafe unsafe = channel.unsafe();
+        final ChannelOutboundBuffer outboundBuffer = unsafe == null ? null : unsafe.outboundBuffer();
+        if (outboundBuffer != null) {
+            outboundBuffer.setUserDefinedWritability(WRITABILITY_INDEX, writable);
+        } else {
+            LOG.debug("Channel {} has no outbound buffer, cannot change its writability", channel);
+        }
     }
 
     @Override
@@ -173,18 +277,89 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
         asyncIn = null;
     }
 
-    private static Buffer toBuffer(final ByteBuf msg) {
-        // TODO Buffer vs ByteBuf translate, Can we handle that better ?
-        msg.resetReaderIndex();
-        final byte[] temp = new byte[msg.readableBytes()];
-        msg.readBytes(temp, 0, msg.readableBytes());
-        return new ByteArrayBuffer(temp);
+    /**
+     * Split the message into buffers the SSH layer can write. The SSH layer accesses data through
+     * {@link Buffer#array()}, hence array-backed parts of the message are wrapped without copying. Messages encoded on
+     * SSH channels are array-backed, see {@link AsyncSshHandler#connect}, except for small read-only parts such as
+     * chunk delimiters, which are copied. Wrapped content has to stay intact until the write completes, which is
+     * guaranteed as we release the ByteBuf only once all parts are written.
+     */
+    private static Queue<Buffer> toBuffers(final ByteBuf msg) {
+        final ByteBuffer[] nioBuffers = msg.nioBuffers();
+        final Queue<Buffer> ret = new ArrayDeque<>(nioBuffers.length);
+        for (ByteBuffer nioBuffer : nioBuffers) {
+            if (!nioBuffer.hasRemaining()) {
+                continue;
+            }
+            if (nioBuffer.hasArray()) {
+                ret.add(new ByteArrayBuffer(nioBuffer.array(), nioBuffer.arrayOffset() + nioBuffer.position(),
+                    nioBuffer.remaining()));
+            } else {
+                final byte[] bytes = new byte[nioBuffer.remaining()];
+                nioBuffer.duplicate().get(bytes);
+                ret.add(new ByteArrayBuffer(bytes));
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Writes the remaining parts of a message one after another, each once the previous one has been written.
+     */
+    private final class PartWriter implements SshFutureListener<IoWriteFuture> {
+        private final ChannelHandlerContext ctx;
+        private final ChannelPromise promise;
+        private final ByteBuf msg;
+        private final Queue<Buffer> parts;
+        private final boolean wasPending;
+
+        PartWriter(final ChannelHandlerContext ctx, final ChannelPromise promise, final ByteBuf msg,
+                final Queue<Buffer> parts, final boolean wasPending) {
+            this.ctx = ctx;
+            this.promise = promise;
+            this.msg = msg;
+            this.parts = parts;
+            this.wasPending = wasPending;
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:IllegalCatch")
+        public void operationComplete(final IoWriteFuture completed) {
+            IoWriteFuture future = completed;
+            // Parts written synchronously are handled in a loop rather than recursively
+            while (true) {
+                if (!future.isWritten()) {
+                    writeFinished(ctx, promise, msg, wasPending, future.getException());
+                    return;
+                }
+
+                final Buffer next = parts.poll();
+                if (next == null) {
+                    writeFinished(ctx, promise, msg, wasPending, null);
+                    return;
+                }
+
+                try {
+                    synchronized (asyncInLock) {
+                        future = asyncIn.write(next);
+                    }
+                } catch (final RuntimeException e) {
+                    writeFinished(ctx, promise, msg, wasPending, e);
+                    return;
+                }
+                if (!future.isDone()) {
+                    future.addListener(this);
+                    return;
+                }
+            }
+        }
     }
 
     private static final class PendingWriteRequest {
         private final ChannelHandlerContext ctx;
         private final ByteBuf msg;
         private final ChannelPromise promise;
+        private final int size;
 
         PendingWriteRequest(final ChannelHandlerContext ctx, final ByteBuf msg, final ChannelPromise promise) {
             this.ctx = ctx;
@@ -192,12 +367,10 @@ public final class AsyncSshHandlerWriter implements AutoCloseable {
             msg.resetReaderIndex();
             this.msg = msg;
             this.promise = promise;
+            this.size = msg.readableBytes();
         }
 
         public void pend(final Queue<PendingWriteRequest> pending) {
-            // Preconditions.checkState(pending.size() < MAX_PENDING_WRITES,
-            // "Too much pending writes(%s) on channel: %s, remote window is not getting read or is too small",
-            // pending.size(), ctx.channel());
             Preconditions.checkState(pending.offer(this),
                 "Cannot pend another request write (pending count: %s) on channel: %s", pending.size(), ctx.channel());
         }
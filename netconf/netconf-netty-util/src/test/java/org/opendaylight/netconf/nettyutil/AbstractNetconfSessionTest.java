@@ -14,6 +14,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -25,6 +26,7 @@ import com.google.common.base.Optional;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
@@ -32,8 +34,10 @@ import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.util.concurrent.GenericFutureListener;
 import java.util.Collections;
+import java.util.function.Consumer;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.netconf.api.NetconfMessage;
@@ -111,6 +115,79 @@ public class AbstractNetconfSessionTest {
         verify(listener).onSessionTerminated(any(TestingNetconfSession.class), any(NetconfTerminationReason.class));
     }
 
+    @Test
+    public void testWhenWritable() throws Exception {
+        final TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
+        doReturn(true).when(channel).isOpen();
+        doReturn(false).when(channel).isWritable();
+
+        final Runnable first = mock(Runnable.class);
+        final Runnable second = mock(Runnable.class);
+        final Consumer<Throwable> onFailure = mock(Consumer.class);
+        testingNetconfSession.whenWritable(first, onFailure);
+        testingNetconfSession.whenWritable(second, onFailure);
+        verifyZeroInteractions(first, second);
+
+        doReturn(true).when(channel).isWritable();
+        testingNetconfSession.channelWritabilityChanged(mock(ChannelHandlerContext.class));
+        final InOrder inOrder = inOrder(first, second);
+        inOrder.verify(first).run();
+        inOrder.verify(second).run();
+
+        // Runs immediately while writable
+        final Runnable third = mock(Runnable.class);
+        testingNetconfSession.whenWritable(third, onFailure);
+        verify(third).run();
+        verifyZeroInteractions(onFailure);
+    }
+
+    @Test
+    public void testWhenWritableFailOnSessionDown() throws Exception {
+        final TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
+        // SSH channels are open but never active, tasks keep waiting for writability
+        doReturn(true).when(channel).isOpen();
+        doReturn(false).when(channel).isActive();
+        doReturn(false).when(channel).isWritable();
+
+        final Runnable task = mock(Runnable.class);
+        final Consumer<Throwable> onFailure = mock(Consumer.class);
+        testingNetconfSession.whenWritable(task, onFailure);
+        verifyZeroInteractions(task, onFailure);
+
+        testingNetconfSession.endOfInput();
+        verify(onFailure).accept(any(IllegalStateException.class));
+        verifyZeroInteractions(task);
+
+        // Tasks submitted once the session is gone fail immediately
+        doReturn(false).when(channel).isOpen();
+        final Runnable late = mock(Runnable.class);
+        final Consumer<Throwable> lateFailure = mock(Consumer.class);
+        testingNetconfSession.whenWritable(late, lateFailure);
+        verify(lateFailure).accept(any(IllegalStateException.class));
+        verifyZeroInteractions(late);
+    }
+
+    @Test
+    public void testWhenWritableFailOnClose() throws Exception {
+        final TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
+        doReturn(true).when(channel).isOpen();
+        doReturn(false).when(channel).isWritable();
+
+        final Runnable task = mock(Runnable.class);
+        final Consumer<Throwable> onFailure = mock(Consumer.class);
+        testingNetconfSession.whenWritable(task, onFailure);
+        testingNetconfSession.close();
+        verify(onFailure).accept(any(IllegalStateException.class));
+        verifyZeroInteractions(task);
+    }
+
+    @Test
+    public void testPendingWritesWithoutSsh() throws Exception {
+        final TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
+        assertEquals(0, testingNetconfSession.getPendingWriteCount());
+        assertEquals(0L, testingNetconfSession.getPendingWriteBytes());
+    }
+
     @Test
     public void testReplaceHandlers() throws Exception {
         final TestingNetconfSession testingNetconfSession = new TestingNetconfSession(listener, channel, 1L);
@@ -10,12 +10,16 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -30,6 +34,7 @@ public class ChunkedFramingMechanismEncoderTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        doReturn(UnpooledByteBufAllocator.DEFAULT).when(ctx).alloc();
         chunkSize = 256;
     }
 
@@ -48,8 +53,11 @@ public class ChunkedFramingMechanismEncoderTest {
         final ChunkedFramingMechanismEncoder encoder = new ChunkedFramingMechanismEncoder(chunkSize);
         final int lastChunkSize = 20;
         final ByteBuf src = Unpooled.wrappedBuffer(getByteArray(chunkSize * 4 + lastChunkSize));
-        final ByteBuf destination = Unpooled.buffer();
-        encoder.encode(ctx, src, destination);
+        final List<Object> out = new ArrayList<>();
+        encoder.encode(ctx, src, out);
+
+        assertEquals(1, out.size());
+        final ByteBuf destination = (ByteBuf) out.get(0);
 
         assertEquals(1077, destination.readableBytes());
 
@@ -61,6 +69,21 @@ public class ChunkedFramingMechanismEncoderTest {
         assertTrue(string.endsWith("\n#20\naaaaaaaaaaaaaaaaaaaa\n##\n"));
     }
 
+    @Test
+    public void testEncodeDoesNotCopyPayload() throws Exception {
+        final ChunkedFramingMechanismEncoder encoder = new ChunkedFramingMechanismEncoder(chunkSize);
+        final ByteBuf src = Unpooled.wrappedBuffer(getByteArray(chunkSize * 2));
+        final List<Object> out = new ArrayList<>();
+        encoder.encode(ctx, src, out);
+
+        // Payload slices hold a reference to the source buffer
+        assertEquals(3, src.refCnt());
+        assertEquals(2 * (chunkSize + 6) + 4, ((ByteBuf) out.get(0)).readableBytes());
+
+        ((ByteBuf) out.get(0)).release();
+        assertEquals(1, src.refCnt());
+    }
+
     private static byte[] getByteArray(final int size) {
         final byte[] bytes = new byte[size];
         for (int i = 0; i < size; i++) {
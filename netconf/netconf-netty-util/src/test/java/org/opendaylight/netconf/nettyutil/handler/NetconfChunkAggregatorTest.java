@@ -8,14 +8,24 @@
 package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
+import org.opendaylight.netconf.nettyutil.AbstractChannelInitializer;
 
 public class NetconfChunkAggregatorTest {
 
@@ -37,17 +47,20 @@ public class NetconfChunkAggregatorTest {
     private static final String CHUNKED_MESSAGE_ONE = "\n#101\n" + EXPECTED_MESSAGE + "\n##\n";
 
     private static NetconfChunkAggregator agr;
+    private static ChannelHandlerContext ctx;
 
     @BeforeClass
     public static void setUp() throws Exception {
         agr = new NetconfChunkAggregator();
+        ctx = mock(ChannelHandlerContext.class);
+        doReturn(UnpooledByteBufAllocator.DEFAULT).when(ctx).alloc();
     }
 
     @Test
     public void testMultipleChunks() throws Exception {
         final List<Object> output = Lists.newArrayList();
         final ByteBuf input = Unpooled.copiedBuffer(CHUNKED_MESSAGE.getBytes(StandardCharsets.UTF_8));
-        agr.decode(null, input, output);
+        agr.decode(ctx, input, output);
 
         assertEquals(1, output.size());
         final ByteBuf chunk = (ByteBuf) output.get(0);
@@ -59,7 +72,7 @@ public class NetconfChunkAggregatorTest {
     public void testOneChunks() throws Exception {
         final List<Object> output = Lists.newArrayList();
         final ByteBuf input = Unpooled.copiedBuffer(CHUNKED_MESSAGE_ONE.getBytes(StandardCharsets.UTF_8));
-        agr.decode(null, input, output);
+        agr.decode(ctx, input, output);
 
         assertEquals(1, output.size());
         final ByteBuf chunk = (ByteBuf) output.get(0);
@@ -67,5 +80,58 @@ public class NetconfChunkAggregatorTest {
         assertEquals(EXPECTED_MESSAGE, chunk.toString(StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void testUsesChannelAllocator() throws Exception {
+        final ByteBufAllocator alloc = mock(ByteBufAllocator.class);
+        doReturn(Unpooled.compositeBuffer(Integer.MAX_VALUE)).when(alloc).compositeBuffer(Integer.MAX_VALUE);
+        final ChannelHandlerContext allocCtx = mock(ChannelHandlerContext.class);
+        doReturn(alloc).when(allocCtx).alloc();
+
+        final List<Object> output = Lists.newArrayList();
+        new NetconfChunkAggregator().decode(allocCtx,
+            Unpooled.copiedBuffer(CHUNKED_MESSAGE_ONE.getBytes(StandardCharsets.UTF_8)), output);
+
+        verify(alloc).compositeBuffer(Integer.MAX_VALUE);
+        assertEquals(EXPECTED_MESSAGE, ((ByteBuf) output.get(0)).toString(StandardCharsets.UTF_8));
+    }
 
+    @Test
+    public void testStreamingIntoMessageDecoder() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR,
+            new NetconfChunkAggregator(true));
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_DECODER,
+            new NetconfXMLToMessageDecoder(true));
+
+        // Split the message across reads, so that chunks are passed on in parts
+        final byte[] bytes = (CHUNKED_MESSAGE + CHUNKED_MESSAGE_ONE).getBytes(StandardCharsets.UTF_8);
+        final ByteBuf first = Unpooled.copiedBuffer(bytes, 0, 40);
+        final ByteBuf second = Unpooled.copiedBuffer(bytes, 40, bytes.length - 40);
+        channel.writeInbound(first);
+        assertNull(channel.readInbound());
+        // Payload read so far has been released by the decoder
+        assertEquals(0, first.refCnt());
+
+        channel.writeInbound(second);
+        assertEquals(0, second.refCnt());
+        for (int i = 0; i < 2; ++i) {
+            final ByteBufNetconfMessage msg = channel.readInbound();
+            assertEquals(EXPECTED_MESSAGE, msg.getContent().toString(StandardCharsets.UTF_8));
+            assertEquals("102", msg.getMessageId());
+            assertEquals("close-session", msg.getFirstChildElementName());
+        }
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void testStreamingAggregatesForOtherDecoders() throws Exception {
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(AbstractChannelInitializer.NETCONF_MESSAGE_AGGREGATOR,
+            new NetconfChunkAggregator(true));
+
+        channel.writeInbound(Unpooled.copiedBuffer(CHUNKED_MESSAGE.getBytes(StandardCharsets.UTF_8)));
+        final ByteBuf msg = channel.readInbound();
+        assertEquals(EXPECTED_MESSAGE, msg.toString(StandardCharsets.UTF_8));
+        msg.release();
+    }
 }
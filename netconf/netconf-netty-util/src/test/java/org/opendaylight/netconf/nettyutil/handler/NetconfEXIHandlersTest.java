@@ -10,11 +10,14 @@ package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import com.siemens.ct.exi.core.exceptions.EXIException;
 import com.siemens.ct.exi.main.api.sax.SAXEncoder;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -76,4 +79,45 @@ public class NetconfEXIHandlersTest {
 
         XMLUnit.compareXML(msg.getDocument(), ((NetconfMessage) out.get(0)).getDocument());
     }
+
+    @Test
+    public void testEncodeDecodeReusesState() throws Exception {
+        final NetconfMessage other = new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"2\"><data>"
+                + "<top xmlns=\"urn:test\" xmlns:t=\"urn:test:other\" t:attr=\"a\"><leaf>value</leaf></top>"
+                + "</data></rpc-reply>"));
+
+        for (final NetconfMessage message : Arrays.asList(msg, other, msg, other)) {
+            final ByteBuf buffer = Unpooled.buffer();
+            netconfMessageToEXIEncoder.encode(null, message, buffer);
+
+            final List<Object> out = new ArrayList<>();
+            netconfEXIToMessageDecoder.decode(null, buffer, out);
+            assertEquals(1, out.size());
+            assertTrue(XMLUnit.compareXML(message.getDocument(), ((NetconfMessage) out.get(0)).getDocument())
+                .similar());
+        }
+    }
+
+    @Test
+    public void testDecodeMessagesOnChannel() throws Exception {
+        final NetconfMessage other = new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"2\"><data>"
+                + "<top xmlns=\"urn:test\"><leaf>value</leaf></top></data></rpc-reply>"));
+        final List<NetconfMessage> messages = Arrays.asList(msg, other, other, msg, other);
+
+        // The same decoder instance, and hence the same reader and content handler, decodes all messages
+        final EmbeddedChannel channel = new EmbeddedChannel(netconfEXIToMessageDecoder);
+        for (final NetconfMessage message : messages) {
+            final ByteBuf buffer = Unpooled.buffer();
+            netconfMessageToEXIEncoder.encode(null, message, buffer);
+            channel.writeInbound(buffer);
+        }
+
+        for (final NetconfMessage message : messages) {
+            final NetconfMessage decoded = channel.readInbound();
+            assertTrue(XMLUnit.compareXML(message.getDocument(), decoded.getDocument()).similar());
+        }
+        assertNull(channel.readInbound());
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Test;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class NetconfMessageToXMLEncoderTest {
+    private static final String NS = "urn:ietf:params:xml:ns:netconf:base:1.0";
+
+    @Test
+    public void testCompactEncode() throws Exception {
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc xmlns=\"" + NS + "\" message-id=\"1\"><get-config><source><running/></source>"
+                + "<filter type=\"subtree\"><top xmlns=\"urn:test\"><a>&lt;1&amp;</a></top></filter>"
+                + "</get-config></rpc>"));
+
+        final String encoded = encode(new NetconfMessageToXMLEncoder(true), msg);
+        assertThat(encoded, not(containsString("\n")));
+        assertThat(encoded, containsString("<source><running/></source>"));
+        assertThat(encoded, containsString("<top xmlns=\"urn:test\"><a>&lt;1&amp;</a></top>"));
+        assertXMLEqual(msg.getDocument(), encoded);
+    }
+
+    @Test
+    public void testCompactEncodeDeclaresNamespaces() throws Exception {
+        final Document doc = XmlUtil.newDocument();
+        final Element rpc = doc.createElementNS(NS, "rpc");
+        doc.appendChild(rpc);
+        final Element config = doc.createElementNS("urn:test", "t:config");
+        rpc.appendChild(config);
+        final Element leaf = doc.createElementNS(null, "leaf");
+        leaf.setAttributeNS(NS, "operation", "merge");
+        config.appendChild(leaf);
+
+        final String encoded = encode(new NetconfMessageToXMLEncoder(true), new NetconfMessage(doc));
+        final Document parsed = XmlUtil.readXmlToDocument(encoded);
+        final Element parsedConfig = (Element) parsed.getDocumentElement().getFirstChild();
+        assertEquals("urn:test", parsedConfig.getNamespaceURI());
+        final Element parsedLeaf = (Element) parsedConfig.getFirstChild();
+        assertEquals(null, parsedLeaf.getNamespaceURI());
+        assertEquals("merge", parsedLeaf.getAttributeNS(NS, "operation"));
+    }
+
+    @Test
+    public void testCompactEncodeClientId() throws Exception {
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument("<rpc xmlns=\"" + NS + "\"/>"));
+        final String encoded = encode(new NetconfMessageToXMLEncoder(Optional.of("client"), true), msg);
+        assertTrue(encoded.endsWith("<rpc xmlns=\"" + NS + "\"/><!--clientId:client-->"));
+    }
+
+    @Test
+    public void testCompactSmallerThanPretty() throws Exception {
+        final NetconfMessage msg = new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc-reply xmlns=\"" + NS + "\" message-id=\"1\"><data><a><b><c>1</c></b><b><c>2</c></b></a></data>"
+                + "</rpc-reply>"));
+
+        final String compact = encode(new NetconfMessageToXMLEncoder(true), msg);
+        final String pretty = encode(new NetconfMessageToXMLEncoder(), msg);
+        assertTrue(compact.length() < pretty.length());
+        assertXMLEqual(XmlUtil.readXmlToDocument(pretty), compact);
+    }
+
+    private static String encode(final NetconfMessageToXMLEncoder encoder, final NetconfMessage msg)
+            throws Exception {
+        final ByteBuf out = Unpooled.buffer();
+        encoder.encode(null, msg, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void assertXMLEqual(final Document expected, final String actual) throws Exception {
+        XMLUnit.setIgnoreWhitespace(true);
+        final Diff diff = XMLUnit.compareXML(expected, XmlUtil.readXmlToDocument(actual));
+        assertTrue(diff.toString(), diff.similar());
+    }
+}
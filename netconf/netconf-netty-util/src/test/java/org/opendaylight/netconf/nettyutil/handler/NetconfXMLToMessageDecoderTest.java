@@ -9,12 +9,14 @@
 package org.opendaylight.netconf.nettyutil.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
 import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import org.junit.Test;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.FailedNetconfMessage;
 import org.xml.sax.SAXParseException;
 
@@ -34,6 +36,30 @@ public class NetconfXMLToMessageDecoderTest {
         assertEquals(1, out.size());
     }
 
+    @Test
+    public void testDecodeDeferred() throws Exception {
+        final ArrayList<Object> out = Lists.newArrayList();
+        new NetconfXMLToMessageDecoder(true).decode(null,
+                Unpooled.wrappedBuffer("\n<rpc-reply message-id=\"5\"><ok/></rpc-reply>".getBytes()), out);
+        assertEquals(1, out.size());
+
+        final ByteBufNetconfMessage msg = (ByteBufNetconfMessage) out.get(0);
+        assertEquals("rpc-reply", msg.getRootElementName());
+        assertEquals("5", msg.getMessageId());
+        assertEquals("ok", msg.getFirstChildElementName());
+        assertFalse(msg.isDocumentParsed());
+        assertEquals("rpc-reply", msg.getDocument().getDocumentElement().getLocalName());
+        assertTrue(msg.isDocumentParsed());
+    }
+
+    @Test
+    public void testDecodeDeferredGibberish() throws Exception {
+        final ArrayList<Object> out = Lists.newArrayList();
+        new NetconfXMLToMessageDecoder(true).decode(null, Unpooled.wrappedBuffer("?xml version>".getBytes()), out);
+        assertEquals(1, out.size());
+        assertTrue(out.get(0) instanceof FailedNetconfMessage);
+    }
+
     @Test
     public void testDecodeWithLeadingLFAndXmlDecl() throws Exception {
         /* Test that we accept XML documents with a line feed (0x0a) before the
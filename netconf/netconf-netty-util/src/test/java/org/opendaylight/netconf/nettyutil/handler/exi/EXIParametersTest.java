@@ -43,6 +43,12 @@ public class EXIParametersTest {
                 + "</fidelity>\n"
                 + "</start-exi>\n";
 
+        final String builtinSchemaXml =
+                "<start-exi xmlns=\"urn:ietf:params:xml:ns:netconf:exi:1.0\">\n"
+                + "<alignment>bit-packed</alignment>\n"
+                + "<schemas>builtin</schemas>\n"
+                + "</start-exi>\n";
+
         final FidelityOptions fullOptions = FidelityOptions.createDefault();
         fullOptions.setFidelity(FidelityOptions.FEATURE_LEXICAL_VALUE, true);
         fullOptions.setFidelity(FidelityOptions.FEATURE_DTD, true);
@@ -53,6 +59,7 @@ public class EXIParametersTest {
         return Arrays.asList(new Object[][]{
             {noChangeXml, CodingMode.BIT_PACKED, FidelityOptions.createDefault()},
             {fullOptionsXml, CodingMode.BYTE_PACKED, fullOptions},
+            {builtinSchemaXml, CodingMode.BIT_PACKED, FidelityOptions.createDefault()},
         });
     }
 
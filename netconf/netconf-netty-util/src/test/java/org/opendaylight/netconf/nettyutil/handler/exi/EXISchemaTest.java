@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.nettyutil.handler.exi;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import java.util.EnumSet;
+import org.junit.Test;
+
+public class EXISchemaTest {
+
+    @Test
+    public void testAdvertisedBy() {
+        assertEquals(EnumSet.noneOf(EXISchema.class),
+            EXISchema.advertisedBy(ImmutableList.of("urn:ietf:params:netconf:base:1.1")));
+        assertEquals(EnumSet.of(EXISchema.NONE),
+            EXISchema.advertisedBy(ImmutableList.of("urn:ietf:params:netconf:capability:exi:1.0")));
+        assertEquals(EnumSet.of(EXISchema.NONE, EXISchema.BUILTIN), EXISchema.advertisedBy(ImmutableList.of(
+            "urn:ietf:params:netconf:capability:exi:1.0?compression=1000&schemas=builtin,base:1.1")));
+        assertEquals(EnumSet.allOf(EXISchema.class), EXISchema.advertisedBy(ImmutableList.of(
+            "urn:ietf:params:netconf:capability:exi:1.0?schemas=builtin,dynamic")));
+    }
+}
@@ -46,6 +46,14 @@ public class NetconfStartExiMessageTest {
                 + "</start-exi>\n"
                 + "</rpc>";
 
+        final String builtinSchemaXml = "<rpc xmlns:ns0=\"urn:ietf:params:xml:ns:netconf:base:1.0\" "
+                + "ns0:message-id=\"id\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+                + "<start-exi xmlns=\"urn:ietf:params:xml:ns:netconf:exi:1.0\">\n"
+                + "<alignment>bit-packed</alignment>\n"
+                + "<schemas>builtin</schemas>\n"
+                + "</start-exi>\n"
+                + "</rpc>";
+
         final FidelityOptions fullOptions = FidelityOptions.createDefault();
         fullOptions.setFidelity(FidelityOptions.FEATURE_LEXICAL_VALUE, true);
         fullOptions.setFidelity(FidelityOptions.FEATURE_DTD, true);
@@ -56,6 +64,8 @@ public class NetconfStartExiMessageTest {
         return Arrays.asList(new Object[][]{
             {noChangeXml, EXIParameters.empty()},
             {fullOptionsXml, new EXIParameters(CodingMode.BYTE_PACKED, fullOptions)},
+            {builtinSchemaXml, new EXIParameters(CodingMode.BIT_PACKED, FidelityOptions.createDefault(),
+                EXISchema.BUILTIN)},
         });
     }
 
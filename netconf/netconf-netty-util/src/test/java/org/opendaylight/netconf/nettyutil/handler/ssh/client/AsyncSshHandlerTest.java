@@ -8,6 +8,10 @@
 
 package org.opendaylight.netconf.nettyutil.handler.ssh.client;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyObject;
@@ -22,21 +26,29 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import com.google.common.base.Strings;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
 import java.io.IOException;
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
 import org.apache.sshd.client.SshClient;
 import org.apache.sshd.client.channel.ChannelSubsystem;
 import org.apache.sshd.client.channel.ClientChannel;
@@ -57,9 +69,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.nettyutil.handler.ChunkedFramingMechanismEncoder;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 
 public class AsyncSshHandlerTest {
@@ -73,6 +90,8 @@ public class AsyncSshHandlerTest {
     @Mock
     private Channel channel;
     @Mock
+    private ChannelConfig channelConfig;
+    @Mock
     private SocketAddress remoteAddress;
     @Mock
     private SocketAddress localAddress;
@@ -151,6 +170,8 @@ public class AsyncSshHandlerTest {
 
     private void stubChannel() {
         doReturn("channel").when(channel).toString();
+        doReturn(channelConfig).when(channel).config();
+        doReturn(PooledByteBufAllocator.DEFAULT).when(channelConfig).getAllocator();
     }
 
     private void stubEventLoop() {
@@ -287,6 +308,105 @@ public class AsyncSshHandlerTest {
         verify(writePromise).setSuccess();
     }
 
+    @Test
+    public void testWriteSharesBackingArray() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getMockedIoOutputStream();
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        final byte[] bytes = new byte[]{0, 1, 2, 3, 4, 5};
+        asyncSshHandler.write(ctx, Unpooled.wrappedBuffer(bytes), getMockedPromise());
+
+        final ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn).write(captor.capture());
+        assertSame(bytes, captor.getValue().array());
+        assertEquals(6, captor.getValue().available());
+    }
+
+    @Test
+    public void testWriteCompositeBuffer() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getSynchronousIoOutputStream();
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        // Array-backed components are written as they are, others are copied
+        final byte[] bytes = new byte[]{0, 1, 2};
+        final CompositeByteBuf composite = Unpooled.compositeBuffer()
+            .addComponent(true, Unpooled.wrappedBuffer(bytes))
+            .addComponent(true, Unpooled.directBuffer().writeBytes(new byte[]{3, 4, 5}));
+        final ChannelPromise writePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, composite, writePromise);
+
+        final ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn, times(2)).write(captor.capture());
+        final List<Buffer> written = captor.getAllValues();
+        assertSame(bytes, written.get(0).array());
+        assertEquals(3, written.get(0).available());
+        assertArrayEquals(new byte[]{3, 4, 5}, written.get(1).getCompactData());
+        verify(writePromise).setSuccess();
+        assertEquals(0, composite.refCnt());
+    }
+
+    @Test
+    public void testWriteEncodedMessageWithoutCopy() throws Exception {
+        asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
+
+        final IoInputStream asyncOut = getMockedIoInputStream();
+        final IoOutputStream asyncIn = getSynchronousIoOutputStream();
+        final ChannelSubsystem subsystemChannel = getMockedSubsystemChannel(asyncOut, asyncIn);
+        final ClientSession sshSession = getMockedSshSession(subsystemChannel);
+        final ConnectFuture connectFuture = getSuccessConnectFuture(sshSession);
+
+        sshConnectListener.operationComplete(connectFuture);
+        sshAuthListener.operationComplete(getSuccessAuthFuture());
+        sshChannelOpenListener.operationComplete(getSuccessOpenFuture());
+
+        // Encode a message as the session pipeline does, with the allocator set up on connect
+        final ArgumentCaptor<ByteBufAllocator> allocator = ArgumentCaptor.forClass(ByteBufAllocator.class);
+        verify(channelConfig).setAllocator(allocator.capture());
+        final EmbeddedChannel encoder = new EmbeddedChannel(
+            new ChunkedFramingMechanismEncoder(ChunkedFramingMechanismEncoder.MIN_CHUNK_SIZE),
+            new NetconfMessageToXMLEncoder());
+        encoder.config().setAllocator(allocator.getValue());
+        encoder.writeOutbound(new NetconfMessage(XmlUtil.readXmlToDocument(
+            "<rpc message-id=\"1\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\"><get-config><source>"
+                + Strings.repeat("<running/>", 100) + "</source></get-config></rpc>")));
+        final ByteBuf frame = encoder.readOutbound();
+        final ByteBuffer[] parts = frame.nioBuffers();
+
+        final ChannelPromise writePromise = getMockedPromise();
+        asyncSshHandler.write(ctx, frame, writePromise);
+
+        final ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(asyncIn, times(parts.length)).write(captor.capture());
+        final List<Buffer> written = captor.getAllValues();
+        for (int i = 0; i < parts.length; ++i) {
+            if (parts[i].hasArray()) {
+                assertSame(parts[i].array(), written.get(i).array());
+            } else {
+                // Only chunk delimiters are not array-backed
+                assertTrue(parts[i].remaining() <= 16);
+            }
+        }
+        verify(writePromise).setSuccess();
+    }
+
     @Test
     public void testWriteClosed() throws Exception {
         asyncSshHandler.connect(ctx, remoteAddress, localAddress, promise);
@@ -509,6 +629,15 @@ public class AsyncSshHandlerTest {
         return mock;
     }
 
+    private static IoOutputStream getSynchronousIoOutputStream() {
+        final IoOutputStream mock = mock(IoOutputStream.class);
+        final IoWriteFuture ioWriteFuture = mock(IoWriteFuture.class);
+        doReturn(true).when(ioWriteFuture).isDone();
+        doReturn(true).when(ioWriteFuture).isWritten();
+        doReturn(ioWriteFuture).when(mock).write(any(Buffer.class));
+        return mock;
+    }
+
     private static IoInputStream getMockedIoInputStream() {
         final IoInputStream mock = mock(IoInputStream.class);
         final IoReadFuture ioReadFuture = mock(IoReadFuture.class);
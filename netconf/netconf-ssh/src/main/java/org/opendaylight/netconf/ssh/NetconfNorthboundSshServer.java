@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.ssh;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.local.LocalAddress;
@@ -42,6 +43,17 @@ public class NetconfNorthboundSshServer {
                                       final String bindingAddress,
                                       final String portNumber,
                                       final AuthProvider authProvider) {
+        this(netconfServerDispatcher, workerGroup, eventExecutor, bindingAddress, portNumber, authProvider,
+            ByteBufAllocator.DEFAULT);
+    }
+
+    public NetconfNorthboundSshServer(final NetconfServerDispatcher netconfServerDispatcher,
+                                      final EventLoopGroup workerGroup,
+                                      final EventExecutor eventExecutor,
+                                      final String bindingAddress,
+                                      final String portNumber,
+                                      final AuthProvider authProvider,
+                                      final ByteBufAllocator allocator) {
 
         final LocalAddress localAddress = new LocalAddress(portNumber);
 
@@ -56,6 +68,7 @@ public class NetconfNorthboundSshServer {
         sshProxyServerConfigurationBuilder.setAuthenticator(authProvider);
         sshProxyServerConfigurationBuilder.setIdleTimeout(Integer.MAX_VALUE);
         sshProxyServerConfigurationBuilder.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        sshProxyServerConfigurationBuilder.setAllocator(allocator);
 
         localServer.addListener(future -> {
             if (future.isDone() && !future.isCancelled()) {
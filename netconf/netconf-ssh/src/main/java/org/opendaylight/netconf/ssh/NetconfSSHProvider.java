@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.ssh;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.nio.NioEventLoopGroup;
 import java.io.File;
@@ -33,6 +34,7 @@ public class NetconfSSHProvider {
 
     private final AuthProvider authProvider;
     private final NetconfConfiguration netconfConfiguration;
+    private final ByteBufAllocator allocator;
 
     private ScheduledExecutorService minaTimerExecutor;
     private NioEventLoopGroup clientGroup;
@@ -42,9 +44,15 @@ public class NetconfSSHProvider {
 
     public NetconfSSHProvider(final AuthProvider authProvider,
                               final NetconfConfiguration netconfConfiguration) {
+        this(authProvider, netconfConfiguration, ByteBufAllocator.DEFAULT);
+    }
 
+    public NetconfSSHProvider(final AuthProvider authProvider,
+                              final NetconfConfiguration netconfConfiguration,
+                              final ByteBufAllocator allocator) {
         this.authProvider = authProvider;
         this.netconfConfiguration = netconfConfiguration;
+        this.allocator = allocator;
     }
 
     // Called via blueprint
@@ -100,6 +108,7 @@ public class NetconfSSHProvider {
                         .setAuthenticator(authProvider)
                         .setKeyPairProvider(keyPairProvider)
                         .setIdleTimeout(DEFAULT_IDLE_TIMEOUT)
+                        .setAllocator(allocator)
                         .createSshProxyServerConfiguration());
         return sshProxyServer;
     }
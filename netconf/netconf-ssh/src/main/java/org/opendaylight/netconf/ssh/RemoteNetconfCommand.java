@@ -10,9 +10,11 @@ package org.opendaylight.netconf.ssh;
 
 import com.google.common.base.Preconditions;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.local.LocalChannel;
@@ -46,6 +48,7 @@ public class RemoteNetconfCommand implements AsyncCommand, SessionAware {
 
     private final EventLoopGroup clientEventGroup;
     private final LocalAddress localAddress;
+    private final ByteBufAllocator allocator;
 
     private IoInputStream in;
     private IoOutputStream out;
@@ -56,8 +59,14 @@ public class RemoteNetconfCommand implements AsyncCommand, SessionAware {
     private ChannelFuture clientChannelFuture;
 
     public RemoteNetconfCommand(final EventLoopGroup clientEventGroup, final LocalAddress localAddress) {
+        this(clientEventGroup, localAddress, ByteBufAllocator.DEFAULT);
+    }
+
+    public RemoteNetconfCommand(final EventLoopGroup clientEventGroup, final LocalAddress localAddress,
+                                final ByteBufAllocator allocator) {
         this.clientEventGroup = clientEventGroup;
         this.localAddress = localAddress;
+        this.allocator = allocator;
     }
 
     @Override
@@ -107,7 +116,8 @@ public class RemoteNetconfCommand implements AsyncCommand, SessionAware {
         LOG.trace("Establishing internal connection to netconf server for client: {}", getClientAddress());
 
         final Bootstrap clientBootstrap = new Bootstrap();
-        clientBootstrap.group(clientEventGroup).channel(LocalChannel.class);
+        clientBootstrap.group(clientEventGroup).channel(LocalChannel.class)
+                .option(ChannelOption.ALLOCATOR, allocator);
 
         clientBootstrap.handler(new ChannelInitializer<LocalChannel>() {
             @Override
@@ -169,11 +179,17 @@ public class RemoteNetconfCommand implements AsyncCommand, SessionAware {
 
         private final EventLoopGroup clientBootstrap;
         private final LocalAddress localAddress;
+        private final ByteBufAllocator allocator;
 
         public NetconfCommandFactory(final EventLoopGroup clientBootstrap, final LocalAddress localAddress) {
+            this(clientBootstrap, localAddress, ByteBufAllocator.DEFAULT);
+        }
 
+        public NetconfCommandFactory(final EventLoopGroup clientBootstrap, final LocalAddress localAddress,
+                                     final ByteBufAllocator allocator) {
             this.clientBootstrap = clientBootstrap;
             this.localAddress = localAddress;
+            this.allocator = allocator;
         }
 
         @Override
@@ -183,7 +199,7 @@ public class RemoteNetconfCommand implements AsyncCommand, SessionAware {
 
         @Override
         public RemoteNetconfCommand create() {
-            return new RemoteNetconfCommand(clientBootstrap, localAddress);
+            return new RemoteNetconfCommand(clientBootstrap, localAddress, allocator);
         }
     }
 
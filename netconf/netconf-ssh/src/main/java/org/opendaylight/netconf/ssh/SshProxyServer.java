@@ -77,7 +77,7 @@ public class SshProxyServer implements AutoCloseable {
 
         final RemoteNetconfCommand.NetconfCommandFactory netconfCommandFactory =
                 new RemoteNetconfCommand.NetconfCommandFactory(clientGroup,
-                        sshProxyServerConfiguration.getLocalAddress());
+                        sshProxyServerConfiguration.getLocalAddress(), sshProxyServerConfiguration.getAllocator());
         sshServer.setSubsystemFactories(ImmutableList.of(netconfCommandFactory));
         sshServer.start();
     }
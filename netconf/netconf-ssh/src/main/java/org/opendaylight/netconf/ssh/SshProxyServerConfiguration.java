@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.ssh;
 
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.local.LocalAddress;
 import java.net.InetSocketAddress;
 import java.util.Optional;
@@ -23,6 +24,7 @@ public final class SshProxyServerConfiguration {
     private final KeyPairProvider keyPairProvider;
     private final int idleTimeout;
     private final Optional<PublickeyAuthenticator> publickeyAuthenticator;
+    private final ByteBufAllocator allocator;
 
     SshProxyServerConfiguration(final InetSocketAddress bindingAddress, final LocalAddress localAddress,
                     final AuthProvider authenticator, final KeyPairProvider keyPairProvider, final int idleTimeout) {
@@ -32,6 +34,14 @@ public final class SshProxyServerConfiguration {
     SshProxyServerConfiguration(final InetSocketAddress bindingAddress, final LocalAddress localAddress,
                                 final AuthProvider authenticator, final PublickeyAuthenticator publickeyAuthenticator,
                                 final KeyPairProvider keyPairProvider, final int idleTimeout) {
+        this(bindingAddress, localAddress, authenticator, publickeyAuthenticator, keyPairProvider, idleTimeout,
+            ByteBufAllocator.DEFAULT);
+    }
+
+    SshProxyServerConfiguration(final InetSocketAddress bindingAddress, final LocalAddress localAddress,
+                                final AuthProvider authenticator, final PublickeyAuthenticator publickeyAuthenticator,
+                                final KeyPairProvider keyPairProvider, final int idleTimeout,
+                                final ByteBufAllocator allocator) {
         this.bindingAddress = Preconditions.checkNotNull(bindingAddress);
         this.localAddress = Preconditions.checkNotNull(localAddress);
         this.authenticator = Preconditions.checkNotNull(authenticator);
@@ -40,6 +50,7 @@ public final class SshProxyServerConfiguration {
         Preconditions.checkArgument(idleTimeout > 0, "Idle timeout has to be > 0");
         this.idleTimeout = idleTimeout;
         this.publickeyAuthenticator = Optional.ofNullable(publickeyAuthenticator);
+        this.allocator = Preconditions.checkNotNull(allocator);
     }
 
     public InetSocketAddress getBindingAddress() {
@@ -65,4 +76,8 @@ public final class SshProxyServerConfiguration {
     public Optional<PublickeyAuthenticator> getPublickeyAuthenticator() {
         return publickeyAuthenticator;
     }
+
+    public ByteBufAllocator getAllocator() {
+        return allocator;
+    }
 }
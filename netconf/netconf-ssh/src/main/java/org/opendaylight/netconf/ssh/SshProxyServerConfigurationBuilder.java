@@ -7,6 +7,7 @@
  */
 package org.opendaylight.netconf.ssh;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.local.LocalAddress;
 import java.net.InetSocketAddress;
 import org.apache.sshd.common.keyprovider.KeyPairProvider;
@@ -20,6 +21,7 @@ public final class SshProxyServerConfigurationBuilder {
     private KeyPairProvider keyPairProvider;
     private int idleTimeout;
     private PublickeyAuthenticator publickeyAuthenticator = null;
+    private ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
 
     public SshProxyServerConfigurationBuilder setBindingAddress(final InetSocketAddress bindingAddress) {
         this.bindingAddress = bindingAddress;
@@ -52,9 +54,14 @@ public final class SshProxyServerConfigurationBuilder {
         return this;
     }
 
+    public SshProxyServerConfigurationBuilder setAllocator(final ByteBufAllocator allocator) {
+        this.allocator = allocator;
+        return this;
+    }
+
     public SshProxyServerConfiguration createSshProxyServerConfiguration() {
         return new SshProxyServerConfiguration(bindingAddress, localAddress, authenticator, publickeyAuthenticator,
-                keyPairProvider, idleTimeout);
+                keyPairProvider, idleTimeout, allocator);
     }
 
     public static SshProxyServerConfigurationBuilder create() {
@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.tcp;
 
+import io.netty.buffer.ByteBufAllocator;
 import java.net.InetSocketAddress;
 import org.opendaylight.netconf.tcp.netty.ProxyServer;
 import org.opendaylight.netconf.util.NetconfConfiguration;
@@ -21,10 +22,16 @@ public class NetconfTCPProvider {
     private static final Logger LOG = LoggerFactory.getLogger(NetconfTCPProvider.class);
 
     private final NetconfConfiguration netconfConfiguration;
+    private final ByteBufAllocator allocator;
     private ProxyServer proxyServer;
 
     public NetconfTCPProvider(final NetconfConfiguration netconfConfiguration) {
+        this(netconfConfiguration, ByteBufAllocator.DEFAULT);
+    }
+
+    public NetconfTCPProvider(final NetconfConfiguration netconfConfiguration, final ByteBufAllocator allocator) {
         this.netconfConfiguration = netconfConfiguration;
+        this.allocator = allocator;
     }
 
     // Called via blueprint
@@ -38,7 +45,7 @@ public class NetconfTCPProvider {
                     + "changing tcp-address in netconf.cfg to 127.0.0.1");
         }
         LOG.info("Starting TCP netconf server at {}", address);
-        proxyServer = new ProxyServer(address, NetconfConfiguration.NETCONF_LOCAL_ADDRESS);
+        proxyServer = new ProxyServer(address, NetconfConfiguration.NETCONF_LOCAL_ADDRESS, allocator);
     }
 
     // Called via blueprint
@@ -10,8 +10,10 @@ package org.opendaylight.netconf.tcp.netty;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.local.LocalChannel;
@@ -28,13 +30,19 @@ public class ProxyServer implements AutoCloseable {
     private final ChannelFuture channelFuture;
 
     public ProxyServer(InetSocketAddress address, final LocalAddress localAddress) {
+        this(address, localAddress, ByteBufAllocator.DEFAULT);
+    }
+
+    public ProxyServer(InetSocketAddress address, final LocalAddress localAddress, final ByteBufAllocator allocator) {
         // Configure the server.
         final Bootstrap clientBootstrap = new Bootstrap();
-        clientBootstrap.group(bossGroup).channel(LocalChannel.class);
+        clientBootstrap.group(bossGroup).channel(LocalChannel.class)
+                .option(ChannelOption.ALLOCATOR, allocator);
 
         ServerBootstrap serverBootstrap = new ServerBootstrap();
         serverBootstrap.group(bossGroup, workerGroup)
                 .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.ALLOCATOR, allocator)
                 .handler(new LoggingHandler(LogLevel.DEBUG))
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
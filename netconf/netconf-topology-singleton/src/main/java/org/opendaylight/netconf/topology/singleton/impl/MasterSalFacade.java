@@ -28,6 +28,8 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPrefe
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceDataBroker;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceNotificationService;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceSalProvider;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ConfigReadCaching;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.EditConfigBatching;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.singleton.messages.CreateInitialMasterActorData;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -47,6 +49,8 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
     private final NetconfDeviceSalProvider salProvider;
     private final ActorRef masterActorRef;
     private final ActorSystem actorSystem;
+    private final EditConfigBatching batching;
+    private final ConfigReadCaching readCaching;
 
     private SchemaContext currentSchemaContext = null;
     private NetconfSessionPreferences netconfSessionPreferences = null;
@@ -58,12 +62,16 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
                     final ActorRef masterActorRef,
                     final Timeout actorResponseWaitTime,
                     final DOMMountPointService mountService,
-                    final DataBroker dataBroker) {
+                    final DataBroker dataBroker,
+                    final EditConfigBatching batching,
+                    final ConfigReadCaching readCaching) {
         this.id = id;
         this.salProvider = new NetconfDeviceSalProvider(id, mountService, dataBroker);
         this.actorSystem = actorSystem;
         this.masterActorRef = masterActorRef;
         this.actorResponseWaitTime = actorResponseWaitTime;
+        this.batching = batching;
+        this.readCaching = readCaching;
     }
 
     @Override
@@ -107,6 +115,9 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
 
     @Override
     public void onNotification(final DOMNotification domNotification) {
+        if (deviceDataBroker instanceof NetconfDeviceDataBroker) {
+            ((NetconfDeviceDataBroker) deviceDataBroker).onNotification(domNotification);
+        }
         salProvider.getMountInstance().publish(domNotification);
     }
 
@@ -136,7 +147,8 @@ class MasterSalFacade implements AutoCloseable, RemoteDeviceHandler<NetconfSessi
     }
 
     protected DOMDataBroker newDeviceDataBroker() {
-        return new NetconfDeviceDataBroker(id, currentSchemaContext, deviceRpc, netconfSessionPreferences);
+        return new NetconfDeviceDataBroker(id, currentSchemaContext, deviceRpc, netconfSessionPreferences,
+                batching, readCaching);
     }
 
     private Future<Object> sendInitialDataToActor() {
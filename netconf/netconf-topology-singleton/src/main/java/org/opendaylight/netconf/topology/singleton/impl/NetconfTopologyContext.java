@@ -181,7 +181,10 @@ class NetconfTopologyContext implements ClusterSingletonService, AutoCloseable {
     }
 
     protected MasterSalFacade newMasterSalFacade() {
+        final NetconfNode netconfNode = netconfTopologyDeviceSetup.getNode().augmentation(NetconfNode.class);
         return new MasterSalFacade(remoteDeviceId, netconfTopologyDeviceSetup.getActorSystem(), masterActorRef,
-                actorResponseWaitTime, mountService, netconfTopologyDeviceSetup.getDataBroker());
+                actorResponseWaitTime, mountService, netconfTopologyDeviceSetup.getDataBroker(),
+                NetconfTopologyUtils.getEditConfigBatching(netconfNode),
+                NetconfTopologyUtils.getConfigReadCaching(netconfNode));
     }
 }
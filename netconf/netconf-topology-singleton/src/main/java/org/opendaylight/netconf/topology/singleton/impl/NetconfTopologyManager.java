@@ -18,6 +18,7 @@ import io.netty.util.concurrent.EventExecutor;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import org.opendaylight.aaa.encrypt.AAAEncryptionService;
@@ -38,6 +39,8 @@ import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvid
 import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceRegistration;
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConnectionAdmission;
+import org.opendaylight.netconf.sal.connect.util.NetconfParserExecutor;
 import org.opendaylight.netconf.topology.singleton.api.NetconfTopologySingletonService;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologySetup;
 import org.opendaylight.netconf.topology.singleton.impl.utils.NetconfTopologySetup.NetconfTopologySetupBuilder;
@@ -82,6 +85,12 @@ public class NetconfTopologyManager
     private ListenerRegistration<NetconfTopologyManager> dataChangeListenerRegistration;
     private String privateKeyPath;
     private String privateKeyPassphrase;
+    // Replies are parsed by the thread receiving them unless blueprint sets up a parser pool
+    private Executor parserExecutor = MoreExecutors.directExecutor();
+    // Notifications are forwarded by the thread receiving them unless blueprint sets up a notification pool
+    private Executor notificationExecutor = MoreExecutors.directExecutor();
+    // Connection attempts are not limited unless blueprint sets up an admission of the topology
+    private ConnectionAdmission connectionAdmission = new ConnectionAdmission(0, 0, 0.25);
 
     public NetconfTopologyManager(final DataBroker dataBroker, final RpcProviderRegistry rpcProviderRegistry,
                                   final ClusterSingletonServiceProvider clusterSingletonServiceProvider,
@@ -239,6 +248,27 @@ public class NetconfTopologyManager
         this.privateKeyPassphrase = privateKeyPassphrase;
     }
 
+    /**
+     * Sets the pool parsing replies of devices, created using blueprint.
+     */
+    public void setParserExecutor(final NetconfParserExecutor parserExecutor) {
+        this.parserExecutor = parserExecutor.getExecutor();
+    }
+
+    /**
+     * Sets the pool parsing and forwarding notifications of devices, created using blueprint.
+     */
+    public void setNotificationExecutor(final NetconfParserExecutor notificationExecutor) {
+        this.notificationExecutor = notificationExecutor.getExecutor();
+    }
+
+    /**
+     * Sets the admission of connection attempts of devices, created using blueprint.
+     */
+    public void setConnectionAdmission(final ConnectionAdmission connectionAdmission) {
+        this.connectionAdmission = connectionAdmission;
+    }
+
     private ListenerRegistration<NetconfTopologyManager> registerDataTreeChangeListener() {
         final WriteTransaction wtx = dataBroker.newWriteOnlyTransaction();
         initTopology(wtx, LogicalDatastoreType.CONFIGURATION);
@@ -282,6 +312,9 @@ public class NetconfTopologyManager
                 .setEventExecutor(eventExecutor)
                 .setKeepaliveExecutor(keepaliveExecutor)
                 .setProcessingExecutor(processingExecutor)
+                .setParserExecutor(parserExecutor)
+                .setNotificationExecutor(notificationExecutor)
+                .setConnectionAdmission(connectionAdmission)
                 .setTopologyId(topologyId)
                 .setNetconfClientDispatcher(clientDispatcher)
                 .setSchemaResourceDTO(NetconfTopologyUtils.setupSchemaCacheDTO(node))
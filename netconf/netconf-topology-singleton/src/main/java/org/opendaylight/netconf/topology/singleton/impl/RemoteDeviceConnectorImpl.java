@@ -31,6 +31,7 @@ import org.opendaylight.netconf.client.NetconfClientSessionListener;
 import org.opendaylight.netconf.client.conf.NetconfClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfigurationBuilder;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.LoginPasswordHandler;
 import org.opendaylight.netconf.sal.connect.api.RemoteDevice;
@@ -40,6 +41,8 @@ import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDeviceBuilder;
 import org.opendaylight.netconf.sal.connect.netconf.SchemalessNetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.auth.DatastoreBackedPublicKeyAuth;
+import org.opendaylight.netconf.sal.connect.netconf.listener.AdmittedReconnectStrategyFactory;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConcurrentRpcLimiter;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
@@ -160,7 +163,7 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
             LOG.info("{}: Adding keepalive facade.", remoteDeviceId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade,
                     netconfTopologyDeviceSetup.getKeepaliveExecutor().getExecutor(), keepaliveDelay,
-                    defaultRequestTimeoutMillis);
+                    defaultRequestTimeoutMillis, NetconfTopologyUtils.getKeepaliveProbing(node));
         }
 
         final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = netconfTopologyDeviceSetup.getSchemaResourcesDTO();
@@ -193,6 +196,14 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
             }
         }
 
+        // Outstanding get-schema requests count against the limit of concurrent rpcs
+        int schemaDownloadWindow = node.getSchemaDownloadWindow() == null
+                ? NetconfTopologyUtils.DEFAULT_SCHEMA_DOWNLOAD_WINDOW : node.getSchemaDownloadWindow();
+        final Integer rpcLimit = node.getConcurrentRpcLimit();
+        if (rpcLimit != null && rpcLimit > 0 && (schemaDownloadWindow < 1 || schemaDownloadWindow > rpcLimit)) {
+            schemaDownloadWindow = rpcLimit;
+        }
+
         final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> device;
         if (node.isSchemaless()) {
             device = new SchemalessNetconfDevice(remoteDeviceId, salFacade);
@@ -201,6 +212,11 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                     .setReconnectOnSchemasChange(reconnectOnChangedSchema)
                     .setSchemaResourcesDTO(schemaResourcesDTO)
                     .setGlobalProcessingExecutor(netconfTopologyDeviceSetup.getProcessingExecutor().getExecutor())
+                    .setParserExecutor(netconfTopologyDeviceSetup.getParserExecutor())
+                    .setSchemaDownloadWindow(schemaDownloadWindow)
+                    .setDynamicExiGrammars(NetconfTopologyUtils.getExiSchema(node) == EXISchema.DYNAMIC)
+                    .setNotificationExecutor(netconfTopologyDeviceSetup.getNotificationExecutor())
+                    .setNotificationQueueing(NetconfTopologyUtils.getNotificationQueueing(node))
                     .setId(remoteDeviceId)
                     .setSalFacade(salFacade)
                     .build();
@@ -214,6 +230,12 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
         if (rpcMessageLimit < 1) {
             LOG.info("{}: Concurrent rpc limit is smaller than 1, no limit will be enforced.", remoteDeviceId);
         }
+        final ConcurrentRpcLimiter rpcLimiter = ConcurrentRpcLimiter.create(rpcMessageLimit,
+                node.getConcurrentRpcQueueDepth() == null
+                        ? NetconfTopologyUtils.DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH : node.getConcurrentRpcQueueDepth(),
+                node.getConcurrentRpcQueueTimeoutMillis() == null
+                        ? NetconfTopologyUtils.DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS
+                        : node.getConcurrentRpcQueueTimeoutMillis());
 
         NetconfDeviceCommunicator netconfDeviceCommunicator =
              userCapabilities.isPresent() ? new NetconfDeviceCommunicator(remoteDeviceId, device,
@@ -221,8 +243,9 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                  Objects.isNull(node.getYangModuleCapabilities())
                          ? false : node.getYangModuleCapabilities().isOverride(),
                  Objects.isNull(node.getNonModuleCapabilities())
-                         ? false : node.getNonModuleCapabilities().isOverride()), rpcMessageLimit)
-            : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit);
+                         ? false : node.getNonModuleCapabilities().isOverride()), rpcLimiter,
+                 defaultRequestTimeoutMillis)
+            : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcLimiter, defaultRequestTimeoutMillis);
 
         if (salFacade instanceof KeepaliveSalFacade) {
             ((KeepaliveSalFacade)salFacade).setListener(netconfDeviceCommunicator);
@@ -278,12 +301,22 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                 ? NetconfTopologyUtils.DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS : node.getBetweenAttemptsTimeoutMillis();
         final BigDecimal sleepFactor = node.getSleepFactor() == null
                 ? NetconfTopologyUtils.DEFAULT_SLEEP_FACTOR : node.getSleepFactor();
+        final int connectionTier = node.getConnectionTier() == null
+                ? NetconfTopologyUtils.DEFAULT_CONNECTION_TIER : node.getConnectionTier();
+        final boolean deferDomParsing = node.isDeferDomParsing() == null
+                ? NetconfTopologyUtils.DEFAULT_DEFER_DOM_PARSING : node.isDeferDomParsing();
+        final boolean compactXml = node.isCompactXml() == null
+                ? NetconfTopologyUtils.DEFAULT_COMPACT_XML : node.isCompactXml();
 
         final InetSocketAddress socketAddress = getSocketAddress(node.getHost(), node.getPort().getValue());
 
-        final ReconnectStrategyFactory sf =
+        // An attempt takes at most the connect timeout, which is the same as the sleep, and the negotiation
+        final ReconnectStrategyFactory sf = new AdmittedReconnectStrategyFactory(
+                netconfTopologyDeviceSetup.getEventExecutor(),
                 new TimedReconnectStrategyFactory(netconfTopologyDeviceSetup.getEventExecutor(), maxConnectionAttempts,
-                        betweenAttemptsTimeoutMillis, sleepFactor);
+                        betweenAttemptsTimeoutMillis, sleepFactor),
+                netconfTopologyDeviceSetup.getConnectionAdmission(), connectionTier,
+                betweenAttemptsTimeoutMillis + clientConnectionTimeoutMillis);
         final ReconnectStrategy strategy = sf.createReconnectStrategy();
 
         final AuthenticationHandler authHandler = getHandlerFromCredentials(node.getCredentials());
@@ -298,7 +331,11 @@ public class RemoteDeviceConnectorImpl implements RemoteDeviceConnector {
                                 ? NetconfClientConfiguration.NetconfClientProtocol.TCP
                                 : NetconfClientConfiguration.NetconfClientProtocol.SSH)
                         .withConnectStrategyFactory(sf)
-                        .withSessionListener(listener);
+                        .withSessionListener(listener)
+                        .withDeferDomParsing(deferDomParsing)
+                        .withCompactXml(compactXml)
+                        .withExiSchema(NetconfTopologyUtils.getExiSchema(node))
+                        .withWriteBufferWaterMark(NetconfTopologyUtils.getWriteBufferWaterMark(node));
 
         final List<Uri> odlHelloCapabilities = getOdlHelloCapabilities(node);
         if (odlHelloCapabilities != null) {
@@ -9,7 +9,9 @@
 package org.opendaylight.netconf.topology.singleton.impl.utils;
 
 import akka.actor.ActorSystem;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.Executor;
 import org.opendaylight.aaa.encrypt.AAAEncryptionService;
 import org.opendaylight.controller.config.threadpool.ScheduledThreadPool;
 import org.opendaylight.controller.config.threadpool.ThreadPool;
@@ -18,6 +20,7 @@ import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvider;
 import org.opendaylight.netconf.client.NetconfClientDispatcher;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConnectionAdmission;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import scala.concurrent.duration.Duration;
@@ -31,6 +34,9 @@ public class NetconfTopologySetup {
     private final Node node;
     private final ScheduledThreadPool keepaliveExecutor;
     private final ThreadPool processingExecutor;
+    private final Executor parserExecutor;
+    private final Executor notificationExecutor;
+    private final ConnectionAdmission connectionAdmission;
     private final ActorSystem actorSystem;
     private final EventExecutor eventExecutor;
     private final NetconfClientDispatcher netconfClientDispatcher;
@@ -49,6 +55,9 @@ public class NetconfTopologySetup {
         this.node = builder.getNode();
         this.keepaliveExecutor = builder.getKeepaliveExecutor();
         this.processingExecutor = builder.getProcessingExecutor();
+        this.parserExecutor = builder.getParserExecutor();
+        this.notificationExecutor = builder.getNotificationExecutor();
+        this.connectionAdmission = builder.getConnectionAdmission();
         this.actorSystem = builder.getActorSystem();
         this.eventExecutor = builder.getEventExecutor();
         this.netconfClientDispatcher = builder.getNetconfClientDispatcher();
@@ -88,6 +97,18 @@ public class NetconfTopologySetup {
         return keepaliveExecutor;
     }
 
+    public Executor getParserExecutor() {
+        return parserExecutor;
+    }
+
+    public Executor getNotificationExecutor() {
+        return notificationExecutor;
+    }
+
+    public ConnectionAdmission getConnectionAdmission() {
+        return connectionAdmission;
+    }
+
     public ActorSystem getActorSystem() {
         return actorSystem;
     }
@@ -133,6 +154,9 @@ public class NetconfTopologySetup {
         private Node node;
         private ScheduledThreadPool keepaliveExecutor;
         private ThreadPool processingExecutor;
+        private Executor parserExecutor = MoreExecutors.directExecutor();
+        private Executor notificationExecutor = MoreExecutors.directExecutor();
+        private ConnectionAdmission connectionAdmission = new ConnectionAdmission(0, 0, 0);
         private ActorSystem actorSystem;
         private EventExecutor eventExecutor;
         private String topologyId;
@@ -296,6 +320,33 @@ public class NetconfTopologySetup {
             return this;
         }
 
+        private Executor getParserExecutor() {
+            return parserExecutor;
+        }
+
+        public NetconfTopologySetupBuilder setParserExecutor(final Executor parserExecutor) {
+            this.parserExecutor = parserExecutor;
+            return this;
+        }
+
+        private Executor getNotificationExecutor() {
+            return notificationExecutor;
+        }
+
+        public NetconfTopologySetupBuilder setNotificationExecutor(final Executor notificationExecutor) {
+            this.notificationExecutor = notificationExecutor;
+            return this;
+        }
+
+        private ConnectionAdmission getConnectionAdmission() {
+            return connectionAdmission;
+        }
+
+        public NetconfTopologySetupBuilder setConnectionAdmission(final ConnectionAdmission connectionAdmission) {
+            this.connectionAdmission = connectionAdmission;
+            return this;
+        }
+
         public static NetconfTopologySetupBuilder create() {
             return new NetconfTopologySetupBuilder();
         }
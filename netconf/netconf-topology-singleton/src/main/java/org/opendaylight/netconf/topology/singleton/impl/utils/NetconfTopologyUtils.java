@@ -9,16 +9,28 @@
 package org.opendaylight.netconf.topology.singleton.impl.utils;
 
 import com.google.common.base.Strings;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.netty.channel.WriteBufferWaterMark;
 import java.io.File;
 import java.math.BigDecimal;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.opendaylight.netconf.api.DocumentedException;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandlerWriter;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfStateSchemasResolverImpl;
+import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveProbing;
+import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveProbing.Probe;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ConfigReadCaching;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.EditConfigBatching;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourcePreparser;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing.OverflowPolicy;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.NetconfNode;
@@ -54,10 +66,23 @@ public final class NetconfTopologyUtils {
     public static final int DEFAULT_KEEPALIVE_DELAY = 0;
     public static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     public static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    public static final int DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH = 0;
+    public static final long DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS = 10000L;
+    public static final int DEFAULT_SCHEMA_DOWNLOAD_WINDOW = 16;
     public static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     public static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     public static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
     public static final BigDecimal DEFAULT_SLEEP_FACTOR = new BigDecimal(1.5);
+    public static final int DEFAULT_CONNECTION_TIER = 0;
+    public static final boolean DEFAULT_DEFER_DOM_PARSING = false;
+    public static final boolean DEFAULT_COMPACT_XML = false;
+    public static final EXISchema DEFAULT_EXI_SCHEMA = EXISchema.NONE;
+    public static final int DEFAULT_EDIT_CONFIG_BATCH_SIZE = 0;
+    public static final long DEFAULT_CONFIG_READ_CACHE_TTL_MILLIS = 0L;
+    public static final long DEFAULT_CONFIG_READ_CACHE_MAX_ENTRIES = 1000L;
+    public static final int DEFAULT_NOTIFICATION_QUEUE_CAPACITY = NotificationQueueing.DEFAULT_CAPACITY;
+    public static final OverflowPolicy DEFAULT_NOTIFICATION_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+    public static final Probe DEFAULT_KEEPALIVE_PROBE = Probe.GET_CONFIG;
 
 
     // The default cache directory relative to <code>CACHE_DIRECTORY</code>
@@ -116,6 +141,7 @@ public final class NetconfTopologyUtils {
                         new FilesystemSchemaSourceCache<>(DEFAULT_SCHEMA_REPOSITORY, YangTextSchemaSource.class,
                                 new File(QUALIFIED_DEFAULT_CACHE_DIRECTORY));
                 DEFAULT_SCHEMA_REPOSITORY.registerSchemaSourceListener(defaultCache);
+                SchemaSourcePreparser.preparse(DEFAULT_SCHEMA_REPOSITORY, new File(QUALIFIED_DEFAULT_CACHE_DIRECTORY));
                 break;
             } catch (IllegalArgumentException e) {
                 if (tries++ >= 3) {
@@ -156,6 +182,8 @@ public final class NetconfTopologyUtils {
                                 TextToASTTransformer.create((SchemaRepository) schemaResourcesDTO.getSchemaRegistry(),
                                         schemaResourcesDTO.getSchemaRegistry())
                         );
+                        SchemaSourcePreparser.preparse(schemaResourcesDTO.getSchemaRepository(),
+                                new File(CACHE_DIRECTORY + File.separator + moduleSchemaCacheDirectory));
                         SCHEMA_RESOURCES_DTO_MAP.put(moduleSchemaCacheDirectory, schemaResourcesDTO);
                     }
                 }
@@ -210,6 +238,43 @@ public final class NetconfTopologyUtils {
     }
 
 
+    public static EXISchema getExiSchema(final NetconfNode node) {
+        return node.getExiSchema() == null ? DEFAULT_EXI_SCHEMA
+                : EXISchema.valueOf(node.getExiSchema().getName().toUpperCase(Locale.ROOT));
+    }
+
+    public static EditConfigBatching getEditConfigBatching(final NetconfNode node) {
+        return EditConfigBatching.create(node.getEditConfigBatchSize() == null
+                ? DEFAULT_EDIT_CONFIG_BATCH_SIZE : node.getEditConfigBatchSize());
+    }
+
+    public static KeepaliveProbing getKeepaliveProbing(final NetconfNode node) {
+        return new KeepaliveProbing(node.getKeepaliveProbe() == null ? DEFAULT_KEEPALIVE_PROBE
+                : Probe.forName(node.getKeepaliveProbe().getName()));
+    }
+
+    public static NotificationQueueing getNotificationQueueing(final NetconfNode node) {
+        return new NotificationQueueing(node.getNotificationQueueCapacity() == null
+                ? DEFAULT_NOTIFICATION_QUEUE_CAPACITY : Ints.saturatedCast(node.getNotificationQueueCapacity()),
+                node.getNotificationOverflowPolicy() == null ? DEFAULT_NOTIFICATION_OVERFLOW_POLICY
+                        : OverflowPolicy.forName(node.getNotificationOverflowPolicy().getName()));
+    }
+
+    public static ConfigReadCaching getConfigReadCaching(final NetconfNode node) {
+        return ConfigReadCaching.create(node.getConfigReadCacheTtlMillis() == null
+                ? DEFAULT_CONFIG_READ_CACHE_TTL_MILLIS : node.getConfigReadCacheTtlMillis(),
+                node.getConfigReadCacheMaxEntries() == null
+                        ? DEFAULT_CONFIG_READ_CACHE_MAX_ENTRIES : node.getConfigReadCacheMaxEntries());
+    }
+
+    public static WriteBufferWaterMark getWriteBufferWaterMark(final NetconfNode node) {
+        final WriteBufferWaterMark defaults = AsyncSshHandlerWriter.DEFAULT_WATER_MARK;
+        final Long low = node.getWriteBufferLowWaterMark();
+        final Long high = node.getWriteBufferHighWaterMark();
+        return new WriteBufferWaterMark(low == null ? defaults.low() : Ints.saturatedCast(low),
+                high == null ? defaults.high() : Ints.saturatedCast(high));
+    }
+
     public static RemoteDeviceId createRemoteDeviceId(final NodeId nodeId, final NetconfNode node) {
         final IpAddress ipAddress = node.getHost().getIpAddress();
         final InetSocketAddress address = new InetSocketAddress(ipAddress.getIpv4Address() != null
@@ -13,11 +13,13 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.EventExecutor;
 import java.io.File;
@@ -30,8 +32,10 @@ import java.security.KeyStore;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -49,8 +53,10 @@ import org.opendaylight.netconf.client.SslHandlerFactory;
 import org.opendaylight.netconf.client.conf.NetconfClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfiguration;
 import org.opendaylight.netconf.client.conf.NetconfReconnectingClientConfigurationBuilder;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.AuthenticationHandler;
 import org.opendaylight.netconf.nettyutil.handler.ssh.authentication.LoginPasswordHandler;
+import org.opendaylight.netconf.nettyutil.handler.ssh.client.AsyncSshHandlerWriter;
 import org.opendaylight.netconf.sal.connect.api.RemoteDevice;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.LibraryModulesSchemas;
@@ -59,13 +65,24 @@ import org.opendaylight.netconf.sal.connect.netconf.NetconfDeviceBuilder;
 import org.opendaylight.netconf.sal.connect.netconf.NetconfStateSchemasResolverImpl;
 import org.opendaylight.netconf.sal.connect.netconf.SchemalessNetconfDevice;
 import org.opendaylight.netconf.sal.connect.netconf.auth.DatastoreBackedPublicKeyAuth;
+import org.opendaylight.netconf.sal.connect.netconf.listener.AdmittedReconnectStrategyFactory;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConcurrentRpcLimiter;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConnectionAdmission;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.listener.UserPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveProbing;
+import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveProbing.Probe;
 import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveSalFacade;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfKeystoreAdapter;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ConfigReadCaching;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.EditConfigBatching;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaSourcePreparser;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
+import org.opendaylight.netconf.sal.connect.util.NetconfParserExecutor;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing.OverflowPolicy;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.netconf.topology.api.NetconfTopology;
 import org.opendaylight.netconf.topology.api.SchemaRepositoryProvider;
@@ -112,10 +129,23 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     protected static final int DEFAULT_KEEPALIVE_DELAY = 0;
     protected static final boolean DEFAULT_RECONNECT_ON_CHANGED_SCHEMA = false;
     protected static final int DEFAULT_CONCURRENT_RPC_LIMIT = 0;
+    protected static final int DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH = 0;
+    protected static final long DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS = 10000L;
+    protected static final int DEFAULT_SCHEMA_DOWNLOAD_WINDOW = 16;
     private static final int DEFAULT_MAX_CONNECTION_ATTEMPTS = 0;
     private static final int DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS = 2000;
     private static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 20000L;
     private static final BigDecimal DEFAULT_SLEEP_FACTOR = new BigDecimal(1.5);
+    private static final int DEFAULT_CONNECTION_TIER = 0;
+    private static final boolean DEFAULT_DEFER_DOM_PARSING = false;
+    private static final boolean DEFAULT_COMPACT_XML = false;
+    private static final EXISchema DEFAULT_EXI_SCHEMA = EXISchema.NONE;
+    private static final int DEFAULT_EDIT_CONFIG_BATCH_SIZE = 0;
+    private static final long DEFAULT_CONFIG_READ_CACHE_TTL_MILLIS = 0L;
+    private static final long DEFAULT_CONFIG_READ_CACHE_MAX_ENTRIES = 1000L;
+    private static final int DEFAULT_NOTIFICATION_QUEUE_CAPACITY = NotificationQueueing.DEFAULT_CAPACITY;
+    private static final OverflowPolicy DEFAULT_NOTIFICATION_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+    private static final Probe DEFAULT_KEEPALIVE_PROBE = Probe.GET_CONFIG;
 
     // constants related to Schema Cache(s)
     /**
@@ -189,6 +219,7 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                         new FilesystemSchemaSourceCache<>(DEFAULT_SCHEMA_REPOSITORY, YangTextSchemaSource.class,
                                 new File(QUALIFIED_DEFAULT_CACHE_DIRECTORY));
                 DEFAULT_SCHEMA_REPOSITORY.registerSchemaSourceListener(defaultCache);
+                SchemaSourcePreparser.preparse(DEFAULT_SCHEMA_REPOSITORY, new File(QUALIFIED_DEFAULT_CACHE_DIRECTORY));
                 break;
             } catch (IllegalArgumentException e) {
                 if (tries++ >= 3) {
@@ -214,6 +245,12 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
     protected SchemaContextFactory schemaContextFactory = DEFAULT_SCHEMA_CONTEXT_FACTORY;
     protected String privateKeyPath;
     protected String privateKeyPassphrase;
+    // Replies are parsed by the thread receiving them unless blueprint sets up a parser pool
+    protected Executor parserExecutor = MoreExecutors.directExecutor();
+    // Notifications are forwarded by the thread receiving them unless blueprint sets up a notification pool
+    protected Executor notificationExecutor = MoreExecutors.directExecutor();
+    // Connection attempts are not limited unless blueprint sets up an admission of the topology
+    protected ConnectionAdmission connectionAdmission = new ConnectionAdmission(0, 0, 0.25);
     protected final AAAEncryptionService encryptionService;
     protected final HashMap<NodeId, NetconfConnectorDTO> activeConnectors = new HashMap<>();
 
@@ -316,12 +353,12 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         final RemoteDeviceId remoteDeviceId = new RemoteDeviceId(nodeId.getValue(), address);
 
         RemoteDeviceHandler<NetconfSessionPreferences> salFacade =
-                createSalFacade(remoteDeviceId);
+                createSalFacade(remoteDeviceId, node);
 
         if (keepaliveDelay > 0) {
             LOG.warn("Adding keepalive facade, for device {}", nodeId);
             salFacade = new KeepaliveSalFacade(remoteDeviceId, salFacade, keepaliveExecutor.getExecutor(),
-                    keepaliveDelay, defaultRequestTimeoutMillis);
+                    keepaliveDelay, defaultRequestTimeoutMillis, getKeepaliveProbing(node));
         }
 
         // pre register yang library sources as fallback schemas to schema registry
@@ -351,6 +388,14 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
             }
         }
 
+        // Outstanding get-schema requests count against the limit of concurrent rpcs
+        int schemaDownloadWindow = node.getSchemaDownloadWindow() == null
+                ? DEFAULT_SCHEMA_DOWNLOAD_WINDOW : node.getSchemaDownloadWindow();
+        final Integer rpcLimit = node.getConcurrentRpcLimit();
+        if (rpcLimit != null && rpcLimit > 0 && (schemaDownloadWindow < 1 || schemaDownloadWindow > rpcLimit)) {
+            schemaDownloadWindow = rpcLimit;
+        }
+
         final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = setupSchemaCacheDTO(nodeId, node);
         final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> device;
         if (node.isSchemaless()) {
@@ -360,6 +405,11 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                     .setReconnectOnSchemasChange(reconnectOnChangedSchema)
                     .setSchemaResourcesDTO(schemaResourcesDTO)
                     .setGlobalProcessingExecutor(processingExecutor.getExecutor())
+                    .setParserExecutor(parserExecutor)
+                    .setSchemaDownloadWindow(schemaDownloadWindow)
+                    .setDynamicExiGrammars(getExiSchema(node) == EXISchema.DYNAMIC)
+                    .setNotificationExecutor(notificationExecutor)
+                    .setNotificationQueueing(getNotificationQueueing(node))
                     .setId(remoteDeviceId)
                     .setSalFacade(salFacade)
                     .build();
@@ -372,11 +422,16 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         if (rpcMessageLimit < 1) {
             LOG.info("Concurrent rpc limit is smaller than 1, no limit will be enforced for device {}", remoteDeviceId);
         }
+        final ConcurrentRpcLimiter rpcLimiter = ConcurrentRpcLimiter.create(rpcMessageLimit,
+                node.getConcurrentRpcQueueDepth() == null
+                        ? DEFAULT_CONCURRENT_RPC_QUEUE_DEPTH : node.getConcurrentRpcQueueDepth(),
+                node.getConcurrentRpcQueueTimeoutMillis() == null
+                        ? DEFAULT_CONCURRENT_RPC_QUEUE_TIMEOUT_MILLIS : node.getConcurrentRpcQueueTimeoutMillis());
 
         NetconfDeviceCommunicator netconfDeviceCommunicator =
              userCapabilities.isPresent() ? new NetconfDeviceCommunicator(remoteDeviceId, device,
-                     userCapabilities.get(), rpcMessageLimit)
-            : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcMessageLimit);
+                     userCapabilities.get(), rpcLimiter, defaultRequestTimeoutMillis)
+            : new NetconfDeviceCommunicator(remoteDeviceId, device, rpcLimiter, defaultRequestTimeoutMillis);
 
         if (salFacade instanceof KeepaliveSalFacade) {
             ((KeepaliveSalFacade)salFacade).setListener(netconfDeviceCommunicator);
@@ -406,6 +461,8 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                                 TextToASTTransformer.create((SchemaRepository) schemaResourcesDTO.getSchemaRegistry(),
                                         schemaResourcesDTO.getSchemaRegistry())
                         );
+                        SchemaSourcePreparser.preparse(schemaResourcesDTO.getSchemaRepository(),
+                                new File(CACHE_DIRECTORY + File.separator + moduleSchemaCacheDirectory));
                         SCHEMA_RESOURCES_DTO_MAP.put(moduleSchemaCacheDirectory, schemaResourcesDTO);
                     }
                 }
@@ -473,6 +530,27 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         this.privateKeyPassphrase = privateKeyPassphrase;
     }
 
+    /**
+     * Sets the pool parsing replies of devices, created using blueprint.
+     */
+    public void setParserExecutor(final NetconfParserExecutor parserExecutor) {
+        this.parserExecutor = parserExecutor.getExecutor();
+    }
+
+    /**
+     * Sets the pool parsing and forwarding notifications of devices, created using blueprint.
+     */
+    public void setNotificationExecutor(final NetconfParserExecutor notificationExecutor) {
+        this.notificationExecutor = notificationExecutor.getExecutor();
+    }
+
+    /**
+     * Sets the admission of connection attempts of devices, created using blueprint.
+     */
+    public void setConnectionAdmission(final ConnectionAdmission connectionAdmission) {
+        this.connectionAdmission = connectionAdmission;
+    }
+
     public NetconfReconnectingClientConfiguration getClientConfig(final NetconfClientSessionListener listener,
                                                                   final NetconfNode node) {
 
@@ -484,11 +562,19 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         final int betweenAttemptsTimeoutMillis = node.getBetweenAttemptsTimeoutMillis() == null
                 ? DEFAULT_BETWEEN_ATTEMPTS_TIMEOUT_MILLIS : node.getBetweenAttemptsTimeoutMillis();
         final BigDecimal sleepFactor = node.getSleepFactor() == null ? DEFAULT_SLEEP_FACTOR : node.getSleepFactor();
+        final int connectionTier = node.getConnectionTier() == null
+                ? DEFAULT_CONNECTION_TIER : node.getConnectionTier();
+        final boolean deferDomParsing = node.isDeferDomParsing() == null
+                ? DEFAULT_DEFER_DOM_PARSING : node.isDeferDomParsing();
+        final boolean compactXml = node.isCompactXml() == null ? DEFAULT_COMPACT_XML : node.isCompactXml();
 
         final InetSocketAddress socketAddress = getSocketAddress(node.getHost(), node.getPort().getValue());
 
-        final ReconnectStrategyFactory sf = new TimedReconnectStrategyFactory(eventExecutor,
-                maxConnectionAttempts, betweenAttemptsTimeoutMillis, sleepFactor);
+        // An attempt takes at most the connect timeout, which is the same as the sleep, and the negotiation
+        final ReconnectStrategyFactory sf = new AdmittedReconnectStrategyFactory(eventExecutor,
+                new TimedReconnectStrategyFactory(eventExecutor, maxConnectionAttempts, betweenAttemptsTimeoutMillis,
+                        sleepFactor), connectionAdmission, connectionTier,
+                betweenAttemptsTimeoutMillis + clientConnectionTimeoutMillis);
         final ReconnectStrategy strategy = sf.createReconnectStrategy();
 
         final NetconfReconnectingClientConfigurationBuilder reconnectingClientConfigurationBuilder =
@@ -516,9 +602,50 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
                 .withReconnectStrategy(strategy)
                 .withConnectStrategyFactory(sf)
                 .withSessionListener(listener)
+                .withDeferDomParsing(deferDomParsing)
+                .withCompactXml(compactXml)
+                .withExiSchema(getExiSchema(node))
+                .withWriteBufferWaterMark(getWriteBufferWaterMark(node))
                 .build();
     }
 
+    protected static EditConfigBatching getEditConfigBatching(final NetconfNode node) {
+        return EditConfigBatching.create(node.getEditConfigBatchSize() == null
+                ? DEFAULT_EDIT_CONFIG_BATCH_SIZE : node.getEditConfigBatchSize());
+    }
+
+    private static KeepaliveProbing getKeepaliveProbing(final NetconfNode node) {
+        return new KeepaliveProbing(node.getKeepaliveProbe() == null ? DEFAULT_KEEPALIVE_PROBE
+                : Probe.forName(node.getKeepaliveProbe().getName()));
+    }
+
+    private static NotificationQueueing getNotificationQueueing(final NetconfNode node) {
+        return new NotificationQueueing(node.getNotificationQueueCapacity() == null
+                ? DEFAULT_NOTIFICATION_QUEUE_CAPACITY : Ints.saturatedCast(node.getNotificationQueueCapacity()),
+                node.getNotificationOverflowPolicy() == null ? DEFAULT_NOTIFICATION_OVERFLOW_POLICY
+                        : OverflowPolicy.forName(node.getNotificationOverflowPolicy().getName()));
+    }
+
+    protected static ConfigReadCaching getConfigReadCaching(final NetconfNode node) {
+        return ConfigReadCaching.create(node.getConfigReadCacheTtlMillis() == null
+                ? DEFAULT_CONFIG_READ_CACHE_TTL_MILLIS : node.getConfigReadCacheTtlMillis(),
+                node.getConfigReadCacheMaxEntries() == null
+                        ? DEFAULT_CONFIG_READ_CACHE_MAX_ENTRIES : node.getConfigReadCacheMaxEntries());
+    }
+
+    private static EXISchema getExiSchema(final NetconfNode node) {
+        return node.getExiSchema() == null ? DEFAULT_EXI_SCHEMA
+                : EXISchema.valueOf(node.getExiSchema().getName().toUpperCase(Locale.ROOT));
+    }
+
+    private static WriteBufferWaterMark getWriteBufferWaterMark(final NetconfNode node) {
+        final WriteBufferWaterMark defaults = AsyncSshHandlerWriter.DEFAULT_WATER_MARK;
+        final Long low = node.getWriteBufferLowWaterMark();
+        final Long high = node.getWriteBufferHighWaterMark();
+        return new WriteBufferWaterMark(low == null ? defaults.low() : Ints.saturatedCast(low),
+                high == null ? defaults.high() : Ints.saturatedCast(high));
+    }
+
     private AuthenticationHandler getHandlerFromCredentials(final Credentials credentials) {
         if (credentials instanceof org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology
                 .rev150114.netconf.node.credentials.credentials.LoginPassword) {
@@ -546,7 +673,8 @@ public abstract class AbstractNetconfTopology implements NetconfTopology {
         throw new IllegalStateException("Unsupported credential type: " + credentials.getClass());
     }
 
-    protected abstract RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(RemoteDeviceId id);
+    protected abstract RemoteDeviceHandler<NetconfSessionPreferences> createSalFacade(RemoteDeviceId id,
+            NetconfNode node);
 
     private static InetSocketAddress getSocketAddress(final Host host, final int port) {
         if (host.getDomainName() != null) {
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import java.util.List;
+
+/**
+ * Pooled buffer allocator meant to be shared by NETCONF channels, client, server and TCP/SSH northbound alike.
+ * Sharing a single pool keeps the number of arenas, and thus the memory retained by them, independent of the number
+ * of sessions. The instance is created by blueprint, which exports {@link #getAllocator()} for the dispatchers and
+ * proxies to set on the channels they create.
+ *
+ * <p>
+ * Metrics of the pool are available through the getters of this class.
+ */
+public final class NetconfByteBufAllocator {
+    private final PooledByteBufAllocator allocator;
+
+    NetconfByteBufAllocator(final PooledByteBufAllocator allocator) {
+        this.allocator = requireNonNull(allocator);
+    }
+
+    /**
+     * Create a new allocator. Negative values of numeric arguments select the Netty default, which can be tuned via
+     * {@code io.netty.allocator.*} system properties.
+     *
+     * @param preferDirect true if direct buffers should be preferred
+     * @param heapArenas number of heap arenas
+     * @param directArenas number of direct arenas
+     * @param pageSize page size in bytes, must be a power of two
+     * @param maxOrder chunk size expressed as {@code pageSize << maxOrder}
+     * @return a new allocator
+     * @throws IllegalArgumentException if the arguments are not accepted by Netty
+     */
+    public static NetconfByteBufAllocator create(final boolean preferDirect, final int heapArenas,
+            final int directArenas, final int pageSize, final int maxOrder) {
+        return new NetconfByteBufAllocator(new PooledByteBufAllocator(preferDirect,
+            heapArenas < 0 ? PooledByteBufAllocator.defaultNumHeapArena() : heapArenas,
+            directArenas < 0 ? PooledByteBufAllocator.defaultNumDirectArena() : directArenas,
+            pageSize < 0 ? PooledByteBufAllocator.defaultPageSize() : pageSize,
+            maxOrder < 0 ? PooledByteBufAllocator.defaultMaxOrder() : maxOrder));
+    }
+
+    public ByteBufAllocator getAllocator() {
+        return allocator;
+    }
+
+    public long getUsedDirectMemory() {
+        return allocator.metric().usedDirectMemory();
+    }
+
+    public long getUsedHeapMemory() {
+        return allocator.metric().usedHeapMemory();
+    }
+
+    public int getNumDirectArenas() {
+        return allocator.metric().numDirectArenas();
+    }
+
+    public int getNumHeapArenas() {
+        return allocator.metric().numHeapArenas();
+    }
+
+    public int getChunkSize() {
+        return allocator.metric().chunkSize();
+    }
+
+    public int getNumThreadLocalCaches() {
+        return allocator.metric().numThreadLocalCaches();
+    }
+
+    public long getActiveDirectAllocations() {
+        return activeAllocations(allocator.metric().directArenas());
+    }
+
+    public long getActiveHeapAllocations() {
+        return activeAllocations(allocator.metric().heapArenas());
+    }
+
+    /**
+     * Return a per-arena summary of the pool, useful for sizing memory when running a large number of sessions.
+     *
+     * @return human-readable arena statistics
+     */
+    public String getArenaStatistics() {
+        final PooledByteBufAllocatorMetric metric = allocator.metric();
+        final StringBuilder sb = new StringBuilder();
+        appendArenas(sb, "direct", metric.directArenas());
+        appendArenas(sb, "heap", metric.heapArenas());
+        return sb.toString();
+    }
+
+    private static long activeAllocations(final List<PoolArenaMetric> arenas) {
+        long ret = 0;
+        for (final PoolArenaMetric arena : arenas) {
+            ret += arena.numActiveAllocations();
+        }
+        return ret;
+    }
+
+    private static void appendArenas(final StringBuilder sb, final String kind, final List<PoolArenaMetric> arenas) {
+        for (int i = 0; i < arenas.size(); i++) {
+            final PoolArenaMetric arena = arenas.get(i);
+            sb.append(kind).append(" arena ").append(i)
+                .append(": threadCaches=").append(arena.numThreadCaches())
+                .append(" chunkLists=").append(arena.numChunkLists())
+                .append(" activeAllocations=").append(arena.numActiveAllocations())
+                .append(" activeBytes=").append(arena.numActiveBytes())
+                .append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        final PooledByteBufAllocatorMetric metric = allocator.metric();
+        return MoreObjects.toStringHelper(this)
+                .add("directArenas", metric.numDirectArenas())
+                .add("heapArenas", metric.numHeapArenas())
+                .add("chunkSize", metric.chunkSize())
+                .add("usedDirectMemory", metric.usedDirectMemory())
+                .add("usedHeapMemory", metric.usedHeapMemory())
+                .toString();
+    }
+}
@@ -13,6 +13,7 @@ import com.google.common.collect.Collections2;
 import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nonnull;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
@@ -48,6 +49,12 @@ public final class NetconfMessageUtil {
     }
 
     public static boolean isErrorMessage(final NetconfMessage message) throws NetconfDocumentedException {
+        if (message instanceof ByteBufNetconfMessage && !((ByteBufNetconfMessage) message).isDocumentParsed()
+                && !DocumentedException.RPC_ERROR.equals(
+                    ((ByteBufNetconfMessage) message).getFirstChildElementName())) {
+            // An error message has exactly one child, which is rpc-error, no need to build the DOM to check that
+            return false;
+        }
         return isErrorMessage(message.getDocument());
     }
 
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.netconf.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.Test;
+
+public class NetconfByteBufAllocatorTest {
+    @Test
+    public void testCreate() {
+        final NetconfByteBufAllocator alloc = NetconfByteBufAllocator.create(false, 2, 1, 8192, 4);
+        assertEquals(2, alloc.getNumHeapArenas());
+        assertEquals(1, alloc.getNumDirectArenas());
+        assertEquals(8192 << 4, alloc.getChunkSize());
+
+        final ByteBuf buf = alloc.getAllocator().heapBuffer(1024);
+        try {
+            assertEquals(1, alloc.getActiveHeapAllocations());
+            assertEquals(8192 << 4, alloc.getUsedHeapMemory());
+            assertEquals(0, alloc.getUsedDirectMemory());
+            assertTrue(alloc.getArenaStatistics().contains("heap arena 1"));
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -11,6 +11,8 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.CheckedFuture;
@@ -24,9 +26,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -36,6 +40,8 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.nettyutil.handler.exi.DynamicEXIGrammars;
+import org.opendaylight.netconf.nettyutil.handler.exi.EXISchema;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.api.NetconfDeviceSchemas;
 import org.opendaylight.netconf.sal.connect.api.NetconfDeviceSchemasResolver;
@@ -47,12 +53,17 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommun
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceRpc;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaContextCache;
 import org.opendaylight.netconf.sal.connect.netconf.schema.YangLibrarySchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
 import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.NetconfMessageTransformer;
+import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.SchemaContextEXIGrammars;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapability;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapability.CapabilityOrigin;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapabilityBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.unavailable.capabilities.UnavailableCapability;
 import org.opendaylight.yangtools.yang.common.QName;
@@ -84,8 +95,12 @@ public class NetconfDevice
     private final boolean reconnectOnSchemasChange;
 
     protected final SchemaContextFactory schemaContextFactory;
+    private final SchemaContextCache schemaContextCache;
     private final RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
     private final ListeningExecutorService processingExecutor;
+    private final Executor parserExecutor;
+    private final int schemaDownloadWindow;
+    private final boolean dynamicExiGrammars;
     protected final SchemaSourceRegistry schemaRegistry;
     protected final SchemaRepository schemaRepository;
     private final NetconfDeviceSchemasResolver stateSchemasResolver;
@@ -95,35 +110,103 @@ public class NetconfDevice
     @GuardedBy("this")
     private boolean connected = false;
 
+    // Session of the device, used to disconnect it
+    private volatile NetconfDeviceCommunicator sessionListener;
+
     // Message transformer is constructed once the schemas are available
     private MessageTransformer<NetconfMessage> messageTransformer;
 
+    // Schema of the last successful mount, reused if the device reconnects advertising the same capabilities
+    @GuardedBy("this")
+    private MountedSchema lastMount;
+
     /**
      * Create rpc implementation capable of handling RPC for monitoring and notifications
      * even before the schemas of remote device are downloaded.
      */
     static NetconfDeviceRpc getRpcForInitialization(final NetconfDeviceCommunicator listener,
                                                     final boolean notificationSupport) {
+        return getRpcForInitialization(listener, notificationSupport, MoreExecutors.directExecutor());
+    }
+
+    private static NetconfDeviceRpc getRpcForInitialization(final NetconfDeviceCommunicator listener,
+            final boolean notificationSupport, final Executor parserExecutor) {
         final BaseSchema baseSchema = notificationSupport
                 ? BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS
                 : BaseSchema.BASE_NETCONF_CTX;
 
         return new NetconfDeviceRpc(baseSchema.getSchemaContext(), listener,
-                new NetconfMessageTransformer(baseSchema.getSchemaContext(), false, baseSchema));
+                new NetconfMessageTransformer(baseSchema.getSchemaContext(), false, baseSchema), parserExecutor);
     }
 
     public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
                          final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
                          final ExecutorService globalProcessingExecutor, final boolean reconnectOnSchemasChange) {
+        this(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, MoreExecutors.directExecutor(),
+            reconnectOnSchemasChange, 0);
+    }
+
+    /**
+     * Create a device parsing replies on a dedicated executor.
+     *
+     * @param schemaDownloadWindow maximum number of outstanding get-schema requests while mounting the device, no
+     *                             limit is enforced if this is not positive
+     */
+    public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
+                         final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                         final ExecutorService globalProcessingExecutor, final Executor parserExecutor,
+                         final boolean reconnectOnSchemasChange, final int schemaDownloadWindow) {
+        this(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, parserExecutor, reconnectOnSchemasChange,
+            schemaDownloadWindow, false);
+    }
+
+    /**
+     * Create a device parsing replies on a dedicated executor.
+     *
+     * @param schemaDownloadWindow maximum number of outstanding get-schema requests while mounting the device, no
+     *                             limit is enforced if this is not positive
+     * @param dynamicExiGrammars true if EXI grammars should be derived from the schema context of the device, so that
+     *                           sessions to it can request dynamic EXI schema
+     */
+    public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
+                         final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                         final ExecutorService globalProcessingExecutor, final Executor parserExecutor,
+                         final boolean reconnectOnSchemasChange, final int schemaDownloadWindow,
+                         final boolean dynamicExiGrammars) {
+        this(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, parserExecutor, reconnectOnSchemasChange,
+            schemaDownloadWindow, dynamicExiGrammars, MoreExecutors.directExecutor(), NotificationQueueing.DEFAULT);
+    }
+
+    /**
+     * Create a device parsing replies and notifications on dedicated executors.
+     *
+     * @param schemaDownloadWindow maximum number of outstanding get-schema requests while mounting the device, no
+     *                             limit is enforced if this is not positive
+     * @param dynamicExiGrammars true if EXI grammars should be derived from the schema context of the device, so that
+     *                           sessions to it can request dynamic EXI schema
+     * @param notificationExecutor executor parsing and forwarding notifications of the device
+     * @param notificationQueueing settings of the queue of notifications waiting to be forwarded
+     */
+    public NetconfDevice(final SchemaResourcesDTO schemaResourcesDTO, final RemoteDeviceId id,
+                         final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                         final ExecutorService globalProcessingExecutor, final Executor parserExecutor,
+                         final boolean reconnectOnSchemasChange, final int schemaDownloadWindow,
+                         final boolean dynamicExiGrammars, final Executor notificationExecutor,
+                         final NotificationQueueing notificationQueueing) {
         this.id = id;
         this.reconnectOnSchemasChange = reconnectOnSchemasChange;
         this.schemaRegistry = schemaResourcesDTO.getSchemaRegistry();
         this.schemaRepository = schemaResourcesDTO.getSchemaRepository();
         this.schemaContextFactory = schemaResourcesDTO.getSchemaContextFactory();
+        this.schemaContextCache = SchemaContextCache.forFactory(schemaContextFactory);
         this.salFacade = salFacade;
         this.stateSchemasResolver = schemaResourcesDTO.getStateSchemasResolver();
         this.processingExecutor = MoreExecutors.listeningDecorator(globalProcessingExecutor);
-        this.notificationHandler = new NotificationHandler(salFacade, id);
+        this.parserExecutor = Preconditions.checkNotNull(parserExecutor);
+        this.schemaDownloadWindow = schemaDownloadWindow;
+        this.dynamicExiGrammars = dynamicExiGrammars;
+        this.notificationHandler = new NotificationHandler(salFacade, id, notificationExecutor,
+            notificationQueueing, this::disconnectSession);
     }
 
     @Override
@@ -137,10 +220,25 @@ public class NetconfDevice
         setConnected(true);
         LOG.debug("{}: Session to remote device established with {}", id, remoteSessionCapabilities);
 
-        final NetconfDeviceRpc initRpc =
-                getRpcForInitialization(listener, remoteSessionCapabilities.isNotificationsSupported());
-        final DeviceSourcesResolver task =
-                new DeviceSourcesResolver(remoteSessionCapabilities, id, stateSchemasResolver, initRpc);
+        sessionListener = listener;
+        final Collection<String> serverCapabilities = listener.getServerCapabilities();
+        // Replies carrying YANG sources can be large, they are parsed off the netty thread
+        final NetconfDeviceRpc initRpc = getRpcForInitialization(listener,
+                remoteSessionCapabilities.isNotificationsSupported(), parserExecutor);
+
+        final MountedSchema mounted = getLastMount();
+        if (mounted != null && mounted.matches(remoteSessionCapabilities)) {
+            LOG.debug("{}: Device advertises the same capabilities as when last mounted, reusing its schema", id);
+            if (shouldListenOnSchemaChange(remoteSessionCapabilities)) {
+                registerToBaseNetconfStream(initRpc, listener);
+            }
+            processingExecutor.execute(() -> reuseSchema(mounted, remoteSessionCapabilities, serverCapabilities,
+                listener));
+            return;
+        }
+
+        final DeviceSourcesResolver task = new DeviceSourcesResolver(remoteSessionCapabilities, id,
+                stateSchemasResolver, initRpc, schemaDownloadWindow);
         final ListenableFuture<DeviceSources> sourceResolverFuture = processingExecutor.submit(task);
 
         if (shouldListenOnSchemaChange(remoteSessionCapabilities)) {
@@ -155,7 +253,8 @@ public class NetconfDevice
             }
 
             private void setUpSchema(final DeviceSources result) {
-                processingExecutor.submit(new SchemaSetup(result, remoteSessionCapabilities, listener));
+                processingExecutor.submit(new SchemaSetup(result, remoteSessionCapabilities, serverCapabilities,
+                    listener));
             }
 
             @Override
@@ -182,6 +281,8 @@ public class NetconfDevice
             public Optional<DOMNotification> filterNotification(final DOMNotification notification) {
                 if (isCapabilityChanged(notification)) {
                     LOG.info("{}: Schemas change detected, reconnecting", id);
+                    // Models may change without the capabilities in hello changing
+                    clearLastMount();
                     // Only disconnect is enough,
                     // the reconnecting nature of the connector will take care of reconnecting
                     listener.disconnect();
@@ -213,6 +314,35 @@ public class NetconfDevice
         return remoteSessionCapabilities.isNotificationsSupported() && reconnectOnSchemasChange;
     }
 
+    /**
+     * Mount the device with the schema it was last mounted with, skipping discovery and download of its sources.
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void reuseSchema(final MountedSchema mounted, final NetconfSessionPreferences remoteSessionCapabilities,
+                             final Collection<String> serverCapabilities, final NetconfDeviceCommunicator listener) {
+        try {
+            mounted.restoreCapabilities(remoteSessionCapabilities.getNetconfDeviceCapabilities());
+            handleSalInitializationSuccess(mounted.getSchemaContext(), remoteSessionCapabilities,
+                createDeviceRpc(mounted.getSchemaContext(), listener));
+            prepareExiGrammars(mounted.getSchemaContext(), serverCapabilities);
+        } catch (final RuntimeException e) {
+            handleSalInitializationFailure(e, listener);
+        }
+    }
+
+    private NetconfDeviceRpc createDeviceRpc(final SchemaContext result,
+                                             final RemoteDeviceCommunicator<NetconfMessage> listener) {
+        return new NetconfDeviceRpc(result, listener, new NetconfMessageTransformer(result, true), parserExecutor);
+    }
+
+    private synchronized MountedSchema getLastMount() {
+        return lastMount;
+    }
+
+    private synchronized void clearLastMount() {
+        lastMount = null;
+    }
+
     private synchronized void handleSalInitializationSuccess(final SchemaContext result,
                                         final NetconfSessionPreferences remoteSessionCapabilities,
                                         final DOMRpcService deviceRpc) {
@@ -228,6 +358,7 @@ public class NetconfDevice
             // salFacade.onDeviceConnected has to be called before the notification handler is initialized
             salFacade.onDeviceConnected(result, remoteSessionCapabilities, deviceRpc);
             notificationHandler.onRemoteSchemaUp(messageTransformer);
+            lastMount = new MountedSchema(result, remoteSessionCapabilities);
 
             LOG.info("{}: Netconf connector initialized successfully", id);
         } else {
@@ -235,9 +366,31 @@ public class NetconfDevice
         }
     }
 
+    /**
+     * Derive EXI grammars from the schema context of a device configured to use dynamic EXI schema, which it
+     * advertises support for. Sessions to devices advertising the same capabilities can then negotiate schema-informed
+     * EXI using these grammars. This is done in the background, as it does not affect the current session.
+     */
+    private void prepareExiGrammars(final SchemaContext schemaContext, final Collection<String> serverCapabilities) {
+        if (!dynamicExiGrammars || !EXISchema.advertisedBy(serverCapabilities).contains(EXISchema.DYNAMIC)) {
+            return;
+        }
+
+        processingExecutor.execute(() -> {
+            try {
+                DynamicEXIGrammars.getOrCreate(serverCapabilities,
+                    () -> SchemaContextEXIGrammars.create(schemaContext));
+                LOG.debug("{}: EXI grammars available", id);
+            } catch (ExecutionException e) {
+                LOG.warn("{}: Failed to derive EXI grammars, schema-informed EXI will not be available", id, e);
+            }
+        });
+    }
+
     private void handleSalInitializationFailure(final Throwable throwable,
                                                 final RemoteDeviceCommunicator<NetconfMessage> listener) {
         LOG.error("{}: Initialization in sal failed, disconnecting from device", id, throwable);
+        clearLastMount();
         listener.close();
         onRemoteSessionDown();
         resetMessageTransformer();
@@ -270,6 +423,7 @@ public class NetconfDevice
     @Override
     public void onRemoteSessionDown() {
         setConnected(false);
+        sessionListener = null;
         notificationHandler.onRemoteSchemaDown();
 
         salFacade.onDeviceDisconnected();
@@ -291,6 +445,14 @@ public class NetconfDevice
         notificationHandler.handleNotification(notification);
     }
 
+    private void disconnectSession() {
+        final NetconfDeviceCommunicator listener = sessionListener;
+        if (listener != null) {
+            LOG.warn("{}: Disconnecting, notifications are arriving faster than they can be processed", id);
+            listener.disconnect();
+        }
+    }
+
     /**
      * Just a transfer object containing schema related dependencies. Injected in constructor.
      */
@@ -336,20 +498,23 @@ public class NetconfDevice
         private final NetconfSessionPreferences remoteSessionCapabilities;
         private final RemoteDeviceId id;
         private final NetconfDeviceSchemasResolver stateSchemasResolver;
+        private final int schemaDownloadWindow;
 
         DeviceSourcesResolver(final NetconfDeviceRpc deviceRpc,
                               final NetconfSessionPreferences remoteSessionCapabilities,
-                              final RemoteDeviceId id, final NetconfDeviceSchemasResolver stateSchemasResolver) {
+                              final RemoteDeviceId id, final NetconfDeviceSchemasResolver stateSchemasResolver,
+                              final int schemaDownloadWindow) {
             this.deviceRpc = deviceRpc;
             this.remoteSessionCapabilities = remoteSessionCapabilities;
             this.id = id;
             this.stateSchemasResolver = stateSchemasResolver;
+            this.schemaDownloadWindow = schemaDownloadWindow;
         }
 
         DeviceSourcesResolver(final NetconfSessionPreferences remoteSessionCapabilities, final RemoteDeviceId id,
                                      final NetconfDeviceSchemasResolver stateSchemasResolver,
-                                     final NetconfDeviceRpc rpcForMonitoring) {
-            this(rpcForMonitoring, remoteSessionCapabilities, id, stateSchemasResolver);
+                                     final NetconfDeviceRpc rpcForMonitoring, final int schemaDownloadWindow) {
+            this(rpcForMonitoring, remoteSessionCapabilities, id, stateSchemasResolver, schemaDownloadWindow);
         }
 
         @Override
@@ -388,13 +553,52 @@ public class NetconfDevice
                 sourceProvider = new YangLibrarySchemaYangSourceProvider(id,
                         ((LibraryModulesSchemas) availableSchemas).getAvailableModels());
             } else {
-                sourceProvider = new NetconfRemoteSchemaYangSourceProvider(id, deviceRpc);
+                sourceProvider = new NetconfRemoteSchemaYangSourceProvider(id, deviceRpc, schemaDownloadWindow);
             }
 
             return new DeviceSources(requiredSources, providedSources, sourceProvider);
         }
     }
 
+    /**
+     * Schema a device was mounted with, together with the capabilities it advertised and how they were resolved.
+     * Capabilities are compared exactly, this is cheaper than schema discovery and cannot collide as a hash could.
+     */
+    private static final class MountedSchema {
+        private final SchemaContext schemaContext;
+        private final Map<QName, CapabilityOrigin> moduleBasedCaps;
+        private final Map<String, CapabilityOrigin> nonModuleCaps;
+        private final Set<AvailableCapability> resolvedCapabilities;
+        private final Set<AvailableCapability> nonModuleBasedCapabilities;
+        private final Map<QName, UnavailableCapability.FailureReason> unresolvedCapabilities;
+
+        MountedSchema(final SchemaContext schemaContext, final NetconfSessionPreferences sessionPreferences) {
+            this.schemaContext = schemaContext;
+            this.moduleBasedCaps = ImmutableMap.copyOf(sessionPreferences.getModuleBasedCapsOrigin());
+            this.nonModuleCaps = ImmutableMap.copyOf(sessionPreferences.getNonModuleBasedCapsOrigin());
+
+            final NetconfDeviceCapabilities capabilities = sessionPreferences.getNetconfDeviceCapabilities();
+            this.resolvedCapabilities = ImmutableSet.copyOf(capabilities.getResolvedCapabilities());
+            this.nonModuleBasedCapabilities = ImmutableSet.copyOf(capabilities.getNonModuleBasedCapabilities());
+            this.unresolvedCapabilities = ImmutableMap.copyOf(capabilities.getUnresolvedCapabilites());
+        }
+
+        SchemaContext getSchemaContext() {
+            return schemaContext;
+        }
+
+        boolean matches(final NetconfSessionPreferences sessionPreferences) {
+            return moduleBasedCaps.equals(sessionPreferences.getModuleBasedCapsOrigin())
+                    && nonModuleCaps.equals(sessionPreferences.getNonModuleBasedCapsOrigin());
+        }
+
+        void restoreCapabilities(final NetconfDeviceCapabilities capabilities) {
+            capabilities.addCapabilities(resolvedCapabilities);
+            capabilities.addNonModuleBasedCapabilities(nonModuleBasedCapabilities);
+            unresolvedCapabilities.forEach(capabilities::addUnresolvedCapability);
+        }
+    }
+
     /**
      * Contains RequiredSources - sources from capabilities.
      */
@@ -441,13 +645,16 @@ public class NetconfDevice
     private final class SchemaSetup implements Runnable {
         private final DeviceSources deviceSources;
         private final NetconfSessionPreferences remoteSessionCapabilities;
+        private final Collection<String> serverCapabilities;
         private final RemoteDeviceCommunicator<NetconfMessage> listener;
         private final NetconfDeviceCapabilities capabilities;
 
         SchemaSetup(final DeviceSources deviceSources, final NetconfSessionPreferences remoteSessionCapabilities,
+                           final Collection<String> serverCapabilities,
                            final RemoteDeviceCommunicator<NetconfMessage> listener) {
             this.deviceSources = deviceSources;
             this.remoteSessionCapabilities = remoteSessionCapabilities;
+            this.serverCapabilities = serverCapabilities;
             this.listener = listener;
             this.capabilities = remoteSessionCapabilities.getNetconfDeviceCapabilities();
         }
@@ -455,25 +662,16 @@ public class NetconfDevice
         @Override
         public void run() {
 
-            final Collection<SourceIdentifier> requiredSources = deviceSources.getRequiredSources();
-            final Collection<SourceIdentifier> missingSources = filterMissingSources(requiredSources);
+            // Exclude all unusable sources upfront, so that the schema context is built in a single attempt
+            final SchemaSourcesValidator validated = SchemaSourcesValidator.validate(id, schemaRepository,
+                deviceSources.getRequiredSources());
 
-            capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(missingSources),
+            capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(validated.getMissing()),
                     UnavailableCapability.FailureReason.MissingSource);
+            capabilities.addUnresolvedCapabilities(getQNameFromSourceIdentifiers(validated.getUnresolved()),
+                    UnavailableCapability.FailureReason.UnableToResolve);
 
-            requiredSources.removeAll(missingSources);
-            setUpSchema(requiredSources);
-        }
-
-        private Collection<SourceIdentifier> filterMissingSources(final Collection<SourceIdentifier> requiredSources) {
-            return requiredSources.parallelStream().filter(sourceIdentifier -> {
-                try {
-                    schemaRepository.getSchemaSource(sourceIdentifier, YangTextSchemaSource.class).get();
-                    return false;
-                } catch (InterruptedException | ExecutionException e) {
-                    return true;
-                }
-            }).collect(Collectors.toList());
+            setUpSchema(new ArrayList<>(validated.getUsable()));
         }
 
         /**
@@ -484,7 +682,7 @@ public class NetconfDevice
             while (!requiredSources.isEmpty()) {
                 LOG.trace("{}: Trying to build schema context from {}", id, requiredSources);
                 try {
-                    final ListenableFuture<SchemaContext> schemaBuilderFuture = schemaContextFactory
+                    final ListenableFuture<SchemaContext> schemaBuilderFuture = schemaContextCache
                             .createSchemaContext(requiredSources);
                     final SchemaContext result = schemaBuilderFuture.get();
                     LOG.debug("{}: Schema context built successfully from {}", id, requiredSources);
@@ -502,6 +700,7 @@ public class NetconfDevice
                             .collect(Collectors.toList()));
 
                     handleSalInitializationSuccess(result, remoteSessionCapabilities, getDeviceSpecificRpc(result));
+                    prepareExiGrammars(result, serverCapabilities);
                     return;
                 } catch (final ExecutionException e) {
                     // schemaBuilderFuture.checkedGet() throws only SchemaResolutionException
@@ -579,7 +778,7 @@ public class NetconfDevice
         }
 
         protected NetconfDeviceRpc getDeviceSpecificRpc(final SchemaContext result) {
-            return new NetconfDeviceRpc(result, listener, new NetconfMessageTransformer(result, true));
+            return createDeviceRpc(result, listener);
         }
 
         private Collection<SourceIdentifier> stripUnavailableSource(final Collection<SourceIdentifier> requiredSources,
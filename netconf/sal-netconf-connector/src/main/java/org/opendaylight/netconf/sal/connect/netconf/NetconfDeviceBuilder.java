@@ -9,9 +9,12 @@
 package org.opendaylight.netconf.sal.connect.netconf;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 
 public class NetconfDeviceBuilder {
@@ -21,6 +24,11 @@ public class NetconfDeviceBuilder {
     private RemoteDeviceId id;
     private RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
     private ExecutorService globalProcessingExecutor;
+    private Executor parserExecutor = MoreExecutors.directExecutor();
+    private int schemaDownloadWindow;
+    private boolean dynamicExiGrammars;
+    private Executor notificationExecutor = MoreExecutors.directExecutor();
+    private NotificationQueueing notificationQueueing = NotificationQueueing.DEFAULT;
 
     public NetconfDeviceBuilder() {
     }
@@ -50,15 +58,45 @@ public class NetconfDeviceBuilder {
         return this;
     }
 
+    public NetconfDeviceBuilder setParserExecutor(Executor parserExecutor) {
+        this.parserExecutor = parserExecutor;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setSchemaDownloadWindow(int schemaDownloadWindow) {
+        this.schemaDownloadWindow = schemaDownloadWindow;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setDynamicExiGrammars(boolean dynamicExiGrammars) {
+        this.dynamicExiGrammars = dynamicExiGrammars;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setNotificationExecutor(Executor notificationExecutor) {
+        this.notificationExecutor = notificationExecutor;
+        return this;
+    }
+
+    public NetconfDeviceBuilder setNotificationQueueing(NotificationQueueing notificationQueueing) {
+        this.notificationQueueing = notificationQueueing;
+        return this;
+    }
+
     public NetconfDevice build() {
         validation();
-        return new NetconfDevice(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, reconnectOnSchemasChange);
+        return new NetconfDevice(schemaResourcesDTO, id, salFacade, globalProcessingExecutor, parserExecutor,
+            reconnectOnSchemasChange, schemaDownloadWindow, dynamicExiGrammars, notificationExecutor,
+            notificationQueueing);
     }
 
     private void validation() {
         Preconditions.checkNotNull(id, "RemoteDeviceId is not initialized");
         Preconditions.checkNotNull(salFacade, "RemoteDeviceHandler is not initialized");
         Preconditions.checkNotNull(globalProcessingExecutor, "ExecutorService is not initialized");
+        Preconditions.checkNotNull(parserExecutor, "Parser Executor is not initialized");
+        Preconditions.checkNotNull(notificationExecutor, "Notification Executor is not initialized");
+        Preconditions.checkNotNull(notificationQueueing, "NotificationQueueing is not initialized");
         Preconditions.checkNotNull(schemaResourcesDTO, "SchemaResourceDTO is not initialized");
     }
 }
@@ -7,44 +7,107 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import java.util.LinkedList;
-import java.util.List;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing.OverflowPolicy;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Handles incoming notifications. Either caches them(until onRemoteSchemaUp is called) or passes to sal Facade.
+ *
+ * <p>
+ * Received notifications are queued and parsed on an executor, one at a time, so that they are forwarded in order
+ * of arrival without holding up the thread which received them. The queue is bounded, notifications are dropped or
+ * the device is disconnected when it overflows, as per {@link NotificationQueueing}. A task run on the executor
+ * forwards at most {@link #MAX_BATCH} notifications and submits another task for the rest, so that a device sending
+ * many notifications does not keep a thread shared with other devices to itself.
  */
 final class NotificationHandler {
 
+    @VisibleForTesting
+    static final int MAX_BATCH = 64;
+
     private static final Logger LOG = LoggerFactory.getLogger(NotificationHandler.class);
 
     private final RemoteDeviceHandler<?> salFacade;
-    private final List<NetconfMessage> queue = new LinkedList<>();
     private final RemoteDeviceId id;
+    private final Executor executor;
+    // Queued notifications are forwarded by the thread which queued them
+    private final boolean direct;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Runnable disconnect;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    @GuardedBy("this")
+    private final Deque<NetconfMessage> queue = new ArrayDeque<>();
+    @GuardedBy("this")
     private boolean passNotifications = false;
+    // Queued notifications are being forwarded
+    @GuardedBy("this")
+    private boolean draining = false;
+    // Notifications were dropped since the queue was last empty
+    @GuardedBy("this")
+    private boolean overflowing = false;
 
+    @GuardedBy("this")
     private NotificationFilter filter;
+    @GuardedBy("this")
     private MessageTransformer<NetconfMessage> messageTransformer;
 
     NotificationHandler(final RemoteDeviceHandler<?> salFacade, final RemoteDeviceId id) {
+        this(salFacade, id, MoreExecutors.directExecutor(), NotificationQueueing.DEFAULT, () -> { });
+    }
+
+    /**
+     * Create a handler.
+     *
+     * @param salFacade facade notifications are forwarded to
+     * @param id device id
+     * @param executor executor parsing and forwarding notifications
+     * @param queueing settings of the notification queue
+     * @param disconnect disconnects the device if the queue overflows and the overflow policy says so
+     */
+    NotificationHandler(final RemoteDeviceHandler<?> salFacade, final RemoteDeviceId id, final Executor executor,
+                        final NotificationQueueing queueing, final Runnable disconnect) {
         this.salFacade = Preconditions.checkNotNull(salFacade);
         this.id = Preconditions.checkNotNull(id);
+        this.executor = Preconditions.checkNotNull(executor);
+        this.direct = executor == MoreExecutors.directExecutor();
+        this.capacity = queueing.getCapacity();
+        this.overflowPolicy = queueing.getOverflowPolicy();
+        this.disconnect = Preconditions.checkNotNull(disconnect);
     }
 
-    synchronized void handleNotification(final NetconfMessage notification) {
-        if (passNotifications) {
-            passNotification(transformNotification(notification));
-        } else {
-            queueNotification(notification);
+    void handleNotification(final NetconfMessage notification) {
+        final boolean disconnectDevice;
+        final boolean drain;
+        synchronized (this) {
+            disconnectDevice = queueNotification(notification);
+            drain = startDraining();
+        }
+
+        if (disconnectDevice) {
+            disconnect.run();
+        }
+        if (drain) {
+            drain();
         }
     }
 
@@ -52,40 +115,160 @@ final class NotificationHandler {
      * Forward all cached notifications and pass all notifications from this point directly to sal facade.
      * @param transformer Message transformer
      */
-    synchronized void onRemoteSchemaUp(final MessageTransformer<NetconfMessage> transformer) {
-        this.messageTransformer = Preconditions.checkNotNull(transformer);
+    void onRemoteSchemaUp(final MessageTransformer<NetconfMessage> transformer) {
+        final boolean drain;
+        synchronized (this) {
+            this.messageTransformer = Preconditions.checkNotNull(transformer);
+            passNotifications = true;
+            drain = startDraining();
+        }
+
+        if (drain) {
+            drain();
+        }
+    }
 
-        passNotifications = true;
+    @GuardedBy("this")
+    private boolean queueNotification(final NetconfMessage notification) {
+        if (!passNotifications) {
+            LOG.debug("{}: Caching notification {}, remote schema not yet fully built", id, notification);
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("{}: Caching notification {}", id, XmlUtil.toString(notification.getDocument()));
+            }
+        }
 
-        for (final NetconfMessage cachedNotification : queue) {
-            passNotification(transformNotification(cachedNotification));
+        if (queue.size() < capacity) {
+            queue.add(notification);
+            return false;
         }
 
-        queue.clear();
+        if (!overflowing) {
+            overflowing = true;
+            LOG.warn("{}: Notification queue is full with {} notifications, applying overflow policy {}", id,
+                capacity, overflowPolicy);
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                final NetconfMessage oldest = queue.poll();
+                LOG.debug("{}: Dropping notification {}", id, oldest);
+                droppedCount.incrementAndGet();
+                queue.add(notification);
+                return false;
+            case DROP_NEWEST:
+                LOG.debug("{}: Dropping notification {}", id, notification);
+                droppedCount.incrementAndGet();
+                return false;
+            case DISCONNECT:
+                LOG.debug("{}: Dropping {} notifications and disconnecting", id, queue.size() + 1);
+                droppedCount.addAndGet(queue.size() + 1);
+                queue.clear();
+                return true;
+            default:
+                throw new IllegalStateException("Unhandled overflow policy " + overflowPolicy);
+        }
     }
 
-    private DOMNotification transformNotification(final NetconfMessage cachedNotification) {
-        final DOMNotification parsedNotification = messageTransformer.toNotification(cachedNotification);
-        Preconditions.checkNotNull(
-                parsedNotification, "%s: Unable to parse received notification: %s", id, cachedNotification);
-        return parsedNotification;
+    @GuardedBy("this")
+    private boolean startDraining() {
+        if (draining || !passNotifications || queue.isEmpty()) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    private void drain() {
+        if (direct) {
+            forwardAll();
+            return;
+        }
+
+        try {
+            executor.execute(this::forwardQueued);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("{}: Executor rejected notification processing, processing in current thread", id, e);
+            forwardAll();
+        }
     }
 
-    private void queueNotification(final NetconfMessage notification) {
-        Preconditions.checkState(!passNotifications);
+    private void forwardAll() {
+        boolean more;
+        do {
+            more = forwardBatch();
+        } while (more);
+    }
 
-        LOG.debug("{}: Caching notification {}, remote schema not yet fully built", id, notification);
-        if (LOG.isTraceEnabled()) {
-            LOG.trace("{}: Caching notification {}", id, XmlUtil.toString(notification.getDocument()));
+    private void forwardQueued() {
+        if (forwardBatch()) {
+            drain();
         }
+    }
+
+    /**
+     * Forward up to {@link #MAX_BATCH} queued notifications.
+     *
+     * @return true if notifications are left to be forwarded, false if draining stopped
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private boolean forwardBatch() {
+        for (int i = 0; i < MAX_BATCH; i++) {
+            final NetconfMessage notification;
+            final MessageTransformer<NetconfMessage> transformer;
+            final NotificationFilter currentFilter;
+            synchronized (this) {
+                notification = passNotifications ? queue.poll() : null;
+                if (notification == null) {
+                    stopDraining();
+                    return false;
+                }
+                transformer = messageTransformer;
+                currentFilter = filter;
+            }
+
+            try {
+                passNotification(transformNotification(transformer, notification), transformer, currentFilter);
+            } catch (RuntimeException e) {
+                LOG.warn("{}: Failed to process notification {}", id, notification, e);
+            }
+        }
+
+        synchronized (this) {
+            if (passNotifications && !queue.isEmpty()) {
+                return true;
+            }
+            stopDraining();
+            return false;
+        }
+    }
+
+    @GuardedBy("this")
+    private void stopDraining() {
+        draining = false;
+        overflowing = overflowing && !queue.isEmpty();
+    }
 
-        queue.add(notification);
+    private DOMNotification transformNotification(final MessageTransformer<NetconfMessage> transformer,
+                                                  final NetconfMessage cachedNotification) {
+        final DOMNotification parsedNotification = transformer.toNotification(cachedNotification);
+        Preconditions.checkNotNull(
+                parsedNotification, "%s: Unable to parse received notification: %s", id, cachedNotification);
+        return parsedNotification;
     }
 
-    private synchronized void passNotification(final DOMNotification parsedNotification) {
+    private void passNotification(final DOMNotification parsedNotification,
+                                  final MessageTransformer<NetconfMessage> transformer,
+                                  final NotificationFilter currentFilter) {
+        synchronized (this) {
+            // The schema may have gone down, or been replaced, while the notification was being parsed
+            if (!passNotifications || messageTransformer != transformer) {
+                LOG.debug("{}: Discarding notification {}, remote schema changed", id, parsedNotification);
+                return;
+            }
+        }
+
         LOG.debug("{}: Forwarding notification {}", id, parsedNotification);
 
-        if (filter == null || filter.filterNotification(parsedNotification).isPresent()) {
+        if (currentFilter == null || currentFilter.filterNotification(parsedNotification).isPresent()) {
             salFacade.onNotification(parsedNotification);
         }
     }
@@ -95,11 +278,32 @@ final class NotificationHandler {
     }
 
     synchronized void onRemoteSchemaDown() {
+        LOG.debug("{}: Discarding {} queued notifications, {} notifications dropped so far", id, queue.size(),
+            droppedCount.get());
         queue.clear();
         passNotifications = false;
+        overflowing = false;
         messageTransformer = null;
     }
 
+    /**
+     * Return the number of notifications dropped because the queue was full.
+     *
+     * @return number of dropped notifications
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Return the number of notifications waiting to be forwarded.
+     *
+     * @return number of queued notifications
+     */
+    synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
     interface NotificationFilter {
 
         Optional<DOMNotification> filterNotification(DOMNotification notification);
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.api.ModuleImport;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validation of the sources required by a device before a schema context is built from them. All sources are fetched
+ * and parsed concurrently. Imported modules and included submodules which were not requested are looked up in the
+ * repository as well. Sources which are missing or cannot be parsed are excluded, together with all sources depending
+ * on them, so that the schema context can usually be built in a single attempt. Sources are excluded only if one of
+ * their dependencies is known to be unusable.
+ *
+ * <p>
+ * Parsed sources end up in the repository caches, hence the subsequent schema context build does not parse them
+ * again. Sources for which the repository cannot provide a parsed form are assumed to be valid and left for the
+ * schema context build to judge.
+ */
+final class SchemaSourcesValidator {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaSourcesValidator.class);
+
+    private final Set<SourceIdentifier> usable;
+    private final Set<SourceIdentifier> missing;
+    private final Set<SourceIdentifier> unresolved;
+
+    private SchemaSourcesValidator(final Set<SourceIdentifier> usable, final Set<SourceIdentifier> missing,
+            final Set<SourceIdentifier> unresolved) {
+        this.usable = ImmutableSet.copyOf(usable);
+        this.missing = ImmutableSet.copyOf(missing);
+        this.unresolved = ImmutableSet.copyOf(unresolved);
+    }
+
+    static SchemaSourcesValidator validate(final RemoteDeviceId id, final SchemaRepository repository,
+            final Collection<SourceIdentifier> sources) {
+        final Set<SourceIdentifier> missing = new LinkedHashSet<>();
+        final Set<SourceIdentifier> unresolved = new LinkedHashSet<>();
+        // Dependencies of sources, null if they are not known
+        final Map<SourceIdentifier, Set<ModuleImport>> usable = new LinkedHashMap<>();
+
+        // Imported modules and included submodules which were not requested are looked up in the repository, so that
+        // they are part of the schema context as well
+        final Set<SourceIdentifier> dependencies = new HashSet<>();
+        Collection<SourceIdentifier> round = sources;
+        while (!round.isEmpty()) {
+            fetch(id, repository, round, usable, missing, unresolved);
+            round = unknownDependencies(usable, missing, unresolved);
+            dependencies.addAll(round);
+        }
+
+        // Exclude sources whose dependencies are known not to be usable, until there are no more of them
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            final Iterator<Entry<SourceIdentifier, Set<ModuleImport>>> it = usable.entrySet().iterator();
+            while (it.hasNext()) {
+                final Entry<SourceIdentifier, Set<ModuleImport>> entry = it.next();
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                for (final ModuleImport dependency : entry.getValue()) {
+                    if (!isSatisfied(dependency, usable.keySet())) {
+                        LOG.warn("{}: Source {} depends on {} which is not available, excluding it", id,
+                            entry.getKey(), dependency);
+                        unresolved.add(entry.getKey());
+                        it.remove();
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Dependencies were not requested, hence they are not reported as missing or unresolved
+        missing.removeAll(dependencies);
+        unresolved.removeAll(dependencies);
+        return new SchemaSourcesValidator(usable.keySet(), missing, unresolved);
+    }
+
+    private static void fetch(final RemoteDeviceId id, final SchemaRepository repository,
+            final Collection<SourceIdentifier> sources, final Map<SourceIdentifier, Set<ModuleImport>> usable,
+            final Set<SourceIdentifier> missing, final Set<SourceIdentifier> unresolved) {
+        // Issue all requests first, then wait for them
+        final Map<SourceIdentifier, ListenableFuture<YangTextSchemaSource>> texts = new LinkedHashMap<>();
+        for (final SourceIdentifier source : sources) {
+            texts.put(source, repository.getSchemaSource(source, YangTextSchemaSource.class));
+        }
+        final Map<SourceIdentifier, ListenableFuture<ASTSchemaSource>> asts = new HashMap<>();
+        for (final Entry<SourceIdentifier, ListenableFuture<YangTextSchemaSource>> entry : texts.entrySet()) {
+            asts.put(entry.getKey(), Futures.transformAsync(entry.getValue(),
+                text -> repository.getSchemaSource(entry.getKey(), ASTSchemaSource.class),
+                MoreExecutors.directExecutor()));
+        }
+
+        for (final SourceIdentifier source : texts.keySet()) {
+            try {
+                texts.get(source).get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.debug("{}: Source {} is not available", id, source, e);
+                missing.add(source);
+                continue;
+            }
+
+            try {
+                usable.put(source, asts.get(source).get().getDependencyInformation().getDependencies());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof MissingSchemaSourceException) {
+                    LOG.debug("{}: Source {} cannot be parsed upfront, assuming it is valid", id, source, e);
+                    usable.put(source, null);
+                } else {
+                    LOG.warn("{}: Source {} cannot be parsed, excluding it", id, source, e);
+                    unresolved.add(source);
+                }
+            } catch (InterruptedException e) {
+                LOG.debug("{}: Interrupted while parsing {}, assuming it is valid", id, source, e);
+                usable.put(source, null);
+            }
+        }
+    }
+
+    private static Set<SourceIdentifier> unknownDependencies(final Map<SourceIdentifier, Set<ModuleImport>> usable,
+            final Set<SourceIdentifier> missing, final Set<SourceIdentifier> unresolved) {
+        final Set<SourceIdentifier> known = new HashSet<>(usable.keySet());
+        known.addAll(missing);
+        known.addAll(unresolved);
+
+        final Set<SourceIdentifier> ret = new LinkedHashSet<>();
+        for (final Set<ModuleImport> dependencies : usable.values()) {
+            if (dependencies == null) {
+                continue;
+            }
+            for (final ModuleImport dependency : dependencies) {
+                if (!isSatisfied(dependency, known) && !isSatisfied(dependency, ret)) {
+                    ret.add(RevisionSourceIdentifier.create(dependency.getModuleName(), dependency.getRevision()));
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isSatisfied(final ModuleImport dependency, final Set<SourceIdentifier> sources) {
+        for (final SourceIdentifier source : sources) {
+            if (source.getName().equals(dependency.getModuleName()) && (!dependency.getRevision().isPresent()
+                    || dependency.getRevision().equals(source.getRevision()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return sources which can be used to build the schema context, including the sources they depend on.
+     *
+     * @return usable sources
+     */
+    Set<SourceIdentifier> getUsable() {
+        return usable;
+    }
+
+    /**
+     * Return sources which are not available.
+     *
+     * @return missing sources
+     */
+    Set<SourceIdentifier> getMissing() {
+        return missing;
+    }
+
+    /**
+     * Return sources which are available, but cannot be parsed or depend on sources which are not usable.
+     *
+     * @return unresolved sources
+     */
+    Set<SourceIdentifier> getUnresolved() {
+        return unresolved;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConnectionAdmission.Permit;
+import org.opendaylight.protocol.framework.ReconnectStrategy;
+import org.opendaylight.protocol.framework.ReconnectStrategyFactory;
+
+/**
+ * Reconnect strategy factory subjecting connection attempts of a device to {@link ConnectionAdmission}. Sleeps of the
+ * strategies created by another factory are randomly prolonged, and an attempt starts only once it is admitted. The
+ * admission is released when the attempt either establishes a session or fails.
+ *
+ * <p>
+ * The first attempt of a connection is admitted by {@link #admitFirstAttempt()} before the connection is initiated.
+ * An attempt which follows a dropped session is not delayed, as the connection is reestablished immediately. The same
+ * goes for an attempt following a connection which failed before its session was established, but such an attempt
+ * still asks for admission and holds the permit until it finishes, so that it counts towards the limits.
+ */
+public final class AdmittedReconnectStrategyFactory implements ReconnectStrategyFactory {
+
+    private final EventExecutor executor;
+    private final ReconnectStrategyFactory delegate;
+    private final ConnectionAdmission admission;
+    private final int tier;
+    private final long handshakeTimeoutMillis;
+
+    // Admission of the first attempt, handed over to the next strategy created
+    @GuardedBy("this")
+    private Permit firstPermit;
+    // Strategy of the current connection, its attempt is over once the next one is created
+    @GuardedBy("this")
+    private AdmittedReconnectStrategy lastStrategy;
+
+    /**
+     * Create a factory.
+     *
+     * @param executor executor scheduling prolonged sleeps
+     * @param delegate factory of strategies determining the reconnect sleeps
+     * @param admission admission of connection attempts of the topology of the device
+     * @param tier tier of the device, lower tiers are admitted first
+     * @param handshakeTimeoutMillis time in milliseconds an attempt, including the handshake, can take at most
+     */
+    public AdmittedReconnectStrategyFactory(final EventExecutor executor, final ReconnectStrategyFactory delegate,
+            final ConnectionAdmission admission, final int tier, final long handshakeTimeoutMillis) {
+        this.executor = Preconditions.checkNotNull(executor);
+        this.delegate = Preconditions.checkNotNull(delegate);
+        this.admission = Preconditions.checkNotNull(admission);
+        this.tier = tier;
+        this.handshakeTimeoutMillis = handshakeTimeoutMillis;
+    }
+
+    /**
+     * Wait for the first attempt of a connection to be admitted. Cancelling the returned future withdraws the attempt.
+     *
+     * @return future completed once the connection can be initiated
+     */
+    public ListenableFuture<?> admitFirstAttempt() {
+        return Futures.transform(admission.admit(tier, handshakeTimeoutMillis), permit -> {
+            final Permit previous;
+            synchronized (this) {
+                previous = firstPermit;
+                firstPermit = permit;
+            }
+            if (previous != null) {
+                previous.release();
+            }
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Release the admission of the first attempt if it was not handed over to a strategy yet, as well as the admission
+     * held by the current strategy. Invoked when the connection is closed.
+     */
+    public void releasePendingAdmission() {
+        final Permit permit;
+        final AdmittedReconnectStrategy last;
+        synchronized (this) {
+            permit = firstPermit;
+            firstPermit = null;
+            last = lastStrategy;
+        }
+        if (permit != null) {
+            permit.release();
+        }
+        if (last != null) {
+            last.releasePermit();
+        }
+    }
+
+    @Override
+    public ReconnectStrategy createReconnectStrategy() {
+        final Permit permit;
+        final AdmittedReconnectStrategy previous;
+        final AdmittedReconnectStrategy ret;
+        synchronized (this) {
+            permit = firstPermit;
+            firstPermit = null;
+            previous = lastStrategy;
+            ret = new AdmittedReconnectStrategy(delegate.createReconnectStrategy(), permit);
+            lastStrategy = ret;
+        }
+
+        if (previous != null) {
+            // The previous connection is gone, and so is its attempt
+            previous.releasePermit();
+            if (permit == null && !previous.isEstablished()) {
+                ret.admitInitialAttempt();
+            }
+        }
+        return ret;
+    }
+
+    private final class AdmittedReconnectStrategy implements ReconnectStrategy {
+        private final ReconnectStrategy strategy;
+
+        @GuardedBy("this")
+        private Permit permit;
+        // Admission of an attempt which was initiated without waiting for it
+        @GuardedBy("this")
+        private ListenableFuture<Permit> pendingPermit;
+        private volatile boolean established;
+
+        AdmittedReconnectStrategy(final ReconnectStrategy strategy, final Permit permit) {
+            this.strategy = strategy;
+            this.permit = permit;
+        }
+
+        @Override
+        public int getConnectTimeout() throws Exception {
+            return strategy.getConnectTimeout();
+        }
+
+        @Override
+        public Future<Void> scheduleReconnect(final Throwable cause) {
+            // The previous attempt failed
+            releasePermit();
+
+            final long start = System.nanoTime();
+            final Future<Void> sleep = strategy.scheduleReconnect(cause);
+            final Promise<Void> ret = executor.newPromise();
+            sleep.addListener(future -> {
+                if (!future.isSuccess()) {
+                    ret.tryFailure(future.cause());
+                    return;
+                }
+
+                final long jitterMillis =
+                        admission.jitterMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (jitterMillis > 0) {
+                    executor.schedule(() -> admit(ret), jitterMillis, TimeUnit.MILLISECONDS);
+                } else {
+                    admit(ret);
+                }
+            });
+            return ret;
+        }
+
+        private void admit(final Promise<Void> ret) {
+            if (ret.isDone()) {
+                return;
+            }
+
+            final ListenableFuture<Permit> admitted = admission.admit(tier, handshakeTimeoutMillis);
+            ret.addListener(future -> {
+                if (future.isCancelled()) {
+                    admitted.cancel(false);
+                }
+            });
+            Futures.addCallback(admitted, new FutureCallback<Permit>() {
+                @Override
+                public void onSuccess(final Permit result) {
+                    synchronized (AdmittedReconnectStrategy.this) {
+                        permit = result;
+                    }
+                    if (!ret.trySuccess(null)) {
+                        releasePermit();
+                    }
+                }
+
+                @Override
+                public void onFailure(final Throwable throwable) {
+                    ret.tryFailure(throwable);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        @Override
+        public void reconnectSuccessful() {
+            established = true;
+            releasePermit();
+            strategy.reconnectSuccessful();
+        }
+
+        boolean isEstablished() {
+            return established;
+        }
+
+        /**
+         * Ask for admission of an attempt which is initiated right away. The permit is held from the moment it is
+         * granted until the attempt finishes.
+         */
+        void admitInitialAttempt() {
+            final ListenableFuture<Permit> admitted = admission.admit(tier, handshakeTimeoutMillis);
+            synchronized (this) {
+                pendingPermit = admitted;
+            }
+            Futures.addCallback(admitted, new FutureCallback<Permit>() {
+                @Override
+                public void onSuccess(final Permit result) {
+                    synchronized (AdmittedReconnectStrategy.this) {
+                        if (pendingPermit == admitted) {
+                            pendingPermit = null;
+                            permit = result;
+                            return;
+                        }
+                    }
+                    // The attempt finished in the meantime
+                    result.release();
+                }
+
+                @Override
+                public void onFailure(final Throwable throwable) {
+                    // Withdrawn once the attempt finished
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        void releasePermit() {
+            final Permit local;
+            final ListenableFuture<Permit> pending;
+            synchronized (this) {
+                local = permit;
+                permit = null;
+                pending = pendingPermit;
+                pendingPermit = null;
+            }
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            if (local != null) {
+                local.release();
+            }
+        }
+    }
+}
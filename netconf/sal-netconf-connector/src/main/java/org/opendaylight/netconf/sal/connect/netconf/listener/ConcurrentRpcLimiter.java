@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.netconf.api.NetconfDocumentedException;
+
+/**
+ * Limiter of RPCs concurrently outstanding on a device. When all permits are taken, requests may wait for a permit
+ * in a bounded queue. Permits are handed over to waiting requests in the order they arrived. Requests are rejected
+ * when the queue is full or when they do not get a permit within the configured time.
+ *
+ * <p>
+ * Waiting never blocks the calling thread, {@link #acquire()} returns a future which completes once the caller owns
+ * a permit.
+ */
+public final class ConcurrentRpcLimiter {
+    private static final ConcurrentRpcLimiter UNLIMITED = new ConcurrentRpcLimiter(0, 0, 0, null);
+
+    private final int limit;
+    private final int maxQueueDepth;
+    private final long maxQueueWaitMillis;
+    private final Timer timer;
+
+    @GuardedBy("this")
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int permits;
+    @GuardedBy("this")
+    private boolean handingOver;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong queuedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    ConcurrentRpcLimiter(final int limit, final int maxQueueDepth, final long maxQueueWaitMillis,
+            final Timer timer) {
+        this.limit = limit;
+        this.maxQueueDepth = Math.max(maxQueueDepth, 0);
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+        this.timer = timer;
+        this.permits = limit;
+    }
+
+    /**
+     * Create a limiter which fails requests immediately when the limit is reached.
+     *
+     * @param limit maximum number of outstanding requests, no limit is enforced if this is not positive
+     * @return a limiter
+     */
+    public static ConcurrentRpcLimiter create(final int limit) {
+        return create(limit, 0, 0);
+    }
+
+    /**
+     * Create a limiter.
+     *
+     * @param limit maximum number of outstanding requests, no limit is enforced if this is not positive
+     * @param maxQueueDepth maximum number of requests waiting for a permit, requests are failed immediately when
+     *                      the limit is reached if this is not positive
+     * @param maxQueueWaitMillis maximum time a request can wait for a permit, requests wait until they get one
+     *                           if this is not positive
+     * @return a limiter
+     */
+    public static ConcurrentRpcLimiter create(final int limit, final int maxQueueDepth,
+            final long maxQueueWaitMillis) {
+        return limit > 0 ? new ConcurrentRpcLimiter(limit, maxQueueDepth, maxQueueWaitMillis,
+            NetconfDeviceCommunicator.REQUEST_TIMER) : UNLIMITED;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    boolean isLimited() {
+        return limit > 0;
+    }
+
+    /**
+     * Take a permit if one is available and nobody is waiting for one.
+     *
+     * @return true if a permit was taken
+     */
+    synchronized boolean tryAcquire() {
+        if (!isLimited()) {
+            return true;
+        }
+        if (permits > 0 && waiters.isEmpty()) {
+            permits--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Take a permit, waiting for one if need be.
+     *
+     * @return future completing once the permit has been taken, failing if the request was rejected
+     */
+    ListenableFuture<Void> acquire() {
+        final Waiter waiter;
+        synchronized (this) {
+            if (tryAcquire()) {
+                return Futures.immediateFuture(null);
+            }
+            if (waiters.size() >= maxQueueDepth) {
+                rejectedCount.incrementAndGet();
+                return Futures.immediateFailedFuture(new NetconfDocumentedException(maxQueueDepth == 0
+                    ? "Limit of rpc messages was reached (Limit :" + limit + ")"
+                        : "Limit of rpc messages was reached (Limit :" + limit + ") and " + maxQueueDepth
+                        + " requests are already waiting"));
+            }
+
+            waiter = new Waiter();
+            waiters.add(waiter);
+            queuedCount.incrementAndGet();
+        }
+
+        if (maxQueueWaitMillis > 0) {
+            waiter.timeout = timer.newTimeout(timeout -> expire(waiter), maxQueueWaitMillis, TimeUnit.MILLISECONDS);
+        }
+        return waiter.future;
+    }
+
+    /**
+     * Give back a permit. If there are requests waiting for one, it is handed over to the first of them.
+     *
+     * <p>
+     * Waiters are completed outside of the call chain of the release which freed their permit: a release made while
+     * another thread, or a waiter completed by this one, is already handing over permits only returns the permit
+     * and leaves the hand-over to the loop already in progress. Hence a waiter which fails and releases its permit
+     * right away does not recurse into completing the next one.
+     */
+    void release() {
+        if (!isLimited()) {
+            return;
+        }
+
+        synchronized (this) {
+            permits++;
+            if (handingOver) {
+                return;
+            }
+            handingOver = true;
+        }
+
+        while (true) {
+            final Waiter waiter;
+            synchronized (this) {
+                if (permits == 0 || waiters.isEmpty()) {
+                    handingOver = false;
+                    return;
+                }
+                waiter = waiters.poll();
+                permits--;
+            }
+
+            if (waiter.timeout != null) {
+                waiter.timeout.cancel();
+            }
+            final long waited = System.nanoTime() - waiter.enqueued;
+            if (waiter.future.set(null)) {
+                totalWaitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+            } else {
+                // The waiter has been cancelled in the meantime, the permit goes to the next one
+                synchronized (this) {
+                    permits++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fail all requests waiting for a permit, for example because the session they were to be sent on went down.
+     * Permits currently taken are not affected.
+     *
+     * @param cause failure reported to waiting requests
+     */
+    void failWaiters(final Exception cause) {
+        final List<Waiter> failed;
+        synchronized (this) {
+            if (waiters.isEmpty()) {
+                return;
+            }
+            failed = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+
+        for (final Waiter waiter : failed) {
+            if (waiter.timeout != null) {
+                waiter.timeout.cancel();
+            }
+            waiter.future.setException(cause);
+        }
+    }
+
+    private void expire(final Waiter waiter) {
+        synchronized (this) {
+            if (!waiters.remove(waiter)) {
+                return;
+            }
+        }
+
+        timedOutCount.incrementAndGet();
+        waiter.future.setException(new NetconfDocumentedException("Request did not get a permit within "
+            + maxQueueWaitMillis + "ms (Limit :" + limit + ")"));
+    }
+
+    /**
+     * Return the number of requests currently waiting for a permit.
+     *
+     * @return number of waiting requests
+     */
+    public synchronized int getQueueDepth() {
+        return waiters.size();
+    }
+
+    /**
+     * Return the number of requests rejected because the queue was full.
+     *
+     * @return number of rejected requests
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Return the number of requests which did not get a permit within the maximum queue wait time.
+     *
+     * @return number of timed out requests
+     */
+    public long getTimedOutCount() {
+        return timedOutCount.get();
+    }
+
+    /**
+     * Return the number of requests which had to wait for a permit.
+     *
+     * @return number of queued requests
+     */
+    public long getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    /**
+     * Return the total time requests spent waiting before getting a permit.
+     *
+     * @param unit time unit of the result
+     * @return total wait time
+     */
+    public long getTotalWaitTime(final TimeUnit unit) {
+        return unit.convert(totalWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Return the longest time a request spent waiting before getting a permit.
+     *
+     * @param unit time unit of the result
+     * @return maximum wait time
+     */
+    public long getMaxWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("limit", limit).add("maxQueueDepth", maxQueueDepth)
+                .add("queueDepth", getQueueDepth()).add("queued", getQueuedCount()).add("rejected", getRejectedCount())
+                .add("timedOut", getTimedOutCount()).add("maxWaitMillis", getMaxWaitTime(TimeUnit.MILLISECONDS))
+                .toString();
+    }
+
+    private static final class Waiter {
+        final SettableFuture<Void> future = SettableFuture.create();
+        final long enqueued = System.nanoTime();
+        volatile Timeout timeout;
+    }
+}
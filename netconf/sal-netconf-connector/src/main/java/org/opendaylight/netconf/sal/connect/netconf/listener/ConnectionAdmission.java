@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission of connection attempts to devices, shared by the devices of a topology. Limits the number of attempts
+ * in progress and the rate at which attempts start, so that devices reconnecting after an outage do not all contend
+ * for SSH handshakes, schema resolution and mounting at the same time. Waiting attempts are admitted by tier, lower
+ * tiers first, and in order of arrival within a tier.
+ *
+ * <p>
+ * An admitted attempt holds its slot until its {@link Permit} is released, at the latest once the lease of the
+ * permit expires, so that an attempt which is never reported finished does not hold its slot forever.
+ *
+ * <p>
+ * An instance is created by the blueprint container of the topology, so that its limits and waiting attempts are
+ * not split between topologies or left behind by a configuration reload.
+ */
+public final class ConnectionAdmission {
+    /**
+     * Slot of an admitted connection attempt.
+     */
+    public interface Permit {
+        /**
+         * Release the slot, the attempt has finished. Releasing a permit more than once has no effect.
+         */
+        void release();
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionAdmission.class);
+
+    private static final Permit UNLIMITED_PERMIT = () -> { };
+
+    private final int maxConcurrentAttempts;
+    private final int maxAttemptsPerSecond;
+    private final double jitter;
+    private final Timer timer;
+
+    @GuardedBy("this")
+    private final Queue<Waiter> waiters = new PriorityQueue<>(Comparator.<Waiter>comparingInt(waiter -> waiter.tier)
+        .thenComparingLong(waiter -> waiter.sequence));
+    @GuardedBy("this")
+    private long sequence;
+    @GuardedBy("this")
+    private int attemptsInProgress;
+    // Token bucket of the attempt rate, holds at most a second worth of attempts
+    @GuardedBy("this")
+    private double tokens;
+    @GuardedBy("this")
+    private long lastRefillNanos = System.nanoTime();
+    @GuardedBy("this")
+    private boolean refillScheduled;
+
+    /**
+     * Create an admission controller.
+     *
+     * @param maxConcurrentAttempts maximum number of connection attempts in progress, not limited if not positive
+     * @param maxAttemptsPerSecond maximum number of connection attempts started per second, not limited if not
+     *                             positive
+     * @param jitter maximum fraction by which a reconnect sleep is randomly prolonged
+     */
+    public ConnectionAdmission(final int maxConcurrentAttempts, final int maxAttemptsPerSecond, final double jitter) {
+        this(maxConcurrentAttempts, maxAttemptsPerSecond, jitter, NetconfDeviceCommunicator.REQUEST_TIMER);
+    }
+
+    @VisibleForTesting
+    ConnectionAdmission(final int maxConcurrentAttempts, final int maxAttemptsPerSecond, final double jitter,
+            final Timer timer) {
+        Preconditions.checkArgument(jitter >= 0, "Jitter has to be non-negative, was %s", jitter);
+        this.maxConcurrentAttempts = maxConcurrentAttempts;
+        this.maxAttemptsPerSecond = maxAttemptsPerSecond;
+        this.jitter = jitter;
+        this.timer = timer;
+        this.tokens = maxAttemptsPerSecond;
+    }
+
+    /**
+     * Create an admission controller of a topology.
+     *
+     * @param maxConcurrentHandshakes maximum number of connection attempts in progress, not limited if not positive
+     * @param maxConnectionsPerSecond maximum number of connection attempts started per second, not limited if not
+     *                                positive
+     * @param reconnectJitter maximum fraction by which a reconnect sleep is randomly prolonged
+     * @return a new admission controller
+     */
+    public static ConnectionAdmission create(final int maxConcurrentHandshakes, final int maxConnectionsPerSecond,
+            final double reconnectJitter) {
+        LOG.info("NETCONF connection admission configured with {} concurrent handshakes, {} connections per second"
+            + " and reconnect jitter {}", maxConcurrentHandshakes, maxConnectionsPerSecond, reconnectJitter);
+        return new ConnectionAdmission(maxConcurrentHandshakes, maxConnectionsPerSecond, reconnectJitter);
+    }
+
+    /**
+     * Return a random prolongation of a reconnect sleep, so that devices disconnected at the same time do not
+     * reconnect in lockstep.
+     *
+     * @param sleepMillis reconnect sleep in milliseconds
+     * @return prolongation in milliseconds
+     */
+    public long jitterMillis(final long sleepMillis) {
+        final long bound = (long) (sleepMillis * jitter);
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+
+    /**
+     * Wait for a connection attempt to be admitted. Cancelling the returned future withdraws the attempt.
+     *
+     * @param tier tier of the device, lower tiers are admitted first
+     * @param leaseMillis time in milliseconds after which the permit is released if it was not released before
+     * @return future permit
+     */
+    public ListenableFuture<Permit> admit(final int tier, final long leaseMillis) {
+        if (maxConcurrentAttempts <= 0 && maxAttemptsPerSecond <= 0) {
+            return Futures.immediateFuture(UNLIMITED_PERMIT);
+        }
+
+        final Waiter waiter;
+        synchronized (this) {
+            waiter = new Waiter(tier, sequence++, leaseMillis);
+            waiters.add(waiter);
+        }
+        dispatch();
+        return waiter.future;
+    }
+
+    /**
+     * Return the number of connection attempts in progress.
+     *
+     * @return number of admitted attempts which were not released yet
+     */
+    public synchronized int getAttemptsInProgress() {
+        return attemptsInProgress;
+    }
+
+    /**
+     * Return the number of connection attempts waiting to be admitted.
+     *
+     * @return number of waiting attempts
+     */
+    public synchronized int getWaitingAttempts() {
+        return waiters.size();
+    }
+
+    private void dispatch() {
+        final List<Waiter> admitted = new ArrayList<>();
+        synchronized (this) {
+            refill();
+            while (!waiters.isEmpty() && (maxConcurrentAttempts <= 0 || attemptsInProgress < maxConcurrentAttempts)) {
+                if (maxAttemptsPerSecond > 0 && tokens < 1) {
+                    scheduleRefill();
+                    break;
+                }
+                final Waiter waiter = waiters.poll();
+                if (waiter.future.isCancelled()) {
+                    continue;
+                }
+                if (maxAttemptsPerSecond > 0) {
+                    tokens--;
+                }
+                attemptsInProgress++;
+                admitted.add(waiter);
+            }
+        }
+
+        for (final Waiter waiter : admitted) {
+            final LeasedPermit permit = new LeasedPermit(waiter.leaseMillis);
+            if (!waiter.future.set(permit)) {
+                // Withdrawn in the meantime
+                permit.release();
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void refill() {
+        if (maxAttemptsPerSecond <= 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        tokens = Math.min(maxAttemptsPerSecond,
+            tokens + (now - lastRefillNanos) * maxAttemptsPerSecond / (double) TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+
+    @GuardedBy("this")
+    private void scheduleRefill() {
+        if (refillScheduled) {
+            return;
+        }
+        refillScheduled = true;
+        final long delayNanos = (long) ((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / maxAttemptsPerSecond) + 1;
+        timer.newTimeout(timeout -> {
+            synchronized (ConnectionAdmission.this) {
+                refillScheduled = false;
+            }
+            dispatch();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void onReleased() {
+        attemptsInProgress--;
+    }
+
+    private static final class Waiter {
+        final int tier;
+        final long sequence;
+        final long leaseMillis;
+        final SettableFuture<Permit> future = SettableFuture.create();
+
+        Waiter(final int tier, final long sequence, final long leaseMillis) {
+            this.tier = tier;
+            this.sequence = sequence;
+            this.leaseMillis = leaseMillis;
+        }
+    }
+
+    private final class LeasedPermit implements Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final Timeout lease;
+
+        LeasedPermit(final long leaseMillis) {
+            lease = timer.newTimeout(timeout -> {
+                LOG.debug("Connection attempt did not finish within {}ms, releasing its admission", leaseMillis);
+                release();
+            }, leaseMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                lease.cancel();
+                onReleased();
+                dispatch();
+            }
+        }
+    }
+}
@@ -7,25 +7,38 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.listener;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import io.netty.util.concurrent.Future;
-import java.util.ArrayDeque;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.FailedNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
+import org.opendaylight.netconf.api.WritableNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.api.xml.XmlUtil;
@@ -45,23 +58,45 @@ import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Session listener dispatching RPC requests to a device and replies back to their requesters. Outstanding requests
+ * are correlated with replies by their message-id, hence replies can arrive in any order and a lost reply does not
+ * affect other requests. Neither sending a request nor dispatching a reply contend on a lock, so any number of
+ * threads can pipeline requests to a single device.
+ */
 public class NetconfDeviceCommunicator
         implements NetconfClientSessionListener, RemoteDeviceCommunicator<NetconfMessage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfDeviceCommunicator.class);
 
+    // A single timer serves request timeouts and connection admission of all devices, expirations do not need to be
+    // precise
+    static final Timer REQUEST_TIMER = new HashedWheelTimer(new ThreadFactoryBuilder()
+        .setNameFormat("netconf-request-timer-%d").setDaemon(true).build(), 100, TimeUnit.MILLISECONDS);
+
     protected final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice;
     private final Optional<UserPreferences> overrideNetconfCapabilities;
     protected final RemoteDeviceId id;
     private final Lock sessionLock = new ReentrantLock();
 
-    private final Semaphore semaphore;
-    private final int concurentRpcMsgs;
+    private final ConcurrentRpcLimiter limiter;
+    private final Timer timer;
+    private final long requestTimeoutMillis;
 
-    private final Queue<Request> requests = new ArrayDeque<>();
-    private NetconfClientSession currentSession;
+    // Outstanding requests keyed by their message-id
+    private final ConcurrentMap<String, Request> requests = new ConcurrentHashMap<>();
+    private final AtomicLong requestSequence = new AtomicLong();
+    // Messages of any kind received from the device, lets keepalives be skipped on a busy session
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private volatile NetconfClientSession currentSession;
 
+    @GuardedBy("this")
     private Future<?> initFuture;
+    // Admission of the first connection attempt, if the connection waits for one
+    @GuardedBy("this")
+    private ListenableFuture<?> pendingAdmission;
+    @GuardedBy("this")
+    private AdmittedReconnectStrategyFactory admittedStrategyFactory;
     private final SettableFuture<NetconfDeviceCapabilities> firstConnectionFuture;
 
     // isSessionClosing indicates a close operation on the session is issued and
@@ -79,26 +114,56 @@ public class NetconfDeviceCommunicator
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final UserPreferences netconfSessionPreferences, final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.of(netconfSessionPreferences), rpcMessageLimit);
+        this(id, remoteDevice, netconfSessionPreferences, ConcurrentRpcLimiter.create(rpcMessageLimit), 0);
     }
 
     public NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
             final int rpcMessageLimit) {
-        this(id, remoteDevice, Optional.absent(), rpcMessageLimit);
+        this(id, remoteDevice, ConcurrentRpcLimiter.create(rpcMessageLimit), 0);
+    }
+
+    /**
+     * Create a communicator failing requests which have not been replied to within a timeout.
+     *
+     * @param limiter limiter of concurrently outstanding requests
+     * @param requestTimeoutMillis request timeout in milliseconds, requests do not time out if this is not positive
+     */
+    public NetconfDeviceCommunicator(
+            final RemoteDeviceId id,
+            final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+            final UserPreferences netconfSessionPreferences, final ConcurrentRpcLimiter limiter,
+            final long requestTimeoutMillis) {
+        this(id, remoteDevice, Optional.of(netconfSessionPreferences), limiter, REQUEST_TIMER, requestTimeoutMillis);
+    }
+
+    /**
+     * Create a communicator failing requests which have not been replied to within a timeout.
+     *
+     * @param limiter limiter of concurrently outstanding requests
+     * @param requestTimeoutMillis request timeout in milliseconds, requests do not time out if this is not positive
+     */
+    public NetconfDeviceCommunicator(
+            final RemoteDeviceId id,
+            final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
+            final ConcurrentRpcLimiter limiter, final long requestTimeoutMillis) {
+        this(id, remoteDevice, Optional.absent(), limiter, REQUEST_TIMER, requestTimeoutMillis);
     }
 
-    private NetconfDeviceCommunicator(
+    @VisibleForTesting
+    NetconfDeviceCommunicator(
             final RemoteDeviceId id,
             final RemoteDevice<NetconfSessionPreferences, NetconfMessage, NetconfDeviceCommunicator> remoteDevice,
-            final Optional<UserPreferences> overrideNetconfCapabilities, final int rpcMessageLimit) {
-        this.concurentRpcMsgs = rpcMessageLimit;
+            final Optional<UserPreferences> overrideNetconfCapabilities, final ConcurrentRpcLimiter limiter,
+            final Timer timer, final long requestTimeoutMillis) {
         this.id = id;
         this.remoteDevice = remoteDevice;
         this.overrideNetconfCapabilities = overrideNetconfCapabilities;
         this.firstConnectionFuture = SettableFuture.create();
-        this.semaphore = rpcMessageLimit > 0 ? new Semaphore(rpcMessageLimit) : null;
+        this.limiter = Preconditions.checkNotNull(limiter);
+        this.timer = timer;
+        this.requestTimeoutMillis = requestTimeoutMillis;
     }
 
     @Override
@@ -137,7 +202,22 @@ public class NetconfDeviceCommunicator
     }
 
     /**
-     * Initialize remote connection.
+     * Return capabilities advertised by the device in hello message of the current session.
+     *
+     * @return capabilities, empty if there is no session
+     */
+    public Collection<String> getServerCapabilities() {
+        sessionLock.lock();
+        try {
+            return currentSession == null ? Collections.emptySet() : currentSession.getServerCapabilities();
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    /**
+     * Initialize remote connection. If connection attempts are subject to admission, by means of an
+     * {@link AdmittedReconnectStrategyFactory}, the connection is initiated once its first attempt is admitted.
      *
      * @param dispatcher {@code NetconfCLientDispatcher}
      * @param config     {@code NetconfClientConfiguration}
@@ -146,6 +226,36 @@ public class NetconfDeviceCommunicator
      */
     public ListenableFuture<NetconfDeviceCapabilities> initializeRemoteConnection(
             final NetconfClientDispatcher dispatcher, final NetconfClientConfiguration config) {
+        if (config instanceof NetconfReconnectingClientConfiguration
+                && ((NetconfReconnectingClientConfiguration) config).getConnectStrategyFactory()
+                    instanceof AdmittedReconnectStrategyFactory) {
+            final AdmittedReconnectStrategyFactory factory = (AdmittedReconnectStrategyFactory)
+                    ((NetconfReconnectingClientConfiguration) config).getConnectStrategyFactory();
+            final ListenableFuture<?> admission = factory.admitFirstAttempt();
+            synchronized (this) {
+                admittedStrategyFactory = factory;
+                pendingAdmission = admission;
+            }
+            LOG.debug("{}: Waiting for connection to be admitted", id);
+            admission.addListener(() -> startAdmittedConnection(admission, dispatcher, config),
+                MoreExecutors.directExecutor());
+        } else {
+            startConnection(dispatcher, config);
+        }
+        return firstConnectionFuture;
+    }
+
+    private synchronized void startAdmittedConnection(final ListenableFuture<?> admission,
+            final NetconfClientDispatcher dispatcher, final NetconfClientConfiguration config) {
+        // The connection may have been closed in the meantime
+        if (pendingAdmission == admission && !admission.isCancelled()) {
+            pendingAdmission = null;
+            startConnection(dispatcher, config);
+        }
+    }
+
+    private synchronized void startConnection(final NetconfClientDispatcher dispatcher,
+            final NetconfClientConfiguration config) {
         if (config instanceof NetconfReconnectingClientConfiguration) {
             initFuture = dispatcher.createReconnectingClient((NetconfReconnectingClientConfiguration) config);
         } else {
@@ -162,13 +272,13 @@ public class NetconfDeviceCommunicator
                 }
             }
         });
-        return firstConnectionFuture;
     }
 
     public void disconnect() {
         // If session is already in closing, no need to close it again
-        if (currentSession != null && isSessionClosing.compareAndSet(false, true) && currentSession.isUp()) {
-            currentSession.close();
+        final NetconfClientSession session = currentSession;
+        if (session != null && isSessionClosing.compareAndSet(false, true) && session.isUp()) {
+            session.close();
         }
     }
 
@@ -183,18 +293,12 @@ public class NetconfDeviceCommunicator
             if (currentSession != null) {
                 currentSession = null;
                 /*
-                 * Walk all requests, check if they have been executing
-                 * or cancelled and remove them from the queue.
+                 * Remove all outstanding requests. Requests racing with us will notice the session is gone
+                 * and remove themselves.
                  */
-                final Iterator<Request> it = requests.iterator();
-                while (it.hasNext()) {
-                    final Request r = it.next();
-                    if (r.future.isUncancellable()) {
+                for (final Request r : requests.values()) {
+                    if (removeRequest(r)) {
                         futuresToCancel.add(r.future);
-                        it.remove();
-                    } else if (r.future.isCancelled()) {
-                        // This just does some house-cleaning
-                        it.remove();
                     }
                 }
 
@@ -214,6 +318,10 @@ public class NetconfDeviceCommunicator
             }
         }
 
+        // Requests waiting for a permit would only find the session gone, fail them instead of handing them permits
+        limiter.failWaiters(new NetconfDocumentedException(Strings.isNullOrEmpty(reason)
+            ? String.format("The netconf session to %1$s is disconnected", id.getName()) : reason));
+
         isSessionClosing.set(false);
     }
 
@@ -237,6 +345,15 @@ public class NetconfDeviceCommunicator
         }
     }
 
+    /**
+     * Return the number of messages received from the device so far, including replies and notifications.
+     *
+     * @return number of received messages
+     */
+    public long getReceivedMessageCount() {
+        return receivedMessages.get();
+    }
+
     @Override
     public void onSessionTerminated(final NetconfClientSession session, final NetconfTerminationReason reason) {
         // onSessionTerminated is called directly by disconnect, no need to compare and set isSessionClosing.
@@ -246,9 +363,23 @@ public class NetconfDeviceCommunicator
 
     @Override
     public void close() {
-        // Cancel reconnect if in progress
-        if (initFuture != null) {
-            initFuture.cancel(false);
+        final AdmittedReconnectStrategyFactory factory;
+        synchronized (this) {
+            // Withdraw from admission if still waiting for it
+            if (pendingAdmission != null) {
+                pendingAdmission.cancel(false);
+                pendingAdmission = null;
+            }
+            // Cancel reconnect if in progress
+            if (initFuture != null) {
+                initFuture.cancel(false);
+            }
+            factory = admittedStrategyFactory;
+        }
+        // Admission may have been granted already, to the connection or to its current attempt. Released outside
+        // of the lock, as it admits attempts of other devices.
+        if (factory != null) {
+            factory.releasePendingAdmission();
         }
         // Disconnect from device
         // tear down not necessary, called indirectly by the close in disconnect()
@@ -257,6 +388,7 @@ public class NetconfDeviceCommunicator
 
     @Override
     public void onMessage(final NetconfClientSession session, final NetconfMessage message) {
+        receivedMessages.incrementAndGet();
         /*
          * Dispatch between notifications and messages. Messages need to be processed
          * with lock held, notifications do not.
@@ -269,130 +401,278 @@ public class NetconfDeviceCommunicator
     }
 
     private void processMessage(final NetconfMessage message) {
-        Request request = null;
-        sessionLock.lock();
-
-        try {
-            request = requests.peek();
-            if (request != null && request.future.isUncancellable()) {
-                request = requests.poll();
-                // we have just removed one request from the queue
-                // we can also release one permit
-                if (semaphore != null) {
-                    semaphore.release();
-                }
-            } else {
-                request = null;
-                LOG.warn("{}: Ignoring unsolicited message {}", id,
-                        msgToS(message));
-            }
-        } finally {
-            sessionLock.unlock();
+        final Request request = matchRequest(message);
+        if (request == null) {
+            LOG.warn("{}: Ignoring unsolicited message {}", id, msgToS(message));
+            return;
         }
 
-        if (request != null) {
+        if (FailedNetconfMessage.class.isInstance(message)) {
+            request.future.set(NetconfMessageTransformUtil.toRpcResult((FailedNetconfMessage) message));
+            return;
+        }
 
-            if (FailedNetconfMessage.class.isInstance(message)) {
-                request.future.set(NetconfMessageTransformUtil.toRpcResult((FailedNetconfMessage) message));
-                return;
-            }
+        LOG.debug("{}: Message received {}", id, message);
 
-            LOG.debug("{}: Message received {}", id, message);
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("{}: Matched request: {} to response: {}", id, msgToS(request.request), msgToS(message));
+        }
 
-            if (LOG.isTraceEnabled()) {
-                LOG.trace("{}: Matched request: {} to response: {}", id, msgToS(request.request), msgToS(message));
-            }
+        try {
+            completeRequest(request, message);
+        } catch (final IllegalStateException e) {
+            // Replies parsed on demand are found not to be well-formed only once their DOM is built
+            LOG.warn("{}: Failed to parse reply to request {}", id, request.key, e);
+            request.future.set(NetconfMessageTransformUtil.toRpcResult(
+                new FailedNetconfMessage(e.getCause() != null ? e.getCause() : e)));
+        }
+    }
 
-            try {
-                NetconfMessageTransformUtil.checkValidReply(request.request, message);
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Invalid request-reply match,"
-                                + "reply message contains different message-id, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
+    private void completeRequest(final Request request, final NetconfMessage message) {
+        try {
+            NetconfMessageTransformUtil.checkValidReply(request.request, message);
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Invalid request-reply match,"
+                            + "reply message contains different message-id, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set(RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+            return;
+        }
 
-                request.future.set(RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+        try {
+            NetconfMessageTransformUtil.checkSuccessReply(message);
+        } catch (final NetconfDocumentedException e) {
+            LOG.warn(
+                    "{}: Error reply from remote device, request: {}, response: {}",
+                    id, msgToS(request.request), msgToS(message), e);
+
+            request.future.set(RpcResultBuilder.<NetconfMessage>failed()
+                    .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
+            return;
+        }
 
-                //recursively processing message to eventually find matching request
-                processMessage(message);
+        request.future.set(RpcResultBuilder.success(message).build());
+    }
 
-                return;
+    /**
+     * Find and remove the request a reply belongs to. Replies carrying a message-id are matched by it, those with
+     * a message-id we do not know are not matched at all. Replies without a message-id, or which could not be parsed,
+     * cannot be correlated. Such replies are attributed to the oldest outstanding request, so that it is failed
+     * rather than left waiting for a reply which is never going to arrive.
+     */
+    private Request matchRequest(final NetconfMessage message) {
+        if (!FailedNetconfMessage.class.isInstance(message)) {
+            final String messageId = NetconfMessageTransformUtil.getMessageId(message);
+            if (!messageId.isEmpty()) {
+                final Request request = requests.get(messageId);
+                if (request == null || !removeRequest(request)) {
+                    LOG.debug("{}: No outstanding request with message-id {}", id, messageId);
+                    return null;
+                }
+                return request;
             }
+        }
 
-            try {
-                NetconfMessageTransformUtil.checkSuccessReply(message);
-            } catch (final NetconfDocumentedException e) {
-                LOG.warn(
-                        "{}: Error reply from remote device, request: {}, response: {}",
-                        id, msgToS(request.request), msgToS(message), e);
-
-                request.future.set(RpcResultBuilder.<NetconfMessage>failed()
-                        .withRpcError(NetconfMessageTransformUtil.toRpcError(e)).build());
-                return;
+        while (true) {
+            Request oldest = null;
+            for (final Request request : requests.values()) {
+                if (oldest == null || request.sequence < oldest.sequence) {
+                    oldest = request;
+                }
+            }
+            if (oldest == null || removeRequest(oldest)) {
+                return oldest;
             }
+        }
+    }
 
-            request.future.set(RpcResultBuilder.success(message).build());
+    /**
+     * Remove a request from outstanding requests, releasing any resources it holds.
+     *
+     * @return true if the request was removed, false if it has already been removed by someone else
+     */
+    private boolean removeRequest(final Request request) {
+        if (!requests.remove(request.key, request)) {
+            return false;
         }
+        if (request.timeout != null) {
+            request.timeout.cancel();
+        }
+        releasePermit();
+        return true;
     }
 
     private static String msgToS(final NetconfMessage msg) {
+        if (msg instanceof ByteBufNetconfMessage) {
+            // Do not build the DOM just to log the message
+            return msg.toString();
+        }
+        if (msg instanceof WritableNetconfMessage && !((WritableNetconfMessage) msg).isDocumentBuilt()) {
+            // Building the DOM may fail, the encoder reports it
+            return msg.getClass().getSimpleName() + "{message-id=" + ((WritableNetconfMessage) msg).getMessageId()
+                + "}";
+        }
         return XmlUtil.toString(msg.getDocument());
     }
 
     @Override
     public ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final NetconfMessage message, final QName rpc) {
-        sessionLock.lock();
-        try {
-            if (semaphore != null && !semaphore.tryAcquire()) {
-                LOG.warn("Limit of concurrent rpc messages was reached (limit :" + concurentRpcMsgs
-                    + "). Rpc reply message is needed. Discarding request of Netconf device with id" + id.getName());
-                return Futures.immediateFailedFuture(new NetconfDocumentedException(
-                        "Limit of rpc messages was reached (Limit :" + concurentRpcMsgs
-                        + ") waiting for emptying the queue of Netconf device with id" + id.getName()));
-            }
+        if (limiter.tryAcquire()) {
+            return sendRequest(currentSession, message);
+        }
 
-            return sendRequestWithLock(message, rpc);
-        } finally {
-            sessionLock.unlock();
+        final ListenableFuture<Void> permit = limiter.acquire();
+        if (permit.isDone()) {
+            try {
+                Futures.getDone(permit);
+            } catch (ExecutionException e) {
+                LOG.warn("{}: Limit of concurrent rpc messages was reached (limit :{}), discarding request: {}", id,
+                    limiter.getLimit(), e.getCause().getMessage());
+                return Futures.immediateFailedFuture(e.getCause());
+            }
+            return sendRequest(currentSession, message);
         }
+
+        // Wait for a reply to free up a permit, the session may have changed by the time we get it
+        LOG.debug("{}: Limit of concurrent rpc messages was reached (limit :{}), request queued", id,
+            limiter.getLimit());
+        return Futures.transformAsync(permit, ignored -> sendRequest(currentSession, message),
+            MoreExecutors.directExecutor());
     }
 
-    private ListenableFuture<RpcResult<NetconfMessage>> sendRequestWithLock(final NetconfMessage message,
-                                                                            final QName rpc) {
+    private ListenableFuture<RpcResult<NetconfMessage>> sendRequest(final NetconfClientSession session,
+                                                                    final NetconfMessage message) {
         if (LOG.isTraceEnabled()) {
             LOG.trace("{}: Sending message {}", id, msgToS(message));
         }
 
-        if (currentSession == null) {
+        if (session == null) {
             LOG.warn("{}: Session is disconnected, failing RPC request {}",
                     id, message);
+            releasePermit();
             return Futures.immediateFuture(createSessionDownRpcResult());
         }
 
-        final Request req = new Request(new UncancellableFuture<>(true), message);
-        requests.add(req);
+        final long sequence = requestSequence.incrementAndGet();
+        final String messageId = NetconfMessageTransformUtil.getMessageId(message);
+        // Requests without a message-id can only be matched as the oldest request, give them a unique key
+        final Request req = new Request(new UncancellableFuture<>(true), message, sequence,
+            messageId.isEmpty() ? "\0" + sequence : messageId);
+        if (requests.putIfAbsent(req.key, req) != null) {
+            LOG.warn("{}: Request with message-id {} is already outstanding, failing request {}", id, messageId,
+                message);
+            releasePermit();
+            return Futures.immediateFuture(createErrorRpcResult(RpcError.ErrorType.PROTOCOL,
+                "Request with message-id " + messageId + " is already outstanding"));
+        }
+
+        if (currentSession != session) {
+            // Session went down while we were adding the request, it may or may not have been seen by tearDown()
+            if (removeRequest(req)) {
+                req.future.set(createSessionDownRpcResult());
+            }
+            return req.future;
+        }
+
+        if (timer != null && requestTimeoutMillis > 0) {
+            req.timeout = timer.newTimeout(timeout -> onRequestTimeout(req), requestTimeoutMillis,
+                TimeUnit.MILLISECONDS);
+        }
+
+        if (session.isWritable()) {
+            transmitRequest(session, req);
+        } else {
+            // Hold the request back until the device catches up with reading, its timeout keeps running meanwhile
+            LOG.debug("{}: Outbound queue of the session is above its high water mark, request {} waits", id,
+                req.key);
+            session.whenWritable(() -> {
+                if (requests.get(req.key) == req) {
+                    transmitRequest(session, req);
+                }
+            }, cause -> {
+                LOG.debug("{}: Session went down before request {} could be sent", id, req.key, cause);
+                if (removeRequest(req)) {
+                    req.future.set(createSessionDownRpcResult());
+                }
+            });
+        }
+        return req.future;
+    }
 
-        currentSession.sendMessage(req.request).addListener(future -> {
+    private void transmitRequest(final NetconfClientSession session, final Request req) {
+        session.sendMessage(req.request).addListener(future -> {
             if (!future.isSuccess()) {
-                // We expect that a session down will occur at this point
-                LOG.debug("{}: Failed to send request {}", id,
-                        XmlUtil.toString(req.request.getDocument()),
-                        future.cause());
-
-                if (future.cause() != null) {
-                    req.future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT,
-                            future.cause().getLocalizedMessage()));
-                } else {
-                    req.future.set(createSessionDownRpcResult()); // assume session is down
+                // Complete the request first, the message itself may not be serializable and must not be touched
+                if (removeRequest(req)) {
+                    if (future.cause() != null) {
+                        req.future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT,
+                                future.cause().getLocalizedMessage()));
+                    } else {
+                        req.future.set(createSessionDownRpcResult()); // assume session is down
+                    }
                 }
-                req.future.setException(future.cause());
+
+                // We expect that a session down will occur at this point, unless the request failed to encode
+                LOG.debug("{}: Failed to send request {}", id, req.key, future.cause());
             } else {
-                LOG.trace("Finished sending request {}", req.request);
+                LOG.trace("{}: Finished sending request {}", id, req.key);
             }
         });
+    }
 
-        return req.future;
+    private void onRequestTimeout(final Request request) {
+        if (removeRequest(request)) {
+            LOG.warn("{}: No reply to request {} received within {}ms", id, request.key, requestTimeoutMillis);
+            request.future.set(createErrorRpcResult(RpcError.ErrorType.TRANSPORT, String.format(
+                "No reply to request %s received from %s within %sms", request.key, id.getName(),
+                requestTimeoutMillis)));
+        }
+    }
+
+    private void releasePermit() {
+        limiter.release();
+    }
+
+    /**
+     * Return the limiter of concurrently outstanding requests, which also provides queueing statistics.
+     *
+     * @return limiter
+     */
+    public ConcurrentRpcLimiter getRpcLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Return the number of requests sent to the device and waiting for a reply.
+     *
+     * @return number of outstanding requests
+     */
+    public int getOutstandingRequestCount() {
+        return requests.size();
+    }
+
+    /**
+     * Return the number of requests waiting for the transport to accept them, because the device does not keep up
+     * with reading.
+     *
+     * @return number of pending writes, 0 if there is no session
+     */
+    public int getPendingWriteCount() {
+        final NetconfClientSession session = currentSession;
+        return session == null ? 0 : session.getPendingWriteCount();
+    }
+
+    /**
+     * Return the number of bytes waiting for the transport to accept them, see {@link #getPendingWriteCount()}.
+     *
+     * @return number of pending bytes, 0 if there is no session
+     */
+    public long getPendingWriteBytes() {
+        final NetconfClientSession session = currentSession;
+        return session == null ? 0 : session.getPendingWriteBytes();
     }
 
     private void processNotification(final NetconfMessage notification) {
@@ -404,6 +684,10 @@ public class NetconfDeviceCommunicator
     }
 
     private static boolean isNotification(final NetconfMessage message) {
+        if (message instanceof ByteBufNetconfMessage) {
+            return XmlNetconfConstants.NOTIFICATION_ELEMENT_NAME.equals(
+                ((ByteBufNetconfMessage) message).getRootElementName());
+        }
         if (message.getDocument() == null) {
             // We have no message, which mean we have a FailedNetconfMessage
             return false;
@@ -415,11 +699,16 @@ public class NetconfDeviceCommunicator
     private static final class Request {
         final UncancellableFuture<RpcResult<NetconfMessage>> future;
         final NetconfMessage request;
+        final long sequence;
+        final String key;
+        volatile Timeout timeout;
 
         private Request(final UncancellableFuture<RpcResult<NetconfMessage>> future,
-                        final NetconfMessage request) {
+                        final NetconfMessage request, final long sequence, final String key) {
             this.future = future;
             this.request = request;
+            this.sequence = sequence;
+            this.key = key;
         }
     }
 }
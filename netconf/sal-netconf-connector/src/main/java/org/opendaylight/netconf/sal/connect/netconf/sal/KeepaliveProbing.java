@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal;
+
+import static java.util.Objects.requireNonNull;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps.getSourceNode;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toId;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
+
+import java.util.Locale;
+import org.opendaylight.netconf.sal.connect.netconf.schema.mapping.BaseSchema;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Statistics;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * Settings of the keepalive RPC sent to an idle device.
+ */
+public final class KeepaliveProbing {
+    /**
+     * RPC sent as a keepalive. Any reply, including rpc-error, proves the session is alive.
+     */
+    public enum Probe {
+        /**
+         * get-config of running with an empty filter.
+         */
+        GET_CONFIG(toPath(NETCONF_GET_CONFIG_QNAME), NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_QNAME,
+            getSourceNode(NETCONF_RUNNING_QNAME), NetconfMessageTransformUtil.EMPTY_FILTER)),
+        /**
+         * get of ietf-netconf-monitoring statistics, a handful of counters regardless of the size of the datastore.
+         */
+        GET_MONITORING(toPath(NETCONF_GET_QNAME), Builders.containerBuilder()
+            .withNodeIdentifier(toId(NETCONF_GET_QNAME))
+            .withChild(NetconfMessageTransformUtil.toFilterStructure(
+                YangInstanceIdentifier.builder().node(NetconfState.QNAME).node(Statistics.QNAME).build(),
+                BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getSchemaContext()))
+            .build());
+
+        private final SchemaPath rpc;
+        private final ContainerNode input;
+
+        Probe(final SchemaPath rpc, final ContainerNode input) {
+            this.rpc = rpc;
+            this.input = input;
+        }
+
+        public SchemaPath getRpc() {
+            return rpc;
+        }
+
+        public ContainerNode getInput() {
+            return input;
+        }
+
+        /**
+         * Return the probe of a name, such as {@code get-config}.
+         *
+         * @param name probe name
+         * @return probe
+         * @throws IllegalArgumentException if the name is not known
+         */
+        public static Probe forName(final String name) {
+            return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static final KeepaliveProbing DEFAULT = new KeepaliveProbing(Probe.GET_CONFIG);
+
+    private final Probe probe;
+
+    public KeepaliveProbing(final Probe probe) {
+        this.probe = requireNonNull(probe);
+    }
+
+    public Probe getProbe() {
+        return probe;
+    }
+}
@@ -7,21 +7,21 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
-import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps.getSourceNode;
-import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME;
-import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME;
-import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
-
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
@@ -32,10 +32,9 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
-import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.netconf.sal.KeepaliveProbing.Probe;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.concepts.ListenerRegistration;
-import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
@@ -45,7 +44,12 @@ import org.slf4j.LoggerFactory;
 /**
  * SalFacade proxy that invokes keepalive RPCs to prevent session shutdown from remote device
  * and to detect incorrect session drops (netconf session is inactive, but TCP/SSH connection is still present).
- * The keepalive RPC is a get-config with empty filter.
+ * The keepalive RPC is chosen by {@link KeepaliveProbing}, a get-config with empty filter by default.
+ *
+ * <p>
+ * Keepalives of all devices are driven by a single timing wheel. A keepalive is due every keepalive delay, but it is
+ * skipped if any message was received from the device since the previous one, as the session is evidently alive.
+ * Replies to keepalives do not count as such messages.
  */
 public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSessionPreferences> {
 
@@ -57,27 +61,45 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     // 1 minute transaction timeout by default
     private static final long DEFAULT_TRANSACTION_TIMEOUT_MILLI = TimeUnit.MILLISECONDS.toMillis(60000);
 
+    // A single timer drives keepalives of all devices, keepalive delays are in seconds
+    static final Timer KEEPALIVE_TIMER = new HashedWheelTimer(new ThreadFactoryBuilder()
+        .setNameFormat("netconf-keepalive-timer-%d").setDaemon(true).build(), 1, TimeUnit.SECONDS);
+
     private final RemoteDeviceId id;
     private final RemoteDeviceHandler<NetconfSessionPreferences> salFacade;
     private final ScheduledExecutorService executor;
     private final long keepaliveDelaySeconds;
     private final ResetKeepalive resetKeepaliveTask;
     private final long defaultRequestTimeoutMillis;
+    private final Probe probe;
 
     private volatile NetconfDeviceCommunicator listener;
-    private volatile ScheduledFuture<?> currentKeepalive;
+    private volatile Keepalive currentKeepalive;
     private volatile DOMRpcService currentDeviceRpc;
     private final AtomicBoolean lastKeepAliveSucceeded = new AtomicBoolean(false);
+    // Set whenever a reply or a notification is seen, in case there is no session listener to count messages
+    private final AtomicBoolean activitySeen = new AtomicBoolean(false);
+    // Number of messages received by the session listener when last checked
+    private volatile long lastReceivedMessages;
+    // Number of keepalive replies received since last checked, these are included in the listener's count
+    private final AtomicLong keepaliveReplies = new AtomicLong();
 
     public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
                               final ScheduledExecutorService executor, final long keepaliveDelaySeconds,
                               final long defaultRequestTimeoutMillis) {
+        this(id, salFacade, executor, keepaliveDelaySeconds, defaultRequestTimeoutMillis, KeepaliveProbing.DEFAULT);
+    }
+
+    public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
+                              final ScheduledExecutorService executor, final long keepaliveDelaySeconds,
+                              final long defaultRequestTimeoutMillis, final KeepaliveProbing probing) {
         this.id = id;
         this.salFacade = salFacade;
         this.executor = executor;
         this.keepaliveDelaySeconds = keepaliveDelaySeconds;
         this.defaultRequestTimeoutMillis = defaultRequestTimeoutMillis;
         this.resetKeepaliveTask = new ResetKeepalive();
+        this.probe = probing.getProbe();
     }
 
     public KeepaliveSalFacade(final RemoteDeviceId id, final RemoteDeviceHandler<NetconfSessionPreferences> salFacade,
@@ -95,26 +117,21 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
     }
 
     /**
-     * Just cancel current keepalive task.
-     * If its already started, let it finish ... not such a big deal.
-     *
-     * <p>
-     * Then schedule next keepalive.
+     * Record that the session is active, the next keepalive is skipped.
      */
     void resetKeepalive() {
-        LOG.trace("{}: Resetting netconf keepalive timer", id);
-        if (currentKeepalive != null) {
-            currentKeepalive.cancel(false);
-        }
-        scheduleKeepalives();
+        LOG.trace("{}: Session activity seen, skipping next keepalive", id);
+        activitySeen.set(true);
     }
 
     /**
      * Cancel current keepalive and also reset current deviceRpc.
      */
     private void stopKeepalives() {
-        if (currentKeepalive != null) {
-            currentKeepalive.cancel(false);
+        final Keepalive keepalive = currentKeepalive;
+        currentKeepalive = null;
+        if (keepalive != null) {
+            keepalive.cancel();
         }
         currentDeviceRpc = null;
     }
@@ -140,10 +157,29 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
 
     private void scheduleKeepalives() {
         lastKeepAliveSucceeded.set(true);
+        activitySeen.set(false);
+        keepaliveReplies.set(0);
+        lastReceivedMessages = receivedMessageCount();
         Preconditions.checkState(currentDeviceRpc != null);
         LOG.trace("{}: Scheduling keepalives every  {} {}", id, keepaliveDelaySeconds, TimeUnit.SECONDS);
-        currentKeepalive = executor.scheduleWithFixedDelay(new Keepalive(),
-          keepaliveDelaySeconds, keepaliveDelaySeconds, TimeUnit.SECONDS);
+        final Keepalive keepalive = new Keepalive();
+        currentKeepalive = keepalive;
+        keepalive.schedule();
+    }
+
+    private long receivedMessageCount() {
+        final NetconfDeviceCommunicator local = listener;
+        return local == null ? 0 : local.getReceivedMessageCount();
+    }
+
+    /**
+     * Check whether the device was seen to be active since the last check, other than by replying to keepalives.
+     */
+    private boolean checkActivity() {
+        final long received = receivedMessageCount();
+        final boolean messagesReceived = received - lastReceivedMessages > keepaliveReplies.getAndSet(0);
+        lastReceivedMessages = received;
+        return activitySeen.getAndSet(false) || messagesReceived;
     }
 
     @Override
@@ -170,37 +206,61 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
         salFacade.close();
     }
 
-    // Keepalive RPC static resources
-    private static final SchemaPath PATH = toPath(NETCONF_GET_CONFIG_QNAME);
-    private static final ContainerNode KEEPALIVE_PAYLOAD = NetconfMessageTransformUtil.wrap(NETCONF_GET_CONFIG_QNAME,
-            getSourceNode(NETCONF_RUNNING_QNAME), NetconfMessageTransformUtil.EMPTY_FILTER);
-
     /**
      * Invoke keepalive RPC and check the response. In case of any received response the keepalive
      * is considered successful and schedules next keepalive with a fixed delay. If the response is unsuccessful (no
      * response received, or the rcp could not even be sent) immediate reconnect is triggered as netconf session
      * is considered inactive/failed.
+     *
+     * <p>
+     * The timer only hands the keepalive over to the executor, so that a slow device does not hold up keepalives of
+     * others. The keepalive is not rescheduled once it is no longer the current one.
      */
     private class Keepalive implements Runnable, FutureCallback<DOMRpcResult> {
 
-        @Override
-        public void run() {
-            LOG.trace("{}: Invoking keepalive RPC", id);
+        private volatile Timeout timeout;
+
+        void schedule() {
+            timeout = KEEPALIVE_TIMER.newTimeout(this::dispatch, keepaliveDelaySeconds, TimeUnit.SECONDS);
+        }
 
+        void cancel() {
+            final Timeout local = timeout;
+            if (local != null) {
+                local.cancel();
+            }
+        }
+
+        private void dispatch(final Timeout expired) {
             try {
-                boolean lastJobSucceeded = lastKeepAliveSucceeded.getAndSet(false);
-                if (!lastJobSucceeded) {
-                    onFailure(new IllegalStateException("Previous keepalive timed out"));
-                } else {
-                    Futures.addCallback(currentDeviceRpc.invokeRpc(PATH, KEEPALIVE_PAYLOAD), this,
-                                        MoreExecutors.directExecutor());
-                }
-            } catch (NullPointerException e) {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("{}: Keepalive executor rejected keepalive, stopping keepalives", id, e);
+            }
+        }
+
+        @Override
+        public void run() {
+            final DOMRpcService deviceRpc = currentDeviceRpc;
+            if (currentKeepalive != this || deviceRpc == null) {
+                // We hit the reconnect window, next keepalive will be scheduled after reconnect
                 LOG.debug("{}: Skipping keepalive while reconnecting", id);
-                // Empty catch block intentional
-                // Do nothing. The currentDeviceRpc was null and it means we hit the reconnect window and
-                // attempted to send keepalive while we were reconnecting. Next keepalive will be scheduled
-                // after reconnect so no action necessary here.
+                return;
+            }
+
+            if (checkActivity()) {
+                LOG.trace("{}: Session is active, skipping keepalive RPC", id);
+                lastKeepAliveSucceeded.set(true);
+            } else if (!lastKeepAliveSucceeded.getAndSet(false)) {
+                onFailure(new IllegalStateException("Previous keepalive timed out"));
+            } else {
+                LOG.trace("{}: Invoking keepalive RPC", id);
+                Futures.addCallback(deviceRpc.invokeRpc(probe.getRpc(), probe.getInput()), this,
+                                    MoreExecutors.directExecutor());
+            }
+
+            if (currentKeepalive == this) {
+                schedule();
             }
         }
 
@@ -210,6 +270,8 @@ public final class KeepaliveSalFacade implements RemoteDeviceHandler<NetconfSess
         public void onSuccess(final DOMRpcResult result) {
             // No matter what response we got, rpc-reply or rpc-error,
             // we got it from device so the netconf session is OK
+            // The reply itself does not count as activity of the session
+            keepaliveReplies.incrementAndGet();
             if (result != null && result.getResult() != null) {
                 lastKeepAliveSucceeded.set(true);
             }  else if (result != null && result.getErrors() != null) {
@@ -8,7 +8,9 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
 import java.util.Collections;
 import java.util.Map;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
@@ -17,9 +19,14 @@ import org.opendaylight.controller.md.sal.dom.api.DOMDataBrokerExtension;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadWriteTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ConfigReadCaching;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.EditConfigBatching;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.NetconfReadCache;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.NetconfReadCoalescer;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadOnlyTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ReadWriteTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.TxChain;
@@ -28,11 +35,15 @@ import org.opendaylight.netconf.sal.connect.netconf.sal.tx.WriteCandidateTx;
 import org.opendaylight.netconf.sal.connect.netconf.sal.tx.WriteRunningTx;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfConfigChange;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
 public final class NetconfDeviceDataBroker implements DOMDataBroker {
     private final RemoteDeviceId id;
     private final NetconfBaseOps netconfOps;
+    private final NetconfReadCoalescer reads;
+    private final NetconfReadCache readCache;
+    private final EditConfigBatching batching;
 
     private final boolean rollbackSupport;
     private final boolean candidateSupported;
@@ -40,8 +51,18 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
 
     public NetconfDeviceDataBroker(final RemoteDeviceId id, final SchemaContext schemaContext,
                                    final DOMRpcService rpc, final NetconfSessionPreferences netconfSessionPreferences) {
+        this(id, schemaContext, rpc, netconfSessionPreferences, EditConfigBatching.DISABLED,
+            ConfigReadCaching.DISABLED);
+    }
+
+    public NetconfDeviceDataBroker(final RemoteDeviceId id, final SchemaContext schemaContext,
+                                   final DOMRpcService rpc, final NetconfSessionPreferences netconfSessionPreferences,
+                                   final EditConfigBatching batching, final ConfigReadCaching readCaching) {
         this.id = id;
+        this.batching = batching;
         this.netconfOps = new NetconfBaseOps(rpc, schemaContext);
+        this.reads = new NetconfReadCoalescer(netconfOps, id);
+        this.readCache = readCaching.createCache(id);
         // get specific attributes from netconf preferences and get rid of it
         // no need to keep the entire preferences object, its quite big with all the capability QNames
         candidateSupported = netconfSessionPreferences.isCandidateSupported();
@@ -54,7 +75,7 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
 
     @Override
     public DOMDataReadOnlyTransaction newReadOnlyTransaction() {
-        return new ReadOnlyTx(netconfOps, id);
+        return new ReadOnlyTx(reads, id, readCache);
     }
 
     @Override
@@ -64,15 +85,42 @@ public final class NetconfDeviceDataBroker implements DOMDataBroker {
 
     @Override
     public DOMDataWriteTransaction newWriteOnlyTransaction() {
+        final DOMDataWriteTransaction tx;
         if (candidateSupported) {
             if (runningWritable) {
-                return new WriteCandidateRunningTx(id, netconfOps, rollbackSupport);
+                tx = new WriteCandidateRunningTx(id, netconfOps, rollbackSupport, batching);
             } else {
-                return new WriteCandidateTx(id, netconfOps, rollbackSupport);
+                tx = new WriteCandidateTx(id, netconfOps, rollbackSupport, batching);
             }
         } else {
-            return new WriteRunningTx(id, netconfOps, rollbackSupport);
+            tx = new WriteRunningTx(id, netconfOps, rollbackSupport, batching);
         }
+        reads.trackTransaction(tx);
+        if (readCache != null) {
+            readCache.trackTransaction(tx);
+        }
+        return tx;
+    }
+
+    /**
+     * Process a notification received from the device. Configuration read cache is invalidated if the notification
+     * reports a configuration change.
+     *
+     * @param notification notification
+     */
+    public void onNotification(final DOMNotification notification) {
+        if (readCache != null && NetconfConfigChange.QNAME.equals(notification.getType().getLastComponent())) {
+            readCache.invalidate();
+        }
+    }
+
+    /**
+     * Return statistics of the configuration read cache.
+     *
+     * @return cache statistics, absent if caching is disabled
+     */
+    public Optional<CacheStats> getReadCacheStats() {
+        return readCache == null ? Optional.absent() : Optional.of(readCache.getStats());
     }
 
     @Override
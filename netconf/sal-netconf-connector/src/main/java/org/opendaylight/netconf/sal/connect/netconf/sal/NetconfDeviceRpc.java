@@ -7,12 +7,14 @@
  */
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Collections2;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collection;
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcAvailabilityListener;
@@ -39,12 +41,26 @@ public final class NetconfDeviceRpc implements DOMRpcService {
     private final RemoteDeviceCommunicator<NetconfMessage> communicator;
     private final MessageTransformer<NetconfMessage> transformer;
     private final Collection<DOMRpcIdentifier> availableRpcs;
+    private final Executor parserExecutor;
 
     public NetconfDeviceRpc(final SchemaContext schemaContext,
             final RemoteDeviceCommunicator<NetconfMessage> communicator,
             final MessageTransformer<NetconfMessage> transformer) {
+        this(schemaContext, communicator, transformer, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Create rpc implementation parsing replies using specified executor.
+     *
+     * @param parserExecutor executor on which replies are transformed, replies are transformed by the thread which
+     *                       received them if this is {@link MoreExecutors#directExecutor()}
+     */
+    public NetconfDeviceRpc(final SchemaContext schemaContext,
+            final RemoteDeviceCommunicator<NetconfMessage> communicator,
+            final MessageTransformer<NetconfMessage> transformer, final Executor parserExecutor) {
         this.communicator = communicator;
         this.transformer = transformer;
+        this.parserExecutor = Preconditions.checkNotNull(parserExecutor);
 
         availableRpcs = Collections2.transform(schemaContext.getOperations(),
             input -> DOMRpcIdentifier.create(input.getPath()));
@@ -65,7 +81,7 @@ public final class NetconfDeviceRpc implements DOMRpcService {
                 } else {
                     return new DefaultDOMRpcResult(input1.getErrors());
                 }
-            }, MoreExecutors.directExecutor());
+            }, parserExecutor);
 
         return Futures.makeChecked(transformed, exception ->
             new DOMRpcImplementationNotAvailableException(exception, "Unable to invoke rpc %s", type));
@@ -11,13 +11,14 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.List;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.controller.md.sal.dom.api.DOMMountPointService;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabilities;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.ConfigReadCaching;
+import org.opendaylight.netconf.sal.connect.netconf.sal.tx.EditConfigBatching;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.slf4j.Logger;
@@ -29,22 +30,38 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
 
     private final RemoteDeviceId id;
     private final NetconfDeviceSalProvider salProvider;
+    private final EditConfigBatching batching;
+    private final ConfigReadCaching readCaching;
     private final List<AutoCloseable> salRegistrations = Lists.newArrayList();
+    private NetconfDeviceDataBroker dataBroker;
 
     public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
                                   final DataBroker dataBroker) {
+        this(id, mountPointService, dataBroker, EditConfigBatching.DISABLED, ConfigReadCaching.DISABLED);
+    }
+
+    public NetconfDeviceSalFacade(final RemoteDeviceId id, final DOMMountPointService mountPointService,
+                                  final DataBroker dataBroker, final EditConfigBatching batching,
+                                  final ConfigReadCaching readCaching) {
         this.id = id;
         this.salProvider = new NetconfDeviceSalProvider(id, mountPointService, dataBroker);
+        this.batching = batching;
+        this.readCaching = readCaching;
     }
 
     @VisibleForTesting
     NetconfDeviceSalFacade(final RemoteDeviceId id, final NetconfDeviceSalProvider salProvider) {
         this.id = id;
         this.salProvider = salProvider;
+        this.batching = EditConfigBatching.DISABLED;
+        this.readCaching = ConfigReadCaching.DISABLED;
     }
 
     @Override
     public synchronized void onNotification(final DOMNotification domNotification) {
+        if (dataBroker != null) {
+            dataBroker.onNotification(domNotification);
+        }
         salProvider.getMountInstance().publish(domNotification);
     }
 
@@ -53,8 +70,10 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
                                                final NetconfSessionPreferences netconfSessionPreferences,
                                                final DOMRpcService deviceRpc) {
 
-        final DOMDataBroker domBroker =
-                new NetconfDeviceDataBroker(id, schemaContext, deviceRpc, netconfSessionPreferences);
+        final NetconfDeviceDataBroker domBroker =
+                new NetconfDeviceDataBroker(id, schemaContext, deviceRpc, netconfSessionPreferences, batching,
+                        readCaching);
+        dataBroker = domBroker;
 
         final NetconfDeviceNotificationService notificationService = new NetconfDeviceNotificationService();
 
@@ -66,16 +85,27 @@ public final class NetconfDeviceSalFacade implements AutoCloseable, RemoteDevice
 
     @Override
     public synchronized void onDeviceDisconnected() {
+        releaseDataBroker();
         salProvider.getTopologyDatastoreAdapter().updateDeviceData(false, new NetconfDeviceCapabilities());
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
     }
 
     @Override
     public synchronized void onDeviceFailed(final Throwable throwable) {
+        releaseDataBroker();
         salProvider.getTopologyDatastoreAdapter().setDeviceAsFailed(throwable);
         salProvider.getMountInstance().onTopologyDeviceDisconnected();
     }
 
+    private void releaseDataBroker() {
+        if (dataBroker != null) {
+            if (dataBroker.getReadCacheStats().isPresent()) {
+                LOG.debug("{}: Configuration read cache statistics {}", id, dataBroker.getReadCacheStats().get());
+            }
+            dataBroker = null;
+        }
+    }
+
     @Override
     public synchronized void close() {
         for (final AutoCloseable reg : Lists.reverse(salRegistrations)) {
@@ -29,6 +29,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
+import org.opendaylight.netconf.sal.connect.netconf.util.EditConfigBatch;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.common.RpcError;
@@ -51,14 +52,25 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
     protected final boolean rollbackSupport;
     protected final List<ListenableFuture<DOMRpcResult>> resultsFutures;
     private final List<TxListener> listeners = new CopyOnWriteArrayList<>();
+    // Maximum number of edits combined into a single edit-config, batching is disabled if this is zero
+    private final int maxBatchedEdits;
+    // Edits not sent yet
+    private EditConfigBatch pendingBatch;
     // Allow commit to be called only once
     protected volatile boolean finished = false;
 
     public AbstractWriteTx(final NetconfBaseOps netOps, final RemoteDeviceId id, final boolean rollbackSupport) {
+        this(netOps, id, rollbackSupport, EditConfigBatching.DISABLED);
+    }
+
+    public AbstractWriteTx(final NetconfBaseOps netOps, final RemoteDeviceId id, final boolean rollbackSupport,
+                           final EditConfigBatching batching) {
         this.netOps = netOps;
         this.id = id;
         this.rollbackSupport = rollbackSupport;
         this.resultsFutures = Lists.newArrayList();
+        this.maxBatchedEdits = batching.isEnabled() && netOps.isEditConfigBatchingSupported()
+                ? batching.getMaxEdits() : 0;
         init();
     }
 
@@ -81,6 +93,7 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
         }
         listeners.forEach(listener -> listener.onTransactionCancelled(this));
         finished = true;
+        pendingBatch = null;
         cleanup();
         return true;
     }
@@ -106,6 +119,9 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
             return;
         }
 
+        if (addToBatch(Optional.fromNullable(data), Optional.of(ModifyAction.REPLACE), path, Optional.absent())) {
+            return;
+        }
         final DataContainerChild<?, ?> editStructure =
                 netOps.createEditConfigStrcture(Optional.fromNullable(data),
                         Optional.of(ModifyAction.REPLACE), path);
@@ -124,6 +140,9 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
             return;
         }
 
+        if (addToBatch(Optional.fromNullable(data), Optional.absent(), path, Optional.absent())) {
+            return;
+        }
         final DataContainerChild<?, ?> editStructure =
                 netOps.createEditConfigStrcture(Optional.fromNullable(data),
                         Optional.absent(), path);
@@ -143,6 +162,9 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
     @Override
     public synchronized void delete(final LogicalDatastoreType store, final YangInstanceIdentifier path) {
         checkEditable(store);
+        if (addToBatch(Optional.absent(), Optional.of(ModifyAction.DELETE), path, Optional.of(ModifyAction.NONE))) {
+            return;
+        }
         final DataContainerChild<?, ?> editStructure =
                 netOps.createEditConfigStrcture(Optional.absent(),
                         Optional.of(ModifyAction.DELETE), path);
@@ -150,6 +172,38 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
                 editStructure, Optional.of(ModifyAction.NONE), "delete");
     }
 
+    /**
+     * Add an edit to the pending batch, sending the batch first if the edit cannot be combined with it.
+     *
+     * @return true if the edit was batched, false if batching is disabled
+     */
+    private boolean addToBatch(final Optional<NormalizedNode<?, ?>> data, final Optional<ModifyAction> operation,
+                               final YangInstanceIdentifier path, final Optional<ModifyAction> defaultOperation) {
+        if (maxBatchedEdits == 0) {
+            return false;
+        }
+
+        if (pendingBatch != null && (pendingBatch.size() >= maxBatchedEdits
+                || !pendingBatch.tryAdd(data, operation, path, defaultOperation))) {
+            sendBatch();
+        }
+        if (pendingBatch == null) {
+            pendingBatch = netOps.createEditConfigBatch(defaultOperation);
+            // An edit can always be added to an empty batch
+            Preconditions.checkState(pendingBatch.tryAdd(data, operation, path, defaultOperation));
+        }
+        return true;
+    }
+
+    private synchronized void sendBatch() {
+        if (pendingBatch != null) {
+            LOG.trace("{}: Sending {} edits in a single edit-config", id, pendingBatch.size());
+            editConfig(YangInstanceIdentifier.EMPTY, Optional.absent(), netOps.createEditConfigStrcture(pendingBatch),
+                pendingBatch.getDefaultOperation(), "batch");
+            pendingBatch = null;
+        }
+    }
+
     @Override
     public @NonNull FluentFuture<? extends @NonNull CommitInfo> commit() {
         final SettableFuture<CommitInfo> resultFuture = SettableFuture.create();
@@ -180,6 +234,7 @@ public abstract class AbstractWriteTx implements DOMDataWriteTransaction {
     protected final ListenableFuture<RpcResult<Void>> commitConfiguration() {
         listeners.forEach(listener -> listener.onTransactionSubmitted(this));
         checkNotFinished();
+        sendBatch();
         finished = true;
         final ListenableFuture<RpcResult<Void>> result = performCommit();
         Futures.addCallback(result, new FutureCallback<RpcResult<Void>>() {
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+
+/**
+ * Settings of the {@link NetconfReadCache} of a device. Caching is disabled unless both the time to live and
+ * the size of the cache are positive.
+ */
+public final class ConfigReadCaching {
+    public static final ConfigReadCaching DISABLED = new ConfigReadCaching(0, 0);
+
+    private final long ttlMillis;
+    private final long maxEntries;
+
+    private ConfigReadCaching(final long ttlMillis, final long maxEntries) {
+        this.ttlMillis = Math.max(ttlMillis, 0);
+        this.maxEntries = Math.max(maxEntries, 0);
+    }
+
+    /**
+     * Create settings.
+     *
+     * @param ttlMillis time in milliseconds a read result is served from the cache
+     * @param maxEntries maximum number of read results cached
+     * @return the settings
+     */
+    public static ConfigReadCaching create(final long ttlMillis, final long maxEntries) {
+        return ttlMillis > 0 && maxEntries > 0 ? new ConfigReadCaching(ttlMillis, maxEntries) : DISABLED;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxEntries > 0;
+    }
+
+    /**
+     * Create a cache for a device.
+     *
+     * @param id device id
+     * @return a new cache, null if caching is disabled
+     */
+    public NetconfReadCache createCache(final RemoteDeviceId id) {
+        return isEnabled() ? new NetconfReadCache(id, ttlMillis, maxEntries) : null;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+/**
+ * Limit on the number of transaction edits combined into a single edit-config, configured per device. Batching is
+ * disabled unless more than one edit is allowed per edit-config, in which case each write, merge and delete is
+ * no longer sent in an edit-config of its own.
+ */
+public final class EditConfigBatching {
+    public static final EditConfigBatching DISABLED = new EditConfigBatching(0);
+
+    private final int maxEdits;
+
+    private EditConfigBatching(final int maxEdits) {
+        this.maxEdits = Math.max(maxEdits, 0);
+    }
+
+    /**
+     * Create a limit.
+     *
+     * @param maxEdits maximum number of edits in a single edit-config, batching is disabled if this is less than two
+     * @return the limit
+     */
+    public static EditConfigBatching create(final int maxEdits) {
+        return maxEdits > 1 ? new EditConfigBatching(maxEdits) : DISABLED;
+    }
+
+    public int getMaxEdits() {
+        return maxEdits;
+    }
+
+    public boolean isEnabled() {
+        return maxEdits > 1;
+    }
+}
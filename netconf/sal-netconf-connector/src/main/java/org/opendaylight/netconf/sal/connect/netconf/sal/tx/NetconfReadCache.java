@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of configuration data read from a single device, shared by all transactions of its mount point. Results of
+ * get-config are kept for a limited time, the whole cache is invalidated whenever a transaction is committed through
+ * the mount point or the device reports a configuration change.
+ *
+ * <p>
+ * Changes made by other clients of the device, which it does not report by a netconf-config-change notification,
+ * become visible once the cached data expires.
+ */
+public final class NetconfReadCache implements TxListener {
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfReadCache.class);
+
+    private final RemoteDeviceId id;
+    private final Cache<YangInstanceIdentifier, Optional<NormalizedNode<?, ?>>> cache;
+    // Incremented on each invalidation, results of reads issued before an invalidation are not cached
+    @GuardedBy("this")
+    private long generation;
+
+    NetconfReadCache(final RemoteDeviceId id, final long ttlMillis, final long maxEntries) {
+        this.id = id;
+        this.cache = CacheBuilder.newBuilder().expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maxEntries).recordStats().build();
+    }
+
+    /**
+     * Return cached data, or read them from the device and cache the result.
+     *
+     * @param path path of the data
+     * @param reader issues the read from the device
+     * @return future data
+     */
+    ListenableFuture<Optional<NormalizedNode<?, ?>>> read(final YangInstanceIdentifier path,
+            final Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> reader) {
+        final Optional<NormalizedNode<?, ?>> cached = cache.getIfPresent(path);
+        if (cached != null) {
+            LOG.trace("{}: Serving read of {} from cache", id, path);
+            return Futures.immediateFuture(cached);
+        }
+
+        final long readGeneration;
+        synchronized (this) {
+            readGeneration = generation;
+        }
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> future = reader.get();
+        Futures.addCallback(future, new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
+            @Override
+            public void onSuccess(final Optional<NormalizedNode<?, ?>> result) {
+                if (result != null) {
+                    cacheResult(path, result, readGeneration);
+                }
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                // Failures are not cached
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private synchronized void cacheResult(final YangInstanceIdentifier path,
+            final Optional<NormalizedNode<?, ?>> result, final long readGeneration) {
+        if (readGeneration == generation) {
+            cache.put(path, result);
+        }
+    }
+
+    /**
+     * Drop all cached data.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        cache.invalidateAll();
+        LOG.debug("{}: Configuration read cache invalidated, {}", id, cache.stats());
+    }
+
+    /**
+     * Invalidate this cache whenever a transaction is committed.
+     *
+     * @param transaction write transaction of the device
+     */
+    public void trackTransaction(final DOMDataWriteTransaction transaction) {
+        if (transaction instanceof AbstractWriteTx) {
+            ((AbstractWriteTx) transaction).addListener(this);
+        }
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void onTransactionSubmitted(final AbstractWriteTx transaction) {
+        // Reads issued from now on may already observe the changes
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionSuccessful(final AbstractWriteTx transaction) {
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionFailed(final AbstractWriteTx transaction, final Throwable cause) {
+        // Some of the changes may have been applied
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionCancelled(final AbstractWriteTx transaction) {
+        // Nothing reached the running datastore
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads of a single device, shared by all transactions of its mount point. Concurrent reads of the same data share
+ * a single RPC and its parsed result. If data of an ancestor are being read already, a read is served from the
+ * result of the ancestor read instead of issuing another RPC.
+ *
+ * <p>
+ * Reads issued before a transaction was submitted through the mount point may not observe its changes, hence they
+ * are not joined by reads issued after the submission.
+ */
+public final class NetconfReadCoalescer implements TxListener {
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfReadCoalescer.class);
+
+    private final NetconfBaseOps netconfOps;
+    private final RemoteDeviceId id;
+    // Data of schemaless devices cannot be navigated
+    private final boolean selectSubtrees;
+    private final ConcurrentMap<YangInstanceIdentifier, InFlightRead> configReads = new ConcurrentHashMap<>();
+    private final ConcurrentMap<YangInstanceIdentifier, InFlightRead> operationalReads = new ConcurrentHashMap<>();
+    // Incremented on each transaction submission, reads issued before it are not joined by reads issued after it
+    private final AtomicLong generation = new AtomicLong();
+
+    public NetconfReadCoalescer(final NetconfBaseOps netconfOps, final RemoteDeviceId id) {
+        this.netconfOps = netconfOps;
+        this.id = id;
+        this.selectSubtrees = netconfOps.isSchemaAware();
+    }
+
+    /**
+     * Read data from the device, joining a read already in progress if possible.
+     *
+     * @param store datastore to read from
+     * @param path path of the data, null reads the whole datastore
+     * @return future data
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    ListenableFuture<Optional<NormalizedNode<?, ?>>> read(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path) {
+        if (path == null) {
+            return issueRead(store, path);
+        }
+
+        final long readGeneration = generation.get();
+        final ConcurrentMap<YangInstanceIdentifier, InFlightRead> inFlight =
+                store == LogicalDatastoreType.CONFIGURATION ? configReads : operationalReads;
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> joined = join(inFlight, path, readGeneration);
+        if (joined != null) {
+            return joined;
+        }
+
+        final InFlightRead read = new InFlightRead(readGeneration);
+        while (true) {
+            final InFlightRead existing = inFlight.putIfAbsent(path, read);
+            if (existing == null) {
+                break;
+            }
+            if (existing.generation >= readGeneration) {
+                return Futures.nonCancellationPropagating(existing.future);
+            }
+            // Issued before a transaction was submitted, it stays with whoever joined it already
+            if (inFlight.replace(path, existing, read)) {
+                break;
+            }
+        }
+
+        read.future.addListener(() -> inFlight.remove(path, read), MoreExecutors.directExecutor());
+        try {
+            read.future.setFuture(issueRead(store, path));
+        } catch (RuntimeException e) {
+            read.future.setException(e);
+            throw e;
+        }
+        return Futures.nonCancellationPropagating(read.future);
+    }
+
+    private ListenableFuture<Optional<NormalizedNode<?, ?>>> join(
+            final ConcurrentMap<YangInstanceIdentifier, InFlightRead> inFlight, final YangInstanceIdentifier path,
+            final long readGeneration) {
+        final InFlightRead same = inFlight.get(path);
+        if (same != null && same.generation >= readGeneration) {
+            LOG.trace("{}: Joining read of {}", id, path);
+            return Futures.nonCancellationPropagating(same.future);
+        }
+        if (!selectSubtrees) {
+            return null;
+        }
+
+        for (YangInstanceIdentifier ancestor = path.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            final InFlightRead ancestorRead = inFlight.get(ancestor);
+            if (ancestorRead != null && ancestorRead.generation >= readGeneration) {
+                LOG.trace("{}: Serving read of {} from read of {}", id, path, ancestor);
+                final YangInstanceIdentifier relative = path.relativeTo(ancestor).get();
+                return Futures.transform(Futures.nonCancellationPropagating(ancestorRead.future),
+                    data -> data.isPresent()
+                        ? Optional.fromJavaUtil(NormalizedNodes.findNode(data.get(), relative.getPathArguments()))
+                        : Optional.absent(), MoreExecutors.directExecutor());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop reads issued so far from being joined by reads issued from now on.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Invalidate reads in progress whenever a transaction is submitted.
+     *
+     * @param transaction write transaction of the device
+     */
+    public void trackTransaction(final DOMDataWriteTransaction transaction) {
+        if (transaction instanceof AbstractWriteTx) {
+            ((AbstractWriteTx) transaction).addListener(this);
+        }
+    }
+
+    @Override
+    public void onTransactionSubmitted(final AbstractWriteTx transaction) {
+        // Reads issued from now on may already observe the changes
+        invalidate();
+    }
+
+    @Override
+    public void onTransactionSuccessful(final AbstractWriteTx transaction) {
+        // Reads issued after submission are not affected
+    }
+
+    @Override
+    public void onTransactionFailed(final AbstractWriteTx transaction, final Throwable cause) {
+        // Reads issued after submission are not affected
+    }
+
+    @Override
+    public void onTransactionCancelled(final AbstractWriteTx transaction) {
+        // Nothing reached the device
+    }
+
+    private ListenableFuture<Optional<NormalizedNode<?, ?>>> issueRead(final LogicalDatastoreType store,
+            final YangInstanceIdentifier path) {
+        final NetconfRpcFutureCallback callback = new NetconfRpcFutureCallback("Data read", id);
+        return store == LogicalDatastoreType.CONFIGURATION
+                ? netconfOps.getConfigRunningData(callback, Optional.fromNullable(path))
+                : netconfOps.getData(callback, Optional.fromNullable(path));
+    }
+
+    private static final class InFlightRead {
+        final SettableFuture<Optional<NormalizedNode<?, ?>>> future = SettableFuture.create();
+        final long generation;
+
+        InFlightRead(final long generation) {
+            this.generation = generation;
+        }
+    }
+}
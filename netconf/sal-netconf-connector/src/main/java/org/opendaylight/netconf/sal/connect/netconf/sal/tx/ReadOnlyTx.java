@@ -12,12 +12,12 @@ import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.common.api.MappingCheckedFuture;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
-import org.opendaylight.netconf.sal.connect.netconf.util.NetconfRpcFutureCallback;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -28,26 +28,42 @@ public final class ReadOnlyTx implements DOMDataReadOnlyTransaction {
 
     private static final Logger LOG  = LoggerFactory.getLogger(ReadOnlyTx.class);
 
-    private final NetconfBaseOps netconfOps;
+    private final NetconfReadCoalescer reads;
     private final RemoteDeviceId id;
+    private final NetconfReadCache readCache;
 
     public ReadOnlyTx(final NetconfBaseOps netconfOps, final RemoteDeviceId id) {
-        this.netconfOps = netconfOps;
+        this(new NetconfReadCoalescer(netconfOps, id), id, null);
+    }
+
+    /**
+     * Create a transaction sharing reads with other transactions of the device.
+     *
+     * @param reads reads of the device
+     * @param id device id
+     * @param readCache configuration read cache of the device, null if configuration data is always read from
+     *                  the device
+     */
+    public ReadOnlyTx(final NetconfReadCoalescer reads, final RemoteDeviceId id,
+                      @Nullable final NetconfReadCache readCache) {
+        this.reads = reads;
         this.id = id;
+        this.readCache = readCache;
     }
 
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readConfigurationData(
             final YangInstanceIdentifier path) {
-        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configRunning = netconfOps.getConfigRunningData(
-                new NetconfRpcFutureCallback("Data read", id), Optional.fromNullable(path));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configRunning = readCache == null || path == null
+                ? reads.read(LogicalDatastoreType.CONFIGURATION, path)
+                : readCache.read(path, () -> reads.read(LogicalDatastoreType.CONFIGURATION, path));
 
         return MappingCheckedFuture.create(configRunning, ReadFailedException.MAPPER);
     }
 
     private CheckedFuture<Optional<NormalizedNode<?, ?>>, ReadFailedException> readOperationalData(
             final YangInstanceIdentifier path) {
-        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configCandidate = netconfOps.getData(
-                new NetconfRpcFutureCallback("Data read", id), Optional.fromNullable(path));
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> configCandidate =
+                reads.read(LogicalDatastoreType.OPERATIONAL, path);
 
         return MappingCheckedFuture.create(configCandidate, ReadFailedException.MAPPER);
     }
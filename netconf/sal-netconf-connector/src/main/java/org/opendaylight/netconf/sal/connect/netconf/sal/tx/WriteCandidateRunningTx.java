@@ -30,6 +30,11 @@ public class WriteCandidateRunningTx extends WriteCandidateTx {
         super(id, netOps, rollbackSupport);
     }
 
+    public WriteCandidateRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
+                                   final boolean rollbackSupport, final EditConfigBatching batching) {
+        super(id, netOps, rollbackSupport, batching);
+    }
+
     @Override
     protected synchronized void init() {
         lockRunning();
@@ -56,6 +56,11 @@ public class WriteCandidateTx extends AbstractWriteTx {
         super(rpc, id, rollbackSupport);
     }
 
+    public WriteCandidateTx(final RemoteDeviceId id, final NetconfBaseOps rpc, final boolean rollbackSupport,
+                            final EditConfigBatching batching) {
+        super(rpc, id, rollbackSupport, batching);
+    }
+
     @Override
     protected synchronized void init() {
         LOG.trace("{}: Initializing {} transaction", id, getClass().getSimpleName());
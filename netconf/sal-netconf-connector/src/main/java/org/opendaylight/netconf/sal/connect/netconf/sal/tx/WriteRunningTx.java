@@ -51,6 +51,11 @@ public class WriteRunningTx extends AbstractWriteTx {
         super(netOps, id, rollbackSupport);
     }
 
+    public WriteRunningTx(final RemoteDeviceId id, final NetconfBaseOps netOps,
+                          final boolean rollbackSupport, final EditConfigBatching batching) {
+        super(netOps, id, rollbackSupport, batching);
+    }
+
     @Override
     protected synchronized void init() {
         lock();
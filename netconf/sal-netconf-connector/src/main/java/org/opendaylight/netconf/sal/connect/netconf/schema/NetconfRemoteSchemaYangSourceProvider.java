@@ -15,13 +15,23 @@ import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
 import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
@@ -47,16 +57,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 
+/**
+ * Provider of YANG sources downloaded from a device by get-schema. Sources are usually requested all at once when the
+ * device is mounted, the requests are pipelined so that at most a window of them is outstanding at any time. Further
+ * requests wait and are sent as soon as an outstanding one completes, on the thread which completed it.
+ */
 public final class NetconfRemoteSchemaYangSourceProvider implements SchemaSourceProvider<YangTextSchemaSource> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfRemoteSchemaYangSourceProvider.class);
 
     private final DOMRpcService rpc;
     private final RemoteDeviceId id;
+    private final int window;
+
+    @GuardedBy("this")
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int inFlight;
+    @GuardedBy("this")
+    private boolean dispatching;
+
+    private final ConcurrentMap<SourceIdentifier, Long> downloadTimes = new ConcurrentHashMap<>();
 
     public NetconfRemoteSchemaYangSourceProvider(final RemoteDeviceId id, final DOMRpcService rpc) {
+        this(id, rpc, 0);
+    }
+
+    /**
+     * Create a provider limiting the number of outstanding get-schema requests.
+     *
+     * @param window maximum number of outstanding get-schema requests, no limit is enforced if this is not positive
+     */
+    public NetconfRemoteSchemaYangSourceProvider(final RemoteDeviceId id, final DOMRpcService rpc, final int window) {
         this.id = id;
         this.rpc = Preconditions.checkNotNull(rpc);
+        this.window = window;
     }
 
     private static final NodeIdentifier FORMAT_PATHARG =
@@ -118,10 +153,100 @@ public final class NetconfRemoteSchemaYangSourceProvider implements SchemaSource
         LOG.trace("{}: Loading YANG schema source for {}:{}", id, moduleName,
                 revision);
 
-        return Futures.transform(
-            rpc.invokeRpc(SchemaPath.create(true, NetconfMessageTransformUtil.GET_SCHEMA_QNAME), getSchemaRequest),
-                new ResultToYangSourceTransformer(id, sourceIdentifier, moduleName, revision),
-                MoreExecutors.directExecutor());
+        final SettableFuture<YangTextSchemaSource> ret = SettableFuture.create();
+        final long requested = System.nanoTime();
+        synchronized (this) {
+            waiting.add(() -> download(sourceIdentifier, moduleName, revision, getSchemaRequest, requested, ret));
+        }
+        dispatch();
+        return ret;
+    }
+
+    /**
+     * Return the time downloads of sources took, measured from sending the get-schema request until receiving its
+     * reply.
+     *
+     * @return download time in milliseconds of each source downloaded successfully
+     */
+    public Map<SourceIdentifier, Long> getDownloadTimes() {
+        return ImmutableMap.copyOf(downloadTimes);
+    }
+
+    /**
+     * Return the number of get-schema requests waiting for an outstanding one to complete.
+     *
+     * @return number of waiting requests
+     */
+    public synchronized int getQueueDepth() {
+        return waiting.size();
+    }
+
+    private void dispatch() {
+        synchronized (this) {
+            // Requests completing synchronously would otherwise recurse into dispatch() once per waiting request
+            if (dispatching) {
+                return;
+            }
+            dispatching = true;
+        }
+
+        while (true) {
+            final Runnable next;
+            synchronized (this) {
+                if (waiting.isEmpty() || window > 0 && inFlight >= window) {
+                    dispatching = false;
+                    return;
+                }
+                next = waiting.poll();
+                inFlight++;
+            }
+            next.run();
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void download(final SourceIdentifier sourceIdentifier, final String moduleName,
+            final Optional<String> revision, final NormalizedNode<?, ?> getSchemaRequest, final long requested,
+            final SettableFuture<YangTextSchemaSource> ret) {
+        if (ret.isCancelled()) {
+            release();
+            return;
+        }
+
+        final long sent = System.nanoTime();
+        ListenableFuture<YangTextSchemaSource> result;
+        try {
+            result = Futures.transform(
+                rpc.invokeRpc(SchemaPath.create(true, NetconfMessageTransformUtil.GET_SCHEMA_QNAME), getSchemaRequest),
+                    new ResultToYangSourceTransformer(id, sourceIdentifier, moduleName, revision),
+                    MoreExecutors.directExecutor());
+        } catch (RuntimeException e) {
+            result = Futures.immediateFailedFuture(e);
+        }
+        ret.setFuture(result);
+
+        Futures.addCallback(result, new FutureCallback<YangTextSchemaSource>() {
+            @Override
+            public void onSuccess(final YangTextSchemaSource source) {
+                final long downloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent);
+                downloadTimes.put(sourceIdentifier, downloadMillis);
+                LOG.debug("{}: Downloaded {} in {} ms after waiting {} ms", id, sourceIdentifier, downloadMillis,
+                    TimeUnit.NANOSECONDS.toMillis(sent - requested));
+                release();
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                release();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
     }
 
     /**
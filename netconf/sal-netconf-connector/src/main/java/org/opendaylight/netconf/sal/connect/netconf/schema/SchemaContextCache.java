@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+
+/**
+ * Cache of schema contexts built for devices, keyed by the set of sources a device requires. Devices advertising
+ * the same module set get the same {@link SchemaContext} instance and thus also share everything derived from it,
+ * such as message transformer metadata. Concurrent requests for the same module set wait for a single build.
+ *
+ * <p>
+ * Schema contexts are held weakly, an entry goes away once no device uses its schema context.
+ */
+public final class SchemaContextCache {
+    // Sources are resolved in a particular repository, hence there is one cache per factory
+    private static final LoadingCache<SchemaContextFactory, SchemaContextCache> CACHES = CacheBuilder.newBuilder()
+            .weakKeys().build(CacheLoader.from(SchemaContextCache::new));
+
+    private final SchemaContextFactory factory;
+    private final Cache<Set<SourceIdentifier>, SchemaContext> cache = CacheBuilder.newBuilder().weakValues().build();
+    private final ConcurrentMap<Set<SourceIdentifier>, ListenableFuture<SchemaContext>> pending =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private SchemaContextCache(final SchemaContextFactory factory) {
+        this.factory = requireNonNull(factory);
+    }
+
+    /**
+     * Return the cache of schema contexts built by a factory.
+     *
+     * @param factory schema context factory
+     * @return cache shared by all users of the factory
+     */
+    public static SchemaContextCache forFactory(final SchemaContextFactory factory) {
+        return CACHES.getUnchecked(factory);
+    }
+
+    /**
+     * Return the schema context for a set of sources, building it if it is not cached yet. Failed builds are not
+     * cached.
+     *
+     * @param sources sources the schema context consists of
+     * @return future schema context
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    public ListenableFuture<SchemaContext> createSchemaContext(final Collection<SourceIdentifier> sources) {
+        final Set<SourceIdentifier> key = ImmutableSet.copyOf(sources);
+        final SchemaContext cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            return Futures.immediateFuture(cached);
+        }
+
+        final SettableFuture<SchemaContext> future = SettableFuture.create();
+        final ListenableFuture<SchemaContext> building = pending.putIfAbsent(key, future);
+        if (building != null) {
+            hitCount.incrementAndGet();
+            return Futures.nonCancellationPropagating(building);
+        }
+
+        // A build may have finished between the cache lookup and registering ours
+        final SchemaContext built = cache.getIfPresent(key);
+        if (built != null) {
+            hitCount.incrementAndGet();
+            pending.remove(key, future);
+            future.set(built);
+            return future;
+        }
+
+        missCount.incrementAndGet();
+        try {
+            future.setFuture(factory.createSchemaContext(key));
+        } catch (RuntimeException e) {
+            pending.remove(key, future);
+            future.setException(e);
+            return future;
+        }
+        Futures.addCallback(future, new FutureCallback<SchemaContext>() {
+            @Override
+            public void onSuccess(final SchemaContext result) {
+                cache.put(key, result);
+                pending.remove(key, future);
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                pending.remove(key, future);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    /**
+     * Return the number of requests served by an already built or building schema context.
+     *
+     * @return number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Return the number of requests which had to build a schema context.
+     *
+     * @return number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Return the number of schema contexts currently cached.
+     *
+     * @return number of cached schema contexts
+     */
+    public long getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("size", getSize()).add("hits", getHitCount())
+                .add("misses", getMissCount()).toString();
+    }
+}
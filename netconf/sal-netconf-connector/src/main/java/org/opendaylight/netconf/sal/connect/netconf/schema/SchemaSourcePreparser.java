@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.File;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses YANG sources persisted in a schema cache directory in the background, so that devices reconnecting after
+ * a restart find them already parsed in the repository caches instead of each parsing them while setting up its
+ * schema. Parsing runs on low priority threads and sources which fail to parse are left for device setup to report.
+ */
+public final class SchemaSourcePreparser {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaSourcePreparser.class);
+
+    // Naming of files written by FilesystemSchemaSourceCache
+    private static final Pattern CACHED_FILE_PATTERN =
+            Pattern.compile("(?<moduleName>[^@]+)(@(?<revision>.+))?\\.yang");
+
+    private SchemaSourcePreparser() {
+
+    }
+
+    /**
+     * Start parsing the sources cached in a directory. The repository has to be able to provide
+     * {@link ASTSchemaSource}s of the cached sources, i.e. a cache of the directory, a cache of parsed sources and a
+     * transformer have to be registered with it.
+     *
+     * @param repository repository caching the sources
+     * @param directory schema cache directory
+     */
+    public static void preparse(final SchemaRepository repository, final File directory) {
+        final List<SourceIdentifier> sources = listCachedSources(directory);
+        if (sources.isEmpty()) {
+            return;
+        }
+
+        final int threads = Math.min(sources.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+            .setNameFormat("netconf-schema-preparse-%d").setDaemon(true).setPriority(Thread.MIN_PRIORITY).build());
+        final AtomicInteger remaining = new AtomicInteger(sources.size());
+        final AtomicInteger parsed = new AtomicInteger();
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        LOG.debug("Parsing {} sources cached in {}", sources.size(), directory);
+
+        for (final SourceIdentifier source : sources) {
+            executor.execute(() -> {
+                try {
+                    repository.getSchemaSource(source, ASTSchemaSource.class).get();
+                    parsed.incrementAndGet();
+                } catch (InterruptedException | ExecutionException e) {
+                    LOG.debug("Failed to parse cached source {}", source, e);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    LOG.info("Parsed {} of {} sources cached in {} in {}", parsed.get(), sources.size(), directory,
+                        stopwatch);
+                }
+            });
+        }
+        // Submitted tasks still run, the threads terminate once they are done
+        executor.shutdown();
+    }
+
+    @VisibleForTesting
+    static List<SourceIdentifier> listCachedSources(final File directory) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        final List<SourceIdentifier> sources = new ArrayList<>(files.length);
+        for (final File file : files) {
+            final Matcher matcher = CACHED_FILE_PATTERN.matcher(file.getName());
+            if (!file.isFile() || !matcher.matches()) {
+                continue;
+            }
+
+            try {
+                sources.add(RevisionSourceIdentifier.create(matcher.group("moduleName"),
+                    Revision.ofNullable(matcher.group("revision"))));
+            } catch (DateTimeParseException e) {
+                LOG.debug("Ignoring cached file {} with invalid revision", file, e);
+            }
+        }
+        return sources;
+    }
+}
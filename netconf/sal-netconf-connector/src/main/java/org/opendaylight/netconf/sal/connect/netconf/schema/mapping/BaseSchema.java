@@ -8,7 +8,6 @@
 package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import java.util.List;
 import java.util.Map;
 import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
@@ -43,13 +42,15 @@ public enum BaseSchema {
 
     private final Map<QName, RpcDefinition> mappedRpcs;
     private final SchemaContext schemaContext;
+    private final MessageTransformerSchema transformerSchema;
 
     BaseSchema(final List<YangModuleInfo> modules) {
         try {
             final ModuleInfoBackedContext moduleInfoBackedContext = ModuleInfoBackedContext.create();
             moduleInfoBackedContext.addModuleInfos(modules);
             schemaContext = moduleInfoBackedContext.tryToCreateSchemaContext().get();
-            mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), RpcDefinition::getQName);
+            transformerSchema = MessageTransformerSchema.forSchemaContext(schemaContext);
+            mappedRpcs = transformerSchema.getMappedRpcs();
         } catch (final RuntimeException e) {
             throw new ExceptionInInitializerError(e);
         }
@@ -59,6 +60,10 @@ public enum BaseSchema {
         return mappedRpcs;
     }
 
+    MessageTransformerSchema getTransformerSchema() {
+        return transformerSchema;
+    }
+
     public SchemaContext getSchemaContext() {
         return schemaContext;
     }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * Schema nodes {@link NetconfMessageTransformer} derives from a {@link SchemaContext}. These are computed once per
+ * SchemaContext and shared by all transformers using it, instead of being rebuilt for each message.
+ */
+final class MessageTransformerSchema {
+    // Identity of the SchemaContext is what matters, values are dropped once no transformer uses them
+    private static final LoadingCache<SchemaContext, MessageTransformerSchema> CACHE = CacheBuilder.newBuilder()
+            .weakKeys().weakValues().build(CacheLoader.from(MessageTransformerSchema::new));
+
+    private final SchemaContext schemaContext;
+    private final ContainerSchemaNode dataRead;
+    private final Map<QName, RpcDefinition> mappedRpcs;
+    private final Map<QName, SchemaPath> rpcInputPaths;
+    private final ImmutableListMultimap<QName, NotificationDefinition> mappedNotifications;
+    private final Map<QName, ContainerSchemaNode> notificationSchemas;
+
+    private MessageTransformerSchema(final SchemaContext schemaContext) {
+        this.schemaContext = schemaContext;
+        dataRead = NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
+        mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), SchemaNode::getQName);
+        rpcInputPaths = ImmutableMap.copyOf(Maps.transformEntries(mappedRpcs,
+            (rpcQName, rpc) -> NetconfMessageTransformUtil.toPath(rpcQName)
+                .createChild(QName.create(rpcQName, "input").intern())));
+        mappedNotifications = Multimaps.index(schemaContext.getNotifications(),
+            node -> node.getQName().withoutRevision());
+        notificationSchemas = ImmutableMap.copyOf(Maps.transformValues(mappedNotifications.asMap(),
+            defs -> NetconfMessageTransformUtil.createSchemaForNotification(getMostRecentNotification(defs))));
+    }
+
+    static MessageTransformerSchema forSchemaContext(final SchemaContext schemaContext) {
+        return CACHE.getUnchecked(schemaContext);
+    }
+
+    SchemaContext getSchemaContext() {
+        return schemaContext;
+    }
+
+    /**
+     * Return the schema of the data element of get and get-config replies.
+     *
+     * @return schema of the data element
+     */
+    ContainerSchemaNode getDataRead() {
+        return dataRead;
+    }
+
+    Map<QName, RpcDefinition> getMappedRpcs() {
+        return mappedRpcs;
+    }
+
+    /**
+     * Return the path of the input of an rpc.
+     *
+     * @param rpcQName rpc name
+     * @return path of the input, null if the rpc is not known
+     */
+    SchemaPath getRpcInputPath(final QName rpcQName) {
+        return rpcInputPaths.get(rpcQName);
+    }
+
+    Set<QName> getNotificationNames() {
+        return mappedNotifications.keySet();
+    }
+
+    /**
+     * Return the schema of the most recent revision of a notification.
+     *
+     * @param notificationNoRev notification name without revision
+     * @return schema of the notification, null if the notification is not known
+     */
+    ContainerSchemaNode getNotificationSchema(final QName notificationNoRev) {
+        return notificationSchemas.get(notificationNoRev);
+    }
+
+    private static NotificationDefinition getMostRecentNotification(
+            final Collection<NotificationDefinition> notificationDefinitions) {
+        return Collections.max(notificationDefinitions, (o1, o2) ->
+            Revision.compare(o1.getQName().getRevision(), o2.getQName().getRevision()));
+    }
+}
@@ -12,24 +12,20 @@ import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTr
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.toPath;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.transform.dom.DOMResult;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMSource;
 import org.opendaylight.controller.md.sal.dom.api.DOMEvent;
 import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.xml.MissingNameSpaceException;
 import org.opendaylight.netconf.api.xml.XmlElement;
@@ -37,7 +33,6 @@ import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.MessageCounter;
 import org.opendaylight.yangtools.yang.common.QName;
-import org.opendaylight.yangtools.yang.common.Revision;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -47,26 +42,27 @@ import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
 import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
 import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
 import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
+/**
+ * Transformer of NETCONF messages to and from their normalized form. State of the transformer is immutable once it
+ * is constructed, hence it is safe to use it from multiple threads concurrently.
+ */
 public class NetconfMessageTransformer implements MessageTransformer<NetconfMessage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NetconfMessageTransformer.class);
 
     private final SchemaContext schemaContext;
-    private final BaseSchema baseSchema;
+    private final MessageTransformerSchema schema;
+    private final MessageTransformerSchema baseSchema;
     private final MessageCounter counter;
-    private final Map<QName, RpcDefinition> mappedRpcs;
-    private final Multimap<QName, NotificationDefinition> mappedNotifications;
 
     private final boolean strictParsing;
 
@@ -78,15 +74,13 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
                                      final BaseSchema baseSchema) {
         this.counter = new MessageCounter();
         this.schemaContext = schemaContext;
-        mappedRpcs = Maps.uniqueIndex(schemaContext.getOperations(), SchemaNode::getQName);
-        mappedNotifications = Multimaps.index(schemaContext.getNotifications(),
-            node -> node.getQName().withoutRevision());
-        this.baseSchema = baseSchema;
+        this.schema = MessageTransformerSchema.forSchemaContext(schemaContext);
+        this.baseSchema = baseSchema.getTransformerSchema();
         this.strictParsing = strictParsing;
     }
 
     @Override
-    public synchronized DOMNotification toNotification(final NetconfMessage message) {
+    public DOMNotification toNotification(final NetconfMessage message) {
         final Map.Entry<Date, XmlElement> stripped = NetconfMessageTransformUtil.stripNotification(message);
         final QName notificationNoRev;
         try {
@@ -96,15 +90,10 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
             throw new IllegalArgumentException(
                     "Unable to parse notification " + message + ", cannot find namespace", e);
         }
-        final Collection<NotificationDefinition> notificationDefinitions = mappedNotifications.get(notificationNoRev);
-        Preconditions.checkArgument(notificationDefinitions.size() > 0,
+        final ContainerSchemaNode notificationAsContainerSchemaNode = schema.getNotificationSchema(notificationNoRev);
+        Preconditions.checkArgument(notificationAsContainerSchemaNode != null,
                 "Unable to parse notification %s, unknown notification. Available notifications: %s",
-                notificationDefinitions, mappedNotifications.keySet());
-
-        final NotificationDefinition mostRecentNotification = getMostRecentNotification(notificationDefinitions);
-
-        final ContainerSchemaNode notificationAsContainerSchemaNode =
-                NetconfMessageTransformUtil.createSchemaForNotification(mostRecentNotification);
+                notificationNoRev, schema.getNotificationNames());
 
         final Element element = stripped.getValue().getDomElement();
         final ContainerNode content;
@@ -122,54 +111,42 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         return new NetconfDeviceNotification(content, stripped.getKey());
     }
 
-    private static NotificationDefinition getMostRecentNotification(
-            final Collection<NotificationDefinition> notificationDefinitions) {
-        return Collections.max(notificationDefinitions, (o1, o2) ->
-            Revision.compare(o1.getQName().getRevision(), o2.getQName().getRevision()));
-    }
-
     @Override
-    public NetconfMessage toRpcRequest(SchemaPath rpc, final NormalizedNode<?, ?> payload) {
+    public NetconfMessage toRpcRequest(final SchemaPath rpc, final NormalizedNode<?, ?> payload) {
         // In case no input for rpc is defined, we can simply construct the payload here
         final QName rpcQName = rpc.getLastComponent();
-        Map<QName, RpcDefinition> currentMappedRpcs = mappedRpcs;
 
         // Determine whether a base netconf operation is being invoked
         // and also check if the device exposed model for base netconf.
         // If no, use pre built base netconf operations model
-        final boolean needToUseBaseCtx = mappedRpcs.get(rpcQName) == null && isBaseOrNotificationRpc(rpcQName);
-        if (needToUseBaseCtx) {
-            currentMappedRpcs = baseSchema.getMappedRpcs();
-        }
+        final MessageTransformerSchema currentSchema = selectSchema(rpcQName);
+        final Map<QName, RpcDefinition> currentMappedRpcs = currentSchema.getMappedRpcs();
 
         Preconditions.checkNotNull(currentMappedRpcs.get(rpcQName),
                 "Unknown rpc %s, available rpcs: %s", rpcQName, currentMappedRpcs.keySet());
         if (currentMappedRpcs.get(rpcQName).getInput().getChildNodes().isEmpty()) {
-            return new NetconfMessage(NetconfMessageTransformUtil
-                    .prepareDomResultForRpcRequest(rpcQName, counter).getNode().getOwnerDocument());
+            return new NormalizedRpcRequestMessage(rpcQName, newMessageId());
         }
 
         Preconditions.checkNotNull(payload, "Transforming an rpc with input: %s, payload cannot be null", rpcQName);
         Preconditions.checkArgument(payload instanceof ContainerNode,
                 "Transforming an rpc with input: %s, payload has to be a container, but was: %s", rpcQName, payload);
 
-        // Set the path to the input of rpc for the node stream writer
-        rpc = rpc.createChild(QName.create(rpcQName, "input").intern());
-        final DOMResult result = NetconfMessageTransformUtil.prepareDomResultForRpcRequest(rpcQName, counter);
-
-        try {
-            // If the schema context for netconf device does not contain model for base netconf operations,
-            // use default pre build context with just the base model
-            // This way operations like lock/unlock are supported even if the source for base model was not provided
-            SchemaContext ctx = needToUseBaseCtx ? baseSchema.getSchemaContext() : schemaContext;
-            NetconfMessageTransformUtil.writeNormalizedRpc((ContainerNode) payload, result, rpc, ctx);
-        } catch (final XMLStreamException | IOException | IllegalStateException e) {
-            throw new IllegalStateException("Unable to serialize " + rpc, e);
-        }
+        // Payload is serialized straight to the wire when the message is sent. The path to the input of rpc is used
+        // by the node stream writer. If the schema context for netconf device does not contain model for base netconf
+        // operations, default pre build context with just the base model is used. This way operations like
+        // lock/unlock are supported even if the source for base model was not provided
+        return new NormalizedRpcRequestMessage(rpcQName, newMessageId(), (ContainerNode) payload,
+            currentSchema.getRpcInputPath(rpcQName), currentSchema.getSchemaContext());
+    }
 
-        final Document node = result.getNode().getOwnerDocument();
+    private MessageTransformerSchema selectSchema(final QName rpcQName) {
+        return schema.getMappedRpcs().get(rpcQName) == null && isBaseOrNotificationRpc(rpcQName) ? baseSchema
+                : schema;
+    }
 
-        return new NetconfMessage(node);
+    private String newMessageId() {
+        return counter.getNewMessageId(NetconfMessageTransformUtil.MESSAGE_ID_PREFIX);
     }
 
     private static boolean isBaseOrNotificationRpc(final QName rpc) {
@@ -179,25 +156,36 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
     }
 
     @Override
-    public synchronized DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
+    public DOMRpcResult toRpcResult(final NetconfMessage message, final SchemaPath rpc) {
         final NormalizedNode<?, ?> normalizedNode;
         final QName rpcQName = rpc.getLastComponent();
         if (NetconfMessageTransformUtil.isDataRetrievalOperation(rpcQName)) {
-            final Element xmlData = NetconfMessageTransformUtil.getDataSubtree(message.getDocument());
-            final ContainerSchemaNode schemaForDataRead =
-                    NetconfMessageTransformUtil.createSchemaForDataRead(schemaContext);
+            final ContainerSchemaNode schemaForDataRead = schema.getDataRead();
             final ContainerNode dataNode;
 
-            try {
-                final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
-                final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
-                final XmlParserStream xmlParser = XmlParserStream.create(writer, schemaContext, schemaForDataRead,
-                        strictParsing);
-                xmlParser.traverse(new DOMSource(xmlData));
-                dataNode = (ContainerNode) resultHolder.getResult();
-            } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
-                    | SAXException e) {
-                throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData), e);
+            if (canParseStream(message) && NetconfMessageTransformUtil.NETCONF_DATA_QNAME.getLocalName().equals(
+                    ((ByteBufNetconfMessage) message).getFirstChildElementName())) {
+                try {
+                    dataNode = (ContainerNode) parseStream((ByteBufNetconfMessage) message, schemaForDataRead, true);
+                } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                        | SAXException e) {
+                    throw new IllegalArgumentException(String.format("Failed to parse data response %s", message),
+                        e);
+                }
+            } else {
+                final Element xmlData = NetconfMessageTransformUtil.getDataSubtree(message.getDocument());
+                try {
+                    final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
+                    final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
+                    final XmlParserStream xmlParser = XmlParserStream.create(writer, schemaContext,
+                            schemaForDataRead, strictParsing);
+                    xmlParser.traverse(new DOMSource(xmlData));
+                    dataNode = (ContainerNode) resultHolder.getResult();
+                } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                        | SAXException e) {
+                    throw new IllegalArgumentException(String.format("Failed to parse data response %s", xmlData),
+                        e);
+                }
             }
 
             normalizedNode = Builders.containerBuilder()
@@ -206,17 +194,10 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
                     .withChild(dataNode).build();
         } else {
 
-            Map<QName, RpcDefinition> currentMappedRpcs = mappedRpcs;
-
             // Determine whether a base netconf operation is being invoked
             // and also check if the device exposed model for base netconf.
             // If no, use pre built base netconf operations model
-            final boolean needToUseBaseCtx = mappedRpcs.get(rpcQName) == null && isBaseOrNotificationRpc(rpcQName);
-            if (needToUseBaseCtx) {
-                currentMappedRpcs = baseSchema.getMappedRpcs();
-            }
-
-            final RpcDefinition rpcDefinition = currentMappedRpcs.get(rpcQName);
+            final RpcDefinition rpcDefinition = selectSchema(rpcQName).getMappedRpcs().get(rpcQName);
             Preconditions.checkArgument(rpcDefinition != null,
                     "Unable to parse response of %s, the rpc is unknown", rpcQName);
 
@@ -226,6 +207,13 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
                     message.getDocument()).getOnlyChildElementWithSameNamespaceOptionally("ok").isPresent(),
                     "Unexpected content in response of rpc: %s, %s", rpcDefinition.getQName(), message);
                 normalizedNode = null;
+            } else if (canParseStream(message)) {
+                try {
+                    normalizedNode = parseStream((ByteBufNetconfMessage) message, rpcDefinition.getOutput(), false);
+                } catch (XMLStreamException | URISyntaxException | IOException | ParserConfigurationException
+                        | SAXException e) {
+                    throw new IllegalArgumentException(String.format("Failed to parse RPC response %s", message), e);
+                }
             } else {
                 final Element element = message.getDocument().getDocumentElement();
                 try {
@@ -244,6 +232,32 @@ public class NetconfMessageTransformer implements MessageTransformer<NetconfMess
         return new DefaultDOMRpcResult(normalizedNode);
     }
 
+    /**
+     * Check whether a message can be parsed directly from its serialized form, i.e. it is a
+     * {@link ByteBufNetconfMessage} whose DOM has not been built yet.
+     */
+    private static boolean canParseStream(final NetconfMessage message) {
+        return message instanceof ByteBufNetconfMessage && !((ByteBufNetconfMessage) message).isDocumentParsed();
+    }
+
+    private NormalizedNode<?, ?> parseStream(final ByteBufNetconfMessage message, final SchemaNode parentNode,
+            final boolean skipRootElement) throws XMLStreamException, URISyntaxException, IOException,
+            ParserConfigurationException, SAXException {
+        final XMLStreamReader reader = message.openStreamReader();
+        try {
+            if (skipRootElement) {
+                // Position the reader at rpc-reply, XmlParserStream moves on to its first child by itself
+                reader.nextTag();
+            }
+            final NormalizedNodeResult resultHolder = new NormalizedNodeResult();
+            final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(resultHolder);
+            XmlParserStream.create(writer, schemaContext, parentNode, strictParsing).parse(reader);
+            return resultHolder.getResult();
+        } finally {
+            reader.close();
+        }
+    }
+
     static class NetconfDeviceNotification implements DOMNotification, DOMEvent {
         private final ContainerNode content;
         private final SchemaPath schemaPath;
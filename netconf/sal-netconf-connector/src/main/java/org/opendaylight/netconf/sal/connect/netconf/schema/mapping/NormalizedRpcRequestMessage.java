@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static java.util.Objects.requireNonNull;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.MESSAGE_ID_ATTR;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_RPC_QNAME;
+
+import com.google.common.collect.Collections2;
+import java.io.IOException;
+import java.util.Optional;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.netconf.api.WritableNetconfMessage;
+import org.opendaylight.netconf.sal.connect.netconf.util.NormalizedConfigSource;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.SchemaOrderedNormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+
+/**
+ * RPC request holding its input as a NormalizedNode. The input is serialized only when the message is written, so
+ * sending the request does not need a DOM representation of it.
+ */
+public final class NormalizedRpcRequestMessage extends WritableNetconfMessage {
+    private final QName rpcQName;
+    private final String messageId;
+    private final ContainerNode payload;
+    private final SchemaPath inputPath;
+    private final SchemaContext schemaContext;
+
+    /**
+     * Create a request for an RPC without input.
+     *
+     * @param rpcQName name of the RPC
+     * @param messageId message-id of the request
+     */
+    NormalizedRpcRequestMessage(final QName rpcQName, final String messageId) {
+        this.rpcQName = requireNonNull(rpcQName);
+        this.messageId = requireNonNull(messageId);
+        this.payload = null;
+        this.inputPath = null;
+        this.schemaContext = null;
+    }
+
+    /**
+     * Create a request for an RPC with input.
+     *
+     * @param rpcQName name of the RPC
+     * @param messageId message-id of the request
+     * @param payload input of the RPC
+     * @param inputPath path to input of the RPC
+     * @param schemaContext schema context to use for serialization of the input
+     */
+    NormalizedRpcRequestMessage(final QName rpcQName, final String messageId, final ContainerNode payload,
+            final SchemaPath inputPath, final SchemaContext schemaContext) {
+        this.rpcQName = requireNonNull(rpcQName);
+        this.messageId = requireNonNull(messageId);
+        this.payload = requireNonNull(payload);
+        this.inputPath = requireNonNull(inputPath);
+        this.schemaContext = requireNonNull(schemaContext);
+    }
+
+    public QName getRpcQName() {
+        return rpcQName;
+    }
+
+    @Override
+    public String getMessageId() {
+        return messageId;
+    }
+
+    @Override
+    public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+        final String netconfNs = NETCONF_RPC_QNAME.getNamespace().toString();
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, NETCONF_RPC_QNAME.getLocalName(), netconfNs);
+        writer.writeDefaultNamespace(netconfNs);
+        writer.writeAttribute(MESSAGE_ID_ATTR, messageId);
+
+        final String rpcNs = rpcQName.getNamespace().toString();
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, rpcQName.getLocalName(), rpcNs);
+        if (!rpcNs.equals(netconfNs)) {
+            writer.writeDefaultNamespace(rpcNs);
+        }
+        if (payload != null) {
+            writePayload(writer);
+        }
+        writer.writeEndElement();
+        writer.writeEndElement();
+    }
+
+    private void writePayload(final XMLStreamWriter writer) throws XMLStreamException {
+        // Writers are flushed, but not closed, as closing them would close the underlying XMLStreamWriter
+        final NormalizedNodeStreamWriter streamWriter = XMLStreamNormalizedNodeStreamWriter.create(writer,
+            schemaContext, inputPath);
+        final SchemaOrderedNormalizedNodeWriter nodeWriter = new SchemaOrderedNormalizedNodeWriter(streamWriter,
+            schemaContext, inputPath);
+        final NormalizedConfigSource config = getEditConfigSource();
+        try {
+            if (config == null) {
+                nodeWriter.write(payload.getValue());
+            } else {
+                // edit-content is the last choice of edit-config input, the config element can be written after the
+                // rest of the input
+                nodeWriter.write(Collections2.filter(payload.getValue(),
+                    child -> !EditContent.QNAME.equals(child.getNodeType())));
+            }
+            nodeWriter.flush();
+        } catch (IOException | IllegalStateException e) {
+            throw new XMLStreamException("Unable to serialize input of " + rpcQName, e);
+        }
+        if (config != null) {
+            config.writeTo(writer);
+        }
+    }
+
+    /**
+     * Return the config element of an edit-config request, if its content is held as a NormalizedNode.
+     */
+    private NormalizedConfigSource getEditConfigSource() {
+        if (!NETCONF_EDIT_CONFIG_QNAME.equals(rpcQName)) {
+            return null;
+        }
+        final Optional<DataContainerChild<? extends PathArgument, ?>> editContent =
+            payload.getChild(new NodeIdentifier(EditContent.QNAME));
+        if (!editContent.isPresent() || !(editContent.get() instanceof ChoiceNode)) {
+            return null;
+        }
+        final Optional<DataContainerChild<? extends PathArgument, ?>> config =
+            ((ChoiceNode) editContent.get()).getChild(new NodeIdentifier(NETCONF_CONFIG_QNAME));
+        if (config.isPresent() && config.get() instanceof AnyXmlNode
+                && ((AnyXmlNode) config.get()).getValue() instanceof NormalizedConfigSource) {
+            return (NormalizedConfigSource) ((AnyXmlNode) config.get()).getValue();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.siemens.ct.exi.core.exceptions.EXIException;
+import com.siemens.ct.exi.core.grammars.Grammars;
+import com.siemens.ct.exi.grammars.GrammarFactory;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.AnyDataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.CaseSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Derives schema-informed EXI grammars from a {@link SchemaContext}. The data models are mapped to an XML Schema for
+ * each namespace, from which the grammars are built:
+ * <ul>
+ *   <li>top-level data nodes, RPCs and notifications become global elements,</li>
+ *   <li>containers and lists become elements whose children may appear in any order and number, as NETCONF does not
+ *       mandate ordering of siblings,</li>
+ *   <li>leaves and leaf-lists become elements with string content, so that lexical values are preserved,</li>
+ *   <li>anyxml and anydata become elements with arbitrary content.</li>
+ * </ul>
+ * Children from other namespaces, which are introduced by augmentations, and attributes are allowed anywhere, so
+ * that the grammars never reject valid NETCONF content.
+ */
+public final class SchemaContextEXIGrammars {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaContextEXIGrammars.class);
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+    private static final String XS = XMLConstants.W3C_XML_SCHEMA_NS_URI;
+    private static final String XS_PREFIX = "xs";
+    private static final String TARGET_PREFIX = "t";
+    private static final String LEAF_TYPE = "leaf";
+    private static final String ANYXML_TYPE = "anyxml";
+
+    private SchemaContextEXIGrammars() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Create grammars for a schema context. This is an expensive operation, callers should cache the result.
+     *
+     * @param schemaContext schema context
+     * @return grammars
+     * @throws EXIException if the grammars cannot be built
+     * @throws IOException if the intermediate schemas cannot be written
+     */
+    public static Grammars create(final SchemaContext schemaContext) throws EXIException, IOException {
+        final Map<URI, String> schemas;
+        try {
+            schemas = toXsd(schemaContext);
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to map " + schemaContext + " to XML Schema", e);
+        }
+
+        // The grammar factory resolves imports by location, hence the schemas need to be files
+        final Path dir = Files.createTempDirectory("netconf-exi");
+        final List<Path> files = new ArrayList<>(schemas.size() + 1);
+        try {
+            final StringWriter root = new StringWriter();
+            try {
+                final XMLStreamWriter writer = FACTORY.createXMLStreamWriter(root);
+                writer.writeStartDocument();
+                writer.writeStartElement(XS_PREFIX, "schema", XS);
+                writer.writeNamespace(XS_PREFIX, XS);
+                for (Entry<URI, String> entry : schemas.entrySet()) {
+                    final Path file = dir.resolve("module" + files.size() + ".xsd");
+                    files.add(file);
+                    writeFile(file, entry.getValue());
+
+                    writer.writeEmptyElement(XS_PREFIX, "import", XS);
+                    writer.writeAttribute("namespace", entry.getKey().toString());
+                    writer.writeAttribute("schemaLocation", file.getFileName().toString());
+                }
+                writer.writeEndElement();
+                writer.writeEndDocument();
+                writer.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("Failed to write root schema", e);
+            }
+
+            final Path rootFile = dir.resolve("root.xsd");
+            files.add(rootFile);
+            writeFile(rootFile, root.toString());
+
+            LOG.debug("Building EXI grammars from {} namespaces", schemas.size());
+            return GrammarFactory.newInstance().createGrammars(rootFile.toString());
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void writeFile(final Path file, final String content) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+
+    /**
+     * Map a schema context to XML Schema documents, one for each namespace containing top-level elements.
+     *
+     * @param schemaContext schema context
+     * @return XML Schema documents indexed by their target namespace
+     * @throws XMLStreamException if a document cannot be written
+     */
+    @VisibleForTesting
+    static Map<URI, String> toXsd(final SchemaContext schemaContext) throws XMLStreamException {
+        final Map<URI, List<GlobalElement>> elements = new LinkedHashMap<>();
+        for (DataSchemaNode child : flatten(schemaContext.getChildNodes())) {
+            addGlobal(elements, child.getQName(), child);
+        }
+        for (RpcDefinition rpc : schemaContext.getOperations()) {
+            addGlobal(elements, rpc.getQName(), rpc.getInput());
+        }
+        for (NotificationDefinition notification : schemaContext.getNotifications()) {
+            addGlobal(elements, notification.getQName(), notification);
+        }
+
+        final Map<URI, String> ret = new LinkedHashMap<>();
+        for (Entry<URI, List<GlobalElement>> entry : elements.entrySet()) {
+            ret.put(entry.getKey(), writeSchema(entry.getKey(), entry.getValue()));
+        }
+        return ret;
+    }
+
+    private static void addGlobal(final Map<URI, List<GlobalElement>> elements, final QName name,
+            final Object node) {
+        final List<GlobalElement> list = elements.computeIfAbsent(name.getNamespace(), key -> new ArrayList<>());
+        for (GlobalElement existing : list) {
+            if (existing.name.equals(name.getLocalName())) {
+                // Multiple revisions of a module share the namespace, the first one wins
+                return;
+            }
+        }
+        list.add(new GlobalElement(name.getLocalName(), node));
+    }
+
+    private static String writeSchema(final URI namespace, final List<GlobalElement> elements)
+            throws XMLStreamException {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter writer = FACTORY.createXMLStreamWriter(out);
+        writer.writeStartDocument();
+        writer.writeStartElement(XS_PREFIX, "schema", XS);
+        writer.writeNamespace(XS_PREFIX, XS);
+        writer.writeNamespace(TARGET_PREFIX, namespace.toString());
+        writer.writeAttribute("targetNamespace", namespace.toString());
+        writer.writeAttribute("elementFormDefault", "qualified");
+
+        writer.writeStartElement(XS_PREFIX, "complexType", XS);
+        writer.writeAttribute("name", LEAF_TYPE);
+        writer.writeStartElement(XS_PREFIX, "simpleContent", XS);
+        writer.writeStartElement(XS_PREFIX, "extension", XS);
+        writer.writeAttribute("base", XS_PREFIX + ":string");
+        writeAnyAttribute(writer);
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        writer.writeStartElement(XS_PREFIX, "complexType", XS);
+        writer.writeAttribute("name", ANYXML_TYPE);
+        writer.writeAttribute("mixed", "true");
+        writer.writeStartElement(XS_PREFIX, "sequence", XS);
+        writeAny(writer, "##any", "skip", "0");
+        writer.writeEndElement();
+        writeAnyAttribute(writer);
+        writer.writeEndElement();
+
+        for (GlobalElement element : elements) {
+            writeElement(writer, namespace, element.name, element.node);
+        }
+
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+        return out.toString();
+    }
+
+    private static void writeElement(final XMLStreamWriter writer, final URI namespace, final String name,
+            final Object node) throws XMLStreamException {
+        if (node instanceof LeafSchemaNode || node instanceof LeafListSchemaNode) {
+            writeTypedElement(writer, name, LEAF_TYPE);
+        } else if (node instanceof AnyXmlSchemaNode || node instanceof AnyDataSchemaNode) {
+            writeTypedElement(writer, name, ANYXML_TYPE);
+        } else {
+            writer.writeStartElement(XS_PREFIX, "element", XS);
+            writer.writeAttribute("name", name);
+            writer.writeStartElement(XS_PREFIX, "complexType", XS);
+            writer.writeStartElement(XS_PREFIX, "choice", XS);
+            writer.writeAttribute("minOccurs", "0");
+            writer.writeAttribute("maxOccurs", "unbounded");
+
+            if (node instanceof DataNodeContainer) {
+                final Set<String> names = new HashSet<>();
+                for (DataSchemaNode child : flatten(((DataNodeContainer) node).getChildNodes())) {
+                    final QName childName = child.getQName();
+                    // Children from other namespaces are covered by the wildcard below
+                    if (namespace.equals(childName.getNamespace()) && names.add(childName.getLocalName())) {
+                        writeElement(writer, namespace, childName.getLocalName(), child);
+                    }
+                }
+            }
+
+            writeAny(writer, "##other", "lax", null);
+            writer.writeEndElement();
+            writeAnyAttribute(writer);
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    }
+
+    private static void writeTypedElement(final XMLStreamWriter writer, final String name, final String type)
+            throws XMLStreamException {
+        writer.writeEmptyElement(XS_PREFIX, "element", XS);
+        writer.writeAttribute("name", name);
+        writer.writeAttribute("type", TARGET_PREFIX + ":" + type);
+    }
+
+    private static void writeAny(final XMLStreamWriter writer, final String namespace, final String processContents,
+            final String minOccurs) throws XMLStreamException {
+        writer.writeEmptyElement(XS_PREFIX, "any", XS);
+        writer.writeAttribute("namespace", namespace);
+        writer.writeAttribute("processContents", processContents);
+        if (minOccurs != null) {
+            writer.writeAttribute("minOccurs", minOccurs);
+            writer.writeAttribute("maxOccurs", "unbounded");
+        }
+    }
+
+    private static void writeAnyAttribute(final XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeEmptyElement(XS_PREFIX, "anyAttribute", XS);
+        writer.writeAttribute("namespace", "##any");
+        writer.writeAttribute("processContents", "skip");
+    }
+
+    /**
+     * Replace choices with the children of their cases, as choices and cases do not appear in XML.
+     */
+    private static List<DataSchemaNode> flatten(final Iterable<DataSchemaNode> nodes) {
+        final List<DataSchemaNode> ret = new ArrayList<>();
+        for (DataSchemaNode node : nodes) {
+            if (node instanceof ChoiceSchemaNode) {
+                for (CaseSchemaNode caseNode : ((ChoiceSchemaNode) node).getCases().values()) {
+                    ret.addAll(flatten(caseNode.getChildNodes()));
+                }
+            } else {
+                ret.add(node);
+            }
+        }
+        return ret;
+    }
+
+    private static final class GlobalElement {
+        final String name;
+        final Object node;
+
+        GlobalElement(final String name, final Object node) {
+            this.name = name;
+            this.node = node;
+        }
+    }
+}
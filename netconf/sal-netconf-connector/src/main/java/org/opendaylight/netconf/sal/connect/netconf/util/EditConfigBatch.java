@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.util;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.HashSet;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.data.api.ModifyAction;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedLeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.ListNodeBuilder;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Edits combined into the config element of a single edit-config operation. Edits are combined only if none of them
+ * targets a node inside of, or the same node as, another one, hence the order in which the device applies them does
+ * not matter. Structure shared by the edits is emitted once.
+ */
+public final class EditConfigBatch {
+
+    private final SchemaContext schemaContext;
+    private final Optional<ModifyAction> defaultOperation;
+    // Targets of the edits
+    private final Set<YangInstanceIdentifier> targets = new HashSet<>();
+    // Targets of the edits and all their ancestors
+    private final Set<YangInstanceIdentifier> touched = new HashSet<>();
+    private NormalizedNode<?, ?> content;
+
+    EditConfigBatch(final SchemaContext schemaContext, final Optional<ModifyAction> defaultOperation) {
+        this.schemaContext = schemaContext;
+        this.defaultOperation = Preconditions.checkNotNull(defaultOperation);
+    }
+
+    /**
+     * Add an edit to this batch, if it can be combined with the edits already added.
+     *
+     * @param data data written by the edit
+     * @param operation operation set on the edited node
+     * @param dataPath path of the edited node
+     * @param editDefaultOperation default operation the edit has to be sent with
+     * @return true if the edit was added, false if it has to be sent in another edit-config
+     */
+    public boolean tryAdd(final Optional<NormalizedNode<?, ?>> data, final Optional<ModifyAction> operation,
+                          final YangInstanceIdentifier dataPath, final Optional<ModifyAction> editDefaultOperation) {
+        if (!defaultOperation.equals(editDefaultOperation) || !isDisjoint(dataPath)) {
+            return false;
+        }
+
+        final NormalizedNode<?, ?> editContent =
+                NetconfMessageTransformUtil.createEditConfigContent(schemaContext, dataPath, operation, data);
+        if (content == null) {
+            content = editContent;
+        } else {
+            final NormalizedNode<?, ?> merged = merge(content, editContent);
+            if (merged == null) {
+                return false;
+            }
+            content = merged;
+        }
+
+        targets.add(dataPath);
+        // Ancestors of an already touched path are touched as well
+        YangInstanceIdentifier path = dataPath;
+        while (path != null && touched.add(path)) {
+            path = path.getParent();
+        }
+        return true;
+    }
+
+    private boolean isDisjoint(final YangInstanceIdentifier dataPath) {
+        if (touched.contains(dataPath)) {
+            return false;
+        }
+        for (YangInstanceIdentifier path = dataPath.getParent(); path != null; path = path.getParent()) {
+            if (targets.contains(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return targets.size();
+    }
+
+    public boolean isEmpty() {
+        return targets.isEmpty();
+    }
+
+    public Optional<ModifyAction> getDefaultOperation() {
+        return defaultOperation;
+    }
+
+    AnyXmlNode toConfigStructure() {
+        Preconditions.checkState(content != null, "No edits in batch");
+        return NetconfMessageTransformUtil.createEditConfigAnyxml(schemaContext, content, targets);
+    }
+
+    /**
+     * Merge structures leading to disjoint targets.
+     *
+     * @return merged structure or null if the structures cannot be merged
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static NormalizedNode<?, ?> merge(final NormalizedNode<?, ?> first, final NormalizedNode<?, ?> second) {
+        if (!first.getIdentifier().equals(second.getIdentifier())) {
+            return null;
+        }
+
+        if (first instanceof ContainerNode && second instanceof ContainerNode) {
+            return mergeChildren(Builders.containerBuilder().withNodeIdentifier(((ContainerNode) first).getIdentifier())
+                .withAttributes(((ContainerNode) first).getAttributes()), (ContainerNode) first,
+                (ContainerNode) second);
+        } else if (first instanceof MapEntryNode && second instanceof MapEntryNode) {
+            return mergeChildren(Builders.mapEntryBuilder().withNodeIdentifier(((MapEntryNode) first).getIdentifier())
+                .withAttributes(((MapEntryNode) first).getAttributes()), (MapEntryNode) first, (MapEntryNode) second);
+        } else if (first instanceof AugmentationNode && second instanceof AugmentationNode) {
+            return mergeChildren(Builders.augmentationBuilder()
+                .withNodeIdentifier(((AugmentationNode) first).getIdentifier()), (AugmentationNode) first,
+                (AugmentationNode) second);
+        } else if (first instanceof ChoiceNode && second instanceof ChoiceNode) {
+            return mergeChildren(Builders.choiceBuilder().withNodeIdentifier(((ChoiceNode) first).getIdentifier()),
+                (ChoiceNode) first, (ChoiceNode) second);
+        } else if (first instanceof MapNode && second instanceof MapNode
+                && first instanceof OrderedMapNode == second instanceof OrderedMapNode) {
+            final CollectionNodeBuilder builder = first instanceof OrderedMapNode
+                    ? Builders.orderedMapBuilder() : Builders.mapBuilder();
+            builder.withNodeIdentifier(((MapNode) first).getIdentifier());
+            for (final MapEntryNode entry : ((MapNode) first).getValue()) {
+                final java.util.Optional<MapEntryNode> other = ((MapNode) second).getChild(entry.getIdentifier());
+                if (other.isPresent()) {
+                    final NormalizedNode<?, ?> merged = merge(entry, other.get());
+                    if (merged == null) {
+                        return null;
+                    }
+                    builder.withChild(merged);
+                } else {
+                    builder.withChild(entry);
+                }
+            }
+            for (final MapEntryNode entry : ((MapNode) second).getValue()) {
+                if (!((MapNode) first).getChild(entry.getIdentifier()).isPresent()) {
+                    builder.withChild(entry);
+                }
+            }
+            return builder.build();
+        } else if (first instanceof LeafSetNode && second instanceof LeafSetNode
+                && first instanceof OrderedLeafSetNode == second instanceof OrderedLeafSetNode) {
+            // Entries are targets themselves, disjoint targets never share an entry
+            final ListNodeBuilder builder = first instanceof OrderedLeafSetNode
+                    ? Builders.orderedLeafSetBuilder() : Builders.leafSetBuilder();
+            builder.withNodeIdentifier(((LeafSetNode<?>) first).getIdentifier());
+            for (final LeafSetEntryNode<?> entry : ((LeafSetNode<?>) first).getValue()) {
+                builder.withChild(entry);
+            }
+            for (final LeafSetEntryNode<?> entry : ((LeafSetNode<?>) second).getValue()) {
+                builder.withChild(entry);
+            }
+            return builder.build();
+        }
+
+        // Leaves, anyxml or unkeyed lists, which a path does not lead through
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static NormalizedNode<?, ?> mergeChildren(final DataContainerNodeBuilder builder,
+            final DataContainerNode<?> first, final DataContainerNode<?> second) {
+        for (final DataContainerChild<? extends PathArgument, ?> child : first.getValue()) {
+            final java.util.Optional<DataContainerChild<? extends PathArgument, ?>> other =
+                    second.getChild(child.getIdentifier());
+            if (other.isPresent()) {
+                final NormalizedNode<?, ?> merged = merge(child, other.get());
+                if (merged == null) {
+                    return null;
+                }
+                builder.withChild((DataContainerChild<?, ?>) merged);
+            } else {
+                builder.withChild(child);
+            }
+        }
+        for (final DataContainerChild<? extends PathArgument, ?> child : second.getValue()) {
+            if (!first.getChild(child.getIdentifier()).isPresent()) {
+                builder.withChild(child);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -294,6 +294,35 @@ public final class NetconfBaseOps {
         return Builders.choiceBuilder().withNodeIdentifier(toId(EditContent.QNAME)).withChild(configContent).build();
     }
 
+    /**
+     * Check whether data are processed according to the schema of the device. Data of schemaless devices are opaque.
+     *
+     * @return true if the schema of the device is known
+     */
+    public boolean isSchemaAware() {
+        return transformer instanceof NetconfRpcStructureTransformer;
+    }
+
+    /**
+     * Check whether edits can be combined into a single edit-config using {@link EditConfigBatch}. This requires
+     * the schema of the edited data, hence it is not possible for schemaless devices.
+     *
+     * @return true if edits can be batched
+     */
+    public boolean isEditConfigBatchingSupported() {
+        return isSchemaAware();
+    }
+
+    public EditConfigBatch createEditConfigBatch(final Optional<ModifyAction> defaultOperation) {
+        Preconditions.checkState(isEditConfigBatchingSupported(), "Edit-config batching is not supported");
+        return new EditConfigBatch(schemaContext, defaultOperation);
+    }
+
+    public DataContainerChild<?, ?> createEditConfigStrcture(final EditConfigBatch batch) {
+        return Builders.choiceBuilder().withNodeIdentifier(toId(EditContent.QNAME))
+                .withChild(batch.toConfigStructure()).build();
+    }
+
     private static ContainerNode getEditConfigContent(
             final QName datastore, final DataContainerChild<?, ?> editStructure,
             final Optional<ModifyAction> defaultOperation, final boolean rollback) {
@@ -9,6 +9,7 @@ package org.opendaylight.netconf.sal.connect.netconf.util;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
@@ -25,10 +26,12 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.DocumentedException;
 import org.opendaylight.netconf.api.FailedNetconfMessage;
 import org.opendaylight.netconf.api.NetconfDocumentedException;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.WritableNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlElement;
 import org.opendaylight.netconf.api.xml.XmlUtil;
 import org.opendaylight.netconf.notifications.NetconfNotification;
@@ -203,8 +206,8 @@ public final class NetconfMessageTransformUtil {
 
     public static void checkValidReply(final NetconfMessage input, final NetconfMessage output)
             throws NetconfDocumentedException {
-        final String inputMsgId = input.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
-        final String outputMsgId = output.getDocument().getDocumentElement().getAttribute(MESSAGE_ID_ATTR);
+        final String inputMsgId = getMessageId(input);
+        final String outputMsgId = getMessageId(output);
 
         if (!inputMsgId.equals(outputMsgId)) {
             final Map<String, String> errorInfo = ImmutableMap.<String, String>builder()
@@ -219,6 +222,24 @@ public final class NetconfMessageTransformUtil {
         }
     }
 
+    /**
+     * Return the message-id of a message.
+     *
+     * @param message message
+     * @return message-id, empty string if the message does not have one
+     */
+    public static String getMessageId(final NetconfMessage message) {
+        if (message instanceof ByteBufNetconfMessage) {
+            // Same as DOM getAttribute(), which returns empty string for missing attributes
+            return Strings.nullToEmpty(((ByteBufNetconfMessage) message).getMessageId());
+        }
+        if (message instanceof WritableNetconfMessage) {
+            return Strings.nullToEmpty(((WritableNetconfMessage) message).getMessageId());
+        }
+        final Element root = message.getDocument().getDocumentElement();
+        return root == null ? "" : root.getAttribute(MESSAGE_ID_ATTR);
+    }
+
     public static void checkSuccessReply(final NetconfMessage output) throws NetconfDocumentedException {
         if (NetconfMessageUtil.isErrorMessage(output)) {
             throw NetconfDocumentedException.fromXMLDocument(output.getDocument());
@@ -300,31 +321,50 @@ public final class NetconfMessageTransformUtil {
     public static AnyXmlNode createEditConfigAnyxml(
             final SchemaContext ctx, final YangInstanceIdentifier dataPath, final Optional<ModifyAction> operation,
             final Optional<NormalizedNode<?, ?>> lastChildOverride) {
-        final NormalizedNode<?, ?> configContent;
+        return createEditConfigAnyxml(ctx, createEditConfigContent(ctx, dataPath, operation, lastChildOverride),
+            dataPath);
+    }
 
+    /**
+     * Create the content of the config element of an edit-config operation, i.e. the structure leading from the root
+     * to the edited data node.
+     *
+     * @param ctx schema context
+     * @param dataPath path of the edited data node
+     * @param operation operation set on the edited data node
+     * @param lastChildOverride edited data node
+     * @return config content
+     */
+    static NormalizedNode<?, ?> createEditConfigContent(
+            final SchemaContext ctx, final YangInstanceIdentifier dataPath, final Optional<ModifyAction> operation,
+            final Optional<NormalizedNode<?, ?>> lastChildOverride) {
         if (dataPath.isEmpty()) {
             Preconditions.checkArgument(lastChildOverride.isPresent(),
                     "Data has to be present when creating structure for top level element");
             Preconditions.checkArgument(lastChildOverride.get() instanceof DataContainerChild<?, ?>,
                     "Data has to be either container or a list node when creating structure for top level element, "
                             + "but was: %s", lastChildOverride.get());
-            configContent = lastChildOverride.get();
-        } else {
-            final Entry<QName, ModifyAction> modifyOperation = operation.isPresent()
-                    ? new AbstractMap.SimpleEntry<>(NETCONF_OPERATION_QNAME, operation.get()) : null;
-            configContent = ImmutableNodes.fromInstanceId(ctx, dataPath, lastChildOverride.toJavaUtil(),
-                java.util.Optional.ofNullable(modifyOperation));
+            return lastChildOverride.get();
         }
 
-        final Element element = XmlUtil.createElement(BLANK_DOCUMENT, NETCONF_CONFIG_QNAME.getLocalName(),
-                Optional.of(NETCONF_CONFIG_QNAME.getNamespace().toString()));
-        try {
-            NetconfUtil.writeNormalizedNode(configContent, new DOMResult(element), SchemaPath.ROOT, ctx);
-        } catch (IOException | XMLStreamException e) {
-            throw new IllegalStateException("Unable to serialize edit config content element for path " + dataPath, e);
-        }
-        final DOMSource value = new DOMSource(element);
+        final Entry<QName, ModifyAction> modifyOperation = operation.isPresent()
+                ? new AbstractMap.SimpleEntry<>(NETCONF_OPERATION_QNAME, operation.get()) : null;
+        return ImmutableNodes.fromInstanceId(ctx, dataPath, lastChildOverride.toJavaUtil(),
+            java.util.Optional.ofNullable(modifyOperation));
+    }
 
+    /**
+     * Create the config element of an edit-config operation. The content is kept as a NormalizedNode, see
+     * {@link NormalizedConfigSource}.
+     *
+     * @param ctx schema context
+     * @param configContent config content
+     * @param description description of the content used in error messages
+     * @return config element
+     */
+    static AnyXmlNode createEditConfigAnyxml(final SchemaContext ctx, final NormalizedNode<?, ?> configContent,
+            final Object description) {
+        final DOMSource value = new NormalizedConfigSource(ctx, configContent, description);
         return Builders.anyXmlBuilder().withNodeIdentifier(toId(NETCONF_CONFIG_QNAME)).withValue(value).build();
     }
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.util;
+
+import static java.util.Objects.requireNonNull;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
+
+import com.google.common.base.Optional;
+import java.io.IOException;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.util.NetconfUtil;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.codec.xml.XMLStreamNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Config element of an edit-config operation holding its content as a NormalizedNode. The content is written
+ * straight to an XMLStreamWriter when the request is sent. The DOM representation is built only on first access to
+ * {@link #getNode()}.
+ */
+public final class NormalizedConfigSource extends DOMSource {
+    private final SchemaContext schemaContext;
+    private final NormalizedNode<?, ?> content;
+    private final Object description;
+
+    NormalizedConfigSource(final SchemaContext schemaContext, final NormalizedNode<?, ?> content,
+            final Object description) {
+        this.schemaContext = requireNonNull(schemaContext);
+        this.content = requireNonNull(content);
+        this.description = description;
+    }
+
+    /**
+     * Write the config element, including its content. The writer is flushed, but not closed.
+     *
+     * @param writer writer to use
+     * @throws XMLStreamException if the content cannot be written
+     */
+    public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+        final String netconfNs = NETCONF_CONFIG_QNAME.getNamespace().toString();
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, NETCONF_CONFIG_QNAME.getLocalName(), netconfNs);
+        // Writers are flushed, but not closed, as closing them would close the underlying XMLStreamWriter
+        final NormalizedNodeStreamWriter streamWriter = XMLStreamNormalizedNodeStreamWriter.create(writer,
+            schemaContext, SchemaPath.ROOT);
+        final NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(streamWriter);
+        try {
+            nodeWriter.write(content);
+            nodeWriter.flush();
+        } catch (IOException | IllegalStateException e) {
+            throw new XMLStreamException("Unable to serialize edit config content element for path " + description,
+                e);
+        }
+        writer.writeEndElement();
+    }
+
+    @Override
+    public synchronized Node getNode() {
+        Node node = super.getNode();
+        if (node == null) {
+            final Element element = XmlUtil.createElement(XmlUtil.newDocument(), NETCONF_CONFIG_QNAME.getLocalName(),
+                Optional.of(NETCONF_CONFIG_QNAME.getNamespace().toString()));
+            try {
+                NetconfUtil.writeNormalizedNode(content, new DOMResult(element), SchemaPath.ROOT, schemaContext);
+            } catch (IOException | XMLStreamException e) {
+                throw new IllegalStateException("Unable to serialize edit config content element for path "
+                    + description, e);
+            }
+            node = element;
+            super.setNode(node);
+        }
+        return node;
+    }
+
+    @Override
+    public synchronized void setNode(final Node node) {
+        super.setNode(node);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.util;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of threads parsing RPC replies received from NETCONF devices, shared by the devices of a topology. Replies are
+ * handed over to this pool by the thread which received them, so that a large reply does not hold up the session it
+ * arrived on and replies from a single device can be parsed concurrently. Notifications are parsed by a pool of their
+ * own, so that a device flooding notifications does not delay replies.
+ *
+ * <p>
+ * The pool is created by the blueprint container of the topology, which closes it when the topology goes down.
+ */
+public final class NetconfParserExecutor implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(NetconfParserExecutor.class);
+
+    private final Executor executor;
+    private final int threads;
+
+    private NetconfParserExecutor(final Executor executor, final int threads) {
+        this.executor = requireNonNull(executor);
+        this.threads = threads;
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param threads number of parser threads. Replies are parsed by the thread which received them if this is zero,
+     *                one thread per available processor is used if this is negative
+     * @return a new pool
+     */
+    public static NetconfParserExecutor create(final int threads) {
+        return create(threads, "parser");
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param threads number of parser threads. Messages are parsed by the thread which received them if this is zero,
+     *                one thread per available processor is used if this is negative
+     * @param purpose what the pool parses, such as {@code notification}, used in names of its threads
+     * @return a new pool
+     */
+    public static NetconfParserExecutor create(final int threads, final String purpose) {
+        if (threads == 0) {
+            return new NetconfParserExecutor(MoreExecutors.directExecutor(), 0);
+        }
+
+        final int size = threads < 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        LOG.info("Starting NETCONF {} pool with {} threads", purpose, size);
+        return new NetconfParserExecutor(Executors.newFixedThreadPool(size, new ThreadFactoryBuilder()
+            .setNameFormat("netconf-" + purpose + "-%d").setDaemon(true).build()), size);
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Return the number of parser threads.
+     *
+     * @return number of threads, zero if replies are parsed by the thread which received them
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Shut the pool down. Replies already handed over to it are still parsed.
+     */
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
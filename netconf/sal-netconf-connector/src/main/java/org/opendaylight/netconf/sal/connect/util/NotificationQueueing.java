@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.util;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Preconditions;
+import java.util.Locale;
+
+/**
+ * Settings of the queue holding notifications received from a device until they are parsed and forwarded.
+ * Notifications are queued while the schema of the device is being set up and while earlier notifications are still
+ * being processed.
+ */
+public final class NotificationQueueing {
+    /**
+     * Action taken when a notification arrives and the queue of the device is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest queued notification to make room for the received one.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop the received notification.
+         */
+        DROP_NEWEST,
+        /**
+         * Drop all queued notifications and disconnect the device.
+         */
+        DISCONNECT;
+
+        /**
+         * Return the policy of a name, such as {@code drop-oldest}.
+         *
+         * @param name policy name
+         * @return policy
+         * @throws IllegalArgumentException if the name is not known
+         */
+        public static OverflowPolicy forName(final String name) {
+            return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final NotificationQueueing DEFAULT =
+            new NotificationQueueing(DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+
+    public NotificationQueueing(final int capacity, final OverflowPolicy overflowPolicy) {
+        Preconditions.checkArgument(capacity > 0, "Capacity has to be positive, was %s", capacity);
+        this.capacity = capacity;
+        this.overflowPolicy = requireNonNull(overflowPolicy);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
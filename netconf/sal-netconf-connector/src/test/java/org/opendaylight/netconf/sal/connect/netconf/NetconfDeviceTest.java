@@ -53,6 +53,7 @@ import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCapabi
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfDeviceCommunicator;
 import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
 import org.opendaylight.netconf.sal.connect.netconf.sal.NetconfDeviceRpc;
+import org.opendaylight.netconf.sal.connect.netconf.schema.SchemaContextCache;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.netconf.node.topology.rev150114.netconf.node.connection.status.available.capabilities.AvailableCapability;
@@ -74,6 +75,7 @@ import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
 import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
 import org.xml.sax.SAXException;
 
@@ -266,6 +268,10 @@ public class NetconfDeviceTest {
         final SchemaSourceRepresentation mockRep = mock(SchemaSourceRepresentation.class);
         doReturn(Futures.immediateFuture(mockRep))
                 .when(mock).getSchemaSource(any(SourceIdentifier.class), eq(YangTextSchemaSource.class));
+        // Sources cannot be parsed upfront, leaving their validation to the schema context factory
+        doAnswer(invocation -> Futures.immediateFailedFuture(new MissingSchemaSourceException("no AST",
+                (SourceIdentifier) invocation.getArguments()[0])))
+                .when(mock).getSchemaSource(any(SourceIdentifier.class), eq(ASTSchemaSource.class));
         return mock;
     }
 
@@ -330,11 +336,50 @@ public class NetconfDeviceTest {
         device.onRemoteSessionDown();
         verify(facade, timeout(5000)).onDeviceDisconnected();
 
-        device.onRemoteSessionUp(sessionCaps, listener);
+        // Same capabilities as before, schema of the first session is reused without resolving it again
+        final NetconfSessionPreferences reconnectedSessionCaps = getSessionCaps(true,
+                Lists.newArrayList(TEST_NAMESPACE + "?module=" + TEST_MODULE + "&amp;revision=" + TEST_REVISION));
+        device.onRemoteSessionUp(reconnectedSessionCaps, listener);
+
+        verify(facade, timeout(5000).times(2)).onDeviceConnected(
+                any(SchemaContext.class), any(NetconfSessionPreferences.class), any(DOMRpcService.class));
+        verify(schemaContextProviderFactory).createSchemaContext(any(Collection.class));
+        assertEquals(0, SchemaContextCache.forFactory(schemaContextProviderFactory).getHitCount());
+        assertEquals(sessionCaps.getNetconfDeviceCapabilities().getResolvedCapabilities(),
+                reconnectedSessionCaps.getNetconfDeviceCapabilities().getResolvedCapabilities());
+    }
+
+    @Test
+    public void testNetconfDeviceReconnectChangedCapabilities() throws Exception {
+        final RemoteDeviceHandler<NetconfSessionPreferences> facade = getFacade();
+        final NetconfDeviceCommunicator listener = getListener();
+
+        final SchemaContextFactory schemaContextProviderFactory = getSchemaFactory();
+
+        final NetconfDevice.SchemaResourcesDTO schemaResourcesDTO = new NetconfDevice.SchemaResourcesDTO(
+                getSchemaRegistry(), getSchemaRepository(), schemaContextProviderFactory, STATE_SCHEMAS_RESOLVER);
+        final NetconfDevice device = new NetconfDeviceBuilder()
+                .setSchemaResourcesDTO(schemaResourcesDTO)
+                .setGlobalProcessingExecutor(getExecutor())
+                .setId(getId())
+                .setSalFacade(facade)
+                .build();
+        device.onRemoteSessionUp(getSessionCaps(true, Lists.newArrayList(TEST_CAPABILITY)), listener);
+
+        verify(facade, timeout(5000)).onDeviceConnected(
+                any(SchemaContext.class), any(NetconfSessionPreferences.class), any(DOMRpcService.class));
+
+        device.onRemoteSessionDown();
+        verify(facade, timeout(5000)).onDeviceDisconnected();
+
+        // Capabilities differ, sources are resolved again but the module set stays the same
+        device.onRemoteSessionUp(getSessionCaps(false, Lists.newArrayList(TEST_CAPABILITY)), listener);
 
-        verify(schemaContextProviderFactory, timeout(5000).times(2)).createSchemaContext(any(Collection.class));
         verify(facade, timeout(5000).times(2)).onDeviceConnected(
                 any(SchemaContext.class), any(NetconfSessionPreferences.class), any(DOMRpcService.class));
+        // Schema context built for the first session is reused
+        verify(schemaContextProviderFactory).createSchemaContext(any(Collection.class));
+        assertEquals(1, SchemaContextCache.forFactory(schemaContextProviderFactory).getHitCount());
     }
 
     @Test
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.dom.api.DOMNotification;
+import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.sal.connect.api.MessageTransformer;
+import org.opendaylight.netconf.sal.connect.api.RemoteDeviceHandler;
+import org.opendaylight.netconf.sal.connect.netconf.listener.NetconfSessionPreferences;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing;
+import org.opendaylight.netconf.sal.connect.util.NotificationQueueing.OverflowPolicy;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+
+public class NotificationHandlerTest {
+
+    private static final RemoteDeviceId ID =
+            new RemoteDeviceId("device1", InetSocketAddress.createUnresolved("0.0.0.0", 17830));
+
+    @Mock
+    private RemoteDeviceHandler<NetconfSessionPreferences> facade;
+    @Mock
+    private MessageTransformer<NetconfMessage> transformer;
+    private final NetconfMessage[] messages = new NetconfMessage[3];
+    private final DOMNotification[] notifications = new DOMNotification[3];
+    private final AtomicInteger disconnects = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new NetconfMessage(XmlUtil.readXmlToDocument("<notification-" + i + "/>"));
+            notifications[i] = mock(DOMNotification.class);
+        }
+        doAnswer(invocation -> {
+            for (int i = 0; i < messages.length; i++) {
+                if (messages[i] == invocation.getArguments()[0]) {
+                    return notifications[i];
+                }
+            }
+            throw new IllegalArgumentException("Unknown message");
+        }).when(transformer).toNotification(any(NetconfMessage.class));
+    }
+
+    @Test
+    public void testQueuedBeforeSchema() throws Exception {
+        final NotificationHandler handler = createHandler(OverflowPolicy.DROP_OLDEST);
+        for (final NetconfMessage message : messages) {
+            handler.handleNotification(message);
+        }
+        verify(facade, never()).onNotification(any(DOMNotification.class));
+        assertEquals(3, handler.getQueuedCount());
+
+        handler.onRemoteSchemaUp(transformer);
+        final InOrder inOrder = inOrder(facade);
+        for (final DOMNotification notification : notifications) {
+            inOrder.verify(facade).onNotification(notification);
+        }
+        assertEquals(0, handler.getQueuedCount());
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        final NotificationHandler handler = createHandler(OverflowPolicy.DROP_OLDEST);
+        for (final NetconfMessage message : messages) {
+            handler.handleNotification(message);
+        }
+        assertEquals(1, handler.getDroppedCount());
+
+        handler.onRemoteSchemaUp(transformer);
+        verify(facade, never()).onNotification(notifications[0]);
+        verify(facade).onNotification(notifications[1]);
+        verify(facade).onNotification(notifications[2]);
+    }
+
+    @Test
+    public void testDropNewest() throws Exception {
+        final NotificationHandler handler = createHandler(OverflowPolicy.DROP_NEWEST);
+        for (final NetconfMessage message : messages) {
+            handler.handleNotification(message);
+        }
+        assertEquals(1, handler.getDroppedCount());
+
+        handler.onRemoteSchemaUp(transformer);
+        verify(facade).onNotification(notifications[0]);
+        verify(facade).onNotification(notifications[1]);
+        verify(facade, never()).onNotification(notifications[2]);
+    }
+
+    @Test
+    public void testDisconnect() throws Exception {
+        final NotificationHandler handler = createHandler(OverflowPolicy.DISCONNECT);
+        handler.handleNotification(messages[0]);
+        handler.handleNotification(messages[1]);
+        assertEquals(0, disconnects.get());
+
+        handler.handleNotification(messages[2]);
+        assertEquals(1, disconnects.get());
+        assertEquals(3, handler.getDroppedCount());
+        assertEquals(0, handler.getQueuedCount());
+    }
+
+    @Test
+    public void testFailedNotificationSkipped() throws Exception {
+        final NotificationHandler handler = createHandler(OverflowPolicy.DROP_OLDEST);
+        handler.onRemoteSchemaUp(transformer);
+        handler.handleNotification(new NetconfMessage(XmlUtil.readXmlToDocument("<unknown/>")));
+        handler.handleNotification(messages[0]);
+        verify(facade).onNotification(notifications[0]);
+    }
+
+    @Test
+    public void testForwardedInBatches() throws Exception {
+        final Deque<Runnable> tasks = new ArrayDeque<>();
+        final NotificationHandler handler = new NotificationHandler(facade, ID, tasks::add,
+            new NotificationQueueing(NotificationHandler.MAX_BATCH * 2, OverflowPolicy.DROP_OLDEST), () -> { });
+        doAnswer(invocation -> mock(DOMNotification.class)).when(transformer).toNotification(any(NetconfMessage.class));
+        for (int i = 0; i < NotificationHandler.MAX_BATCH + 1; i++) {
+            handler.handleNotification(messages[0]);
+        }
+        handler.onRemoteSchemaUp(transformer);
+        assertEquals(1, tasks.size());
+
+        // The first task yields the executor once a batch is forwarded, submitting another task for the rest
+        tasks.poll().run();
+        verify(facade, times(NotificationHandler.MAX_BATCH)).onNotification(any(DOMNotification.class));
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+        verify(facade, times(NotificationHandler.MAX_BATCH + 1)).onNotification(any(DOMNotification.class));
+        assertTrue(tasks.isEmpty());
+        assertEquals(0, handler.getQueuedCount());
+    }
+
+    @Test
+    public void testSchemaDownWhileParsing() throws Exception {
+        final NotificationHandler handler = createHandler(OverflowPolicy.DROP_OLDEST);
+        handler.handleNotification(messages[0]);
+        doAnswer(invocation -> {
+            handler.onRemoteSchemaDown();
+            return notifications[0];
+        }).when(transformer).toNotification(messages[0]);
+
+        handler.onRemoteSchemaUp(transformer);
+        verify(facade, never()).onNotification(any(DOMNotification.class));
+    }
+
+    private NotificationHandler createHandler(final OverflowPolicy overflowPolicy) {
+        return new NotificationHandler(facade, ID, MoreExecutors.directExecutor(),
+            new NotificationQueueing(2, overflowPolicy), disconnects::incrementAndGet);
+    }
+}
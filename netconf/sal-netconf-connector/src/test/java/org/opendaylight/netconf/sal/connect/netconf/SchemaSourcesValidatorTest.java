@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.Futures;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.parser.repo.SharedSchemaRepository;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.TextToASTTransformer;
+
+public class SchemaSourcesValidatorTest {
+    private static final RemoteDeviceId ID = new RemoteDeviceId("test", new InetSocketAddress("localhost", 22));
+
+    private static final SourceIdentifier VALID = RevisionSourceIdentifier.create("valid");
+    private static final SourceIdentifier IMPORTS_VALID = RevisionSourceIdentifier.create("imports-valid");
+    private static final SourceIdentifier IMPORTS_ABSENT = RevisionSourceIdentifier.create("imports-absent");
+    private static final SourceIdentifier IMPORTS_UNRESOLVED = RevisionSourceIdentifier.create("imports-unresolved");
+    private static final SourceIdentifier BROKEN = RevisionSourceIdentifier.create("broken");
+    private static final SourceIdentifier MISSING = RevisionSourceIdentifier.create("missing");
+    private static final SourceIdentifier INCLUDES_SUBMODULE = RevisionSourceIdentifier.create("includes-submodule");
+    private static final SourceIdentifier SUBMODULE = RevisionSourceIdentifier.create("submodule");
+
+    private SharedSchemaRepository repository;
+
+    @Before
+    public void setUp() {
+        repository = new SharedSchemaRepository("test");
+        repository.registerSchemaSourceListener(TextToASTTransformer.create(repository, repository));
+
+        register(VALID, "module valid { namespace valid; prefix v; }");
+        register(IMPORTS_VALID, "module imports-valid { namespace iv; prefix iv; import valid { prefix v; } }");
+        register(IMPORTS_ABSENT, "module imports-absent { namespace ia; prefix ia; import absent { prefix a; } }");
+        register(IMPORTS_UNRESOLVED,
+            "module imports-unresolved { namespace iu; prefix iu; import imports-absent { prefix ia; } }");
+        register(BROKEN, "module broken { namespace broken; prefix b; container }");
+        register(INCLUDES_SUBMODULE,
+            "module includes-submodule { namespace is; prefix is; include submodule; }");
+        register(SUBMODULE, "submodule submodule { belongs-to includes-submodule { prefix is; } }");
+    }
+
+    @Test
+    public void testValidate() {
+        final SchemaSourcesValidator validated = SchemaSourcesValidator.validate(ID, repository, ImmutableList.of(
+            VALID, IMPORTS_VALID, IMPORTS_ABSENT, IMPORTS_UNRESOLVED, BROKEN, MISSING));
+
+        assertEquals(ImmutableSet.of(VALID, IMPORTS_VALID), validated.getUsable());
+        assertEquals(ImmutableSet.of(MISSING), validated.getMissing());
+        assertEquals(ImmutableSet.of(IMPORTS_ABSENT, IMPORTS_UNRESOLVED, BROKEN), validated.getUnresolved());
+    }
+
+    @Test
+    public void testDependencyNotRequired() {
+        final SchemaSourcesValidator validated = SchemaSourcesValidator.validate(ID, repository, ImmutableList.of(
+            IMPORTS_VALID));
+
+        // The imported module is resolved against the repository
+        assertEquals(ImmutableSet.of(IMPORTS_VALID, VALID), validated.getUsable());
+        assertEquals(ImmutableSet.of(), validated.getMissing());
+        assertEquals(ImmutableSet.of(), validated.getUnresolved());
+    }
+
+    @Test
+    public void testSubmoduleNotRequired() {
+        final SchemaSourcesValidator validated = SchemaSourcesValidator.validate(ID, repository, ImmutableList.of(
+            INCLUDES_SUBMODULE));
+
+        assertEquals(ImmutableSet.of(INCLUDES_SUBMODULE, SUBMODULE), validated.getUsable());
+        assertEquals(ImmutableSet.of(), validated.getUnresolved());
+    }
+
+    @Test
+    public void testDependencyNotInRepository() {
+        final SchemaSourcesValidator validated = SchemaSourcesValidator.validate(ID, repository, ImmutableList.of(
+            IMPORTS_UNRESOLVED));
+
+        // Neither dependency was requested, only the requested source is reported
+        assertEquals(ImmutableSet.of(), validated.getUsable());
+        assertEquals(ImmutableSet.of(), validated.getMissing());
+        assertEquals(ImmutableSet.of(IMPORTS_UNRESOLVED), validated.getUnresolved());
+    }
+
+    private void register(final SourceIdentifier id, final String text) {
+        final YangTextSchemaSource source = YangTextSchemaSource.delegateForByteSource(id,
+            ByteSource.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        repository.registerSchemaSource(sourceId -> Futures.immediateFuture(source),
+            PotentialSchemaSource.create(id, YangTextSchemaSource.class,
+                PotentialSchemaSource.Costs.IMMEDIATE.getValue()));
+    }
+}
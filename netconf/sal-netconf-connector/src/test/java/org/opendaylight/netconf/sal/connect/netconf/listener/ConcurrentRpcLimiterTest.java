@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.netconf.api.NetconfDocumentedException;
+
+public class ConcurrentRpcLimiterTest {
+    private Timer timer;
+    private Timeout timeout;
+    private ArgumentCaptor<TimerTask> task;
+
+    @Before
+    public void setUp() {
+        timer = mock(Timer.class);
+        timeout = mock(Timeout.class);
+        task = ArgumentCaptor.forClass(TimerTask.class);
+        doReturn(timeout).when(timer).newTimeout(task.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testUnlimited() {
+        final ConcurrentRpcLimiter limiter = ConcurrentRpcLimiter.create(0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.release();
+        assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    public void testRejectWithoutQueue() throws Exception {
+        final ConcurrentRpcLimiter limiter = new ConcurrentRpcLimiter(1, 0, 100, timer);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertFailed(limiter.acquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testQueuedInOrder() throws Exception {
+        final ConcurrentRpcLimiter limiter = new ConcurrentRpcLimiter(1, 2, 100, timer);
+        assertTrue(limiter.tryAcquire());
+
+        final ListenableFuture<Void> first = limiter.acquire();
+        final ListenableFuture<Void> second = limiter.acquire();
+        assertFailed(limiter.acquire());
+        assertEquals(2, limiter.getQueueDepth());
+        assertEquals(2, limiter.getQueuedCount());
+        assertEquals(1, limiter.getRejectedCount());
+
+        // Waiters take precedence over new requests
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        verify(timeout).cancel();
+
+        limiter.release();
+        assertTrue(second.isDone());
+        assertEquals(0, limiter.getQueueDepth());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        final ConcurrentRpcLimiter limiter = new ConcurrentRpcLimiter(1, 1, 100, timer);
+        assertTrue(limiter.tryAcquire());
+
+        final ListenableFuture<Void> waiting = limiter.acquire();
+        verify(timer).newTimeout(any(TimerTask.class), eq(100L), eq(TimeUnit.MILLISECONDS));
+        task.getValue().run(timeout);
+
+        assertFailed(waiting);
+        assertEquals(1, limiter.getTimedOutCount());
+        assertEquals(0, limiter.getQueueDepth());
+
+        // The permit is still held by the first request
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testCancelledWaiterSkipped() throws Exception {
+        final ConcurrentRpcLimiter limiter = new ConcurrentRpcLimiter(1, 2, 0, timer);
+        assertTrue(limiter.tryAcquire());
+
+        final ListenableFuture<Void> first = limiter.acquire();
+        final ListenableFuture<Void> second = limiter.acquire();
+        first.cancel(false);
+
+        limiter.release();
+        assertTrue(second.isDone());
+        second.get();
+    }
+
+    @Test
+    public void testReleaseFromWaiterHandsOverIteratively() throws Exception {
+        final ConcurrentRpcLimiter limiter = new ConcurrentRpcLimiter(1, 3, 0, timer);
+        assertTrue(limiter.tryAcquire());
+
+        final List<Integer> depths = new ArrayList<>();
+        final List<ListenableFuture<Void>> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final ListenableFuture<Void> future = limiter.acquire();
+            // Waiter gives its permit back right away, as a request failing to be sent does
+            future.addListener(() -> {
+                depths.add(Thread.currentThread().getStackTrace().length);
+                limiter.release();
+            }, MoreExecutors.directExecutor());
+            waiting.add(future);
+        }
+
+        limiter.release();
+        for (final ListenableFuture<Void> future : waiting) {
+            assertTrue(future.isDone());
+        }
+        assertEquals(0, limiter.getQueueDepth());
+        assertEquals(3, depths.size());
+        assertEquals(depths.get(0), depths.get(2));
+
+        // All permits are back
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testFailWaiters() throws Exception {
+        final ConcurrentRpcLimiter limiter = new ConcurrentRpcLimiter(1, 2, 100, timer);
+        assertTrue(limiter.tryAcquire());
+
+        final ListenableFuture<Void> first = limiter.acquire();
+        final ListenableFuture<Void> second = limiter.acquire();
+        limiter.failWaiters(new NetconfDocumentedException("Session down"));
+
+        assertFailed(first);
+        assertFailed(second);
+        assertEquals(0, limiter.getQueueDepth());
+
+        // Failed waiters did not take permits, the first one is still held
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    private static void assertFailed(final ListenableFuture<Void> future) throws InterruptedException {
+        assertTrue(future.isDone());
+        try {
+            future.get();
+            fail("Request should have been rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NetconfDocumentedException);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.listener;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.netconf.listener.ConnectionAdmission.Permit;
+import org.opendaylight.protocol.framework.ReconnectStrategy;
+import org.opendaylight.protocol.framework.ReconnectStrategyFactory;
+
+public class ConnectionAdmissionTest {
+
+    private static final long LEASE_MILLIS = 60000;
+
+    @Test
+    public void testUnlimited() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(0, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(admission.admit(0, LEASE_MILLIS).isDone());
+        }
+        assertEquals(0, admission.getAttemptsInProgress());
+    }
+
+    @Test
+    public void testConcurrentAttemptsByTier() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(1, 0, 0);
+        final ListenableFuture<Permit> first = admission.admit(5, LEASE_MILLIS);
+        final ListenableFuture<Permit> lowPriority = admission.admit(5, LEASE_MILLIS);
+        final ListenableFuture<Permit> withdrawn = admission.admit(1, LEASE_MILLIS);
+        final ListenableFuture<Permit> highPriority = admission.admit(1, LEASE_MILLIS);
+        assertTrue(first.isDone());
+        assertFalse(lowPriority.isDone());
+        assertFalse(highPriority.isDone());
+        assertEquals(3, admission.getWaitingAttempts());
+
+        withdrawn.cancel(false);
+        first.get().release();
+        // Releasing twice has no effect
+        first.get().release();
+        assertTrue(highPriority.isDone());
+        assertFalse(lowPriority.isDone());
+        assertEquals(1, admission.getAttemptsInProgress());
+
+        highPriority.get().release();
+        assertTrue(lowPriority.isDone());
+        lowPriority.get().release();
+        assertEquals(0, admission.getAttemptsInProgress());
+        assertEquals(0, admission.getWaitingAttempts());
+    }
+
+    @Test
+    public void testLeaseExpiry() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(1, 0, 0);
+        assertTrue(admission.admit(0, 100).isDone());
+        final ListenableFuture<Permit> waiting = admission.admit(0, LEASE_MILLIS);
+        assertFalse(waiting.isDone());
+
+        // The first permit is never released
+        waiting.get(10, TimeUnit.SECONDS).release();
+        assertEquals(0, admission.getAttemptsInProgress());
+    }
+
+    @Test
+    public void testAttemptRate() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(0, 2, 0);
+        admission.admit(0, LEASE_MILLIS).get().release();
+        admission.admit(0, LEASE_MILLIS).get().release();
+        final ListenableFuture<Permit> third = admission.admit(0, LEASE_MILLIS);
+        assertFalse(third.isDone());
+
+        third.get(10, TimeUnit.SECONDS).release();
+    }
+
+    @Test
+    public void testJitter() throws Exception {
+        assertEquals(0, new ConnectionAdmission(0, 0, 0).jitterMillis(1000));
+        final ConnectionAdmission admission = new ConnectionAdmission(0, 0, 0.25);
+        for (int i = 0; i < 100; i++) {
+            final long jitter = admission.jitterMillis(1000);
+            assertTrue(jitter >= 0 && jitter <= 250);
+        }
+    }
+
+    @Test
+    public void testReconnectStrategy() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(1, 0, 0);
+        final ReconnectStrategy delegate = mock(ReconnectStrategy.class);
+        doReturn(ImmediateEventExecutor.INSTANCE.newSucceededFuture(null)).when(delegate)
+            .scheduleReconnect(any(Throwable.class));
+        final ReconnectStrategyFactory delegateFactory = mock(ReconnectStrategyFactory.class);
+        doReturn(delegate).when(delegateFactory).createReconnectStrategy();
+        final AdmittedReconnectStrategyFactory factory = new AdmittedReconnectStrategyFactory(
+            ImmediateEventExecutor.INSTANCE, delegateFactory, admission, 0, LEASE_MILLIS);
+
+        // The first attempt holds its admission until it fails
+        assertTrue(factory.admitFirstAttempt().isDone());
+        final ReconnectStrategy strategy = factory.createReconnectStrategy();
+        assertEquals(1, admission.getAttemptsInProgress());
+        final ListenableFuture<Permit> other = admission.admit(0, LEASE_MILLIS);
+
+        // The reconnect waits for the other attempt
+        final Future<Void> reconnect = strategy.scheduleReconnect(new IllegalStateException("Connection refused"));
+        assertTrue(other.isDone());
+        assertFalse(reconnect.isDone());
+
+        other.get().release();
+        assertTrue(reconnect.isSuccess());
+        assertEquals(1, admission.getAttemptsInProgress());
+
+        strategy.reconnectSuccessful();
+        assertEquals(0, admission.getAttemptsInProgress());
+    }
+
+    @Test
+    public void testReconnectAfterNegotiationFailure() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(1, 0, 0);
+        final ReconnectStrategyFactory delegateFactory = mock(ReconnectStrategyFactory.class);
+        doReturn(mock(ReconnectStrategy.class)).when(delegateFactory).createReconnectStrategy();
+        final AdmittedReconnectStrategyFactory factory = new AdmittedReconnectStrategyFactory(
+            ImmediateEventExecutor.INSTANCE, delegateFactory, admission, 0, LEASE_MILLIS);
+
+        assertTrue(factory.admitFirstAttempt().isDone());
+        factory.createReconnectStrategy();
+        assertEquals(1, admission.getAttemptsInProgress());
+
+        // Negotiation fails, the connection is reattempted with a new strategy which has to be admitted again
+        final ListenableFuture<Permit> other = admission.admit(0, LEASE_MILLIS);
+        final ReconnectStrategy second = factory.createReconnectStrategy();
+        assertTrue(other.isDone());
+        assertEquals(1, admission.getWaitingAttempts());
+
+        other.get().release();
+        assertEquals(1, admission.getAttemptsInProgress());
+        assertEquals(0, admission.getWaitingAttempts());
+
+        second.reconnectSuccessful();
+        assertEquals(0, admission.getAttemptsInProgress());
+
+        // The session is dropped, reconnecting does not wait for admission
+        factory.createReconnectStrategy();
+        assertEquals(0, admission.getAttemptsInProgress());
+        assertEquals(0, admission.getWaitingAttempts());
+    }
+
+    @Test
+    public void testReleasePendingAdmission() throws Exception {
+        final ConnectionAdmission admission = new ConnectionAdmission(1, 0, 0);
+        final AdmittedReconnectStrategyFactory factory = new AdmittedReconnectStrategyFactory(
+            ImmediateEventExecutor.INSTANCE, mock(ReconnectStrategyFactory.class), admission, 0, LEASE_MILLIS);
+
+        // The connection is closed before it is initiated
+        assertTrue(factory.admitFirstAttempt().isDone());
+        assertEquals(1, admission.getAttemptsInProgress());
+        factory.releasePendingAdmission();
+        assertEquals(0, admission.getAttemptsInProgress());
+    }
+}
@@ -13,6 +13,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.doNothing;
@@ -22,37 +23,49 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.opendaylight.netconf.api.xml.XmlNetconfConstants.URN_IETF_PARAMS_XML_NS_NETCONF_BASE_1_0;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.handler.codec.EncoderException;
 import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import io.netty.util.Timer;
+import io.netty.util.TimerTask;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import java.io.ByteArrayInputStream;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
 import org.opendaylight.netconf.api.NetconfTerminationReason;
+import org.opendaylight.netconf.api.WritableNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlNetconfConstants;
 import org.opendaylight.netconf.client.NetconfClientDispatcherImpl;
 import org.opendaylight.netconf.client.NetconfClientSession;
@@ -96,6 +109,7 @@ public class NetconfDeviceCommunicatorTest {
 
     void setupSession() {
         doReturn(Collections.<String>emptySet()).when(mockSession).getServerCapabilities();
+        doReturn(true).when(mockSession).isWritable();
         doNothing().when(mockDevice).onRemoteSessionUp(any(NetconfSessionPreferences.class),
                 any(NetconfDeviceCommunicator.class));
         communicator.onSessionUp(mockSession);
@@ -303,6 +317,54 @@ public class NetconfDeviceCommunicatorTest {
                 rpcError.getMessage().contains("mock error"));
     }
 
+    @Test
+    public void testSendRequestWithEncoderFailure() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice, 1);
+        setupSession();
+
+        // Request which cannot be serialized, neither by the encoder nor to build its DOM
+        final String messageID = UUID.randomUUID().toString();
+        final WritableNetconfMessage message = new WritableNetconfMessage() {
+            @Override
+            public String getMessageId() {
+                return messageID;
+            }
+
+            @Override
+            public void writeTo(final XMLStreamWriter writer) throws XMLStreamException {
+                throw new XMLStreamException("mock encoder error");
+            }
+        };
+
+        final ArgumentCaptor<GenericFutureListener> futureListener =
+                ArgumentCaptor.forClass(GenericFutureListener.class);
+        final ChannelFuture mockChannelFuture = mock(ChannelFuture.class);
+        doReturn(mockChannelFuture).when(mockChannelFuture).addListener(futureListener.capture());
+        doReturn(mockChannelFuture).when(mockSession).sendMessage(same(message));
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture =
+                communicator.sendRequest(message, QName.create("", "mockRpc"));
+
+        final Future<Void> operationFuture = mock(Future.class);
+        doReturn(false).when(operationFuture).isSuccess();
+        doReturn(true).when(operationFuture).isDone();
+        doReturn(new EncoderException("mock encoder error")).when(operationFuture).cause();
+        futureListener.getValue().operationComplete(operationFuture);
+
+        final RpcError rpcError = verifyErrorRpcResult(resultFuture.get(3, TimeUnit.MILLISECONDS),
+            RpcError.ErrorType.TRANSPORT, "operation-failed");
+        assertTrue(rpcError.getMessage().contains("mock encoder error"));
+        assertEquals(0, communicator.getOutstandingRequestCount());
+
+        // The permit has been released
+        final String nextMessageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> nextFuture = sendRequest(nextMessageID, true);
+        assertTrue(nextFuture instanceof UncancellableFuture);
+        communicator.onMessage(mockSession, createSuccessResponseMessage(nextMessageID));
+        verifyResponseMessage(nextFuture.get(), nextMessageID);
+    }
+
     //Test scenario verifying whether missing message is handled
     @Test
     public void testOnMissingResponseMessage() throws Exception {
@@ -421,6 +483,11 @@ public class NetconfDeviceCommunicatorTest {
 
         communicator.onMessage(mockSession, createSuccessResponseMessage(UUID.randomUUID().toString()));
 
+        assertFalse("Reply with unknown message-id completed request", resultFuture.isDone());
+        assertEquals(1, communicator.getOutstandingRequestCount());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(""));
+
         RpcError rpcError = verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.PROTOCOL,
                 "bad-attribute");
         assertFalse("RpcError message non-empty", Strings.isNullOrEmpty(rpcError.getMessage()));
@@ -452,6 +519,156 @@ public class NetconfDeviceCommunicatorTest {
         assertNotNull("ListenableFuture is null", resultFuture);
     }
 
+    @Test
+    public void testConcurrentMessageQueue() throws Exception {
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice,
+                Optional.absent(), new ConcurrentRpcLimiter(1, 1, 0, mock(Timer.class)), mock(Timer.class), 0);
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+        assertFalse(resultFuture2.isDone());
+        assertEquals(1, communicator.getOutstandingRequestCount());
+        assertEquals(1, communicator.getRpcLimiter().getQueueDepth());
+
+        // Queue is full
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture3 = sendRequest();
+        assertTrue(resultFuture3.isDone());
+        assertEquals(1, communicator.getRpcLimiter().getRejectedCount());
+
+        // Reply to the first request lets the second one through
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+        assertEquals(0, communicator.getRpcLimiter().getQueueDepth());
+        assertEquals(1, communicator.getOutstandingRequestCount());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+    }
+
+    @Test
+    public void testOnReorderedResponseMessages() throws Exception {
+        setupSession();
+
+        final String messageID1 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID1, true);
+        final String messageID2 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID2, true);
+        final String messageID3 = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture3 = sendRequest(messageID3, true);
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID3));
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID1));
+
+        verifyResponseMessage(resultFuture3.get(), messageID3);
+        verifyResponseMessage(resultFuture1.get(), messageID1);
+        assertFalse(resultFuture2.isDone());
+        assertEquals(1, communicator.getOutstandingRequestCount());
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID2));
+        verifyResponseMessage(resultFuture2.get(), messageID2);
+        assertEquals(0, communicator.getOutstandingRequestCount());
+    }
+
+    @Test
+    public void testDuplicateMessageID() throws Exception {
+        setupSession();
+
+        final String messageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture1 = sendRequest(messageID, true);
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture2 = sendRequest(messageID, true);
+
+        verifyErrorRpcResult(resultFuture2.get(), RpcError.ErrorType.PROTOCOL, "operation-failed");
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID));
+        verifyResponseMessage(resultFuture1.get(), messageID);
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        final Timer timer = mock(Timer.class);
+        final Timeout timeout = mock(Timeout.class);
+        final ArgumentCaptor<TimerTask> task = ArgumentCaptor.forClass(TimerTask.class);
+        doReturn(timeout).when(timer).newTimeout(task.capture(), anyLong(), any(TimeUnit.class));
+        communicator = new NetconfDeviceCommunicator(
+                new RemoteDeviceId("test", InetSocketAddress.createUnresolved("localhost", 22)), mockDevice,
+                Optional.absent(), ConcurrentRpcLimiter.create(1), timer, 1000);
+        setupSession();
+
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest();
+        verify(timer).newTimeout(any(TimerTask.class), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+        task.getValue().run(timeout);
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+        assertEquals(0, communicator.getOutstandingRequestCount());
+
+        // The permit has been released
+        final String messageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> nextFuture = sendRequest(messageID, true);
+        assertTrue(nextFuture instanceof UncancellableFuture);
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID));
+        verifyResponseMessage(nextFuture.get(), messageID);
+        // Cancelled once by expiry of the first request and once by the reply to the second one
+        verify(timeout, times(2)).cancel();
+    }
+
+    @Test
+    public void testMalformedDeferredReply() throws Exception {
+        setupSession();
+
+        final String messageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(messageID, true);
+
+        // Beginning of the reply is well-formed, the rest is found broken only when its DOM is built
+        final String xmlStr = "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\""
+                + " message-id=\"" + messageID + "\"><rpc-error><error-type>rpc</rpc-error></rpc-reply>";
+        communicator.onMessage(mockSession,
+            ByteBufNetconfMessage.create(Unpooled.copiedBuffer(xmlStr, StandardCharsets.UTF_8)));
+
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.APPLICATION, "malformed-message");
+        assertEquals(0, communicator.getOutstandingRequestCount());
+    }
+
+    @Test
+    public void testSendRequestNotWritable() throws Exception {
+        setupSession();
+        doReturn(false).when(mockSession).isWritable();
+
+        final String messageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(messageID, true);
+        assertFalse("Request should wait", resultFuture.isDone());
+        assertEquals(1, communicator.getOutstandingRequestCount());
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
+
+        final ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockSession).whenWritable(task.capture(), any(Consumer.class));
+        doReturn(true).when(mockSession).isWritable();
+        task.getValue().run();
+        verify(mockSession).sendMessage(any(NetconfMessage.class));
+
+        communicator.onMessage(mockSession, createSuccessResponseMessage(messageID));
+        verifyResponseMessage(resultFuture.get(), messageID);
+    }
+
+    @Test
+    public void testSendRequestNotWritableSessionDown() throws Exception {
+        setupSession();
+        doReturn(false).when(mockSession).isWritable();
+
+        final String messageID = UUID.randomUUID().toString();
+        final ListenableFuture<RpcResult<NetconfMessage>> resultFuture = sendRequest(messageID, true);
+
+        final ArgumentCaptor<Consumer> onFailure = ArgumentCaptor.forClass(Consumer.class);
+        verify(mockSession).whenWritable(any(Runnable.class), onFailure.capture());
+        onFailure.getValue().accept(new IllegalStateException("Session is down"));
+
+        verifyErrorRpcResult(resultFuture.get(), RpcError.ErrorType.TRANSPORT, "operation-failed");
+        assertEquals(0, communicator.getOutstandingRequestCount());
+        verify(mockSession, never()).sendMessage(any(NetconfMessage.class));
+    }
+
     private static NetconfMessage createErrorResponseMessage(final String messageID) throws Exception {
         String xmlStr = "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\""
                 + "           message-id=\"" + messageID + "\">"
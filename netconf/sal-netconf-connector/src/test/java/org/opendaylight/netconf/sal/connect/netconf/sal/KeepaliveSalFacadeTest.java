@@ -8,6 +8,9 @@
 package org.opendaylight.netconf.sal.connect.netconf.sal;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -21,6 +24,7 @@ import java.net.InetSocketAddress;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -113,6 +117,57 @@ public class KeepaliveSalFacadeTest {
         verify(deviceRpc, timeout(15000).times(5)).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
     }
 
+    @Test
+    public void testKeepaliveSkippedOnActivity() throws Exception {
+        final AtomicLong receivedMessages = new AtomicLong();
+        doAnswer(invocationOnMock -> receivedMessages.incrementAndGet()).when(listener).getReceivedMessageCount();
+
+        keepaliveSalFacade.onDeviceConnected(null, null, deviceRpc);
+
+        // Every check sees new messages, the session is busy
+        verify(deviceRpc, after(4000).never()).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        verify(listener, times(0)).disconnect();
+    }
+
+    @Test
+    public void testKeepaliveRepliesAreNotActivity() throws Exception {
+        final AtomicLong receivedMessages = new AtomicLong();
+        doAnswer(invocationOnMock -> receivedMessages.get()).when(listener).getReceivedMessageCount();
+
+        final DOMRpcResult result = new DefaultDOMRpcResult(Builders.containerBuilder().withNodeIdentifier(
+                new YangInstanceIdentifier.NodeIdentifier(NetconfMessageTransformUtil.NETCONF_RUNNING_QNAME)).build());
+        // The listener counts each keepalive reply before the keepalive sees it
+        doAnswer(invocationOnMock -> {
+            receivedMessages.incrementAndGet();
+            return Futures.immediateCheckedFuture(result);
+        }).when(deviceRpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        keepaliveSalFacade.onDeviceConnected(null, null, deviceRpc);
+
+        // An idle session is probed on every keepalive, not every other one. Each keepalive checks the count once.
+        verify(deviceRpc, timeout(15000).times(4)).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        verify(listener, atMost(6)).getReceivedMessageCount();
+        verify(listener, times(0)).disconnect();
+    }
+
+    @Test
+    public void testKeepaliveMonitoringProbe() throws Exception {
+        keepaliveSalFacade = new KeepaliveSalFacade(REMOTE_DEVICE_ID, underlyingSalFacade, executorServiceSpy, 1L, 1L,
+                new KeepaliveProbing(KeepaliveProbing.Probe.GET_MONITORING));
+        keepaliveSalFacade.setListener(listener);
+
+        final DOMRpcResult result = new DefaultDOMRpcResult(Builders.containerBuilder().withNodeIdentifier(
+                new YangInstanceIdentifier.NodeIdentifier(NetconfMessageTransformUtil.NETCONF_DATA_QNAME)).build());
+        doReturn(Futures.immediateCheckedFuture(result))
+                .when(deviceRpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+
+        keepaliveSalFacade.onDeviceConnected(null, null, deviceRpc);
+
+        verify(deviceRpc, timeout(15000).times(2)).invokeRpc(
+                eq(NetconfMessageTransformUtil.toPath(NetconfMessageTransformUtil.NETCONF_GET_QNAME)),
+                eq(KeepaliveProbing.Probe.GET_MONITORING.getInput()));
+    }
+
     @Test
     public void testKeepaliveRpcFailure() {
 
@@ -13,8 +13,10 @@ import static org.mockito.Mockito.verify;
 
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
@@ -50,6 +52,7 @@ public class NetconfDeviceRpcTest {
     @Mock
     private RemoteDeviceCommunicator<NetconfMessage> communicator;
 
+    private NetconfMessageTransformer transformer;
     private NetconfDeviceRpc rpc;
     private SchemaPath path;
     private DOMRpcResult expectedReply;
@@ -59,7 +62,7 @@ public class NetconfDeviceRpcTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         schema = getSchema();
-        NetconfMessageTransformer transformer = new NetconfMessageTransformer(schema, true);
+        transformer = new NetconfMessageTransformer(schema, true);
         final NetconfMessage reply = new NetconfMessage(XmlUtil.readXmlToDocument(
                 "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
                         + "<rpc-reply xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\" message-id=\"101\">\n"
@@ -84,6 +87,20 @@ public class NetconfDeviceRpcTest {
         Assert.assertEquals(expectedReply, result);
     }
 
+    @Test
+    public void testInvokeRpcOnParserExecutor() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final NetconfDeviceRpc parsingRpc = new NetconfDeviceRpc(schema, communicator, transformer, tasks::add);
+
+        NormalizedNode<?, ?> input = createNode("urn:ietf:params:xml:ns:netconf:base:1.0", "2011-06-01", "filter");
+        final CheckedFuture<DOMRpcResult, DOMRpcException> future = parsingRpc.invokeRpc(path, input);
+        Assert.assertFalse(future.isDone());
+        Assert.assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+        Assert.assertEquals(expectedReply, future.checkedGet());
+    }
+
     @Test
     public void testRegisterRpcListener() throws Exception {
         ArgumentCaptor<Collection> argument = ArgumentCaptor.forClass(Collection.class);
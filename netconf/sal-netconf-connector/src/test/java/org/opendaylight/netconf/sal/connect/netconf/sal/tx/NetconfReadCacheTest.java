@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class NetconfReadCacheTest {
+
+    @Mock
+    private DOMRpcService rpc;
+    private RemoteDeviceId id;
+    private NetconfReadCache readCache;
+    private AtomicInteger reads;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult())).when(rpc).invokeRpc(any(), any());
+        id = new RemoteDeviceId("device1", InetSocketAddress.createUnresolved("0.0.0.0", 17830));
+        readCache = new NetconfReadCache(id, 60000, 10);
+        reads = new AtomicInteger();
+    }
+
+    @Test
+    public void testInvalidatedByCommit() throws Exception {
+        final Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> reader = countingReader(
+            Futures.immediateFuture(Optional.of(TxTestUtils.getContainerNode())));
+        readCache.read(TxTestUtils.getContainerId(), reader);
+        readCache.read(TxTestUtils.getContainerId(), reader);
+        assertEquals(1, reads.get());
+
+        final SchemaContext schemaContext = YangParserTestUtils.parseYangResource("/schemas/test-module.yang");
+        final WriteRunningTx tx = new WriteRunningTx(id, new NetconfBaseOps(rpc, schemaContext), true);
+        readCache.trackTransaction(tx);
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        tx.commit().get();
+
+        readCache.read(TxTestUtils.getContainerId(), reader);
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testReadOverlappingInvalidation() throws Exception {
+        final SettableFuture<Optional<NormalizedNode<?, ?>>> pending = SettableFuture.create();
+        readCache.read(TxTestUtils.getContainerId(), countingReader(pending));
+        readCache.invalidate();
+        pending.set(Optional.of(TxTestUtils.getContainerNode()));
+
+        // Result of the read may predate the invalidation, it must not be cached
+        readCache.read(TxTestUtils.getContainerId(),
+            countingReader(Futures.immediateFuture(Optional.of(TxTestUtils.getContainerNode()))));
+        assertEquals(2, reads.get());
+    }
+
+    private Supplier<ListenableFuture<Optional<NormalizedNode<?, ?>>>> countingReader(
+            final ListenableFuture<Optional<NormalizedNode<?, ?>>> result) {
+        return () -> {
+            reads.incrementAndGet();
+            return result;
+        };
+    }
+}
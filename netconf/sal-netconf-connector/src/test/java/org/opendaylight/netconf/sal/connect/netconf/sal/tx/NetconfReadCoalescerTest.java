@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.net.InetSocketAddress;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
+import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+
+public class NetconfReadCoalescerTest {
+
+    private static final SchemaPath GET_CONFIG =
+            NetconfMessageTransformUtil.toPath(NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME);
+    private static final SchemaPath GET =
+            NetconfMessageTransformUtil.toPath(NetconfMessageTransformUtil.NETCONF_GET_QNAME);
+
+    @Mock
+    private DOMRpcService rpc;
+    private SettableFuture<DOMRpcResult> reply;
+    private NetconfReadCoalescer reads;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        reply = SettableFuture.create();
+        doReturn(reply).when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        final SchemaContext schemaContext = YangParserTestUtils.parseYangResource("/schemas/test-module.yang");
+        final RemoteDeviceId id = new RemoteDeviceId("device1", InetSocketAddress.createUnresolved("0.0.0.0", 17830));
+        reads = new NetconfReadCoalescer(new NetconfBaseOps(rpc, schemaContext), id);
+    }
+
+    @Test
+    public void testSameReads() throws Exception {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> first =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> second =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        //reads of different datastores are not shared
+        reads.read(LogicalDatastoreType.OPERATIONAL, TxTestUtils.getContainerId());
+        verify(rpc).invokeRpc(eq(GET_CONFIG), any(NormalizedNode.class));
+        verify(rpc).invokeRpc(eq(GET), any(NormalizedNode.class));
+
+        //cancelling one of the reads does not affect the other one
+        first.cancel(false);
+        reply.set(createReply());
+        assertEquals(createContainer(), second.get().get());
+
+        //completed reads are not shared
+        reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        verify(rpc, times(2)).invokeRpc(eq(GET_CONFIG), any(NormalizedNode.class));
+    }
+
+    @Test
+    public void testSubtreeRead() throws Exception {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> container =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> leaf =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId());
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> missingLeaf =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getSecondLeafId());
+        verify(rpc).invokeRpc(eq(GET_CONFIG), any(NormalizedNode.class));
+
+        reply.set(createReply());
+        assertEquals(createContainer(), container.get().get());
+        assertEquals(TxTestUtils.getLeafNode(), leaf.get().get());
+        assertFalse(missingLeaf.get().isPresent());
+    }
+
+    @Test
+    public void testReadsAfterSubmitNotJoined() throws Exception {
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> before =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        reads.onTransactionSubmitted(null);
+
+        //neither the same data nor their subtree are served from the read issued before the submission
+        final ListenableFuture<Optional<NormalizedNode<?, ?>>> after =
+                reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId());
+        verify(rpc, times(2)).invokeRpc(eq(GET_CONFIG), any(NormalizedNode.class));
+
+        //reads issued after the submission are joined
+        reads.read(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId());
+        verify(rpc, times(2)).invokeRpc(eq(GET_CONFIG), any(NormalizedNode.class));
+
+        reply.set(createReply());
+        assertEquals(createContainer(), before.get().get());
+        assertEquals(createContainer(), after.get().get());
+    }
+
+    private static ContainerNode createContainer() {
+        return Builders.containerBuilder(TxTestUtils.getContainerNode())
+                .withChild(TxTestUtils.getLeafNode())
+                .build();
+    }
+
+    private static DOMRpcResult createReply() {
+        return new DefaultDOMRpcResult(Builders.containerBuilder()
+                .withNodeIdentifier(NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_QNAME))
+                .withChild(Builders.containerBuilder()
+                        .withNodeIdentifier(NetconfMessageTransformUtil.toId(
+                                NetconfMessageTransformUtil.NETCONF_DATA_QNAME))
+                        .withChild(createContainer())
+                        .build())
+                .build());
+    }
+}
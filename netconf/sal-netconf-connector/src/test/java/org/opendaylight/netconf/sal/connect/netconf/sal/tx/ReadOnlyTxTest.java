@@ -8,9 +8,12 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.util.concurrent.Futures;
@@ -29,7 +32,9 @@ import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 
@@ -89,4 +94,35 @@ public class ReadOnlyTxTest {
                 new ReadOnlyTx(netconfOps, new RemoteDeviceId("a", new InetSocketAddress("localhost", 196)));
         Assert.assertNotEquals(tx1.getIdentifier(), tx2.getIdentifier());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReadCached() throws Exception {
+        final ContainerNode data = Builders.containerBuilder()
+                .withNodeIdentifier(NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_DATA_QNAME))
+                .build();
+        doReturn(Futures.immediateCheckedFuture(new DefaultDOMRpcResult(Builders.containerBuilder()
+                .withNodeIdentifier(NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_QNAME))
+                .withChild(data).build()))).when(rpc).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        final NetconfBaseOps netconfOps = new NetconfBaseOps(rpc, mock(SchemaContext.class));
+        final RemoteDeviceId id = new RemoteDeviceId("a", new InetSocketAddress("localhost", 196));
+        final NetconfReadCache readCache = new NetconfReadCache(id, 60000, 10);
+
+        final ReadOnlyTx readOnlyTx = new ReadOnlyTx(new NetconfReadCoalescer(netconfOps, id), id, readCache);
+        assertEquals(data, readOnlyTx.read(LogicalDatastoreType.CONFIGURATION, PATH).get().get());
+        assertTrue(readOnlyTx.exists(LogicalDatastoreType.CONFIGURATION, PATH).get());
+        verify(rpc).invokeRpc(Mockito.eq(NetconfMessageTransformUtil.toPath(
+                NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME)), any(NormalizedNode.class));
+        assertEquals(1, readCache.getStats().hitCount());
+
+        //operational data is not cached
+        readOnlyTx.read(LogicalDatastoreType.OPERATIONAL, PATH).get();
+        readOnlyTx.read(LogicalDatastoreType.OPERATIONAL, PATH).get();
+        verify(rpc, times(2)).invokeRpc(Mockito.eq(NetconfMessageTransformUtil.toPath(
+                NetconfMessageTransformUtil.NETCONF_GET_QNAME)), any(NormalizedNode.class));
+
+        readCache.invalidate();
+        readOnlyTx.read(LogicalDatastoreType.CONFIGURATION, PATH).get();
+        verify(rpc, times(2)).invokeRpc(Mockito.eq(NetconfMessageTransformUtil.toPath(
+                NetconfMessageTransformUtil.NETCONF_GET_CONFIG_QNAME)), any(NormalizedNode.class));
+    }
+}
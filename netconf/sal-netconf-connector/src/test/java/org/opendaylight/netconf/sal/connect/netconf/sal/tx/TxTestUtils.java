@@ -18,6 +18,7 @@ final class TxTestUtils {
 
     private static final QName Q_NAME_1 = QName.create("test:namespace", "2013-07-22", "c");
     private static final QName Q_NAME_2 = QName.create(Q_NAME_1, "a");
+    private static final QName Q_NAME_3 = QName.create(Q_NAME_1, "b");
 
     private TxTestUtils() {
 
@@ -36,6 +37,13 @@ final class TxTestUtils {
                 .build();
     }
 
+    static YangInstanceIdentifier getSecondLeafId() {
+        return YangInstanceIdentifier.builder()
+                .node(Q_NAME_1)
+                .node(Q_NAME_3)
+                .build();
+    }
+
     static ContainerNode getContainerNode() {
         return Builders.containerBuilder()
                 .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(Q_NAME_1))
@@ -49,4 +57,11 @@ final class TxTestUtils {
                 .build();
     }
 
+    static LeafNode<String> getSecondLeafNode() {
+        return Builders.<String>leafBuilder()
+                .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(Q_NAME_3))
+                .withValue("other")
+                .build();
+    }
+
 }
@@ -11,6 +11,7 @@ package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -65,4 +66,21 @@ public class WriteCandidateTxTest {
         verify(rpc).invokeRpc(eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME)), any());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSubmitBatched() throws Exception {
+        final WriteCandidateTx tx = new WriteCandidateTx(id, netconfOps, true, EditConfigBatching.create(10));
+
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getSecondLeafId(), TxTestUtils.getSecondLeafNode());
+        //check, if edits are held until commit
+        verify(rpc, never())
+                .invokeRpc(eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), any());
+        tx.commit().get();
+        //check, if both edits are sent in a single edit-config
+        verify(rpc, times(1))
+                .invokeRpc(eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), any());
+        verify(rpc).invokeRpc(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME),
+                NetconfMessageTransformUtil.COMMIT_RPC_CONTENT);
+    }
+
+}
@@ -8,6 +8,7 @@
 
 package org.opendaylight.netconf.sal.connect.netconf.sal.tx;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
@@ -17,8 +18,10 @@ import static org.mockito.Mockito.verify;
 
 import com.google.common.util.concurrent.Futures;
 import java.net.InetSocketAddress;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -27,9 +30,14 @@ import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
 import org.opendaylight.netconf.sal.connect.util.RemoteDeviceId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
 import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+import org.w3c.dom.Element;
 
 public class WriteRunningTxTest {
 
@@ -65,4 +73,35 @@ public class WriteRunningTxTest {
         //check, if unlock is called
         verify(rpc).invokeRpc(eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_UNLOCK_QNAME)), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSubmitBatched() throws Exception {
+        final WriteRunningTx tx = new WriteRunningTx(id, netconfOps, true, EditConfigBatching.create(10));
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId(), TxTestUtils.getLeafNode());
+        tx.merge(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getSecondLeafId(), TxTestUtils.getSecondLeafNode());
+        //overlaps with both merges
+        tx.put(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getContainerId(), TxTestUtils.getContainerNode());
+        //needs different default operation
+        tx.delete(LogicalDatastoreType.CONFIGURATION, TxTestUtils.getLeafId());
+        tx.commit().get();
+
+        final ArgumentCaptor<NormalizedNode> captor = ArgumentCaptor.forClass(NormalizedNode.class);
+        verify(rpc, times(3)).invokeRpc(
+                eq(SchemaPath.create(true, NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME)), captor.capture());
+        final List<NormalizedNode> edits = captor.getAllValues();
+        //both merges share the container
+        final Element merges = getConfigElement(edits.get(0));
+        assertEquals(1, merges.getElementsByTagNameNS("test:namespace", "c").getLength());
+        assertEquals(1, merges.getElementsByTagNameNS("test:namespace", "a").getLength());
+        assertEquals(1, merges.getElementsByTagNameNS("test:namespace", "b").getLength());
+        assertEquals(1, getConfigElement(edits.get(1)).getElementsByTagNameNS("test:namespace", "c").getLength());
+        assertEquals(1, getConfigElement(edits.get(2)).getElementsByTagNameNS("test:namespace", "a").getLength());
+    }
+
+    private static Element getConfigElement(final NormalizedNode<?, ?> editConfig) {
+        final AnyXmlNode config = (AnyXmlNode) NormalizedNodes.findNode(editConfig,
+                NetconfMessageTransformUtil.toId(EditContent.QNAME),
+                NetconfMessageTransformUtil.toId(NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME)).get();
+        return (Element) config.getValue().getNode();
+    }
+}
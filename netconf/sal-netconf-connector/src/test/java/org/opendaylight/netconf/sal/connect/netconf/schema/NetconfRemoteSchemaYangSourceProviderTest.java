@@ -8,14 +8,20 @@
 package org.opendaylight.netconf.sal.connect.netconf.schema;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.dom.DOMSource;
 import org.junit.Assert;
@@ -24,6 +30,7 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcException;
+import org.opendaylight.controller.md.sal.dom.api.DOMRpcImplementationNotAvailableException;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcService;
 import org.opendaylight.controller.md.sal.dom.spi.DefaultDOMRpcResult;
@@ -75,6 +82,40 @@ public class NetconfRemoteSchemaYangSourceProviderTest {
         );
     }
 
+    @Test
+    public void testGetSourceWindow() throws Exception {
+        final List<SettableFuture<DOMRpcResult>> replies = new ArrayList<>();
+        doAnswer(invocation -> {
+            final SettableFuture<DOMRpcResult> reply = SettableFuture.create();
+            replies.add(reply);
+            return Futures.makeChecked(reply, e -> new DOMRpcImplementationNotAvailableException(e, "failed"));
+        }).when(service).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        provider = new NetconfRemoteSchemaYangSourceProvider(
+                new RemoteDeviceId("device1", InetSocketAddress.createUnresolved("localhost", 17830)), service, 2);
+
+        final SourceIdentifier first = RevisionSourceIdentifier.create("first");
+        final ListenableFuture<YangTextSchemaSource> firstSource = provider.getSource(first);
+        final ListenableFuture<YangTextSchemaSource> secondSource =
+                provider.getSource(RevisionSourceIdentifier.create("second"));
+        final ListenableFuture<YangTextSchemaSource> thirdSource =
+                provider.getSource(RevisionSourceIdentifier.create("third"));
+
+        // Third request waits for one of the first two to complete
+        verify(service, times(2)).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        Assert.assertEquals(1, provider.getQueueDepth());
+
+        replies.get(0).set(new DefaultDOMRpcResult(getNode(), Collections.emptySet()));
+        Assert.assertEquals(first, firstSource.get().getIdentifier());
+        verify(service, times(3)).invokeRpc(any(SchemaPath.class), any(NormalizedNode.class));
+        Assert.assertEquals(0, provider.getQueueDepth());
+        Assert.assertTrue(provider.getDownloadTimes().containsKey(first));
+
+        replies.get(1).setException(new IllegalStateException("Session down"));
+        Assert.assertTrue(secondSource.isDone());
+        Assert.assertFalse(thirdSource.isDone());
+        Assert.assertEquals(1, provider.getDownloadTimes().size());
+    }
+
     private static NormalizedNode<?, ?> getNode() throws ParserConfigurationException {
         final YangInstanceIdentifier.NodeIdentifier id = YangInstanceIdentifier.NodeIdentifier.create(
                 QName.create("urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring", "2010-10-04", "output")
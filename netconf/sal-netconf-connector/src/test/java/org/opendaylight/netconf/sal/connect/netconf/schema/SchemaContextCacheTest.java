@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaContextFactory;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaResolutionException;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+
+public class SchemaContextCacheTest {
+    private static final List<SourceIdentifier> SOURCES = ImmutableList.of(
+        RevisionSourceIdentifier.create("a"), RevisionSourceIdentifier.create("b"));
+    private static final List<SourceIdentifier> REORDERED = ImmutableList.of(
+        RevisionSourceIdentifier.create("b"), RevisionSourceIdentifier.create("a"));
+
+    private SchemaContextFactory factory;
+    private SchemaContext schemaContext;
+    private SchemaContextCache cache;
+
+    @Before
+    public void setUp() {
+        factory = mock(SchemaContextFactory.class);
+        schemaContext = mock(SchemaContext.class);
+        cache = SchemaContextCache.forFactory(factory);
+    }
+
+    @Test
+    public void testSharedPerFactory() {
+        assertSame(cache, SchemaContextCache.forFactory(factory));
+        assertNotSame(cache, SchemaContextCache.forFactory(mock(SchemaContextFactory.class)));
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        doReturn(Futures.immediateFuture(schemaContext)).when(factory).createSchemaContext(any(Collection.class));
+
+        assertSame(schemaContext, cache.createSchemaContext(SOURCES).get());
+        assertSame(schemaContext, cache.createSchemaContext(REORDERED).get());
+
+        verify(factory).createSchemaContext(any(Collection.class));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testConcurrentBuildShared() throws Exception {
+        final SettableFuture<SchemaContext> building = SettableFuture.create();
+        doReturn(building).when(factory).createSchemaContext(any(Collection.class));
+
+        final ListenableFuture<SchemaContext> first = cache.createSchemaContext(SOURCES);
+        final ListenableFuture<SchemaContext> second = cache.createSchemaContext(SOURCES);
+        assertFalse(second.isDone());
+
+        building.set(schemaContext);
+        assertSame(schemaContext, first.get());
+        assertSame(schemaContext, second.get());
+        verify(factory).createSchemaContext(any(Collection.class));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testFailureNotCached() throws Exception {
+        doReturn(Futures.immediateFailedFuture(new SchemaResolutionException("fail")))
+            .doReturn(Futures.immediateFuture(schemaContext)).when(factory).createSchemaContext(any(Collection.class));
+
+        assertTrue(cache.createSchemaContext(SOURCES).isDone());
+        assertSame(schemaContext, cache.createSchemaContext(SOURCES).get());
+        verify(factory, times(2)).createSchemaContext(any(Collection.class));
+        assertEquals(2, cache.getMissCount());
+    }
+}
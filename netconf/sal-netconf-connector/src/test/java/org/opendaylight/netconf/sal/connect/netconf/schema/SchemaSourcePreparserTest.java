@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.rfc7950.repo.ASTSchemaSource;
+
+public class SchemaSourcePreparserTest {
+    private static final SourceIdentifier WITH_REVISION =
+            RevisionSourceIdentifier.create("module", Revision.of("2018-01-01"));
+    private static final SourceIdentifier WITHOUT_REVISION = RevisionSourceIdentifier.create("other");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testListCachedSources() throws Exception {
+        createCachedFiles();
+
+        assertEquals(ImmutableSet.of(WITH_REVISION, WITHOUT_REVISION),
+            ImmutableSet.copyOf(SchemaSourcePreparser.listCachedSources(folder.getRoot())));
+    }
+
+    @Test
+    public void testListMissingDirectory() {
+        assertTrue(SchemaSourcePreparser.listCachedSources(new File(folder.getRoot(), "missing")).isEmpty());
+    }
+
+    @Test
+    public void testPreparse() throws Exception {
+        createCachedFiles();
+        final SchemaRepository repository = mock(SchemaRepository.class);
+        doReturn(Futures.immediateFailedFuture(new IllegalStateException("Broken source")))
+            .when(repository).getSchemaSource(any(SourceIdentifier.class), eq(ASTSchemaSource.class));
+
+        SchemaSourcePreparser.preparse(repository, folder.getRoot());
+
+        verify(repository, timeout(5000)).getSchemaSource(WITH_REVISION, ASTSchemaSource.class);
+        verify(repository, timeout(5000)).getSchemaSource(WITHOUT_REVISION, ASTSchemaSource.class);
+    }
+
+    private void createCachedFiles() throws Exception {
+        folder.newFile("module@2018-01-01.yang");
+        folder.newFile("other.yang");
+        folder.newFile("invalid@revision.yang");
+        folder.newFile("readme.txt");
+        folder.newFolder("nested.yang");
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.notifications.rev120206.NetconfCapabilityChange;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+public class MessageTransformerSchemaTest {
+    private static final SchemaContext SCHEMA_CONTEXT =
+            BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getSchemaContext();
+
+    @Test
+    public void testSharedPerSchemaContext() {
+        final MessageTransformerSchema schema = MessageTransformerSchema.forSchemaContext(SCHEMA_CONTEXT);
+        assertSame(schema, MessageTransformerSchema.forSchemaContext(SCHEMA_CONTEXT));
+        assertSame(schema, BaseSchema.BASE_NETCONF_CTX_WITH_NOTIFICATIONS.getTransformerSchema());
+        assertSame(SCHEMA_CONTEXT, schema.getSchemaContext());
+    }
+
+    @Test
+    public void testDerivedNodes() {
+        final MessageTransformerSchema schema = MessageTransformerSchema.forSchemaContext(SCHEMA_CONTEXT);
+        assertEquals(NetconfMessageTransformUtil.NETCONF_DATA_QNAME, schema.getDataRead().getQName());
+        assertEquals(SCHEMA_CONTEXT.getChildNodes().size(), schema.getDataRead().getChildNodes().size());
+
+        final QName lock = NetconfMessageTransformUtil.NETCONF_LOCK_QNAME;
+        assertEquals(NetconfMessageTransformUtil.toPath(lock).createChild(QName.create(lock, "input")),
+            schema.getRpcInputPath(lock));
+        assertNull(schema.getRpcInputPath(QName.create(lock, "unknown")));
+
+        final ContainerSchemaNode notification =
+                schema.getNotificationSchema(NetconfCapabilityChange.QNAME.withoutRevision());
+        assertNotNull(notification);
+        assertEquals(NetconfCapabilityChange.QNAME, notification.getQName());
+        assertSame(notification, schema.getNotificationSchema(NetconfCapabilityChange.QNAME.withoutRevision()));
+    }
+}
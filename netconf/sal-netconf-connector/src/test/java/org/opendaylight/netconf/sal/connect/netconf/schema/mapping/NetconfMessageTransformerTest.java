@@ -9,6 +9,7 @@
 package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -18,6 +19,7 @@ import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTr
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.GET_SCHEMA_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CANDIDATE_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_COMMIT_QNAME;
+import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_CONFIG_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_DATA_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_DISCARD_CHANGES_QNAME;
 import static org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil.NETCONF_EDIT_CONFIG_QNAME;
@@ -34,7 +36,10 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -47,12 +52,17 @@ import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.dom.api.DOMRpcResult;
 import org.opendaylight.mdsal.binding.generator.impl.ModuleInfoBackedContext;
+import org.opendaylight.netconf.api.ByteBufNetconfMessage;
 import org.opendaylight.netconf.api.NetconfMessage;
+import org.opendaylight.netconf.api.WritableNetconfMessage;
 import org.opendaylight.netconf.api.xml.XmlUtil;
+import org.opendaylight.netconf.nettyutil.handler.NetconfMessageToXMLEncoder;
 import org.opendaylight.netconf.sal.connect.netconf.schema.NetconfRemoteSchemaYangSourceProvider;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfBaseOps;
 import org.opendaylight.netconf.sal.connect.netconf.util.NetconfMessageTransformUtil;
+import org.opendaylight.netconf.sal.connect.netconf.util.NormalizedConfigSource;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.$YangModuleInfoImpl;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.netconf.base._1._0.rev110601.edit.config.input.EditContent;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.NetconfState;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Capabilities;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.monitoring.rev101004.netconf.state.Schemas;
@@ -60,6 +70,7 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.netconf.mon
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
@@ -70,6 +81,26 @@ import org.xml.sax.SAXException;
 
 public class NetconfMessageTransformerTest {
 
+    private static final String EDIT_CONFIG_REQUEST =
+            "<rpc message-id=\"m-0\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+            + "<edit-config>\n"
+            + "<target>\n"
+            + "<candidate/>\n"
+            + "</target>\n"
+            + "<config>\n"
+            + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n"
+            + "<schemas>\n"
+            + "<schema>\n"
+            + "<identifier>module</identifier>\n"
+            + "<version>2012-12-12</version>\n"
+            + "<format>yang</format>\n"
+            + "</schema>\n"
+            + "</schemas>\n"
+            + "</netconf-state>\n"
+            + "</config>\n"
+            + "</edit-config>\n"
+            + "</rpc>";
+
     private NetconfMessageTransformer netconfMessageTransformer;
     private SchemaContext schema;
 
@@ -143,6 +174,27 @@ public class NetconfMessageTransformerTest {
                 + "</rpc>");
     }
 
+    @Test
+    public void testGetSchemaRequestWithoutDom() throws Exception {
+        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(GET_SCHEMA_QNAME),
+                NetconfRemoteSchemaYangSourceProvider.createGetSchemaRequest("module", Optional.of("2012-12-12")));
+        assertTrue(netconfMessage instanceof WritableNetconfMessage);
+
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, netconfMessage, out);
+        assertFalse(((WritableNetconfMessage) netconfMessage).isDocumentBuilt());
+
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument(out.toString(StandardCharsets.UTF_8)),
+            XmlUtil.readXmlToDocument("<rpc message-id=\"m-0\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">"
+                + "<get-schema xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">"
+                + "<format>yang</format>"
+                + "<identifier>module</identifier>"
+                + "<version>2012-12-12</version>"
+                + "</get-schema>"
+                + "</rpc>"));
+        assertTrue(diff.toString(), diff.similar());
+    }
+
     @Test
     public void tesGetSchemaResponse() throws Exception {
         final NetconfMessageTransformer transformer = getTransformer(getSchema(true));
@@ -213,6 +265,36 @@ public class NetconfMessageTransformerTest {
         assertEquals(schemaNode, schemaParent.getValue().iterator().next());
     }
 
+    @Test
+    public void testGetConfigResponseWithoutDom() throws Exception {
+        final String reply = "<rpc-reply message-id=\"101\"\n"
+                + "xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
+                + "<data>\n"
+                + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n"
+                + "<schemas>\n"
+                + "<schema>\n"
+                + "<identifier>module</identifier>\n"
+                + "<version>2012-12-12</version>\n"
+                + "<format xmlns:x=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">x:yang</format>\n"
+                + "</schema>\n"
+                + "</schemas>\n"
+                + "</netconf-state>\n"
+                + "</data>\n"
+                + "</rpc-reply>";
+        final ByteBufNetconfMessage response = ByteBufNetconfMessage.create(
+                Unpooled.wrappedBuffer(reply.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("101", response.getMessageId());
+        assertEquals("data", response.getFirstChildElementName());
+
+        final NetconfMessageTransformer transformer = getTransformer(getSchema(true));
+        final DOMRpcResult streamResult = transformer.toRpcResult(response, toPath(NETCONF_GET_CONFIG_QNAME));
+        assertFalse(response.isDocumentParsed());
+
+        final DOMRpcResult domResult = transformer.toRpcResult(
+                new NetconfMessage(XmlUtil.readXmlToDocument(reply)), toPath(NETCONF_GET_CONFIG_QNAME));
+        assertEquals(domResult.getResult(), streamResult.getResult());
+    }
+
     @Test
     public void testGetConfigRequest() throws Exception {
         final DataContainerChild<?, ?> filter = toFilterStructure(
@@ -239,6 +321,33 @@ public class NetconfMessageTransformerTest {
 
     @Test
     public void testEditConfigRequest() throws Exception {
+        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME),
+                createEditConfigInput());
+
+        assertSimilarXml(netconfMessage, EDIT_CONFIG_REQUEST);
+    }
+
+    @Test
+    public void testEditConfigRequestWithoutDom() throws Exception {
+        final ContainerNode input = createEditConfigInput();
+        final NetconfMessage netconfMessage = netconfMessageTransformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME),
+                input);
+
+        final ByteBuf out = Unpooled.buffer();
+        new NetconfMessageToXMLEncoder().encode(null, netconfMessage, out);
+        assertFalse(((WritableNetconfMessage) netconfMessage).isDocumentBuilt());
+
+        final DOMSource config = ((AnyXmlNode) ((ChoiceNode) input.getChild(toId(EditContent.QNAME)).get())
+                .getChild(toId(NETCONF_CONFIG_QNAME)).get()).getValue();
+        assertTrue(config instanceof NormalizedConfigSource);
+
+        final Diff diff = XMLUnit.compareXML(XmlUtil.readXmlToDocument(out.toString(StandardCharsets.UTF_8)),
+            XmlUtil.readXmlToDocument(EDIT_CONFIG_REQUEST));
+        diff.overrideElementQualifier(new ElementNameAndAttributeQualifier());
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    private static ContainerNode createEditConfigInput() {
         final List<DataContainerChild<? extends YangInstanceIdentifier.PathArgument, ?>> values = Lists.newArrayList(
                 NetconfRemoteSchemaYangSourceProvider
                         .createGetSchemaRequest("module", Optional.of("2012-12-12")).getValue());
@@ -262,29 +371,7 @@ public class NetconfMessageTransformerTest {
 
         final DataContainerChild<?, ?> target = NetconfBaseOps.getTargetNode(NETCONF_CANDIDATE_QNAME);
 
-        final ContainerNode wrap =
-                NetconfMessageTransformUtil.wrap(NETCONF_EDIT_CONFIG_QNAME, editConfigStructure, target);
-        final NetconfMessage netconfMessage =
-                netconfMessageTransformer.toRpcRequest(toPath(NETCONF_EDIT_CONFIG_QNAME), wrap);
-
-        assertSimilarXml(netconfMessage, "<rpc message-id=\"m-0\" xmlns=\"urn:ietf:params:xml:ns:netconf:base:1.0\">\n"
-                + "<edit-config>\n"
-                + "<target>\n"
-                + "<candidate/>\n"
-                + "</target>\n"
-                + "<config>\n"
-                + "<netconf-state xmlns=\"urn:ietf:params:xml:ns:yang:ietf-netconf-monitoring\">\n"
-                + "<schemas>\n"
-                + "<schema>\n"
-                + "<identifier>module</identifier>\n"
-                + "<version>2012-12-12</version>\n"
-                + "<format>yang</format>\n"
-                + "</schema>\n"
-                + "</schemas>\n"
-                + "</netconf-state>\n"
-                + "</config>\n"
-                + "</edit-config>\n"
-                + "</rpc>");
+        return NetconfMessageTransformUtil.wrap(NETCONF_EDIT_CONFIG_QNAME, editConfigStructure, target);
     }
 
     private static void assertSimilarXml(final NetconfMessage netconfMessage, final String xmlContent)
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.netconf.schema.mapping;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.test.util.YangParserTestUtils;
+import org.xml.sax.SAXParseException;
+
+public class SchemaContextEXIGrammarsTest {
+    private static final String TOPOLOGY_NS = "urn:TBD:params:xml:ns:yang:network-topology";
+    private static final String AUGMENT_NS = "urn:TBD:params:xml:ns:yang:network-topology-augment-test";
+    private static final String RPC_NS = "urn:opendaylight:params:xml:ns:yang:controller:md:sal:test:rpc:config:defs";
+
+    private static Map<URI, String> xsds;
+    private static Schema schema;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        final SchemaContext schemaContext = YangParserTestUtils.parseYangResources(
+            SchemaContextEXIGrammarsTest.class, "/schemas/network-topology@2013-10-21.yang",
+            "/schemas/ietf-inet-types@2013-07-15.yang", "/schemas/yang-ext.yang",
+            "/schemas/network-topology-augment-test@2016-08-08.yang", "/schemas/config-test-rpc.yang");
+        xsds = SchemaContextEXIGrammars.toXsd(schemaContext);
+
+        final Source[] sources = xsds.values().stream().map(xsd -> new StreamSource(new StringReader(xsd)))
+                .toArray(Source[]::new);
+        schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(sources);
+    }
+
+    @Test
+    public void testNamespaces() {
+        assertTrue(xsds.containsKey(URI.create(TOPOLOGY_NS)));
+        assertTrue(xsds.containsKey(URI.create(RPC_NS)));
+        // Only augmentations, no top-level elements
+        assertFalse(xsds.containsKey(URI.create(AUGMENT_NS)));
+        assertNotNull(schema);
+    }
+
+    @Test
+    public void testDataValidates() throws Exception {
+        validate("<network-topology xmlns=\"" + TOPOLOGY_NS + "\">"
+            + "<topology><topology-id>t</topology-id>"
+            + "<node xmlns:nc=\"urn:ietf:params:xml:ns:netconf:base:1.0\" nc:operation=\"merge\">"
+            + "<node-id>n</node-id><test-id xmlns=\"" + AUGMENT_NS + "\">1</test-id></node>"
+            + "<node><node-id>m</node-id></node>"
+            + "</topology></network-topology>");
+    }
+
+    @Test
+    public void testRpcValidates() throws Exception {
+        validate("<edit-config xmlns=\"" + RPC_NS + "\"><config><any xmlns=\"urn:foo\">text</any></config>"
+            + "<target><running/></target></edit-config>");
+    }
+
+    @Test(expected = SAXParseException.class)
+    public void testUnknownChildRejected() throws Exception {
+        validate("<network-topology xmlns=\"" + TOPOLOGY_NS + "\"><unknown/></network-topology>");
+    }
+
+    private static void validate(final String xml) throws Exception {
+        schema.newValidator().validate(new StreamSource(new StringReader(xml)));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.netconf.sal.connect.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class NetconfParserExecutorTest {
+    @Test
+    public void testDirect() {
+        final NetconfParserExecutor executor = NetconfParserExecutor.create(0);
+        assertEquals(0, executor.getThreads());
+        assertSame(MoreExecutors.directExecutor(), executor.getExecutor());
+    }
+
+    @Test
+    public void testPool() throws Exception {
+        final NetconfParserExecutor executor = NetconfParserExecutor.create(2);
+        assertEquals(2, executor.getThreads());
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        // Both tasks have to run concurrently for either of them to finish
+        final Runnable task = () -> {
+            latch.countDown();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        executor.getExecutor().execute(task);
+        executor.getExecutor().execute(task);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        executor.close();
+    }
+
+    @Test
+    public void testClose() {
+        final NetconfParserExecutor executor = NetconfParserExecutor.create(1);
+        executor.close();
+        assertTrue(((ExecutorService) executor.getExecutor()).isShutdown());
+
+        // Closing a direct executor is a no-op
+        NetconfParserExecutor.create(0).close();
+    }
+
+    @Test
+    public void testThreadNames() throws Exception {
+        final NetconfParserExecutor executor = NetconfParserExecutor.create(1, "notification");
+        final Future<String> name = ((ExecutorService) executor.getExecutor())
+                .submit(() -> Thread.currentThread().getName());
+        assertEquals("netconf-notification-0", name.get(5, TimeUnit.SECONDS));
+        executor.close();
+    }
+}